@@ -0,0 +1,40 @@
+package neptunilus.blueprint.sa.common.bulk;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * The outcome of a single item of a bulk operation.
+ */
+@Value
+public class BulkItemResult {
+
+    /**
+     * The position of the item in the bulk request.
+     */
+    int index;
+
+    /**
+     * The id of the created item ({@code null} if failed).
+     */
+    UUID id;
+
+    /**
+     * The reason why the item failed ({@code null} if created).
+     */
+    String error;
+
+    public static BulkItemResult created(final int index, final UUID id) {
+        return new BulkItemResult(index, id, null);
+    }
+
+    public static BulkItemResult failed(final int index, final String error) {
+        return new BulkItemResult(index, null, error);
+    }
+
+    public boolean isCreated() {
+        return this.error == null;
+    }
+
+}
@@ -0,0 +1,72 @@
+package neptunilus.blueprint.sa.common.bulk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Splitting of (large) collections into chunks for set-based statements with bounded parameter lists.
+ */
+public final class Chunks {
+
+    /**
+     * The maximum number of items per chunk.
+     */
+    public static final int SIZE = 1000;
+
+    /**
+     * The maximum number of items of a bulk request (so that its lookups and its transaction stay bounded).
+     */
+    public static final int MAX_BULK_ITEMS = 5000;
+
+    private Chunks() {
+    }
+
+    /**
+     * Applies the action to the distinct (non {@code null}) items in chunks of {@link #SIZE}.
+     *
+     * @param items  The items
+     * @param action The action for a chunk, returning the number of affected rows
+     * @param <T>    The type of the items
+     * @return The total number of affected rows
+     */
+    public static <T> long sum(final Collection<T> items, final ToIntFunction<List<T>> action) {
+        final List<T> distinctItems = distinct(items);
+
+        long total = 0;
+        for (int from = 0; from < distinctItems.size(); from += SIZE) {
+            total += action.applyAsInt(distinctItems.subList(from, Math.min(from + SIZE, distinctItems.size())));
+        }
+        return total;
+    }
+
+    /**
+     * Applies the query to the distinct (non {@code null}) items in chunks of {@link #SIZE}.
+     *
+     * @param items The items
+     * @param query The query for a chunk
+     * @param <T>   The type of the items
+     * @param <R>   The type of the results
+     * @return The results of all chunks
+     */
+    public static <T, R> List<R> collect(final Collection<T> items, final Function<List<T>, ? extends Collection<R>> query) {
+        final List<T> distinctItems = distinct(items);
+
+        final List<R> results = new ArrayList<>();
+        for (int from = 0; from < distinctItems.size(); from += SIZE) {
+            results.addAll(query.apply(distinctItems.subList(from, Math.min(from + SIZE, distinctItems.size()))));
+        }
+        return results;
+    }
+
+    private static <T> List<T> distinct(final Collection<T> items) {
+        final List<T> distinctItems = new ArrayList<>(new LinkedHashSet<>(items));
+        distinctItems.removeIf(Objects::isNull);
+        return distinctItems;
+    }
+
+}
@@ -0,0 +1,46 @@
+package neptunilus.blueprint.sa.common.cache;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory counter of the changes to a table, as a cheap version of whole listings (e.g. for their ETags).
+ * <p>
+ * Only changes made by this instance are counted and the counter starts again with every restart,
+ * so it has to be combined with an identifier of the instance to tell versions apart.
+ */
+public class ChangeCounter {
+
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Returns the number of changes so far.
+     *
+     * @return The number of changes
+     */
+    public long get() {
+        return this.count.get();
+    }
+
+    /**
+     * Counts a change.
+     * <p>
+     * If called within a transaction, the change is counted again after completion, so that concurrent
+     * listings which still read the old state cannot be tagged with the new count.
+     */
+    public void changed() {
+        this.count.incrementAndGet();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(final int status) {
+                    ChangeCounter.this.count.incrementAndGet();
+                }
+            });
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package neptunilus.blueprint.sa.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Short living cache for the total counts of paginated listings, keyed by their filter (e.g. search and category).
+ * <p>
+ * Counts are not updated on changes, the whole cache has to be invalidated as soon as entities are added or removed.
+ */
+public class CountCache {
+
+    private final Cache<List<?>, Long> cache;
+
+    public CountCache(final long maximumSize, final long expirationInSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expirationInSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Turns the slice into a page, counting the total only if it cannot be derived from the slice itself
+     * (e.g. for a single or the last page).
+     *
+     * @param slice   The slice
+     * @param filter  The filter the slice was selected with
+     * @param counter The count query for the filter
+     * @param <T>     The type of the elements
+     * @return The page
+     */
+    public <T> Page<T> toPage(final Slice<T> slice, final List<?> filter, final LongSupplier counter) {
+        return PageableExecutionUtils.getPage(slice.getContent(), slice.getPageable(), () -> get(filter, counter));
+    }
+
+    /**
+     * Returns the total count for the given filter, counting if not cached yet.
+     *
+     * @param filter  The filter
+     * @param counter The count query for the filter
+     * @return The total count
+     */
+    public long get(final List<?> filter, final LongSupplier counter) {
+        return this.cache.get(filter, key -> counter.getAsLong());
+    }
+
+    /**
+     * Removes all cached counts.
+     * <p>
+     * If called within a transaction, the counts are removed again after completion, so that concurrent
+     * listings cannot keep the old totals cached.
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(final int status) {
+                    CountCache.this.cache.invalidateAll();
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the statistics (hits, misses, evictions, ...) of the cache.
+     *
+     * @return The statistics
+     */
+    public CacheStats getStats() {
+        return this.cache.stats();
+    }
+
+}
@@ -0,0 +1,420 @@
+package neptunilus.blueprint.sa.common.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory scalable Bloom filter of existing values (e.g. unique names), to answer lookups of missing values without
+ * querying the database.
+ * <p>
+ * The filter never reports an existing value as missing, as long as all writes of this instance are registered via
+ * {@link #put(String)}. Values cannot be removed, removals only make the filter stale (i.e. more false positives) until
+ * it is rebuilt from a scan of the existing values. Before the first build, every value is reported as possibly existing.
+ * <p>
+ * Puts during a rebuild go into both the current and the pending filter, and the swap of both is exclusive to them, so
+ * that no put can end up in the replaced filter only. Asynchronous rebuilds run on a dedicated thread of the filter,
+ * as the scan blocks on the database.
+ */
+public class ExistenceFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExistenceFilter.class);
+
+    private static final double LN2 = Math.log(2);
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final double STALE_RATIO = 0.25;
+
+    private final String name;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Consumer<Consumer<String>> scan;
+
+    private final ExecutorService rebuildExecutor;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final AtomicLong staleCount = new AtomicLong();
+
+    private volatile Stages current;
+    private volatile Stages pending;
+
+    /**
+     * Creates the filter, still to be built.
+     *
+     * @param name               The name of the filter (for logging)
+     * @param expectedInsertions The number of values the first stage is sized for, further stages double the capacity
+     * @param falsePositiveRate  The targeted overall false positive rate
+     * @param scan               The scan passing all existing values to the given consumer
+     */
+    public ExistenceFilter(final String name, final long expectedInsertions, final double falsePositiveRate,
+                           final Consumer<Consumer<String>> scan) {
+        this.name = name;
+        this.expectedInsertions = Math.max(1, expectedInsertions);
+        this.falsePositiveRate = falsePositiveRate;
+        this.scan = scan;
+
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(String.format("existence-filter-%s-", name));
+        threadFactory.setDaemon(true);
+        this.rebuildExecutor = new ThreadPoolExecutor(0, 1, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), threadFactory);
+    }
+
+    /**
+     * Creates a scan of the streamed values, consumed within a read-only transaction.
+     *
+     * @param transactionManager The transaction manager
+     * @param values             The stream of all existing values (e.g. a repository finder)
+     * @return The scan
+     */
+    public static Consumer<Consumer<String>> scanning(final PlatformTransactionManager transactionManager,
+                                                      final Supplier<Stream<String>> values) {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return consumer -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> stream = values.get()) {
+                stream.forEach(consumer);
+            }
+        });
+    }
+
+    /**
+     * Checks if the value might exist.
+     *
+     * @param value The value
+     * @return {@code false} if the value definitely does not exist
+     */
+    public boolean mightContain(final String value) {
+        final Stages stages = this.current;
+        return stages == null || value == null || stages.mightContain(hash(value));
+    }
+
+    /**
+     * Registers a written value.
+     * <p>
+     * If called within a transaction, the value is registered again after commit, so that a concurrent rebuild
+     * which started before cannot miss it.
+     *
+     * @param value The value
+     */
+    public void put(final String value) {
+        if (value == null) {
+            return;
+        }
+        final long hash = hash(value);
+        putIntoAll(hash);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    putIntoAll(hash);
+                }
+            });
+        }
+    }
+
+    /**
+     * Registers removed (or renamed) values, triggering an asynchronous rebuild once too many entries are stale.
+     *
+     * @param count The number of removed values
+     */
+    public void removed(final long count) {
+        if (count <= 0) {
+            return;
+        }
+        final Stages stages = this.current;
+        final long stale = this.staleCount.addAndGet(count);
+        if (stages != null && stale > STALE_RATIO * Math.max(this.expectedInsertions, stages.count())) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * (Re)builds the filter from a full scan, replacing the current one afterwards.
+     */
+    public void rebuild() {
+        if (!this.rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final Stages stages = new Stages(this.expectedInsertions, this.falsePositiveRate);
+            swap(() -> {
+                this.pending = stages;
+                this.staleCount.set(0);
+            });
+
+            final long start = System.nanoTime();
+            this.scan.accept(value -> stages.put(hash(value)));
+
+            swap(() -> {
+                this.current = stages;
+                this.pending = null;
+            });
+            LOGGER.info("built existence filter '{}' with {} values in {} ms ({} bytes, expected false positive rate {})",
+                    this.name, this.current.count(), (System.nanoTime() - start) / 1_000_000,
+                    getMemoryInBytes(), getExpectedFalsePositiveRate());
+        } finally {
+            swap(() -> this.pending = null);
+            this.rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Returns the name (for logging and metrics).
+     *
+     * @return The name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the number of registered values (including stale ones).
+     *
+     * @return The number of values
+     */
+    public long getCount() {
+        final Stages stages = this.current;
+        return stages == null ? 0 : stages.count();
+    }
+
+    /**
+     * Returns the number of values registered as removed since the last build.
+     *
+     * @return The number of stale values
+     */
+    public long getStaleCount() {
+        return this.staleCount.get();
+    }
+
+    /**
+     * Returns the expected false positive rate, based on the actual fill of the stages.
+     *
+     * @return The false positive rate ({@code 1} if not built yet)
+     */
+    public double getExpectedFalsePositiveRate() {
+        final Stages stages = this.current;
+        return stages == null ? 1 : stages.expectedFalsePositiveRate();
+    }
+
+    /**
+     * Returns the memory used by the bits of the stages.
+     *
+     * @return The memory in bytes
+     */
+    public long getMemoryInBytes() {
+        final Stages stages = this.current;
+        return stages == null ? 0 : stages.memoryInBytes();
+    }
+
+    private void putIntoAll(final long hash) {
+        this.swapLock.readLock().lock();
+        try {
+            final Stages stages = this.current;
+            if (stages != null) {
+                stages.put(hash);
+            }
+            final Stages pendingStages = this.pending;
+            if (pendingStages != null) {
+                pendingStages.put(hash);
+            }
+        } finally {
+            this.swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Changes the current or pending filter exclusively to the puts.
+     */
+    private void swap(final Runnable change) {
+        this.swapLock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            this.swapLock.writeLock().unlock();
+        }
+    }
+
+    private void rebuildAsync() {
+        if (this.rebuilding.get()) {
+            return;
+        }
+        CompletableFuture.runAsync(this::rebuild, this.rebuildExecutor).exceptionally(e -> {
+            LOGGER.warn("rebuilding existence filter '{}' failed: {}", this.name, e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * 64 bit hash of the characters (FNV-1a, finalized with the mixing step of MurmurHash3).
+     */
+    private static long hash(final String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Growing list of Bloom filters, each with double the capacity and half the false positive rate of the previous one.
+     */
+    private static final class Stages {
+
+        private final double falsePositiveRate;
+        private volatile Stage[] stages;
+
+        Stages(final long capacity, final double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+            this.stages = new Stage[]{new Stage(capacity, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+        }
+
+        boolean mightContain(final long hash) {
+            for (final Stage stage : this.stages) {
+                if (stage.mightContain(hash)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void put(final long hash) {
+            final Stage[] current = this.stages;
+            Stage last = current[current.length - 1];
+            if (last.isFull()) {
+                last = grow(current);
+            }
+            last.put(hash);
+        }
+
+        long count() {
+            long count = 0;
+            for (final Stage stage : this.stages) {
+                count += stage.count.get();
+            }
+            return count;
+        }
+
+        double expectedFalsePositiveRate() {
+            double noFalsePositive = 1;
+            for (final Stage stage : this.stages) {
+                noFalsePositive *= 1 - stage.expectedFalsePositiveRate();
+            }
+            return 1 - noFalsePositive;
+        }
+
+        long memoryInBytes() {
+            long bytes = 0;
+            for (final Stage stage : this.stages) {
+                bytes += stage.bits.length() * (long) Long.BYTES;
+            }
+            return bytes;
+        }
+
+        private synchronized Stage grow(final Stage[] seen) {
+            final Stage[] current = this.stages;
+            if (current != seen) {
+                return current[current.length - 1];
+            }
+            final Stage last = current[current.length - 1];
+            final Stage[] grown = new Stage[current.length + 1];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            grown[current.length] = new Stage(last.capacity * 2, last.falsePositiveRate * TIGHTENING_RATIO);
+            this.stages = grown;
+            return grown[current.length];
+        }
+
+    }
+
+    /**
+     * A single Bloom filter, using double hashing to derive the bit positions.
+     */
+    private static final class Stage {
+
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray bits;
+        private final AtomicLong count = new AtomicLong();
+
+        Stage(final long capacity, final double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            final long words = Math.max(1, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2) / Long.SIZE));
+            this.bitCount = words * Long.SIZE;
+            this.hashCount = Math.max(1, (int) Math.round((double) this.bitCount / capacity * LN2));
+            this.bits = new AtomicLongArray(Math.toIntExact(words));
+        }
+
+        boolean isFull() {
+            return this.count.get() >= this.capacity;
+        }
+
+        boolean mightContain(final long hash) {
+            final int hash1 = (int) hash;
+            final int hash2 = (int) (hash >>> 32);
+            for (int i = 1; i <= this.hashCount; i++) {
+                final long index = index(hash1, hash2, i);
+                if ((this.bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void put(final long hash) {
+            final int hash1 = (int) hash;
+            final int hash2 = (int) (hash >>> 32);
+            boolean changed = false;
+            for (int i = 1; i <= this.hashCount; i++) {
+                final long index = index(hash1, hash2, i);
+                final int word = (int) (index >>> 6);
+                final long mask = 1L << index;
+                long bits;
+                while (((bits = this.bits.get(word)) & mask) == 0) {
+                    if (this.bits.compareAndSet(word, bits, bits | mask)) {
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+            if (changed) {
+                this.count.incrementAndGet();
+            }
+        }
+
+        double expectedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-this.hashCount * (double) this.count.get() / this.bitCount), this.hashCount);
+        }
+
+        private long index(final int hash1, final int hash2, final int i) {
+            final long combined = hash1 + (long) i * hash2;
+            return Math.floorMod(combined, this.bitCount);
+        }
+
+    }
+
+}
@@ -0,0 +1,139 @@
+package neptunilus.blueprint.sa.common.concurrent;
+
+import lombok.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executor with a fixed number of threads and a bounded queue, to isolate expensive work (like password hashing)
+ * from the request threads.
+ * <p>
+ * Tasks are rejected as soon as the queue is full, so that callers can fail fast instead of piling up. The time the
+ * tasks wait in the queue and the time they run are recorded.
+ */
+public class BoundedExecutor implements Executor {
+
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder executionNanos = new LongAdder();
+
+    public BoundedExecutor(final String name, final int threads, final int queueCapacity) {
+        Assert.hasText(name, "name must not be empty");
+        Assert.isTrue(threads > 0, "threads must be positive");
+        Assert.isTrue(queueCapacity > 0, "queue capacity must be positive");
+
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(name + "-");
+        threadFactory.setDaemon(true);
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues the task, or rejects it if the queue is full.
+     *
+     * @param task The task
+     * @throws RejectedExecutionException If the queue is full (or the executor is shut down)
+     */
+    @Override
+    public void execute(final Runnable task) throws RejectedExecutionException {
+        Assert.notNull(task, "task must not be null");
+
+        final long queued = System.nanoTime();
+        try {
+            this.executor.execute(() -> {
+                final long started = System.nanoTime();
+                this.queueWaitNanos.add(started - queued);
+                try {
+                    task.run();
+                } finally {
+                    this.executionNanos.add(System.nanoTime() - started);
+                    this.completed.increment();
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            this.rejected.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the statistics (completed and rejected tasks, queue wait and execution time, ...) so far.
+     *
+     * @return The statistics
+     */
+    public Stats getStats() {
+        return new Stats(this.completed.sum(), this.rejected.sum(),
+                Duration.ofNanos(this.queueWaitNanos.sum()), Duration.ofNanos(this.executionNanos.sum()),
+                this.executor.getQueue().size(), this.executor.getActiveCount());
+    }
+
+    /**
+     * Stops accepting tasks, the queued ones are still executed.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * Waits until all tasks are executed after a shutdown.
+     *
+     * @param timeout The maximum time to wait
+     * @param unit    The unit of the timeout
+     * @return {@code true} if terminated, {@code false} if the timeout elapsed before
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return this.executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * The statistics of a {@link BoundedExecutor}.
+     */
+    @Value
+    public static class Stats {
+
+        /**
+         * The number of tasks run so far.
+         */
+        long completedCount;
+
+        /**
+         * The number of tasks rejected so far (as the queue was full).
+         */
+        long rejectedCount;
+
+        /**
+         * The total time the started tasks waited in the queue.
+         */
+        Duration totalQueueWait;
+
+        /**
+         * The total time the completed tasks ran.
+         */
+        Duration totalExecution;
+
+        /**
+         * The number of tasks currently waiting.
+         */
+        int queueSize;
+
+        /**
+         * The number of tasks currently running.
+         */
+        int activeCount;
+
+    }
+
+}
@@ -1,18 +0,0 @@
-package neptunilus.blueprint.sa.common.configuration;
-
-import org.modelmapper.ModelMapper;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-/**
- * Configuration for bean mapping.
- */
-@Configuration
-public class MappingConfiguration {
-
-    @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
-    }
-
-}
@@ -0,0 +1,29 @@
+package neptunilus.blueprint.sa.common.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import neptunilus.blueprint.sa.common.metrics.InvocationMetricsPostProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the metrics beyond those of Spring Boot (exposed on {@code /actuator/prometheus}).
+ * <p>
+ * The metrics of the components are bound next to them, this adds the timing of the repositories and services.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * Static, as post processors are created before all other beans. The registry is only looked up once the
+     * first repository or service is invoked.
+     *
+     * @param meterRegistry The registry
+     * @return The post processor
+     */
+    @Bean
+    public static InvocationMetricsPostProcessor invocationMetricsPostProcessor(final ObjectProvider<MeterRegistry> meterRegistry) {
+        return new InvocationMetricsPostProcessor(meterRegistry);
+    }
+
+}
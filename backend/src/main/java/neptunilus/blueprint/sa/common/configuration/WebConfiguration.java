@@ -0,0 +1,29 @@
+package neptunilus.blueprint.sa.common.configuration;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Configuration for the web layer shared by all controllers.
+ */
+@Configuration
+public class WebConfiguration {
+
+    /**
+     * Renders the responses as binary JSON (Smile) for clients accepting {@code application/x-jackson-smile}.
+     * <p>
+     * Replaces the default converter, so that Smile is written with the same (Spring Boot customized)
+     * settings as JSON. JSON stays the default for all other clients.
+     *
+     * @param objectMapperBuilder The builder of the application
+     * @return The converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(final Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.factory(new SmileFactory()).build());
+    }
+
+}
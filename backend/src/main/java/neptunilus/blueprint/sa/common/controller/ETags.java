@@ -0,0 +1,103 @@
+package neptunilus.blueprint.sa.common.controller;
+
+import neptunilus.blueprint.sa.common.exception.VersionMismatchException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weak entity tags derived from versions, for conditional requests ({@code If-None-Match} and {@code If-Match}).
+ * <p>
+ * Single entities are tagged with their version, followed by the versions of the associated entities
+ * which are part of their representation (e.g. {@code W/"3.1"} for a product in version 3 with a category in version 1).
+ * Listings are tagged with their change count, prefixed by an identifier of the running instance
+ * (e.g. {@code W/"k2x9f0-42"}), as the in-memory counts start again with every restart.
+ * <p>
+ * The tags are weak, as they identify the state of the entities, not the bytes of a representation: the same tag
+ * is sent for JSON and Smile, compressed or not.
+ */
+public final class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String INSTANCE = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, Character.MAX_RADIX);
+
+    private ETags() {
+    }
+
+    /**
+     * Tags an entity.
+     *
+     * @param version            The version of the entity
+     * @param associatedVersions The versions of the associated entities ({@code null} for missing associations)
+     * @return The entity tag
+     */
+    public static String ofVersion(final Long version, final Long... associatedVersions) {
+        final StringBuilder tag = new StringBuilder(WEAK_PREFIX).append('"').append(Objects.requireNonNullElse(version, 0L));
+        for (final Long associatedVersion : associatedVersions) {
+            if (associatedVersion != null) {
+                tag.append('.').append(associatedVersion);
+            }
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Tags a listing.
+     *
+     * @param changeCount The number of changes of the listed entities
+     * @return The entity tag
+     */
+    public static String ofChanges(final long changeCount) {
+        return WEAK_PREFIX + "\"" + INSTANCE + "-" + changeCount + "\"";
+    }
+
+    /**
+     * Checks the entity tag against the {@code If-None-Match} header (compared weakly, with or without {@code W/}).
+     * <p>
+     * The response is marked to vary by {@code Accept}, as the tag is shared by all negotiated representations.
+     *
+     * @param request The request
+     * @param etag    The entity tag of the current state
+     * @return {@code true} if the response is not modified (and already completed with status 304)
+     */
+    public static boolean checkNotModified(final ServletWebRequest request, final String etag) {
+        if (request.getResponse() != null) {
+            request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * Parses the expected version of an entity from an {@code If-Match} header.
+     * <p>
+     * Only the version of the entity itself is compared, changes of the associated ones do not conflict.
+     * Weak tags are accepted as well, as all tags sent are weak.
+     *
+     * @param ifMatch The value of the header (may be {@code null})
+     * @return The expected version or {@code null} if any version matches (no header or {@code *})
+     * @throws VersionMismatchException If the header does not contain a single entity tag of a version
+     */
+    public static Long parseVersion(final String ifMatch) throws VersionMismatchException {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        final String trimmed = ifMatch.trim();
+        final String tag = trimmed.startsWith(WEAK_PREFIX) ? trimmed.substring(WEAK_PREFIX.length()) : trimmed;
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw mismatch(ifMatch);
+        }
+        final String version = tag.substring(1, tag.length() - 1).split("\\.", 2)[0];
+        try {
+            return Long.valueOf(version);
+        } catch (NumberFormatException e) {
+            throw mismatch(ifMatch);
+        }
+    }
+
+    private static VersionMismatchException mismatch(final String ifMatch) {
+        return new VersionMismatchException(String.format("entity tag %s does not match the current version", ifMatch));
+    }
+
+}
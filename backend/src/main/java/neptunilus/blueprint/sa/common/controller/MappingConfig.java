@@ -0,0 +1,14 @@
+package neptunilus.blueprint.sa.common.controller;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Shared configuration of the mappers of the controllers.
+ * <p>
+ * Unmapped target properties fail the build, so that every property not taken from the source (like ids and
+ * versions, which are never set by requests) has to be ignored deliberately.
+ */
+@MapperConfig(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface MappingConfig {
+}
@@ -1,8 +1,12 @@
 package neptunilus.blueprint.sa.common.controller.exception;
 
+import neptunilus.blueprint.sa.common.exception.InvalidCursorException;
+import neptunilus.blueprint.sa.common.exception.VersionMismatchException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -10,6 +14,8 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import javax.validation.ConstraintViolationException;
+
 /**
  * Base exception handling user by all exception handlers.
  */
@@ -25,6 +31,29 @@ public abstract class BaseExceptionHandler extends ResponseEntityExceptionHandle
         return buildBasicErrorResponse(HttpStatus.BAD_REQUEST, exception);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<ApiError> handleInvalidCursor(final InvalidCursorException exception) {
+        return buildBasicErrorResponse(HttpStatus.BAD_REQUEST, exception);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ApiError> handleVersionMismatch(final VersionMismatchException exception) {
+        return buildBasicErrorResponse(HttpStatus.PRECONDITION_FAILED, exception);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ApiError> handleOptimisticLockingFailure(final OptimisticLockingFailureException exception) {
+        return buildBasicErrorResponse(HttpStatus.CONFLICT, exception);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ApiError> handleConstraintViolation(final ConstraintViolationException exception) {
+        final ApiError apiError = new ApiError();
+        exception.getConstraintViolations().forEach(violation -> apiError.withError(violation.getMessage()));
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(apiError);
+    }
+
     @Override
     public ResponseEntity<Object> handleMethodArgumentNotValid(
             final MethodArgumentNotValidException exception,
@@ -38,8 +67,13 @@ public abstract class BaseExceptionHandler extends ResponseEntityExceptionHandle
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiError);
     }
 
+    /**
+     * Builds the error response, always as JSON (also for requests accepting other formats only, like exports).
+     */
     protected static ResponseEntity<ApiError> buildBasicErrorResponse(final HttpStatus httpStatus, final Exception exception) {
-        return ResponseEntity.status(httpStatus).body(new ApiError().withError(exception.getMessage()));
+        return ResponseEntity.status(httpStatus)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ApiError().withError(exception.getMessage()));
     }
 
 }
@@ -0,0 +1,20 @@
+package neptunilus.blueprint.sa.common.controller.in;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A request to delete several items by their ids at once.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BulkDeleteRequest {
+
+    @NotNull(message = "ids must not be null")
+    private List<UUID> ids;
+
+}
@@ -0,0 +1,42 @@
+package neptunilus.blueprint.sa.common.controller.out;
+
+import lombok.Value;
+import neptunilus.blueprint.sa.common.bulk.BulkItemResult;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The per-item outcome of a bulk create request together with its throughput.
+ */
+@Value
+public class BulkCreateResponse {
+
+    List<BulkItemResult> items;
+
+    long created;
+
+    long failed;
+
+    long durationInMillis;
+
+    /**
+     * The number of processed items per second.
+     */
+    double itemsPerSecond;
+
+    /**
+     * Builds the response for the given outcomes.
+     *
+     * @param items    The outcomes of the items
+     * @param duration The time needed to process them
+     * @return The response
+     */
+    public static BulkCreateResponse of(final List<BulkItemResult> items, final Duration duration) {
+        final long created = items.stream().filter(BulkItemResult::isCreated).count();
+        final long nanos = Math.max(duration.toNanos(), 1);
+        return new BulkCreateResponse(items, created, items.size() - created, duration.toMillis(),
+                items.size() * 1_000_000_000d / nanos);
+    }
+
+}
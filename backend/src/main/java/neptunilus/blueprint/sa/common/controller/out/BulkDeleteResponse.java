@@ -0,0 +1,16 @@
+package neptunilus.blueprint.sa.common.controller.out;
+
+import lombok.Value;
+
+/**
+ * The outcome of a bulk delete request.
+ */
+@Value
+public class BulkDeleteResponse {
+
+    /**
+     * The number of deleted items (unknown ids are not counted).
+     */
+    long deleted;
+
+}
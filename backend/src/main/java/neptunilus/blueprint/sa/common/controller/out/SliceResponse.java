@@ -0,0 +1,43 @@
+package neptunilus.blueprint.sa.common.controller.out;
+
+import lombok.Value;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A slice of a keyset paginated listing (without total count).
+ *
+ * @param <T> The type of the elements
+ */
+@Value
+public class SliceResponse<T> {
+
+    List<T> content;
+
+    /**
+     * The continuation token for the next slice ({@code null} if this is the last one).
+     */
+    String next;
+
+    /**
+     * Builds the response for the given slice.
+     *
+     * @param slice    The slice
+     * @param mapper   The mapping of the elements
+     * @param cursorOf Extraction of the cursor of an element
+     * @param <S>      The type of the elements in the slice
+     * @param <T>      The type of the elements in the response
+     * @return The response
+     */
+    public static <S, T> SliceResponse<T> of(final Slice<S> slice, final Function<S, T> mapper, final Function<S, Cursor> cursorOf) {
+        final List<S> content = slice.getContent();
+        final String next = slice.hasNext() && !content.isEmpty() ?
+                cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new SliceResponse<>(content.stream().map(mapper).collect(Collectors.toList()), next);
+    }
+
+}
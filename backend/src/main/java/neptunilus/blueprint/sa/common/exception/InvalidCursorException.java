@@ -0,0 +1,12 @@
+package neptunilus.blueprint.sa.common.exception;
+
+/**
+ * Thrown by {@link neptunilus.blueprint.sa.common.pagination.Cursor} if a continuation token cannot be decoded.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(final String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,34 @@
+package neptunilus.blueprint.sa.common.exception;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Detection of violated unique constraints, letting the database guard uniqueness instead of checking before writing.
+ */
+public final class UniqueConstraints {
+
+    private UniqueConstraints() {
+    }
+
+    /**
+     * Checks if the exception was caused by a violation of the given unique constraint.
+     * <p>
+     * The name is matched ignoring case and surroundings, as databases report it differently
+     * (e.g. H2 as {@code "PUBLIC.UK_PRODUCT_NAME_INDEX_1 ON PUBLIC.PRODUCT(NAME) ..."}).
+     *
+     * @param exception      The exception thrown while writing
+     * @param constraintName The name of the unique constraint
+     * @return {@code true} if the constraint was violated
+     */
+    public static boolean isViolated(final DataIntegrityViolationException exception, final String constraintName) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return StringUtils.containsIgnoreCase(((ConstraintViolationException) cause).getConstraintName(), constraintName);
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,12 @@
+package neptunilus.blueprint.sa.common.exception;
+
+/**
+ * Thrown if an entity is not in the version expected by the client anymore (e.g. given by an {@code If-Match} header).
+ */
+public class VersionMismatchException extends RuntimeException {
+
+    public VersionMismatchException(final String message) {
+        super(message);
+    }
+
+}
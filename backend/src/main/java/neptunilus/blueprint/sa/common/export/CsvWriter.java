@@ -0,0 +1,68 @@
+package neptunilus.blueprint.sa.common.export;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes rows incrementally as comma separated values (RFC 4180, UTF-8).
+ */
+public class CsvWriter implements Flushable {
+
+    /**
+     * The media type of comma separated values.
+     */
+    public static final String MEDIA_TYPE = "text/csv";
+
+    private static final String LINE_BREAK = "\r\n";
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    private final Writer writer;
+
+    public CsvWriter(final OutputStream outputStream) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the values as next row ({@code null} values as empty fields).
+     *
+     * @param values The values
+     * @throws UncheckedIOException If writing fails
+     */
+    public void write(final Object... values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    this.writer.write(SEPARATOR);
+                }
+                if (values[i] != null) {
+                    this.writer.write(escape(values[i].toString()));
+                }
+            }
+            this.writer.write(LINE_BREAK);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.writer.flush();
+    }
+
+    private static String escape(final String value) {
+        final boolean quoted = value.indexOf(SEPARATOR) >= 0 || value.indexOf(QUOTE) >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quoted) {
+            return value;
+        }
+        return QUOTE + value.replace("\"", "\"\"") + QUOTE;
+    }
+
+}
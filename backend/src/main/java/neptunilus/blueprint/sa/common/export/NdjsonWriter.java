@@ -0,0 +1,52 @@
+package neptunilus.blueprint.sa.common.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes objects incrementally as newline delimited JSON (one JSON document per line).
+ */
+public class NdjsonWriter implements Flushable {
+
+    /**
+     * The media type of newline delimited JSON.
+     */
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final int NEWLINE = '\n';
+
+    private final ObjectWriter objectWriter;
+    private final OutputStream outputStream;
+
+    public NdjsonWriter(final ObjectMapper objectMapper, final OutputStream outputStream) {
+        this.objectWriter = objectMapper.writer();
+        this.outputStream = new BufferedOutputStream(outputStream);
+    }
+
+    /**
+     * Writes the object as next line.
+     *
+     * @param object The object
+     * @throws UncheckedIOException If writing fails
+     */
+    public void write(final Object object) {
+        try {
+            this.outputStream.write(this.objectWriter.writeValueAsBytes(object));
+            this.outputStream.write(NEWLINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.outputStream.flush();
+    }
+
+}
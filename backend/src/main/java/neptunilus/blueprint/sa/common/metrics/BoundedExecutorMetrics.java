@@ -0,0 +1,63 @@
+package neptunilus.blueprint.sa.common.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import neptunilus.blueprint.sa.common.concurrent.BoundedExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds the statistics of a {@link BoundedExecutor}, tagged with the given name.
+ */
+public class BoundedExecutorMetrics implements MeterBinder {
+
+    private final BoundedExecutor executor;
+    private final String name;
+
+    public BoundedExecutorMetrics(final BoundedExecutor executor, final String name) {
+        this.executor = executor;
+        this.name = name;
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("executor.completed", this.executor, executor -> executor.getStats().getCompletedCount())
+                .tag("name", this.name)
+                .baseUnit(BaseUnits.TASKS)
+                .register(registry);
+
+        FunctionCounter.builder("executor.rejected", this.executor, executor -> executor.getStats().getRejectedCount())
+                .tag("name", this.name)
+                .baseUnit(BaseUnits.TASKS)
+                .description("The tasks rejected as the queue was full")
+                .register(registry);
+
+        Gauge.builder("executor.queued", this.executor, executor -> executor.getStats().getQueueSize())
+                .tag("name", this.name)
+                .baseUnit(BaseUnits.TASKS)
+                .register(registry);
+
+        Gauge.builder("executor.active", this.executor, executor -> executor.getStats().getActiveCount())
+                .tag("name", this.name)
+                .baseUnit(BaseUnits.THREADS)
+                .register(registry);
+
+        // the queue wait is recorded as soon as a task starts, the count of the completed ones is close enough
+        FunctionTimer.builder("executor.queue.wait", this.executor,
+                executor -> executor.getStats().getCompletedCount(),
+                executor -> executor.getStats().getTotalQueueWait().toNanos(), TimeUnit.NANOSECONDS)
+                .tag("name", this.name)
+                .register(registry);
+
+        FunctionTimer.builder("executor.execution", this.executor,
+                executor -> executor.getStats().getCompletedCount(),
+                executor -> executor.getStats().getTotalExecution().toNanos(), TimeUnit.NANOSECONDS)
+                .tag("name", this.name)
+                .register(registry);
+    }
+
+}
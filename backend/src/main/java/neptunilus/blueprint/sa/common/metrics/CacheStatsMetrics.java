@@ -0,0 +1,75 @@
+package neptunilus.blueprint.sa.common.metrics;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Binds the statistics of one of the (Caffeine backed) caches, as exposed by their {@code getStats()}.
+ * <p>
+ * Besides the common cache metrics ({@code cache.gets} by result, {@code cache.puts}, {@code cache.evictions}),
+ * the hit ratio since start and the loads are bound.
+ */
+public class CacheStatsMetrics extends CacheMeterBinder {
+
+    private final Supplier<CacheStats> stats;
+
+    /**
+     * Creates the binder.
+     *
+     * @param cache     The cache
+     * @param cacheName The name of the cache, used as tag
+     * @param stats     The statistics of the cache
+     */
+    public CacheStatsMetrics(final Object cache, final String cacheName, final Supplier<CacheStats> stats) {
+        super(cache, cacheName, Tags.empty());
+        this.stats = stats;
+    }
+
+    @Override
+    protected Long size() {
+        // the caches do not expose their (estimated) size
+        return null;
+    }
+
+    @Override
+    protected long hitCount() {
+        return this.stats.get().hitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        return this.stats.get().missCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return this.stats.get().evictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        return this.stats.get().loadCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(final MeterRegistry registry) {
+        Gauge.builder("cache.hit.ratio", this.stats, stats -> stats.get().hitRate())
+                .tags(getTagsWithCacheName())
+                .description("The ratio of cache requests which were hits")
+                .register(registry);
+
+        FunctionTimer.builder("cache.load", this.stats,
+                stats -> stats.get().loadCount(), stats -> stats.get().totalLoadTime(), TimeUnit.NANOSECONDS)
+                .tags(getTagsWithCacheName())
+                .description("The loads of absent values (successful or not)")
+                .register(registry);
+    }
+
+}
@@ -0,0 +1,43 @@
+package neptunilus.blueprint.sa.common.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import neptunilus.blueprint.sa.common.cache.ExistenceFilter;
+
+/**
+ * Binds the fill state of an {@link ExistenceFilter}, tagged with its name.
+ */
+public class ExistenceFilterMetrics implements MeterBinder {
+
+    private final ExistenceFilter filter;
+
+    public ExistenceFilterMetrics(final ExistenceFilter filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("existence.filter.values", this.filter, ExistenceFilter::getCount)
+                .tag("name", this.filter.getName())
+                .description("The number of registered values (including stale ones)")
+                .register(registry);
+
+        Gauge.builder("existence.filter.stale.values", this.filter, ExistenceFilter::getStaleCount)
+                .tag("name", this.filter.getName())
+                .description("The number of values registered as removed since the last build")
+                .register(registry);
+
+        Gauge.builder("existence.filter.false.positive.rate", this.filter, ExistenceFilter::getExpectedFalsePositiveRate)
+                .tag("name", this.filter.getName())
+                .description("The expected false positive rate, based on the actual fill")
+                .register(registry);
+
+        Gauge.builder("existence.filter.memory", this.filter, ExistenceFilter::getMemoryInBytes)
+                .tag("name", this.filter.getName())
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+    }
+
+}
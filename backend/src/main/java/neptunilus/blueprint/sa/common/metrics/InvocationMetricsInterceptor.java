@@ -0,0 +1,117 @@
+package neptunilus.blueprint.sa.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Interceptor recording the invocations of the methods of a component (like a repository or a service) as timer.
+ * <p>
+ * The timer is tagged with the name of the component, the name of the method and the simple class name of the
+ * exception thrown (or {@code none}). Neither arguments nor results end up in tags, so the number of time series
+ * is bounded by the methods of the components.
+ * <p>
+ * The registry is looked up on the first invocation, as it may depend on the component itself (e.g. through the
+ * meter binders of its configuration). The timers are registered once per method and exception and cached, so
+ * that the invocations do not pay for building and looking them up.
+ */
+public class InvocationMetricsInterceptor implements MethodInterceptor {
+
+    static final String NO_EXCEPTION = "none";
+
+    private final Supplier<MeterRegistry> meterRegistrySupplier;
+    private final String metricName;
+    private final String componentTag;
+    private final String componentName;
+
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry meterRegistry;
+
+    public InvocationMetricsInterceptor(final Supplier<MeterRegistry> meterRegistrySupplier, final String metricName,
+                                        final String componentTag, final String componentName) {
+        this.meterRegistrySupplier = meterRegistrySupplier;
+        this.metricName = metricName;
+        this.componentTag = componentTag;
+        this.componentName = componentName;
+    }
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+        final MeterRegistry meterRegistry = meterRegistry();
+        final MethodTimers methodTimers = timersOf(invocation.getMethod(), meterRegistry);
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            final Object result = invocation.proceed();
+            sample.stop(methodTimers.success());
+            return result;
+        } catch (final Throwable e) {
+            sample.stop(methodTimers.failure(e.getClass()));
+            throw e;
+        }
+    }
+
+    private MethodTimers timersOf(final Method method, final MeterRegistry meterRegistry) {
+        // looked up first, as the (capturing) mapping function of computeIfAbsent would be allocated on every call
+        final MethodTimers methodTimers = this.timers.get(method);
+        return methodTimers != null ? methodTimers
+                : this.timers.computeIfAbsent(method, key -> new MethodTimers(meterRegistry, key.getName()));
+    }
+
+    private MeterRegistry meterRegistry() {
+        MeterRegistry meterRegistry = this.meterRegistry;
+        if (meterRegistry == null) {
+            meterRegistry = this.meterRegistrySupplier.get();
+            this.meterRegistry = meterRegistry;
+        }
+        return meterRegistry;
+    }
+
+    /**
+     * The timers of one method, for the successful invocations and per exception thrown.
+     */
+    private class MethodTimers {
+
+        private final MeterRegistry meterRegistry;
+        private final String method;
+        private final Map<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+
+        // registered on the first success only, so that no series is exposed for methods that always fail
+        private volatile Timer success;
+
+        MethodTimers(final MeterRegistry meterRegistry, final String method) {
+            this.meterRegistry = meterRegistry;
+            this.method = method;
+        }
+
+        Timer success() {
+            Timer success = this.success;
+            if (success == null) {
+                // registering twice on a race is harmless, the registry returns the same timer
+                success = timer(NO_EXCEPTION);
+                this.success = success;
+            }
+            return success;
+        }
+
+        Timer failure(final Class<?> exception) {
+            return this.failures.computeIfAbsent(exception, type -> timer(type.getSimpleName()));
+        }
+
+        private Timer timer(final String exception) {
+            return Timer.builder(InvocationMetricsInterceptor.this.metricName)
+                    .tag(InvocationMetricsInterceptor.this.componentTag, InvocationMetricsInterceptor.this.componentName)
+                    .tag("method", this.method)
+                    .tag("exception", exception)
+                    .register(this.meterRegistry);
+        }
+
+    }
+
+}
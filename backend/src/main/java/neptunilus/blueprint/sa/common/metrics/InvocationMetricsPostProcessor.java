@@ -0,0 +1,72 @@
+package neptunilus.blueprint.sa.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+
+/**
+ * Post processor timing the invocations of all Spring Data repositories (as {@code spring.data.repository.invocations},
+ * tagged with the repository interface) and all services (as {@code service.invocations}, tagged with the service
+ * class).
+ * <p>
+ * The repositories and most services are proxies already, the timing is added to them as outermost advice (so
+ * transactions and method security are included). Other services are proxied.
+ */
+public class InvocationMetricsPostProcessor implements BeanPostProcessor {
+
+    static final String REPOSITORY_METRIC = "spring.data.repository.invocations";
+    static final String SERVICE_METRIC = "service.invocations";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public InvocationMetricsPostProcessor(final ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (bean instanceof Repository) {
+            return withInterceptor(bean, REPOSITORY_METRIC, "repository", repositoryName(bean));
+        }
+        final Class<?> targetClass = AopUtils.getTargetClass(bean);
+        if (AnnotatedElementUtils.hasAnnotation(targetClass, Service.class)) {
+            return withInterceptor(bean, SERVICE_METRIC, "service", targetClass.getSimpleName());
+        }
+        return bean;
+    }
+
+    private Object withInterceptor(final Object bean, final String metricName, final String componentTag, final String componentName) {
+        final InvocationMetricsInterceptor interceptor =
+                new InvocationMetricsInterceptor(this.meterRegistry::getObject, metricName, componentTag, componentName);
+
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvice(0, interceptor);
+            return bean;
+        }
+
+        final ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy();
+    }
+
+    private static String repositoryName(final Object repository) {
+        // Spring Data proxies the repository interface first, followed by its own ones
+        final Class<?>[] interfaces = repository instanceof Advised ?
+                ((Advised) repository).getProxiedInterfaces() : AopUtils.getTargetClass(repository).getInterfaces();
+        return Arrays.stream(interfaces)
+                .filter(Repository.class::isAssignableFrom)
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElseGet(() -> AopUtils.getTargetClass(repository).getSimpleName());
+    }
+
+}
@@ -0,0 +1,90 @@
+package neptunilus.blueprint.sa.common.pagination;
+
+import lombok.Value;
+import neptunilus.blueprint.sa.common.exception.InvalidCursorException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position inside a keyset (seek) pagination: the sort key and the id of the last element returned.
+ * <p>
+ * Listings are ordered by {@code (key, id)}, the id makes the order total and therefore stable between requests.
+ * The cursor is handed out to the clients as opaque continuation token.
+ */
+@Value
+public class Cursor {
+
+    /**
+     * The maximum number of elements per slice.
+     */
+    public static final int MAX_SIZE = 2000;
+
+    /**
+     * Cursor in front of the first element (every non-empty key is greater).
+     */
+    public static final Cursor FIRST = new Cursor("", new UUID(0L, 0L));
+
+    private static final int ID_LENGTH = 36;
+    private static final char SEPARATOR = ':';
+
+    String key;
+
+    UUID id;
+
+    /**
+     * Encodes the cursor as (url safe) continuation token.
+     *
+     * @return The token
+     */
+    public String encode() {
+        final String plain = this.id.toString() + SEPARATOR + this.key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation token created by {@link #encode()}.
+     *
+     * @param token The token
+     * @return The cursor or {@code null} if no token given
+     * @throws InvalidCursorException If the token is malformed
+     */
+    public static Cursor decode(final String token) throws InvalidCursorException {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            final String plain = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (plain.length() <= ID_LENGTH || plain.charAt(ID_LENGTH) != SEPARATOR) {
+                throw new IllegalArgumentException();
+            }
+            return new Cursor(plain.substring(ID_LENGTH + 1), UUID.fromString(plain.substring(0, ID_LENGTH)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(String.format("invalid cursor '%s'", token));
+        }
+    }
+
+    /**
+     * Returns the cursor to continue after, falling back to {@link #FIRST} if none given.
+     *
+     * @param cursor The (optional) cursor
+     * @return The cursor
+     */
+    public static Cursor orFirst(final Cursor cursor) {
+        return cursor != null ? cursor : FIRST;
+    }
+
+    /**
+     * Returns the (unsorted) page request for fetching a slice, the order is defined by the keyset queries themselves.
+     *
+     * @param size The requested size, limited to {@code 1..}{@link #MAX_SIZE}
+     * @return The page request
+     */
+    public static Pageable limit(final int size) {
+        return PageRequest.of(0, Math.max(1, Math.min(size, MAX_SIZE)));
+    }
+
+}
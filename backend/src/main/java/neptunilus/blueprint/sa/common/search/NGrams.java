@@ -0,0 +1,78 @@
+package neptunilus.blueprint.sa.common.search;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * N-grams (of length 1 to {@link #MAX_LENGTH}) of lower case texts, used as index for substring searches.
+ * <p>
+ * Every text containing a search contains all of its {@link #query(String) query grams}, so the stored
+ * {@link #index(String) index grams} narrow down the candidates before the actual (non indexable)
+ * {@code like '%search%'} check.
+ */
+public final class NGrams {
+
+    /**
+     * The maximum length of the grams.
+     */
+    public static final int MAX_LENGTH = 3;
+
+    private NGrams() {
+    }
+
+    /**
+     * Returns all grams of length 1 to {@link #MAX_LENGTH} of the text (to be stored for it).
+     *
+     * @param text The text
+     * @return The grams, empty if no text given
+     */
+    public static Set<String> index(final String text) {
+        final Set<String> grams = new HashSet<>();
+        if (text == null) {
+            return grams;
+        }
+        final String normalized = normalize(text);
+        for (int length = 1; length <= MAX_LENGTH; length++) {
+            addGrams(normalized, length, grams);
+        }
+        return grams;
+    }
+
+    /**
+     * Returns the grams every text containing the search has to contain (the longest possible ones).
+     *
+     * @param search The search
+     * @return The grams, empty if no search given
+     */
+    public static Set<String> query(final String search) {
+        final Set<String> grams = new HashSet<>();
+        if (search == null || search.isEmpty()) {
+            return grams;
+        }
+        final String normalized = normalize(search);
+        addGrams(normalized, Math.min(normalized.length(), MAX_LENGTH), grams);
+        return grams;
+    }
+
+    /**
+     * Returns the number of {@link #query(String) query grams} of the search.
+     *
+     * @param search The search
+     * @return The number of grams
+     */
+    public static long querySize(final String search) {
+        return query(search).size();
+    }
+
+    private static String normalize(final String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static void addGrams(final String text, final int length, final Set<String> grams) {
+        for (int i = 0; i + length <= text.length(); i++) {
+            grams.add(text.substring(i, i + length));
+        }
+    }
+
+}
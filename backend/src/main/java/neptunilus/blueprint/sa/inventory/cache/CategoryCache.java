@@ -0,0 +1,175 @@
+package neptunilus.blueprint.sa.inventory.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import neptunilus.blueprint.sa.common.bulk.Chunks;
+import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.repository.CategoryRepository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Bounded read-through cache for {@link Category}s by id and by name, as categories are looked up for nearly every
+ * product read and write but change rarely.
+ * <p>
+ * Only detached copies (see {@link Category#copyOf(Category)}) are cached, never the managed entities of the loading
+ * transaction, and every lookup returns a copy of its own. So the cached state is not tied to any persistence context
+ * and cannot be changed by callers. Use a reference of the repository to assign a category to another entity. Unknown
+ * ids and names are not cached. Entries expire after a fixed time and have to be invalidated explicitly as soon as a category changes.
+ */
+public class CategoryCache {
+
+    private final CategoryRepository categoryRepository;
+    private final Cache<UUID, Category> byId;
+    private final Cache<String, Category> byName;
+
+    public CategoryCache(final CategoryRepository categoryRepository,
+                         final long maximumSize,
+                         final long expirationInSeconds) {
+        this.categoryRepository = categoryRepository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expirationInSeconds))
+                .recordStats()
+                .build();
+        this.byName = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expirationInSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the category with the given id, loading it if not cached yet.
+     *
+     * @param id The id
+     * @return The category (empty if not found)
+     */
+    public Optional<Category> get(final UUID id) {
+        Assert.notNull(id, "id must not be null");
+        return Optional.ofNullable(this.byId.get(id, key -> this.categoryRepository.findById(key).map(Category::copyOf).orElse(null)))
+                .map(Category::copyOf);
+    }
+
+    /**
+     * Returns the categories with the given ids, loading all missing ones at once (in chunks).
+     *
+     * @param ids The ids
+     * @return The found categories
+     */
+    public List<Category> getAll(final Collection<UUID> ids) {
+        Assert.notNull(ids, "ids must not be null");
+        return this.byId.getAll(ids, missing -> Chunks.collect(toSet(missing), this.categoryRepository::findAllById).stream()
+                .collect(Collectors.toMap(Category::getId, Category::copyOf))).values().stream()
+                .map(Category::copyOf)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the category with the given name, loading it if not cached yet.
+     *
+     * @param name The name
+     * @return The category (empty if not found)
+     */
+    public Optional<Category> getByName(final String name) {
+        Assert.notNull(name, "name must not be null");
+        return Optional.ofNullable(this.byName.get(name, key -> {
+            final Optional<Category> category = this.categoryRepository.findOneByName(key).map(Category::copyOf);
+            category.filter(found -> found.getId() != null).ifPresent(found -> this.byId.put(found.getId(), found));
+            return category.orElse(null);
+        })).map(Category::copyOf);
+    }
+
+    /**
+     * Removes the cached entries of the given category (by its id and its current name, so call it before renaming).
+     * <p>
+     * If called within a transaction, the entries are removed again after completion, so that concurrent
+     * lookups cannot keep the old state cached.
+     *
+     * @param category The category
+     */
+    public void invalidate(final Category category) {
+        if (category == null) {
+            return;
+        }
+
+        final UUID id = category.getId();
+        final String name = category.getName();
+        evict(id, name);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(final int status) {
+                    evict(id, name);
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes the cached entries of all categories with the given ids (by id and by name).
+     * <p>
+     * If called within a transaction, the entries are removed again after completion.
+     *
+     * @param ids The ids
+     */
+    public void invalidateAll(final Collection<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+
+        final Set<UUID> idSet = new HashSet<>(ids);
+        evictAll(idSet);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(final int status) {
+                    evictAll(idSet);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the statistics (hits, misses, evictions, ...) of the lookups by id and by name together.
+     *
+     * @return The statistics
+     */
+    public CacheStats getStats() {
+        return this.byId.stats().plus(this.byName.stats());
+    }
+
+    private void evict(final UUID id, final String name) {
+        if (id != null) {
+            this.byId.invalidate(id);
+            this.byName.asMap().values().removeIf(category -> id.equals(category.getId()));
+        }
+        if (name != null) {
+            this.byName.invalidate(name);
+        }
+    }
+
+    private void evictAll(final Set<UUID> ids) {
+        this.byId.invalidateAll(ids);
+        this.byName.asMap().values().removeIf(category -> ids.contains(category.getId()));
+    }
+
+    private static Set<UUID> toSet(final Iterable<? extends UUID> ids) {
+        return StreamSupport.stream(ids.spliterator(), false).collect(Collectors.toSet());
+    }
+
+}
@@ -0,0 +1,118 @@
+package neptunilus.blueprint.sa.inventory.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import neptunilus.blueprint.sa.common.cache.ChangeCounter;
+import neptunilus.blueprint.sa.common.cache.CountCache;
+import neptunilus.blueprint.sa.common.cache.ExistenceFilter;
+import neptunilus.blueprint.sa.common.metrics.CacheStatsMetrics;
+import neptunilus.blueprint.sa.common.metrics.ExistenceFilterMetrics;
+import neptunilus.blueprint.sa.inventory.cache.CategoryCache;
+import neptunilus.blueprint.sa.inventory.repository.CategoryRepository;
+import neptunilus.blueprint.sa.inventory.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Configuration for the inventory.
+ */
+@Configuration
+public class InventoryConfiguration {
+
+    @Value("${inventory.countCache.maximumSize:1000}")
+    private long countCacheMaximumSize;
+
+    @Value("${inventory.countCache.expirationInSeconds:10}")
+    private long countCacheExpiration;
+
+    @Value("${inventory.categoryCache.maximumSize:1000}")
+    private long categoryCacheMaximumSize;
+
+    @Value("${inventory.categoryCache.expirationInSeconds:3600}")
+    private long categoryCacheExpiration;
+
+    @Value("${inventory.nameFilter.enabled:true}")
+    private boolean nameFilterEnabled;
+
+    @Value("${inventory.nameFilter.expectedInsertions:10000}")
+    private long nameFilterExpectedInsertions;
+
+    @Value("${inventory.nameFilter.falsePositiveRate:0.01}")
+    private double nameFilterFalsePositiveRate;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    public InventoryConfiguration(final ProductRepository productRepository,
+                                  final CategoryRepository categoryRepository,
+                                  final PlatformTransactionManager transactionManager,
+                                  final MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionManager = transactionManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public CountCache productCountCache() {
+        return new CountCache(this.countCacheMaximumSize, this.countCacheExpiration);
+    }
+
+    @Bean
+    public CountCache categoryCountCache() {
+        return new CountCache(this.countCacheMaximumSize, this.countCacheExpiration);
+    }
+
+    @Bean
+    public ChangeCounter productChangeCounter() {
+        return new ChangeCounter();
+    }
+
+    @Bean
+    public ChangeCounter categoryChangeCounter() {
+        return new ChangeCounter();
+    }
+
+    @Bean
+    public CategoryCache categoryCache() {
+        return new CategoryCache(this.categoryRepository, this.categoryCacheMaximumSize, this.categoryCacheExpiration);
+    }
+
+    @Bean
+    public ExistenceFilter productNameFilter() {
+        return new ExistenceFilter("productName", this.nameFilterExpectedInsertions, this.nameFilterFalsePositiveRate,
+                ExistenceFilter.scanning(this.transactionManager, this.productRepository::streamNames));
+    }
+
+    @Bean
+    public ExistenceFilter categoryNameFilter() {
+        return new ExistenceFilter("categoryName", this.nameFilterExpectedInsertions, this.nameFilterFalsePositiveRate,
+                ExistenceFilter.scanning(this.transactionManager, this.categoryRepository::streamNames));
+    }
+
+    /**
+     * Builds the name filters before requests are served (unless disabled, e.g. for several instances sharing the database).
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void buildNameFilters() {
+        if (this.nameFilterEnabled) {
+            productNameFilter().rebuild();
+            categoryNameFilter().rebuild();
+        }
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void bindMetrics() {
+        new CacheStatsMetrics(productCountCache(), "productCount", productCountCache()::getStats).bindTo(this.meterRegistry);
+        new CacheStatsMetrics(categoryCountCache(), "categoryCount", categoryCountCache()::getStats).bindTo(this.meterRegistry);
+        new CacheStatsMetrics(categoryCache(), "category", categoryCache()::getStats).bindTo(this.meterRegistry);
+        new ExistenceFilterMetrics(productNameFilter()).bindTo(this.meterRegistry);
+        new ExistenceFilterMetrics(categoryNameFilter()).bindTo(this.meterRegistry);
+    }
+
+}
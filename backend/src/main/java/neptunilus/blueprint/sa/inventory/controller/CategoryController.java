@@ -1,51 +1,89 @@
 package neptunilus.blueprint.sa.inventory.controller;
 
+import neptunilus.blueprint.sa.common.bulk.BulkItemResult;
+import neptunilus.blueprint.sa.common.bulk.Chunks;
+import neptunilus.blueprint.sa.common.controller.ETags;
+import neptunilus.blueprint.sa.common.controller.in.BulkDeleteRequest;
+import neptunilus.blueprint.sa.common.controller.out.BulkCreateResponse;
+import neptunilus.blueprint.sa.common.controller.out.BulkDeleteResponse;
+import neptunilus.blueprint.sa.common.controller.out.SliceResponse;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
 import neptunilus.blueprint.sa.inventory.controller.in.CategoryCreateRequest;
 import neptunilus.blueprint.sa.inventory.controller.in.CategoryUpdateRequest;
 import neptunilus.blueprint.sa.inventory.controller.out.CategoryResponse;
 import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.repository.projection.CategorySummary;
 import neptunilus.blueprint.sa.inventory.service.CategoryService;
-import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Size;
 import java.net.URI;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Controller for handling {@link Category}s.
  */
 @RestController
+@Validated
 @RequestMapping("/category")
 public class CategoryController {
 
     private final CategoryService categoryService;
-    private final ModelMapper modelMapper;
+    private final InventoryMapper inventoryMapper;
 
-    public CategoryController(final CategoryService categoryService, final ModelMapper modelMapper) {
+    public CategoryController(final CategoryService categoryService, final InventoryMapper inventoryMapper) {
         this.categoryService = categoryService;
-        this.modelMapper = modelMapper;
+        this.inventoryMapper = inventoryMapper;
     }
 
     @GetMapping
-    public Page<CategoryResponse> search(@RequestParam(required = false) final String search, final Pageable pageable) {
-        final Page<Category> categories = this.categoryService.find(search, false, pageable);
-        return categories.map(category -> this.modelMapper.map(category, CategoryResponse.class));
+    public Slice<CategoryResponse> search(@RequestParam(required = false) final String search,
+                                          @RequestParam(defaultValue = "true") final boolean count,
+                                          final Pageable pageable,
+                                          final ServletWebRequest request) {
+        if (ETags.checkNotModified(request, ETags.ofChanges(this.categoryService.getChangeCount()))) {
+            return null;
+        }
+        final Slice<CategorySummary> categories = this.categoryService.findSummaries(search, count, pageable);
+        return categories.map(this.inventoryMapper::toCategoryResponse);
+    }
+
+    @GetMapping("/scroll")
+    public SliceResponse<CategoryResponse> scroll(@RequestParam(required = false) final String search,
+                                                  @RequestParam(required = false) final String after,
+                                                  @RequestParam(defaultValue = "20") final int size,
+                                                  final ServletWebRequest request) {
+        final Cursor cursor = Cursor.decode(after);
+        if (ETags.checkNotModified(request, ETags.ofChanges(this.categoryService.getChangeCount()))) {
+            return null;
+        }
+        final Slice<CategorySummary> categories = this.categoryService.findSummariesAfter(search, cursor, size);
+        return SliceResponse.of(categories, this.inventoryMapper::toCategoryResponse, category -> new Cursor(category.getName(), category.getId()));
     }
 
     @GetMapping("/{id}")
-    public CategoryResponse get(@PathVariable final UUID id) {
+    public CategoryResponse get(@PathVariable final UUID id, final ServletWebRequest request) {
         final Category category = this.categoryService.get(id);
-        return this.modelMapper.map(category, CategoryResponse.class);
+        if (ETags.checkNotModified(request, ETags.ofVersion(category.getVersion()))) {
+            return null;
+        }
+        return this.inventoryMapper.toCategoryResponse(category);
     }
 
     @PostMapping
     public ResponseEntity<Void> create(@Valid @RequestBody final CategoryCreateRequest categoryRequest) {
-        final Category category = this.modelMapper.map(categoryRequest, Category.class);
+        final Category category = this.inventoryMapper.toCategory(categoryRequest);
         final UUID id = this.categoryService.create(category);
 
         final URI location = ServletUriComponentsBuilder.fromCurrentRequest()
@@ -54,14 +92,32 @@ public class CategoryController {
         return ResponseEntity.created(location).build();
     }
 
+    @PostMapping("/bulk")
+    public BulkCreateResponse createAll(@Size(max = Chunks.MAX_BULK_ITEMS, message = "at most {max} categories can be created at once")
+                                        @RequestBody final List<CategoryCreateRequest> categoryRequests) {
+        final long start = System.nanoTime();
+        final List<Category> categories = categoryRequests.stream().map(this.inventoryMapper::toCategory).collect(Collectors.toList());
+        final List<BulkItemResult> results = this.categoryService.createAll(categories);
+
+        return BulkCreateResponse.of(results, Duration.ofNanos(System.nanoTime() - start));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<Void> update(@PathVariable final UUID id, @Valid @RequestBody final CategoryUpdateRequest categoryRequest) {
-        final Category update = this.modelMapper.map(categoryRequest, Category.class);
-        this.categoryService.update(id, update);
+    public ResponseEntity<Void> update(@PathVariable final UUID id,
+                                       @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
+                                       @Valid @RequestBody final CategoryUpdateRequest categoryRequest) {
+        final Category update = this.inventoryMapper.toCategory(categoryRequest);
+        this.categoryService.update(id, update, ETags.parseVersion(ifMatch));
 
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/bulk/delete")
+    public BulkDeleteResponse deleteAll(@Valid @RequestBody final BulkDeleteRequest deleteRequest) {
+        final long deleted = this.categoryService.deleteAll(deleteRequest.getIds());
+        return new BulkDeleteResponse(deleted);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus
     public ResponseEntity<Void> delete(@PathVariable final UUID id) {
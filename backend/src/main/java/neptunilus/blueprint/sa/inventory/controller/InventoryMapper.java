@@ -0,0 +1,62 @@
+package neptunilus.blueprint.sa.inventory.controller;
+
+import neptunilus.blueprint.sa.common.controller.MappingConfig;
+import neptunilus.blueprint.sa.inventory.controller.in.*;
+import neptunilus.blueprint.sa.inventory.controller.out.CategoryResponse;
+import neptunilus.blueprint.sa.inventory.controller.out.ProductResponse;
+import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.projection.CategorySummary;
+import neptunilus.blueprint.sa.inventory.repository.projection.ProductSummary;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper between the inventory model and the requests/responses of the controllers (generated at compile time).
+ */
+@Mapper(config = MappingConfig.class)
+public interface InventoryMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Category toCategory(CategoryCreateRequest categoryRequest);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Category toCategory(CategoryUpdateRequest categoryRequest);
+
+    @Mapping(target = "name", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Category toCategory(CategoryReferenceRequest categoryRequest);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Product toProduct(ProductCreateRequest productRequest);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Product toProduct(ProductUpdateRequest productRequest);
+
+    CategoryResponse toCategoryResponse(Category category);
+
+    CategoryResponse toCategoryResponse(CategorySummary category);
+
+    ProductResponse toProductResponse(Product product);
+
+    default ProductResponse toProductResponse(final ProductSummary product) {
+        if (product == null) {
+            return null;
+        }
+        final ProductResponse response = new ProductResponse();
+        response.setId(product.getId());
+        response.setName(product.getName());
+        if (product.getCategoryId() != null) {
+            final CategoryResponse category = new CategoryResponse();
+            category.setId(product.getCategoryId());
+            category.setName(product.getCategoryName());
+            response.setCategory(category);
+        }
+        return response;
+    }
+
+}
@@ -1,53 +1,128 @@
 package neptunilus.blueprint.sa.inventory.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import neptunilus.blueprint.sa.common.bulk.BulkItemResult;
+import neptunilus.blueprint.sa.common.bulk.Chunks;
+import neptunilus.blueprint.sa.common.controller.ETags;
+import neptunilus.blueprint.sa.common.controller.out.BulkCreateResponse;
+import neptunilus.blueprint.sa.common.controller.out.BulkDeleteResponse;
+import neptunilus.blueprint.sa.common.controller.out.SliceResponse;
+import neptunilus.blueprint.sa.common.export.CsvWriter;
+import neptunilus.blueprint.sa.common.export.NdjsonWriter;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import neptunilus.blueprint.sa.inventory.controller.in.ProductBulkDeleteRequest;
 import neptunilus.blueprint.sa.inventory.controller.in.ProductCreateRequest;
 import neptunilus.blueprint.sa.inventory.controller.in.ProductUpdateRequest;
 import neptunilus.blueprint.sa.inventory.controller.out.ProductResponse;
 import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.projection.ProductSummary;
 import neptunilus.blueprint.sa.inventory.service.ProductService;
-import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Controller for handling {@link Product}s.
  */
 @RestController
+@Validated
 @RequestMapping("/product")
 public class ProductController {
 
     private final ProductService productService;
-    private final ModelMapper modelMapper;
+    private final InventoryMapper inventoryMapper;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(final ProductService productService, final ModelMapper modelMapper) {
+    public ProductController(final ProductService productService, final InventoryMapper inventoryMapper, final ObjectMapper objectMapper) {
         this.productService = productService;
-        this.modelMapper = modelMapper;
+        this.inventoryMapper = inventoryMapper;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public Page<ProductResponse> search(@RequestParam(required = false) final String search,
-                                        @RequestParam(required = false) final UUID categoryId,
-                                        final Pageable pageable) {
-        final Page<Product> products = this.productService.find(search, false, categoryId, pageable);
-        return products.map(product -> this.modelMapper.map(product, ProductResponse.class));
+    public Slice<ProductResponse> search(@RequestParam(required = false) final String search,
+                                         @RequestParam(required = false) final UUID categoryId,
+                                         @RequestParam(defaultValue = "true") final boolean count,
+                                         final Pageable pageable,
+                                         final ServletWebRequest request) {
+        if (ETags.checkNotModified(request, ETags.ofChanges(this.productService.getChangeCount()))) {
+            return null;
+        }
+        final Slice<ProductSummary> products = this.productService.findSummaries(search, categoryId, count, pageable);
+        return products.map(this.inventoryMapper::toProductResponse);
+    }
+
+    @GetMapping("/scroll")
+    public SliceResponse<ProductResponse> scroll(@RequestParam(required = false) final String search,
+                                                 @RequestParam(required = false) final UUID categoryId,
+                                                 @RequestParam(required = false) final String after,
+                                                 @RequestParam(defaultValue = "20") final int size,
+                                                 final ServletWebRequest request) {
+        final Cursor cursor = Cursor.decode(after);
+        if (ETags.checkNotModified(request, ETags.ofChanges(this.productService.getChangeCount()))) {
+            return null;
+        }
+        final Slice<ProductSummary> products = this.productService.findSummariesAfter(search, categoryId, cursor, size);
+        return SliceResponse.of(products, this.inventoryMapper::toProductResponse, product -> new Cursor(product.getName(), product.getId()));
+    }
+
+    @GetMapping(value = "/export", produces = NdjsonWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportNdjson(@RequestParam(required = false) final String search,
+                                                              @RequestParam(required = false) final UUID categoryId,
+                                                              final HttpServletResponse response) {
+        final StreamingResponseBody body = outputStream -> {
+            final NdjsonWriter writer = new NdjsonWriter(this.objectMapper, outputStream);
+            forEachSummary(search, categoryId, response, product -> writer.write(this.inventoryMapper.toProductResponse(product)));
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE)).body(body);
+    }
+
+    @GetMapping(value = "/export", produces = CsvWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportCsv(@RequestParam(required = false) final String search,
+                                                           @RequestParam(required = false) final UUID categoryId,
+                                                           final HttpServletResponse response) {
+        final StreamingResponseBody body = outputStream -> {
+            final CsvWriter writer = new CsvWriter(outputStream);
+            writer.write("id", "name", "categoryId", "categoryName");
+            forEachSummary(search, categoryId, response,
+                    product -> writer.write(product.getId(), product.getName(), product.getCategoryId(), product.getCategoryName()));
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(CsvWriter.MEDIA_TYPE)).body(body);
     }
 
     @GetMapping("/{id}")
-    public ProductResponse get(@PathVariable final UUID id) {
+    public ProductResponse get(@PathVariable final UUID id, final ServletWebRequest request) {
         final Product product = this.productService.get(id);
-        return this.modelMapper.map(product, ProductResponse.class);
+        if (ETags.checkNotModified(request, ETags.ofVersion(product.getVersion(), product.getCategory() != null ? product.getCategory().getVersion() : null))) {
+            return null;
+        }
+        return this.inventoryMapper.toProductResponse(product);
     }
 
     @PostMapping
     public ResponseEntity<Void> create(@Valid @RequestBody final ProductCreateRequest productRequest) {
-        final Product product = this.modelMapper.map(productRequest, Product.class);
+        final Product product = this.inventoryMapper.toProduct(productRequest);
         final UUID id = this.productService.create(product);
 
         final URI location = ServletUriComponentsBuilder.fromCurrentRequest()
@@ -56,14 +131,34 @@ public class ProductController {
         return ResponseEntity.created(location).build();
     }
 
+    @PostMapping("/bulk")
+    public BulkCreateResponse createAll(@Size(max = Chunks.MAX_BULK_ITEMS, message = "at most {max} products can be created at once")
+                                        @RequestBody final List<ProductCreateRequest> productRequests) {
+        final long start = System.nanoTime();
+        final List<Product> products = productRequests.stream().map(this.inventoryMapper::toProduct).collect(Collectors.toList());
+        final List<BulkItemResult> results = this.productService.createAll(products);
+
+        return BulkCreateResponse.of(results, Duration.ofNanos(System.nanoTime() - start));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<Void> update(@PathVariable final UUID id, @Valid @RequestBody final ProductUpdateRequest productRequest) {
-        final Product update = this.modelMapper.map(productRequest, Product.class);
-        this.productService.update(id, update);
+    public ResponseEntity<Void> update(@PathVariable final UUID id,
+                                       @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
+                                       @Valid @RequestBody final ProductUpdateRequest productRequest) {
+        final Product update = this.inventoryMapper.toProduct(productRequest);
+        this.productService.update(id, update, ETags.parseVersion(ifMatch));
 
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/bulk/delete")
+    public BulkDeleteResponse deleteAll(@Valid @RequestBody final ProductBulkDeleteRequest deleteRequest) {
+        final long deleted = deleteRequest.getCategoryId() != null ?
+                this.productService.deleteAllByCategory(deleteRequest.getCategoryId()) :
+                this.productService.deleteAll(deleteRequest.getIds());
+        return new BulkDeleteResponse(deleted);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus
     public ResponseEntity<Void> delete(@PathVariable final UUID id) {
@@ -71,4 +166,19 @@ public class ProductController {
 
         return ResponseEntity.noContent().build();
     }
+
+    private void forEachSummary(final String search, final UUID categoryId, final HttpServletResponse response,
+                                final Consumer<ProductSummary> action) throws IOException {
+        try {
+            this.productService.forEachSummary(search, categoryId, action);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            // drop the export headers (if still possible), so the error is rendered as usual
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
+    }
 }
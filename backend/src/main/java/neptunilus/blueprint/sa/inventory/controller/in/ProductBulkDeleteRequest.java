@@ -0,0 +1,28 @@
+package neptunilus.blueprint.sa.inventory.controller.in;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import javax.validation.constraints.AssertTrue;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A request to delete several products at once, either by their ids or all of a category.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductBulkDeleteRequest {
+
+    private List<UUID> ids;
+
+    private UUID categoryId;
+
+    @JsonIgnore
+    @AssertTrue(message = "either ids or category id must be given")
+    public boolean isEitherIdsOrCategoryId() {
+        return (this.ids == null) != (this.categoryId == null);
+    }
+
+}
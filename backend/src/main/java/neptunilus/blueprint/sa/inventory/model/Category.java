@@ -3,12 +3,20 @@ package neptunilus.blueprint.sa.inventory.model;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import neptunilus.blueprint.sa.common.id.TimeOrderedUuidGenerator;
+import neptunilus.blueprint.sa.common.search.NGrams;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Size;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
+import static lombok.AccessLevel.NONE;
 import static lombok.AccessLevel.PROTECTED;
 
 /**
@@ -17,14 +25,20 @@ import static lombok.AccessLevel.PROTECTED;
 @Getter @Setter
 @NoArgsConstructor(access = PROTECTED)
 @Entity
-@Table(name = "category")
+@Table(name = "category", uniqueConstraints = @UniqueConstraint(name = Category.UNIQUE_NAME, columnNames = "name"))
 public class Category {
 
+    /**
+     * The name of the unique constraint on the name, used to detect conflicting writes.
+     */
+    public static final String UNIQUE_NAME = "uk_category_name";
+
     /**
      * The unique identifier.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUuidGenerator.NAME, strategy = TimeOrderedUuidGenerator.STRATEGY)
     private UUID id;
 
     /**
@@ -32,11 +46,52 @@ public class Category {
      */
     @NotEmpty
     @Size(max = 100)
-    @Column(unique = true)
     private String name;
 
+    /**
+     * The n-grams of the name as index for substring searches (derived from the name, removed with the category by the database).
+     */
+    @Getter(NONE) @Setter(NONE)
+    @ElementCollection
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "category_id")
+    @CollectionTable(name = "category_name_gram", joinColumns = @JoinColumn(name = "category_id"),
+            indexes = @Index(name = "idx_category_name_gram", columnList = "gram, category_id"))
+    @Column(name = "gram", length = NGrams.MAX_LENGTH)
+    private Set<String> nameGrams = new HashSet<>();
+
+    /**
+     * The version, incremented on every change (used for optimistic locking and ETags).
+     */
+    @Version
+    private Long version;
+
     public Category(final String name) {
+        setName(name);
+    }
+
+    /**
+     * Creates a detached copy with the id, name and version of the given category, but without the n-grams of the name
+     * (which are only needed for writes), so that it can be shared without the persistence context of the original.
+     * The copy must not be saved.
+     *
+     * @param category The category
+     * @return The copy
+     */
+    public static Category copyOf(final Category category) {
+        final Category copy = new Category();
+        // via the getters, as the category might be an uninitialized proxy
+        copy.id = category.getId();
+        copy.name = category.getName();
+        copy.version = category.getVersion();
+        return copy;
+    }
+
+    public void setName(final String name) {
         this.name = name;
+        final Set<String> grams = NGrams.index(name);
+        this.nameGrams.retainAll(grams);
+        this.nameGrams.addAll(grams);
     }
 
 }
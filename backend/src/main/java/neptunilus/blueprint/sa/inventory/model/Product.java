@@ -4,12 +4,21 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import neptunilus.blueprint.sa.common.id.TimeOrderedUuidGenerator;
+import neptunilus.blueprint.sa.common.mapping.Default;
+import neptunilus.blueprint.sa.common.search.NGrams;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Size;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
+import static lombok.AccessLevel.NONE;
 import static lombok.AccessLevel.PROTECTED;
 
 /**
@@ -18,14 +27,20 @@ import static lombok.AccessLevel.PROTECTED;
 @Getter @Setter
 @NoArgsConstructor(access = PROTECTED)
 @Entity
-@Table(name = "product")
+@Table(name = "product", uniqueConstraints = @UniqueConstraint(name = Product.UNIQUE_NAME, columnNames = "name"))
 public class Product {
 
+    /**
+     * The name of the unique constraint on the name, used to detect conflicting writes.
+     */
+    public static final String UNIQUE_NAME = "uk_product_name";
+
     /**
      * The unique identifier.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUuidGenerator.NAME, strategy = TimeOrderedUuidGenerator.STRATEGY)
     private UUID id;
 
     /**
@@ -33,9 +48,20 @@ public class Product {
      */
     @NotEmpty
     @Size(max = 100)
-    @Column(unique = true)
     private String name;
 
+    /**
+     * The n-grams of the name as index for substring searches (derived from the name, removed with the product by the database).
+     */
+    @Getter(NONE) @Setter(NONE)
+    @ElementCollection
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "product_id")
+    @CollectionTable(name = "product_name_gram", joinColumns = @JoinColumn(name = "product_id"),
+            indexes = @Index(name = "idx_product_name_gram", columnList = "gram, product_id"))
+    @Column(name = "gram", length = NGrams.MAX_LENGTH)
+    private Set<String> nameGrams = new HashSet<>();
+
     /**
      * The (optional) category.
      */
@@ -43,13 +69,27 @@ public class Product {
     @JoinColumn(name = "category_id")
     private Category category;
 
+    /**
+     * The version, incremented on every change (used for optimistic locking and ETags).
+     */
+    @Version
+    private Long version;
+
     public Product(final String name) {
         this(name, null);
     }
 
+    @Default
     public Product(final String name, final Category category) {
-        this.name = name;
+        setName(name);
         this.category = category;
     }
 
+    public void setName(final String name) {
+        this.name = name;
+        final Set<String> grams = NGrams.index(name);
+        this.nameGrams.retainAll(grams);
+        this.nameGrams.addAll(grams);
+    }
+
 }
@@ -1,20 +1,52 @@
 package neptunilus.blueprint.sa.inventory.repository;
 
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import neptunilus.blueprint.sa.common.search.NGrams;
 import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.repository.projection.CategorySummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * The repository for the {@link Category}s.
+ * <p>
+ * The summary finders return slices, their totals are counted separately (if needed at all).
+ * Substring searches on the name are narrowed down by the n-gram index of the categories (see {@link NGrams}) first.
+ * The {@code ...After} finders implement keyset pagination ordered by name and id, starting after the given {@link Cursor}.
+ * The {@code stream...} finders return forward-only streams (fetched in chunks of {@link #STREAM_FETCH_SIZE} rows)
+ * which have to be consumed inside a transaction and closed afterwards.
  */
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
 
+    String SUMMARY_SELECT = "select new neptunilus.blueprint.sa.inventory.repository.projection.CategorySummary(c.id, c.name) " +
+            "from Category c";
+    String ENTITY_SELECT = "select c from Category c";
+    String SUMMARY_COUNT = "select count(c) from Category c";
+    String NAME_CONTAINING = " where c.id in (select g.id from Category g join g.nameGrams n" +
+            " where n in :#{T(neptunilus.blueprint.sa.common.search.NGrams).query(#search)}" +
+            " group by g.id having count(n) = :#{T(neptunilus.blueprint.sa.common.search.NGrams).querySize(#search)})" +
+            " and lower(c.name) like lower(concat('%', :#{escape(#search)}, '%')) escape :#{escapeCharacter()}";
+    String AFTER_CURSOR = " (c.name > :#{#after.key} or (c.name = :#{#after.key} and c.id > :#{#after.id}))";
+    String KEYSET_ORDER = " order by c.name, c.id";
+    String STREAM_FETCH_SIZE = "500";
+
     /**
      * Returns the {@link Category} with the given name or {@link Optional#empty()} if none found.
      *
@@ -23,6 +55,45 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
      */
     Optional<Category> findOneByName(String name);
 
+    /**
+     * Returns those of the given names which are already used by a {@link Category} (in one statement).
+     *
+     * @param names The names
+     * @return The names already used
+     */
+    @Query("select c.name from Category c where c.name in :names")
+    Set<String> findNamesByNameIn(@Param("names") Collection<String> names);
+
+    /**
+     * Streams the names of all {@link Category}s (unordered).
+     *
+     * @return The names
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select c.name from Category c")
+    Stream<String> streamNames();
+
+    /**
+     * Removes the {@link Category}s with the given ids from their products in one statement
+     * (bypassing the persistence context, but incrementing the versions of the products).
+     *
+     * @param ids The ids of the categories
+     * @return The number of updated products
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.category = null, p.version = p.version + 1 where p.category.id in :ids")
+    int unassignProductsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Deletes the {@link Category}s with the given ids in one statement (bypassing the persistence context).
+     *
+     * @param ids The ids
+     * @return The number of deleted categories
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Category c where c.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
+
     /**
      * Returns all {@link Category}s containing the search in name.
      *
@@ -30,6 +101,56 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
      * @param pageable The pagination information
      * @return The categories
      */
+    @Query(value = ENTITY_SELECT + NAME_CONTAINING, countQuery = SUMMARY_COUNT + NAME_CONTAINING)
     Page<Category> findByNameContainingIgnoreCase(String search, Pageable pageable);
 
+    /**
+     * Returns all {@link Category}s as read-only summaries.
+     *
+     * @param pageable The pagination information
+     * @return The category summaries
+     */
+    @Query(SUMMARY_SELECT)
+    Slice<CategorySummary> findSummaries(Pageable pageable);
+
+    /**
+     * Returns all {@link Category}s containing the search in name as read-only summaries.
+     *
+     * @param search   The search
+     * @param pageable The pagination information
+     * @return The category summaries
+     */
+    @Query(SUMMARY_SELECT + NAME_CONTAINING)
+    Slice<CategorySummary> findSummariesByNameContainingIgnoreCase(String search, Pageable pageable);
+
+    /**
+     * Counts all {@link Category}s containing the search in name.
+     *
+     * @param search The search
+     * @return The number of categories
+     */
+    @Query(SUMMARY_COUNT + NAME_CONTAINING)
+    long countByNameContainingIgnoreCase(String search);
+
+    /**
+     * Returns the next {@link Category}s after the cursor as read-only summaries.
+     *
+     * @param after    The cursor to continue after
+     * @param pageable The size of the slice (unsorted)
+     * @return The category summaries
+     */
+    @Query(SUMMARY_SELECT + " where" + AFTER_CURSOR + KEYSET_ORDER)
+    Slice<CategorySummary> findSummariesAfter(@Param("after") Cursor after, Pageable pageable);
+
+    /**
+     * Returns the next {@link Category}s containing the search in name after the cursor as read-only summaries.
+     *
+     * @param search   The search
+     * @param after    The cursor to continue after
+     * @param pageable The size of the slice (unsorted)
+     * @return The category summaries
+     */
+    @Query(SUMMARY_SELECT + NAME_CONTAINING + " and" + AFTER_CURSOR + KEYSET_ORDER)
+    Slice<CategorySummary> findSummariesByNameContainingIgnoreCaseAfter(String search, @Param("after") Cursor after, Pageable pageable);
+
 }
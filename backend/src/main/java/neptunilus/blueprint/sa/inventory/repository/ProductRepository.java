@@ -1,37 +1,124 @@
 package neptunilus.blueprint.sa.inventory.repository;
 
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import neptunilus.blueprint.sa.common.search.NGrams;
 import neptunilus.blueprint.sa.inventory.model.Category;
 import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.projection.ProductSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * The repository for the {@link Product}s.
+ * <p>
+ * All finders fetch the {@link Category} in the same statement to avoid one additional select per product.
+ * Products are filtered by the id of their {@link Category}, so the category itself does not have to be loaded before.
+ * The summary finders return slices, their totals are counted separately (if needed at all).
+ * Substring searches on the name are narrowed down by the n-gram index of the products (see {@link NGrams}) first.
+ * The {@code ...After} finders implement keyset pagination ordered by name and id, starting after the given {@link Cursor}.
+ * The {@code stream...} finders return forward-only streams (fetched in chunks of {@link #STREAM_FETCH_SIZE} rows)
+ * which have to be consumed inside a transaction and closed afterwards.
  */
 @Repository
 public interface ProductRepository extends JpaRepository<Product, UUID> {
 
+    String CATEGORY = "category";
+
+    String SUMMARY_SELECT = "select new neptunilus.blueprint.sa.inventory.repository.projection.ProductSummary(p.id, p.name, c.id, c.name) " +
+            "from Product p left join p.category c";
+    String ENTITY_SELECT = "select p from Product p";
+    String SUMMARY_COUNT = "select count(p) from Product p";
+    String NAME_CONTAINING = " p.id in (select g.id from Product g join g.nameGrams n" +
+            " where n in :#{T(neptunilus.blueprint.sa.common.search.NGrams).query(#search)}" +
+            " group by g.id having count(n) = :#{T(neptunilus.blueprint.sa.common.search.NGrams).querySize(#search)})" +
+            " and lower(p.name) like lower(concat('%', :#{escape(#search)}, '%')) escape :#{escapeCharacter()}";
+    String CATEGORY_EQUALS = " p.category.id = :categoryId";
+    String AFTER_CURSOR = " (p.name > :#{#after.key} or (p.name = :#{#after.key} and p.id > :#{#after.id}))";
+    String KEYSET_ORDER = " order by p.name, p.id";
+    String STREAM_FETCH_SIZE = "500";
+
+    @EntityGraph(attributePaths = CATEGORY)
+    @Override
+    Optional<Product> findById(UUID id);
+
+    @EntityGraph(attributePaths = CATEGORY)
+    @Override
+    Page<Product> findAll(Pageable pageable);
+
     /**
      * Returns the {@link Product} with the given name or {@link Optional#empty()} if none found.
      *
      * @param name The name
      * @return The product
      */
+    @EntityGraph(attributePaths = CATEGORY)
     Optional<Product> findOneByName(String name);
 
+    /**
+     * Returns those of the given names which are already used by a {@link Product} (in one statement).
+     *
+     * @param names The names
+     * @return The names already used
+     */
+    @Query("select p.name from Product p where p.name in :names")
+    Set<String> findNamesByNameIn(@Param("names") Collection<String> names);
+
+    /**
+     * Streams the names of all {@link Product}s (unordered).
+     *
+     * @return The names
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select p.name from Product p")
+    Stream<String> streamNames();
+
+    /**
+     * Deletes the {@link Product}s with the given ids in one statement (bypassing the persistence context).
+     *
+     * @param ids The ids
+     * @return The number of deleted products
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Product p where p.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Deletes the {@link Product}s belonging to a specific {@link Category} in one statement (bypassing the persistence context).
+     *
+     * @param categoryId The id of the category
+     * @return The number of deleted products
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Product p where" + CATEGORY_EQUALS)
+    int deleteByCategoryId(@Param("categoryId") UUID categoryId);
+
     /**
      * Returns the {@link Product} with the given name and category or {@link Optional#empty()} if none found.
      *
-     * @param name     The name
-     * @param category The category
+     * @param name       The name
+     * @param categoryId The id of the category
      * @return The product
      */
-    Optional<Product> findOneByNameAndCategory(String name, Category category);
+    @EntityGraph(attributePaths = CATEGORY)
+    @Query(ENTITY_SELECT + " where p.name = :name and" + CATEGORY_EQUALS)
+    Optional<Product> findOneByNameAndCategoryId(@Param("name") String name, @Param("categoryId") UUID categoryId);
 
     /**
      * Returns all {@link Product}s containing the search in name.
@@ -40,25 +127,194 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
      * @param pageable The pagination information
      * @return The products
      */
+    @EntityGraph(attributePaths = CATEGORY)
+    @Query(value = ENTITY_SELECT + " where" + NAME_CONTAINING, countQuery = SUMMARY_COUNT + " where" + NAME_CONTAINING)
     Page<Product> findByNameContainingIgnoreCase(String search, Pageable pageable);
 
     /**
      * Returns all {@link Product}s belonging to a specific {@link Category}.
      *
-     * @param category The category
-     * @param pageable The pagination information
+     * @param categoryId The id of the category
+     * @param pageable   The pagination information
      * @return The products
      */
-    Page<Product> findByCategory(Category category, Pageable pageable);
+    @EntityGraph(attributePaths = CATEGORY)
+    @Query(value = ENTITY_SELECT + " where" + CATEGORY_EQUALS, countQuery = SUMMARY_COUNT + " where" + CATEGORY_EQUALS)
+    Page<Product> findByCategoryId(@Param("categoryId") UUID categoryId, Pageable pageable);
 
     /**
      * Returns all {@link Product}s containing the search in name and belonging to a specific {@link Category}.
      *
+     * @param search     The search
+     * @param categoryId The id of the category
+     * @param pageable   The pagination information
+     * @return The products
+     */
+    @EntityGraph(attributePaths = CATEGORY)
+    @Query(value = ENTITY_SELECT + " where" + NAME_CONTAINING + " and" + CATEGORY_EQUALS,
+            countQuery = SUMMARY_COUNT + " where" + NAME_CONTAINING + " and" + CATEGORY_EQUALS)
+    Page<Product> findByNameContainingIgnoreCaseAndCategoryId(String search, @Param("categoryId") UUID categoryId, Pageable pageable);
+
+    /**
+     * Returns all {@link Product}s as read-only summaries.
+     *
+     * @param pageable The pagination information
+     * @return The product summaries
+     */
+    @Query(SUMMARY_SELECT)
+    Slice<ProductSummary> findSummaries(Pageable pageable);
+
+    /**
+     * Returns all {@link Product}s containing the search in name as read-only summaries.
+     *
      * @param search   The search
-     * @param category The category
      * @param pageable The pagination information
-     * @return The products
+     * @return The product summaries
+     */
+    @Query(SUMMARY_SELECT + " where" + NAME_CONTAINING)
+    Slice<ProductSummary> findSummariesByNameContainingIgnoreCase(String search, Pageable pageable);
+
+    /**
+     * Returns all {@link Product}s belonging to a specific {@link Category} as read-only summaries.
+     *
+     * @param categoryId The id of the category
+     * @param pageable   The pagination information
+     * @return The product summaries
+     */
+    @Query(SUMMARY_SELECT + " where" + CATEGORY_EQUALS)
+    Slice<ProductSummary> findSummariesByCategoryId(@Param("categoryId") UUID categoryId, Pageable pageable);
+
+    /**
+     * Returns all {@link Product}s containing the search in name and belonging to a specific {@link Category}
+     * as read-only summaries.
+     *
+     * @param search     The search
+     * @param categoryId The id of the category
+     * @param pageable   The pagination information
+     * @return The product summaries
+     */
+    @Query(SUMMARY_SELECT + " where" + NAME_CONTAINING + " and" + CATEGORY_EQUALS)
+    Slice<ProductSummary> findSummariesByNameContainingIgnoreCaseAndCategoryId(String search,
+                                                                             @Param("categoryId") UUID categoryId,
+                                                                             Pageable pageable);
+
+    /**
+     * Counts all {@link Product}s containing the search in name.
+     *
+     * @param search The search
+     * @return The number of products
+     */
+    @Query(SUMMARY_COUNT + " where" + NAME_CONTAINING)
+    long countByNameContainingIgnoreCase(String search);
+
+    /**
+     * Counts all {@link Product}s belonging to a specific {@link Category}.
+     *
+     * @param categoryId The id of the category
+     * @return The number of products
+     */
+    @Query(SUMMARY_COUNT + " where" + CATEGORY_EQUALS)
+    long countByCategoryId(@Param("categoryId") UUID categoryId);
+
+    /**
+     * Counts all {@link Product}s containing the search in name and belonging to a specific {@link Category}.
+     *
+     * @param search     The search
+     * @param categoryId The id of the category
+     * @return The number of products
+     */
+    @Query(SUMMARY_COUNT + " where" + NAME_CONTAINING + " and" + CATEGORY_EQUALS)
+    long countByNameContainingIgnoreCaseAndCategoryId(String search, @Param("categoryId") UUID categoryId);
+
+    /**
+     * Returns the next {@link Product}s after the cursor as read-only summaries.
+     *
+     * @param after    The cursor to continue after
+     * @param pageable The size of the slice (unsorted)
+     * @return The product summaries
+     */
+    @Query(SUMMARY_SELECT + " where" + AFTER_CURSOR + KEYSET_ORDER)
+    Slice<ProductSummary> findSummariesAfter(@Param("after") Cursor after, Pageable pageable);
+
+    /**
+     * Returns the next {@link Product}s containing the search in name after the cursor as read-only summaries.
+     *
+     * @param search   The search
+     * @param after    The cursor to continue after
+     * @param pageable The size of the slice (unsorted)
+     * @return The product summaries
+     */
+    @Query(SUMMARY_SELECT + " where" + NAME_CONTAINING + " and" + AFTER_CURSOR + KEYSET_ORDER)
+    Slice<ProductSummary> findSummariesByNameContainingIgnoreCaseAfter(String search, @Param("after") Cursor after, Pageable pageable);
+
+    /**
+     * Returns the next {@link Product}s belonging to a specific {@link Category} after the cursor as read-only summaries.
+     *
+     * @param categoryId The id of the category
+     * @param after      The cursor to continue after
+     * @param pageable   The size of the slice (unsorted)
+     * @return The product summaries
+     */
+    @Query(SUMMARY_SELECT + " where" + CATEGORY_EQUALS + " and" + AFTER_CURSOR + KEYSET_ORDER)
+    Slice<ProductSummary> findSummariesByCategoryIdAfter(@Param("categoryId") UUID categoryId,
+                                                         @Param("after") Cursor after,
+                                                         Pageable pageable);
+
+    /**
+     * Returns the next {@link Product}s containing the search in name and belonging to a specific {@link Category}
+     * after the cursor as read-only summaries.
+     *
+     * @param search     The search
+     * @param categoryId The id of the category
+     * @param after      The cursor to continue after
+     * @param pageable   The size of the slice (unsorted)
+     * @return The product summaries
+     */
+    @Query(SUMMARY_SELECT + " where" + NAME_CONTAINING + " and" + CATEGORY_EQUALS + " and" + AFTER_CURSOR + KEYSET_ORDER)
+    Slice<ProductSummary> findSummariesByNameContainingIgnoreCaseAndCategoryIdAfter(String search,
+                                                                                 @Param("categoryId") UUID categoryId,
+                                                                                 @Param("after") Cursor after,
+                                                                                   Pageable pageable);
+
+    /**
+     * Streams all {@link Product}s ordered by name as read-only summaries.
+     *
+     * @return The product summaries
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SUMMARY_SELECT + KEYSET_ORDER)
+    Stream<ProductSummary> streamSummaries();
+
+    /**
+     * Streams the {@link Product}s containing the search in name ordered by name as read-only summaries.
+     *
+     * @param search The search
+     * @return The product summaries
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SUMMARY_SELECT + " where" + NAME_CONTAINING + KEYSET_ORDER)
+    Stream<ProductSummary> streamSummariesByNameContainingIgnoreCase(String search);
+
+    /**
+     * Streams the {@link Product}s belonging to a specific {@link Category} ordered by name as read-only summaries.
+     *
+     * @param categoryId The id of the category
+     * @return The product summaries
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SUMMARY_SELECT + " where" + CATEGORY_EQUALS + KEYSET_ORDER)
+    Stream<ProductSummary> streamSummariesByCategoryId(@Param("categoryId") UUID categoryId);
+
+    /**
+     * Streams the {@link Product}s containing the search in name and belonging to a specific {@link Category}
+     * ordered by name as read-only summaries.
+     *
+     * @param search     The search
+     * @param categoryId The id of the category
+     * @return The product summaries
      */
-    Page<Product> findByNameContainingIgnoreCaseAndCategory(String search, Category category, Pageable pageable);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SUMMARY_SELECT + " where" + NAME_CONTAINING + " and" + CATEGORY_EQUALS + KEYSET_ORDER)
+    Stream<ProductSummary> streamSummariesByNameContainingIgnoreCaseAndCategoryId(String search, @Param("categoryId") UUID categoryId);
 
 }
@@ -0,0 +1,18 @@
+package neptunilus.blueprint.sa.inventory.repository.projection;
+
+import lombok.Value;
+import neptunilus.blueprint.sa.inventory.model.Category;
+
+import java.util.UUID;
+
+/**
+ * Read-only projection of a {@link Category} for listings.
+ */
+@Value
+public class CategorySummary {
+
+    UUID id;
+
+    String name;
+
+}
@@ -0,0 +1,22 @@
+package neptunilus.blueprint.sa.inventory.repository.projection;
+
+import lombok.Value;
+import neptunilus.blueprint.sa.inventory.model.Product;
+
+import java.util.UUID;
+
+/**
+ * Read-only projection of a {@link Product} (with its flattened category) for listings.
+ */
+@Value
+public class ProductSummary {
+
+    UUID id;
+
+    String name;
+
+    UUID categoryId;
+
+    String categoryName;
+
+}
@@ -1,13 +1,20 @@
 package neptunilus.blueprint.sa.inventory.service;
 
+import neptunilus.blueprint.sa.common.bulk.BulkItemResult;
+import neptunilus.blueprint.sa.common.exception.VersionMismatchException;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
 import neptunilus.blueprint.sa.inventory.exception.CategoryAlreadyExistsException;
 import neptunilus.blueprint.sa.inventory.exception.CategoryNotFoundException;
 import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.repository.projection.CategorySummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -27,6 +34,29 @@ public interface CategoryService {
     @PreAuthorize("hasAuthority('READ_CATEGORY')")
     Page<Category> find(String search, boolean strict, Pageable pageable);
 
+    /**
+     * Returns read-only summaries of the available categories (for listings).
+     *
+     * @param search   The (optional) search string for category name
+     * @param count    Flag, if the total should be counted (the result is a {@link Page} then)
+     * @param pageable The pagination information
+     * @return The category summaries
+     */
+    @PreAuthorize("hasAuthority('READ_CATEGORY')")
+    Slice<CategorySummary> findSummaries(String search, boolean count, Pageable pageable);
+
+    /**
+     * Returns read-only summaries of the available categories ordered by name, continuing after the given cursor
+     * (keyset pagination without total count).
+     *
+     * @param search The (optional) search string for category name
+     * @param after  The (optional) cursor to continue after, {@code null} for the first slice
+     * @param size   The maximum number of categories
+     * @return The category summaries
+     */
+    @PreAuthorize("hasAuthority('READ_CATEGORY')")
+    Slice<CategorySummary> findSummariesAfter(String search, Cursor after, int size);
+
     /**
      * Returns the category with the given id.
      *
@@ -37,6 +67,23 @@ public interface CategoryService {
     @PreAuthorize("hasAuthority('READ_CATEGORY')")
     Category get(UUID id) throws CategoryNotFoundException;
 
+    /**
+     * Returns the categories with the given ids (in one query).
+     *
+     * @param ids The ids
+     * @return The categories found, ids not found are skipped
+     */
+    @PreAuthorize("hasAuthority('READ_CATEGORY')")
+    List<Category> getAll(Collection<UUID> ids);
+
+    /**
+     * Returns the number of changes of the categories made so far (as a cheap version of the listings).
+     *
+     * @return The number of changes
+     */
+    @PreAuthorize("hasAuthority('READ_CATEGORY')")
+    long getChangeCount();
+
     /**
      * Creates a new category.
      *
@@ -47,16 +94,30 @@ public interface CategoryService {
     @PreAuthorize("hasAuthority('CREATE_CATEGORY')")
     UUID create(Category category) throws CategoryAlreadyExistsException;
 
+    /**
+     * Creates new categories in bulk.
+     * <p>
+     * Every category is validated on its own and reported as failed if invalid or its name is already there
+     * (also if used by a previous category of the same bulk), the other ones are inserted in batches.
+     *
+     * @param categories The categories to add
+     * @return The outcome per category (in the same order)
+     */
+    @PreAuthorize("hasAuthority('CREATE_CATEGORY')")
+    List<BulkItemResult> createAll(List<Category> categories);
+
     /**
      * Updates an existing category.
      *
-     * @param id     The id of the existing category to update
-     * @param update The new data for the category
+     * @param id      The id of the existing category to update
+     * @param update  The new data for the category
+     * @param version The expected current version of the category (or {@code null} to update any version)
      * @throws CategoryNotFoundException      If a category with the given id is not found
      * @throws CategoryAlreadyExistsException If a category with the new name is already there
+     * @throws VersionMismatchException       If the category is not in the expected version anymore
      */
     @PreAuthorize("hasAuthority('UPDATE_CATEGORY')")
-    void update(UUID id, Category update) throws CategoryNotFoundException, CategoryAlreadyExistsException;
+    void update(UUID id, Category update, Long version) throws CategoryNotFoundException, CategoryAlreadyExistsException, VersionMismatchException;
 
     /**
      * Deletes an existing category (if in the system).
@@ -66,4 +127,15 @@ public interface CategoryService {
     @PreAuthorize("hasAuthority('DELETE_CATEGORY')")
     void delete(UUID id);
 
+    /**
+     * Deletes the categories with the given ids in set-based statements (unknown ids are ignored).
+     * <p>
+     * The products of the categories are kept, but without category.
+     *
+     * @param ids The ids of the categories to remove
+     * @return The number of deleted categories
+     */
+    @PreAuthorize("hasAuthority('DELETE_CATEGORY')")
+    long deleteAll(Collection<UUID> ids);
+
 }
@@ -1,14 +1,23 @@
 package neptunilus.blueprint.sa.inventory.service;
 
+import neptunilus.blueprint.sa.common.bulk.BulkItemResult;
+import neptunilus.blueprint.sa.common.exception.VersionMismatchException;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import neptunilus.blueprint.sa.inventory.exception.CategoryNotFoundException;
 import neptunilus.blueprint.sa.inventory.exception.ProductAlreadyExistsException;
 import neptunilus.blueprint.sa.inventory.exception.ProductNotFoundException;
 import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.projection.ProductSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Service for handling with {@link Product}s.
@@ -28,6 +37,42 @@ public interface ProductService {
     @PreAuthorize("hasAuthority('READ_PRODUCT')")
     Page<Product> find(String search, boolean strict, UUID categoryId, Pageable pageable);
 
+    /**
+     * Returns read-only summaries of the available products (for listings).
+     *
+     * @param search     The (optional) search string for product name
+     * @param categoryId The (optional) category (id) of the product
+     * @param count      Flag, if the total should be counted (the result is a {@link Page} then)
+     * @param pageable   The pagination information
+     * @return The product summaries
+     */
+    @PreAuthorize("hasAuthority('READ_PRODUCT')")
+    Slice<ProductSummary> findSummaries(String search, UUID categoryId, boolean count, Pageable pageable);
+
+    /**
+     * Returns read-only summaries of the available products ordered by name, continuing after the given cursor
+     * (keyset pagination without total count).
+     *
+     * @param search     The (optional) search string for product name
+     * @param categoryId The (optional) category (id) of the product
+     * @param after      The (optional) cursor to continue after, {@code null} for the first slice
+     * @param size       The maximum number of products
+     * @return The product summaries
+     */
+    @PreAuthorize("hasAuthority('READ_PRODUCT')")
+    Slice<ProductSummary> findSummariesAfter(String search, UUID categoryId, Cursor after, int size);
+
+    /**
+     * Passes read-only summaries of all matching products (ordered by name) one after another to the action,
+     * streamed from the database instead of loading them all at once (for exports).
+     *
+     * @param search     The (optional) search string for product name
+     * @param categoryId The (optional) category (id) of the product
+     * @param action     The action for each product summary
+     */
+    @PreAuthorize("hasAuthority('READ_PRODUCT')")
+    void forEachSummary(String search, UUID categoryId, Consumer<ProductSummary> action);
+
     /**
      * Returns the product with the given id.
      *
@@ -38,6 +83,14 @@ public interface ProductService {
     @PreAuthorize("hasAuthority('READ_PRODUCT')")
     Product get(UUID id) throws ProductNotFoundException;
 
+    /**
+     * Returns the number of changes of the products and their categories made so far (as a cheap version of the listings).
+     *
+     * @return The number of changes
+     */
+    @PreAuthorize("hasAuthority('READ_PRODUCT')")
+    long getChangeCount();
+
     /**
      * Creates a new product.
      *
@@ -48,16 +101,31 @@ public interface ProductService {
     @PreAuthorize("hasAuthority('CREATE_PRODUCT')")
     UUID create(Product product) throws ProductAlreadyExistsException;
 
+    /**
+     * Creates new products in bulk.
+     * <p>
+     * Every product is validated on its own and reported as failed if invalid, its name is already there
+     * (also if used by a previous product of the same bulk) or its category is not found, the other ones are
+     * inserted in batches.
+     *
+     * @param products The products to add
+     * @return The outcome per product (in the same order)
+     */
+    @PreAuthorize("hasAuthority('CREATE_PRODUCT')")
+    List<BulkItemResult> createAll(List<Product> products);
+
     /**
      * Updates an existing product.
      *
-     * @param id     The id of the existing product to update
-     * @param update The new data for the product
+     * @param id      The id of the existing product to update
+     * @param update  The new data for the product
+     * @param version The expected current version of the product (or {@code null} to update any version)
      * @throws ProductNotFoundException      If a product with the given id is not found
      * @throws ProductAlreadyExistsException If a product with the new name is already there
+     * @throws VersionMismatchException      If the product is not in the expected version anymore
      */
     @PreAuthorize("hasAuthority('UPDATE_PRODUCT')")
-    void update(UUID id, Product update) throws ProductNotFoundException, ProductAlreadyExistsException;
+    void update(UUID id, Product update, Long version) throws ProductNotFoundException, ProductAlreadyExistsException, VersionMismatchException;
 
     /**
      * Deletes an existing product (if in the system).
@@ -67,4 +135,23 @@ public interface ProductService {
     @PreAuthorize("hasAuthority('DELETE_PRODUCT')")
     void delete(UUID id);
 
+    /**
+     * Deletes the products with the given ids in set-based statements (unknown ids are ignored).
+     *
+     * @param ids The ids of the products to remove
+     * @return The number of deleted products
+     */
+    @PreAuthorize("hasAuthority('DELETE_PRODUCT')")
+    long deleteAll(Collection<UUID> ids);
+
+    /**
+     * Deletes all products belonging to a category in one set-based statement.
+     *
+     * @param categoryId The category (id) of the products to remove
+     * @return The number of deleted products
+     * @throws CategoryNotFoundException If a category with the given id is not found
+     */
+    @PreAuthorize("hasAuthority('DELETE_PRODUCT')")
+    long deleteAllByCategory(UUID categoryId) throws CategoryNotFoundException;
+
 }
@@ -1,22 +1,44 @@
 package neptunilus.blueprint.sa.inventory.service.impl;
 
+import neptunilus.blueprint.sa.common.bulk.BulkItemResult;
+import neptunilus.blueprint.sa.common.bulk.Chunks;
+import neptunilus.blueprint.sa.common.cache.ChangeCounter;
+import neptunilus.blueprint.sa.common.cache.CountCache;
+import neptunilus.blueprint.sa.common.cache.ExistenceFilter;
+import neptunilus.blueprint.sa.common.exception.UniqueConstraints;
+import neptunilus.blueprint.sa.common.exception.VersionMismatchException;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import neptunilus.blueprint.sa.inventory.cache.CategoryCache;
 import neptunilus.blueprint.sa.inventory.exception.CategoryAlreadyExistsException;
 import neptunilus.blueprint.sa.inventory.exception.CategoryNotFoundException;
 import neptunilus.blueprint.sa.inventory.model.Category;
 import neptunilus.blueprint.sa.inventory.repository.CategoryRepository;
+import neptunilus.blueprint.sa.inventory.repository.projection.CategorySummary;
 import neptunilus.blueprint.sa.inventory.service.CategoryService;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Concrete implementation of {@link CategoryService}.
@@ -25,9 +47,24 @@ import java.util.UUID;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final Validator validator;
+    private final CountCache categoryCountCache;
+    private final ChangeCounter categoryChangeCounter;
+    private final ExistenceFilter categoryNameFilter;
+    private final CategoryCache categoryCache;
 
-    public CategoryServiceImpl(final CategoryRepository categoryRepository) {
+    public CategoryServiceImpl(final CategoryRepository categoryRepository,
+                               final Validator validator,
+                               @Qualifier("categoryCountCache") final CountCache categoryCountCache,
+                               @Qualifier("categoryChangeCounter") final ChangeCounter categoryChangeCounter,
+                               @Qualifier("categoryNameFilter") final ExistenceFilter categoryNameFilter,
+                               final CategoryCache categoryCache) {
         this.categoryRepository = categoryRepository;
+        this.validator = validator;
+        this.categoryCountCache = categoryCountCache;
+        this.categoryChangeCounter = categoryChangeCounter;
+        this.categoryNameFilter = categoryNameFilter;
+        this.categoryCache = categoryCache;
     }
 
     @Transactional(readOnly = true)
@@ -37,7 +74,10 @@ public class CategoryServiceImpl implements CategoryService {
             return this.categoryRepository.findAll(pageable);
         }
         if (strict) {
-            final Optional<Category> category = this.categoryRepository.findOneByName(search);
+            if (!this.categoryNameFilter.mightContain(search)) {
+                return Page.empty();
+            }
+            final Optional<Category> category = this.categoryCache.getByName(search);
             return category.isPresent() ? new PageImpl<>(Collections.singletonList(category.get())) : Page.empty();
         }
         return this.categoryRepository.findByNameContainingIgnoreCase(search, pageable);
@@ -45,39 +85,126 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Transactional(readOnly = true)
     @Override
+    public Slice<CategorySummary> findSummaries(final String search, final boolean count, final Pageable pageable) {
+        if (StringUtils.isBlank(search)) {
+            final Slice<CategorySummary> categories = this.categoryRepository.findSummaries(pageable);
+            return count ? this.categoryCountCache.toPage(categories, Collections.emptyList(), this.categoryRepository::count) : categories;
+        }
+        final Slice<CategorySummary> categories = this.categoryRepository.findSummariesByNameContainingIgnoreCase(search, pageable);
+        return count ? this.categoryCountCache.toPage(categories, Collections.singletonList(search),
+                () -> this.categoryRepository.countByNameContainingIgnoreCase(search)) : categories;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<CategorySummary> findSummariesAfter(final String search, final Cursor after, final int size) {
+        final Cursor cursor = Cursor.orFirst(after);
+        final Pageable limit = Cursor.limit(size);
+
+        if (StringUtils.isBlank(search)) {
+            return this.categoryRepository.findSummariesAfter(cursor, limit);
+        }
+        return this.categoryRepository.findSummariesByNameContainingIgnoreCaseAfter(search, cursor, limit);
+    }
+
+    // not transactional on purpose: cache hits must not acquire a connection, misses are loaded by the repository
+    @Override
     public Category get(final UUID id) throws CategoryNotFoundException {
         Assert.notNull(id, "id must not be null");
 
-        final Optional<Category> category = this.categoryRepository.findById(id);
-        return category.orElseThrow(() -> new CategoryNotFoundException(String.format("no category found with id '%s'", id)));
+        final Optional<Category> category = this.categoryCache.get(id);
+        return category.orElseThrow(() -> notFound(id));
+    }
+
+    // not transactional on purpose, see get
+    @Override
+    public List<Category> getAll(final Collection<UUID> ids) {
+        Assert.notNull(ids, "ids must not be null");
+        return ids.isEmpty() ? Collections.emptyList() : this.categoryCache.getAll(ids);
+    }
+
+    @Override
+    public long getChangeCount() {
+        return this.categoryChangeCounter.get();
     }
 
     @Transactional
     @Override
     public UUID create(final Category category) throws CategoryAlreadyExistsException {
         Assert.notNull(category, "category must not be null");
-        assertCategoryWithNameNotPresent(category.getName());
 
         Category newCategory = new Category(category.getName());
-        newCategory = this.categoryRepository.save(newCategory);
+        newCategory = saveWithUniqueName(newCategory);
+        this.categoryCountCache.invalidateAll();
+        this.categoryChangeCounter.changed();
 
         return newCategory.getId();
     }
 
     @Transactional
     @Override
-    public void update(final UUID id, final Category update) throws CategoryNotFoundException, CategoryAlreadyExistsException {
+    public List<BulkItemResult> createAll(final List<Category> categories) {
+        Assert.notNull(categories, "categories must not be null");
+
+        final Set<String> names = categories.stream()
+                .filter(Objects::nonNull).map(Category::getName).filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        names.removeIf(name -> !this.categoryNameFilter.mightContain(name));
+        final Set<String> usedNames = names.isEmpty() ? new HashSet<>() : new HashSet<>(Chunks.collect(names, this.categoryRepository::findNamesByNameIn));
+
+        final String[] errors = new String[categories.size()];
+        final Category[] newCategories = new Category[categories.size()];
+        for (int i = 0; i < categories.size(); i++) {
+            final Category category = categories.get(i);
+            if (category == null) {
+                errors[i] = "category must not be null";
+                continue;
+            }
+            final Category newCategory = new Category(category.getName());
+            errors[i] = validate(newCategory);
+            if (errors[i] == null && !usedNames.add(newCategory.getName())) {
+                errors[i] = String.format("category with name '%s' already exists", newCategory.getName());
+            }
+            newCategories[i] = errors[i] == null ? newCategory : null;
+        }
+
+        final List<Category> categoriesToSave = Arrays.stream(newCategories).filter(Objects::nonNull).collect(Collectors.toList());
+        if (!categoriesToSave.isEmpty()) {
+            this.categoryRepository.saveAll(categoriesToSave);
+            categoriesToSave.forEach(category -> this.categoryNameFilter.put(category.getName()));
+            this.categoryCountCache.invalidateAll();
+            this.categoryChangeCounter.changed();
+        }
+
+        final List<BulkItemResult> results = new ArrayList<>(categories.size());
+        for (int i = 0; i < categories.size(); i++) {
+            results.add(errors[i] == null ? BulkItemResult.created(i, newCategories[i].getId()) : BulkItemResult.failed(i, errors[i]));
+        }
+        return results;
+    }
+
+    @Transactional
+    @Override
+    public void update(final UUID id, final Category update, final Long version)
+            throws CategoryNotFoundException, CategoryAlreadyExistsException, VersionMismatchException {
         Assert.notNull(id, "id must not be null");
         Assert.notNull(update, "new data must not be null");
 
-        final Category existingCategory = get(id);
-
-        if (!Objects.equals(existingCategory.getName(), update.getName())) {
-            assertCategoryWithNameNotPresent(update.getName());
+        final Category existingCategory = this.categoryRepository.findById(id).orElseThrow(() -> notFound(id));
+        if (version != null && !version.equals(existingCategory.getVersion())) {
+            throw new VersionMismatchException(String.format("category with id '%s' is not in version %d anymore", id, version));
         }
+        this.categoryCache.invalidate(existingCategory);
 
+        final boolean renamed = !Objects.equals(existingCategory.getName(), update.getName());
         existingCategory.setName(update.getName());
-        this.categoryRepository.save(existingCategory);
+
+        saveWithUniqueName(existingCategory);
+        this.categoryCountCache.invalidateAll();
+        this.categoryChangeCounter.changed();
+        if (renamed) {
+            this.categoryNameFilter.removed(1);
+        }
     }
 
     @Transactional
@@ -88,13 +215,56 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         final Optional<Category> existingCategory = this.categoryRepository.findById(id);
-        existingCategory.ifPresent(this.categoryRepository::delete);
+        existingCategory.ifPresent(category -> {
+            this.categoryRepository.delete(category);
+            this.categoryCache.invalidate(category);
+            this.categoryCountCache.invalidateAll();
+            this.categoryChangeCounter.changed();
+            this.categoryNameFilter.removed(1);
+        });
+    }
+
+    @Transactional
+    @Override
+    public long deleteAll(final Collection<UUID> ids) {
+        Assert.notNull(ids, "ids must not be null");
+
+        Chunks.sum(ids, this.categoryRepository::unassignProductsByIdIn);
+        final long deleted = Chunks.sum(ids, this.categoryRepository::deleteByIdIn);
+        if (deleted > 0) {
+            this.categoryCache.invalidateAll(ids);
+            this.categoryCountCache.invalidateAll();
+            this.categoryChangeCounter.changed();
+            this.categoryNameFilter.removed(deleted);
+        }
+        return deleted;
+    }
+
+    private static CategoryNotFoundException notFound(final UUID id) {
+        return new CategoryNotFoundException(String.format("no category found with id '%s'", id));
+    }
+
+    private String validate(final Category category) {
+        final Set<ConstraintViolation<Category>> violations = this.validator.validate(category);
+        return violations.isEmpty() ? null : violations.stream()
+                .map(violation -> String.format("category %s %s", violation.getPropertyPath(), violation.getMessage()))
+                .sorted()
+                .collect(Collectors.joining(", "));
     }
 
-    private void assertCategoryWithNameNotPresent(final String name) {
-        final Optional<Category> existingCategory = this.categoryRepository.findOneByName(name);
-        if (existingCategory.isPresent()) {
-            throw new CategoryAlreadyExistsException(String.format("category with name '%s' already exists", name));
+    /**
+     * Saves (and flushes) the category, relying on the unique constraint of the database instead of checking the name before.
+     */
+    private Category saveWithUniqueName(final Category category) {
+        try {
+            final Category savedCategory = this.categoryRepository.saveAndFlush(category);
+            this.categoryNameFilter.put(category.getName());
+            return savedCategory;
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, Category.UNIQUE_NAME)) {
+                throw new CategoryAlreadyExistsException(String.format("category with name '%s' already exists", category.getName()));
+            }
+            throw e;
         }
     }
 }
@@ -1,24 +1,53 @@
 package neptunilus.blueprint.sa.inventory.service.impl;
 
+import neptunilus.blueprint.sa.common.bulk.BulkItemResult;
+import neptunilus.blueprint.sa.common.bulk.Chunks;
+import neptunilus.blueprint.sa.common.cache.ChangeCounter;
+import neptunilus.blueprint.sa.common.cache.CountCache;
+import neptunilus.blueprint.sa.common.cache.ExistenceFilter;
+import neptunilus.blueprint.sa.common.exception.UniqueConstraints;
+import neptunilus.blueprint.sa.common.exception.VersionMismatchException;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import neptunilus.blueprint.sa.inventory.exception.CategoryNotFoundException;
 import neptunilus.blueprint.sa.inventory.exception.ProductAlreadyExistsException;
 import neptunilus.blueprint.sa.inventory.exception.ProductNotFoundException;
 import neptunilus.blueprint.sa.inventory.model.Category;
 import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.CategoryRepository;
 import neptunilus.blueprint.sa.inventory.repository.ProductRepository;
+import neptunilus.blueprint.sa.inventory.repository.projection.ProductSummary;
 import neptunilus.blueprint.sa.inventory.service.CategoryService;
 import neptunilus.blueprint.sa.inventory.service.ProductService;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.util.Streamable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Concrete implementation of {@link ProductService}.
@@ -27,11 +56,30 @@ import java.util.UUID;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
     private final CategoryService categoryService;
+    private final Validator validator;
+    private final CountCache productCountCache;
+    private final ChangeCounter productChangeCounter;
+    private final ChangeCounter categoryChangeCounter;
+    private final ExistenceFilter productNameFilter;
 
-    public ProductServiceImpl(final ProductRepository productRepository, final CategoryService categoryService) {
+    public ProductServiceImpl(final ProductRepository productRepository,
+                              final CategoryRepository categoryRepository,
+                              final CategoryService categoryService,
+                              final Validator validator,
+                              @Qualifier("productCountCache") final CountCache productCountCache,
+                              @Qualifier("productChangeCounter") final ChangeCounter productChangeCounter,
+                              @Qualifier("categoryChangeCounter") final ChangeCounter categoryChangeCounter,
+                              @Qualifier("productNameFilter") final ExistenceFilter productNameFilter) {
         this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
         this.categoryService = categoryService;
+        this.validator = validator;
+        this.productCountCache = productCountCache;
+        this.productChangeCounter = productChangeCounter;
+        this.categoryChangeCounter = categoryChangeCounter;
+        this.productNameFilter = productNameFilter;
     }
 
     @Transactional(readOnly = true)
@@ -40,26 +88,100 @@ public class ProductServiceImpl implements ProductService {
         final boolean hasSearch = StringUtils.isNotBlank(search);
         final boolean hasCategory = categoryId != null;
 
-        final Category categoryFetched = hasCategory ? this.categoryService.get(categoryId) : null;
-
         if (!hasSearch) {
             return hasCategory ?
-                    this.productRepository.findByCategory(categoryFetched, pageable) :
+                    requireCategoryIfEmpty(this.productRepository.findByCategoryId(categoryId, pageable), categoryId) :
                     this.productRepository.findAll(pageable);
         }
 
         if (strict) {
+            if (!this.productNameFilter.mightContain(search)) {
+                return requireCategoryIfEmpty(Page.empty(), categoryId);
+            }
             final Optional<Product> product = hasCategory ?
-                    this.productRepository.findOneByNameAndCategory(search, categoryFetched) :
+                    this.productRepository.findOneByNameAndCategoryId(search, categoryId) :
                     this.productRepository.findOneByName(search);
-            return product.isPresent() ? new PageImpl<>(Collections.singletonList(product.get())) : Page.empty();
+            return requireCategoryIfEmpty(product.isPresent() ? new PageImpl<>(Collections.singletonList(product.get())) : Page.empty(),
+                    categoryId);
         }
 
         return hasCategory ?
-                this.productRepository.findByNameContainingIgnoreCaseAndCategory(search, categoryFetched, pageable) :
+                requireCategoryIfEmpty(this.productRepository.findByNameContainingIgnoreCaseAndCategoryId(search, categoryId, pageable), categoryId) :
                 this.productRepository.findByNameContainingIgnoreCase(search, pageable);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<ProductSummary> findSummaries(final String search, final UUID categoryId, final boolean count, final Pageable pageable) {
+        final boolean hasSearch = StringUtils.isNotBlank(search);
+        final boolean hasCategory = categoryId != null;
+
+        if (!hasSearch) {
+            return hasCategory ?
+                    withTotal(count, requireCategoryIfEmpty(this.productRepository.findSummariesByCategoryId(categoryId, pageable), categoryId),
+                            () -> this.productRepository.countByCategoryId(categoryId), null, categoryId) :
+                    withTotal(count, this.productRepository.findSummaries(pageable),
+                            this.productRepository::count, null, null);
+        }
+
+        return hasCategory ?
+                withTotal(count, requireCategoryIfEmpty(
+                        this.productRepository.findSummariesByNameContainingIgnoreCaseAndCategoryId(search, categoryId, pageable), categoryId),
+                        () -> this.productRepository.countByNameContainingIgnoreCaseAndCategoryId(search, categoryId), search, categoryId) :
+                withTotal(count, this.productRepository.findSummariesByNameContainingIgnoreCase(search, pageable),
+                        () -> this.productRepository.countByNameContainingIgnoreCase(search), search, null);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<ProductSummary> findSummariesAfter(final String search, final UUID categoryId, final Cursor after, final int size) {
+        final boolean hasSearch = StringUtils.isNotBlank(search);
+        final boolean hasCategory = categoryId != null;
+
+        final Cursor cursor = Cursor.orFirst(after);
+        final Pageable limit = Cursor.limit(size);
+
+        if (!hasSearch) {
+            return hasCategory ?
+                    requireCategoryIfEmpty(this.productRepository.findSummariesByCategoryIdAfter(categoryId, cursor, limit), categoryId) :
+                    this.productRepository.findSummariesAfter(cursor, limit);
+        }
+
+        return hasCategory ?
+                requireCategoryIfEmpty(
+                        this.productRepository.findSummariesByNameContainingIgnoreCaseAndCategoryIdAfter(search, categoryId, cursor, limit), categoryId) :
+                this.productRepository.findSummariesByNameContainingIgnoreCaseAfter(search, cursor, limit);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void forEachSummary(final String search, final UUID categoryId, final Consumer<ProductSummary> action) {
+        Assert.notNull(action, "action must not be null");
+
+        final boolean hasSearch = StringUtils.isNotBlank(search);
+        final boolean hasCategory = categoryId != null;
+
+        // resolved before streaming, as an unknown category cannot be reported anymore once the first product was passed on
+        if (hasCategory) {
+            this.categoryService.get(categoryId);
+        }
+
+        final Stream<ProductSummary> products;
+        if (!hasSearch) {
+            products = hasCategory ?
+                    this.productRepository.streamSummariesByCategoryId(categoryId) :
+                    this.productRepository.streamSummaries();
+        } else {
+            products = hasCategory ?
+                    this.productRepository.streamSummariesByNameContainingIgnoreCaseAndCategoryId(search, categoryId) :
+                    this.productRepository.streamSummariesByNameContainingIgnoreCase(search);
+        }
+
+        try (products) {
+            products.forEach(action);
+        }
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Product get(final UUID id) throws ProductNotFoundException {
@@ -69,39 +191,106 @@ public class ProductServiceImpl implements ProductService {
         return product.orElseThrow(() -> new ProductNotFoundException(String.format("no product found with id '%s'", id)));
     }
 
+    @Override
+    public long getChangeCount() {
+        // the listings contain the names of the categories as well
+        return this.productChangeCounter.get() + this.categoryChangeCounter.get();
+    }
+
     @Transactional
     @Override
     public UUID create(final Product product) throws ProductAlreadyExistsException {
         Assert.notNull(product, "product must not be null");
-        assertProductWithNameNotPresent(product.getName());
 
         final Category categoryFetched = product.getCategory() != null ?
-                this.categoryService.get(product.getCategory().getId()) : null;
+                referenceOf(this.categoryService.get(product.getCategory().getId())) : null;
 
         Product newProduct = new Product(product.getName(), categoryFetched);
-        newProduct = this.productRepository.save(newProduct);
+        newProduct = saveWithUniqueName(newProduct);
+        this.productCountCache.invalidateAll();
+        this.productChangeCounter.changed();
 
         return newProduct.getId();
     }
 
     @Transactional
     @Override
-    public void update(final UUID id, final Product update) throws ProductNotFoundException, ProductAlreadyExistsException {
+    public List<BulkItemResult> createAll(final List<Product> products) {
+        Assert.notNull(products, "products must not be null");
+
+        final Set<String> names = products.stream()
+                .filter(Objects::nonNull).map(Product::getName).filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        names.removeIf(name -> !this.productNameFilter.mightContain(name));
+        final Set<String> usedNames = names.isEmpty() ? new HashSet<>() : new HashSet<>(Chunks.collect(names, this.productRepository::findNamesByNameIn));
+
+        final Set<UUID> categoryIds = products.stream()
+                .filter(Objects::nonNull).map(Product::getCategory).filter(Objects::nonNull)
+                .map(Category::getId).filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        final Map<UUID, Category> categories = categoryIds.isEmpty() ? Collections.emptyMap() :
+                this.categoryService.getAll(categoryIds).stream().collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        final String[] errors = new String[products.size()];
+        final Product[] newProducts = new Product[products.size()];
+        for (int i = 0; i < products.size(); i++) {
+            final Product product = products.get(i);
+            if (product == null) {
+                errors[i] = "product must not be null";
+                continue;
+            }
+            final UUID categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+            final Category categoryFetched = categoryId != null ? categories.get(categoryId) : null;
+            final Product newProduct = new Product(product.getName(), categoryFetched != null ? referenceOf(categoryFetched) : null);
+            errors[i] = validate(newProduct);
+            if (errors[i] == null && product.getCategory() != null && categoryFetched == null) {
+                errors[i] = String.format("no category found with id '%s'", categoryId);
+            }
+            if (errors[i] == null && !usedNames.add(newProduct.getName())) {
+                errors[i] = String.format("product with name '%s' already exists", newProduct.getName());
+            }
+            newProducts[i] = errors[i] == null ? newProduct : null;
+        }
+
+        final List<Product> productsToSave = Arrays.stream(newProducts).filter(Objects::nonNull).collect(Collectors.toList());
+        if (!productsToSave.isEmpty()) {
+            this.productRepository.saveAll(productsToSave);
+            productsToSave.forEach(product -> this.productNameFilter.put(product.getName()));
+            this.productCountCache.invalidateAll();
+            this.productChangeCounter.changed();
+        }
+
+        final List<BulkItemResult> results = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            results.add(errors[i] == null ? BulkItemResult.created(i, newProducts[i].getId()) : BulkItemResult.failed(i, errors[i]));
+        }
+        return results;
+    }
+
+    @Transactional
+    @Override
+    public void update(final UUID id, final Product update, final Long version)
+            throws ProductNotFoundException, ProductAlreadyExistsException, VersionMismatchException {
         Assert.notNull(id, "id must not be null");
         Assert.notNull(update, "new data must not be null");
 
         final Product existingProduct = get(id);
-        final Category newCategory = update.getCategory() != null ?
-                this.categoryService.get(update.getCategory().getId()) : null;
-
-        if (!Objects.equals(existingProduct.getName(), update.getName())) {
-            assertProductWithNameNotPresent(update.getName());
+        if (version != null && !version.equals(existingProduct.getVersion())) {
+            throw new VersionMismatchException(String.format("product with id '%s' is not in version %d anymore", id, version));
         }
+        final Category newCategory = update.getCategory() != null ?
+                referenceOf(this.categoryService.get(update.getCategory().getId())) : null;
 
+        final boolean renamed = !Objects.equals(existingProduct.getName(), update.getName());
         existingProduct.setName(update.getName());
         existingProduct.setCategory(newCategory);
 
-        this.productRepository.save(existingProduct);
+        saveWithUniqueName(existingProduct);
+        this.productCountCache.invalidateAll();
+        this.productChangeCounter.changed();
+        if (renamed) {
+            this.productNameFilter.removed(1);
+        }
     }
 
     @Transactional
@@ -112,13 +301,88 @@ public class ProductServiceImpl implements ProductService {
         }
 
         final Optional<Product> existingProduct = this.productRepository.findById(id);
-        existingProduct.ifPresent(this.productRepository::delete);
+        existingProduct.ifPresent(product -> {
+            this.productRepository.delete(product);
+            this.productCountCache.invalidateAll();
+            this.productChangeCounter.changed();
+            this.productNameFilter.removed(1);
+        });
+    }
+
+    @Transactional
+    @Override
+    public long deleteAll(final Collection<UUID> ids) {
+        Assert.notNull(ids, "ids must not be null");
+
+        final long deleted = Chunks.sum(ids, this.productRepository::deleteByIdIn);
+        if (deleted > 0) {
+            this.productCountCache.invalidateAll();
+            this.productChangeCounter.changed();
+            this.productNameFilter.removed(deleted);
+        }
+        return deleted;
+    }
+
+    @Transactional
+    @Override
+    public long deleteAllByCategory(final UUID categoryId) throws CategoryNotFoundException {
+        Assert.notNull(categoryId, "category id must not be null");
+
+        final long deleted = this.productRepository.deleteByCategoryId(categoryId);
+        if (deleted == 0) {
+            this.categoryService.get(categoryId);
+        } else {
+            this.productCountCache.invalidateAll();
+            this.productChangeCounter.changed();
+            this.productNameFilter.removed(deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Resolves the category only if nothing was found, to report an unknown category instead of an empty result.
+     */
+    private <T extends Streamable<?>> T requireCategoryIfEmpty(final T products, final UUID categoryId) throws CategoryNotFoundException {
+        if (categoryId != null && products.isEmpty()) {
+            this.categoryService.get(categoryId);
+        }
+        return products;
+    }
+
+    /**
+     * Returns a reference of the (looked up) category managed by the current transaction, as the looked up one is a
+     * shared copy of the category cache.
+     */
+    private Category referenceOf(final Category category) {
+        return this.categoryRepository.getOne(category.getId());
+    }
+
+    private Slice<ProductSummary> withTotal(final boolean count, final Slice<ProductSummary> products,
+                                            final LongSupplier counter, final String search, final UUID categoryId) {
+        return count ? this.productCountCache.toPage(products, Arrays.asList(search, categoryId), counter) : products;
+    }
+
+    private String validate(final Product product) {
+        final Set<ConstraintViolation<Product>> violations = this.validator.validate(product);
+        return violations.isEmpty() ? null : violations.stream()
+                .map(violation -> String.format("product %s %s", violation.getPropertyPath(), violation.getMessage()))
+                .sorted()
+                .collect(Collectors.joining(", "));
     }
 
-    private void assertProductWithNameNotPresent(final String name) {
-        final Optional<Product> existingProduct = this.productRepository.findOneByName(name);
-        if (existingProduct.isPresent()) {
-            throw new ProductAlreadyExistsException(String.format("product with name '%s' already exists", name));
+    /**
+     * Saves (and flushes) the product, relying on the unique constraint of the database instead of checking the name before.
+     */
+    private Product saveWithUniqueName(final Product product) {
+        try {
+            final Product savedProduct = this.productRepository.saveAndFlush(product);
+            this.productNameFilter.put(product.getName());
+            return savedProduct;
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, Product.UNIQUE_NAME)) {
+                throw new ProductAlreadyExistsException(String.format("product with name '%s' already exists", product.getName()));
+            }
+            throw e;
         }
     }
 
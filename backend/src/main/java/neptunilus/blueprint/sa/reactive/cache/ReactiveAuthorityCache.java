@@ -0,0 +1,100 @@
+package neptunilus.blueprint.sa.reactive.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Value;
+import neptunilus.blueprint.sa.reactive.repository.ReactiveUserRepository;
+import neptunilus.blueprint.sa.security.cache.AuthenticatedUserCache;
+import neptunilus.blueprint.sa.security.model.Authority;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded cache for the authorities of the users resolved during reactive JWT authorization, the non-blocking
+ * counterpart of {@link AuthenticatedUserCache}.
+ * <p>
+ * Entries are keyed by the subject and the id of the token, so every new token starts with a fresh lookup.
+ * They expire after a fixed time and have to be invalidated explicitly as soon as the underlying user changes.
+ */
+public class ReactiveAuthorityCache {
+
+    private final ReactiveUserRepository userRepository;
+    private final AsyncCache<Key, Set<Authority>> cache;
+
+    public ReactiveAuthorityCache(final ReactiveUserRepository userRepository,
+                                  final long maximumSize,
+                                  final long expirationInSeconds) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expirationInSeconds))
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Returns the authorities for the given subject and token id, loading them if not cached yet.
+     * Concurrent requests with the same token share the same lookup.
+     *
+     * @param username The username (subject of the token)
+     * @param tokenId  The id of the token
+     * @return The authorities (empty if no user with the given username is found)
+     */
+    public Mono<Set<Authority>> get(final String username, final String tokenId) {
+        Assert.notNull(username, "username must not be null");
+        return Mono.fromFuture(this.cache.get(new Key(username, tokenId), (key, executor) ->
+                this.userRepository.findAuthoritiesByEmail(key.getUsername()).collect(Collectors.toSet()).toFuture()));
+    }
+
+    /**
+     * Removes all cached entries of the given username.
+     * <p>
+     * If called within a transaction, the entries are removed again after completion, so that concurrent
+     * lookups cannot keep the old state cached.
+     *
+     * @param username The username
+     */
+    public void invalidate(final String username) {
+        if (username == null) {
+            return;
+        }
+
+        evict(username);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(final int status) {
+                    evict(username);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the statistics (hits, misses, evictions, ...) of the cache.
+     *
+     * @return The statistics
+     */
+    public CacheStats getStats() {
+        return this.cache.synchronous().stats();
+    }
+
+    private void evict(final String username) {
+        this.cache.synchronous().asMap().keySet().removeIf(key -> key.getUsername().equals(username));
+    }
+
+    @Value
+    private static class Key {
+        String username;
+        String tokenId;
+    }
+
+}
@@ -0,0 +1,241 @@
+package neptunilus.blueprint.sa.reactive.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import neptunilus.blueprint.sa.common.metrics.CacheStatsMetrics;
+import neptunilus.blueprint.sa.inventory.controller.InventoryMapper;
+import neptunilus.blueprint.sa.reactive.cache.ReactiveAuthorityCache;
+import neptunilus.blueprint.sa.reactive.filter.ReactiveJwtAuthorizationFilter;
+import neptunilus.blueprint.sa.reactive.filter.ReactiveRequestMetricsFilter;
+import neptunilus.blueprint.sa.reactive.handler.CategoryHandler;
+import neptunilus.blueprint.sa.reactive.handler.ProductHandler;
+import neptunilus.blueprint.sa.reactive.repository.ReactiveCategoryRepository;
+import neptunilus.blueprint.sa.reactive.repository.ReactiveProductRepository;
+import neptunilus.blueprint.sa.reactive.repository.ReactiveUserRepository;
+import neptunilus.blueprint.sa.security.cache.VerifiedTokenCache;
+import neptunilus.blueprint.sa.security.model.Authority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.concurrent.Executors;
+import java.util.function.ToIntFunction;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Configuration of the (optional) reactive, read-only inventory API.
+ * <p>
+ * If enabled, the product and category reads are additionally served on a separate port by a non-blocking server
+ * (Reactor Netty), reading the same database over R2DBC. The JWTs of the servlet stack are accepted as they are.
+ */
+@Configuration
+@ConditionalOnProperty(name = "reactive.enabled", havingValue = "true")
+public class ReactiveConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveConfiguration.class);
+    private static final String H2_IN_MEMORY_JDBC_PREFIX = "jdbc:h2:mem:";
+    private static final String H2_IN_MEMORY_R2DBC_PREFIX = "r2dbc:h2:mem:///";
+
+    @Value("${reactive.port:8081}")
+    private int port;
+
+    @Value("${reactive.r2dbc.url:#{null}}")
+    private String r2dbcUrl;
+
+    @Value("${reactive.r2dbc.username:#{null}}")
+    private String r2dbcUsername;
+
+    @Value("${reactive.r2dbc.password:#{null}}")
+    private String r2dbcPassword;
+
+    @Value("${reactive.r2dbc.poolSize:10}")
+    private int r2dbcPoolSize;
+
+    @Value("${reactive.r2dbc.blocking:true}")
+    private boolean r2dbcBlocking;
+
+    @Value("${security.principalCache.maximumSize:10000}")
+    private long authorityCacheMaximumSize;
+
+    @Value("${security.principalCache.expirationInSeconds:60}")
+    private long authorityCacheExpiration;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final InventoryMapper inventoryMapper;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final DataSourceProperties dataSourceProperties;
+
+    public ReactiveConfiguration(final VerifiedTokenCache verifiedTokenCache,
+                                 final InventoryMapper inventoryMapper,
+                                 final ObjectMapper objectMapper,
+                                 final MeterRegistry meterRegistry,
+                                 final DataSourceProperties dataSourceProperties) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.inventoryMapper = inventoryMapper;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    /**
+     * The connection pool of the reactive API, to the database of the JPA datasource unless {@code reactive.r2dbc.url}
+     * (and its credentials) are configured.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool reactiveConnectionPool() {
+        final String url = this.r2dbcUrl != null ? this.r2dbcUrl : r2dbcUrlOf(this.dataSourceProperties.determineUrl());
+        final String username = this.r2dbcUsername != null ? this.r2dbcUsername : this.dataSourceProperties.determineUsername();
+        final String password = this.r2dbcPassword != null ? this.r2dbcPassword : this.dataSourceProperties.determinePassword();
+
+        final ConnectionFactoryOptions.Builder builder = ConnectionFactoryOptions.parse(url).mutate();
+        if (username != null) {
+            builder.option(USER, username);
+        }
+        if (password != null) {
+            builder.option(PASSWORD, password);
+        }
+        final ConnectionFactoryOptions options = builder.build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(this.r2dbcPoolSize)
+                .maxSize(this.r2dbcPoolSize)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        return DatabaseClient.create(reactiveConnectionPool());
+    }
+
+    /**
+     * The scheduler the queries run on.
+     * <p>
+     * The H2 driver executes the statements synchronously on the subscribing thread. On the few event loop threads
+     * of the server, that stalls the I/O of all other connections served by the same thread, so the queries are
+     * moved to dedicated threads (one per pooled connection). These share one queue: a thread may be kept busy for
+     * long, as a released connection is handed over to the next waiting query on the releasing thread.
+     * For a driver that does not block, set {@code reactive.r2dbc.blocking=false} to run them on the event loops.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler reactiveQueryScheduler() {
+        if (!this.r2dbcBlocking) {
+            return Schedulers.immediate();
+        }
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("reactive-query-");
+        threadFactory.setDaemon(true);
+        return Schedulers.fromExecutorService(Executors.newFixedThreadPool(this.r2dbcPoolSize, threadFactory), "reactive-query");
+    }
+
+    @Bean
+    public ReactiveProductRepository reactiveProductRepository() {
+        return new ReactiveProductRepository(reactiveDatabaseClient(), reactiveQueryScheduler());
+    }
+
+    @Bean
+    public ReactiveCategoryRepository reactiveCategoryRepository() {
+        return new ReactiveCategoryRepository(reactiveDatabaseClient(), reactiveQueryScheduler());
+    }
+
+    @Bean
+    public ReactiveAuthorityCache reactiveAuthorityCache() {
+        return new ReactiveAuthorityCache(new ReactiveUserRepository(reactiveDatabaseClient(), reactiveQueryScheduler()),
+                this.authorityCacheMaximumSize, this.authorityCacheExpiration);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveInventoryRoutes() {
+        final ReactiveJwtAuthorizationFilter authorization = new ReactiveJwtAuthorizationFilter(this.verifiedTokenCache, reactiveAuthorityCache());
+        final ProductHandler productHandler = new ProductHandler(reactiveProductRepository(), reactiveCategoryRepository(), this.inventoryMapper);
+        final CategoryHandler categoryHandler = new CategoryHandler(reactiveCategoryRepository(), this.inventoryMapper);
+
+        return route(GET("/product/scroll"), productHandler::scroll)
+                .andRoute(GET("/product/{id}"), productHandler::get)
+                .filter(authorization.requiring(Authority.READ_PRODUCT))
+                .and(route(GET("/category/scroll"), categoryHandler::scroll)
+                        .andRoute(GET("/category/{id}"), categoryHandler::get)
+                        .filter(authorization.requiring(Authority.READ_CATEGORY)))
+                .filter(new ReactiveRequestMetricsFilter(this.meterRegistry));
+    }
+
+    /**
+     * The metrics of the connection pool (like those of Hikari for the servlet stack) and the authority cache.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void bindMetrics() {
+        new CacheStatsMetrics(reactiveAuthorityCache(), "reactiveAuthority", reactiveAuthorityCache()::getStats).bindTo(this.meterRegistry);
+        bindPoolGauge("r2dbc.pool.acquired", "The connections in use", PoolMetrics::acquiredSize);
+        bindPoolGauge("r2dbc.pool.allocated", "The open connections", PoolMetrics::allocatedSize);
+        bindPoolGauge("r2dbc.pool.idle", "The idle connections", PoolMetrics::idleSize);
+        bindPoolGauge("r2dbc.pool.pending", "The queries waiting for a connection", PoolMetrics::pendingAcquireSize);
+        bindPoolGauge("r2dbc.pool.max.allocated", "The maximum of open connections", PoolMetrics::getMaxAllocatedSize);
+    }
+
+    private void bindPoolGauge(final String name, final String description, final ToIntFunction<PoolMetrics> value) {
+        Gauge.builder(name, reactiveConnectionPool(),
+                pool -> pool.getMetrics().map(value::applyAsInt).map(Number::doubleValue).orElse(Double.NaN))
+                .description(description)
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Derives the R2DBC URL of an in-memory H2 database from its JDBC URL (without its settings, which apply to the
+     * JDBC connections opening it), other databases need {@code reactive.r2dbc.url} to be configured.
+     */
+    static String r2dbcUrlOf(final String jdbcUrl) {
+        if (jdbcUrl == null || !jdbcUrl.startsWith(H2_IN_MEMORY_JDBC_PREFIX)) {
+            throw new IllegalStateException(String.format("reactive.r2dbc.url must be configured for the datasource '%s'", jdbcUrl));
+        }
+        final String database = jdbcUrl.substring(H2_IN_MEMORY_JDBC_PREFIX.length()).split(";", 2)[0];
+        return H2_IN_MEMORY_R2DBC_PREFIX + database;
+    }
+
+    /**
+     * The server of the reactive API, started as soon as the configuration is loaded.
+     */
+    @Bean(destroyMethod = "disposeNow")
+    public DisposableServer reactiveServer() {
+        final HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(this.objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(this.objectMapper));
+                })
+                .build();
+
+        final DisposableServer server = HttpServer.create()
+                .port(this.port)
+                .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(reactiveInventoryRoutes(), strategies)))
+                .bindNow();
+        LOGGER.info("reactive inventory API started on port {}", server.port());
+        return server;
+    }
+
+}
@@ -0,0 +1,80 @@
+package neptunilus.blueprint.sa.reactive.filter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import neptunilus.blueprint.sa.reactive.cache.ReactiveAuthorityCache;
+import neptunilus.blueprint.sa.security.cache.VerifiedTokenCache;
+import neptunilus.blueprint.sa.security.filter.JwtAuthorizationFilter;
+import neptunilus.blueprint.sa.security.model.Authority;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static neptunilus.blueprint.sa.security.util.JwtUtils.getTokenId;
+import static neptunilus.blueprint.sa.security.util.JwtUtils.getUsername;
+
+/**
+ * Authorization of reactive requests based on a provided JWT in authorization, the non-blocking counterpart of
+ * {@link JwtAuthorizationFilter}.
+ * <p>
+ * The tokens are verified the same way (and share the {@link VerifiedTokenCache}), the authorities are those of the
+ * current role of the user. Requests without valid token or without the required authority are denied
+ * with {@code 403 Forbidden}, like on the servlet stack.
+ */
+public class ReactiveJwtAuthorizationFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveJwtAuthorizationFilter.class);
+    private static final String AUTHENTICATION_SCHEME_BEARER = "Bearer";
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final ReactiveAuthorityCache authorityCache;
+
+    public ReactiveJwtAuthorizationFilter(final VerifiedTokenCache verifiedTokenCache, final ReactiveAuthorityCache authorityCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.authorityCache = authorityCache;
+    }
+
+    /**
+     * Returns the filter letting pass only requests of users with the given authority.
+     *
+     * @param authority The required authority
+     * @return The filter
+     */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> requiring(final Authority authority) {
+        return (request, next) -> {
+            final Jws<Claims> claims;
+            try {
+                claims = this.verifiedTokenCache.validateAndParseClaims(extractToken(request));
+            } catch (JwtException | IllegalArgumentException e) {
+                LOGGER.info("authorization failed, jwt issue: {}", e.getMessage());
+                return ServerResponse.status(HttpStatus.FORBIDDEN).build();
+            }
+
+            final String username = getUsername(claims);
+            return this.authorityCache.get(username, getTokenId(claims))
+                    .flatMap(authorities -> {
+                        if (!authorities.contains(authority)) {
+                            LOGGER.info("authorization failed, missing authority {}: {}", authority, username);
+                            return ServerResponse.status(HttpStatus.FORBIDDEN).build();
+                        }
+                        return next.handle(request);
+                    });
+        };
+    }
+
+    private static String extractToken(final ServerRequest request) {
+        final String header = StringUtils.trimToNull(request.headers().firstHeader(HttpHeaders.AUTHORIZATION));
+        if (!StringUtils.startsWithIgnoreCase(header, AUTHENTICATION_SCHEME_BEARER)) {
+            return null;
+        }
+        return StringUtils.trimToNull(StringUtils.substringAfter(header, AUTHENTICATION_SCHEME_BEARER));
+    }
+
+}
@@ -0,0 +1,57 @@
+package neptunilus.blueprint.sa.reactive.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Filter timing the reactive requests as {@code reactive.http.server.requests}, the counterpart of the
+ * {@code http.server.requests} of the servlet stack.
+ * <p>
+ * The requests are tagged with the method, the matched route pattern (never the actual path, to bound the number
+ * of series), the status and the exception (if any).
+ */
+public class ReactiveRequestMetricsFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    static final String METRIC = "reactive.http.server.requests";
+
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final String NO_EXCEPTION = "None";
+
+    private final MeterRegistry meterRegistry;
+
+    public ReactiveRequestMetricsFilter(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ServerResponse> filter(final ServerRequest request, final HandlerFunction<ServerResponse> next) {
+        final Timer.Sample sample = Timer.start(this.meterRegistry);
+        return next.handle(request)
+                .doOnSuccess(response -> record(sample, request,
+                        response != null ? String.valueOf(response.rawStatusCode()) : UNKNOWN, NO_EXCEPTION))
+                .doOnError(e -> record(sample, request, String.valueOf(status(e).value()), e.getClass().getSimpleName()));
+    }
+
+    private void record(final Timer.Sample sample, final ServerRequest request, final String status, final String exception) {
+        final String uri = request.attribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE)
+                .map(String::valueOf)
+                .orElse(UNKNOWN);
+        sample.stop(Timer.builder(METRIC)
+                .tags(Tags.of("method", request.methodName(), "uri", uri, "status", status, "exception", exception))
+                .register(this.meterRegistry));
+    }
+
+    private static HttpStatus status(final Throwable e) {
+        return e instanceof ResponseStatusException ? ((ResponseStatusException) e).getStatus() : HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+}
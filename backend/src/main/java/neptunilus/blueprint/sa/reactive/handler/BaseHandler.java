@@ -0,0 +1,89 @@
+package neptunilus.blueprint.sa.reactive.handler;
+
+import neptunilus.blueprint.sa.common.controller.exception.ApiError;
+import neptunilus.blueprint.sa.common.controller.exception.BaseExceptionHandler;
+import neptunilus.blueprint.sa.common.exception.InvalidCursorException;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Base of the reactive handlers, with the parsing of the request parameters and the error responses
+ * of {@link BaseExceptionHandler}.
+ */
+public abstract class BaseHandler {
+
+    private static final int DEFAULT_SIZE = 20;
+
+    /**
+     * Runs the handling, answering invalid parameters (and cursors) with {@code 400 Bad Request}.
+     */
+    protected static Mono<ServerResponse> handle(final Supplier<Mono<ServerResponse>> handling) {
+        return Mono.defer(handling)
+                .onErrorResume(InvalidCursorException.class, e -> error(HttpStatus.BAD_REQUEST, e.getMessage()))
+                .onErrorResume(InvalidParameterException.class, e -> error(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    protected static Mono<ServerResponse> ok(final Object body) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+    }
+
+    protected static Mono<ServerResponse> error(final HttpStatus status, final String message) {
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(new ApiError().withError(message));
+    }
+
+    protected static UUID idOf(final ServerRequest request) {
+        return parseUuid("id", request.pathVariable("id"));
+    }
+
+    protected static UUID optionalUuid(final ServerRequest request, final String name) {
+        return request.queryParam(name).map(value -> parseUuid(name, value)).orElse(null);
+    }
+
+    protected static Cursor cursorOf(final ServerRequest request) {
+        return Cursor.orFirst(Cursor.decode(request.queryParam("after").orElse(null)));
+    }
+
+    protected static Pageable limitOf(final ServerRequest request) {
+        final String size = request.queryParam("size").orElse(null);
+        try {
+            return Cursor.limit(size != null ? Integer.parseInt(size) : DEFAULT_SIZE);
+        } catch (final NumberFormatException e) {
+            throw new InvalidParameterException(String.format("invalid size '%s'", size));
+        }
+    }
+
+    /**
+     * Cuts the elements fetched for the given limit (one more than requested, to detect further ones) to a slice.
+     */
+    protected static <T> SliceImpl<T> toSlice(final List<T> elements, final Pageable limit) {
+        final boolean hasNext = elements.size() > limit.getPageSize();
+        return new SliceImpl<>(hasNext ? elements.subList(0, limit.getPageSize()) : elements, limit, hasNext);
+    }
+
+    private static UUID parseUuid(final String name, final String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (final IllegalArgumentException e) {
+            throw new InvalidParameterException(String.format("invalid %s '%s'", name, value));
+        }
+    }
+
+    private static class InvalidParameterException extends RuntimeException {
+
+        InvalidParameterException(final String message) {
+            super(message);
+        }
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package neptunilus.blueprint.sa.reactive.handler;
+
+import neptunilus.blueprint.sa.common.controller.out.SliceResponse;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import neptunilus.blueprint.sa.inventory.controller.CategoryController;
+import neptunilus.blueprint.sa.inventory.controller.InventoryMapper;
+import neptunilus.blueprint.sa.reactive.repository.ReactiveCategoryRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Reactive handler for reading categories, with the same responses as the {@link CategoryController}.
+ */
+public class CategoryHandler extends BaseHandler {
+
+    private final ReactiveCategoryRepository categoryRepository;
+    private final InventoryMapper inventoryMapper;
+
+    public CategoryHandler(final ReactiveCategoryRepository categoryRepository, final InventoryMapper inventoryMapper) {
+        this.categoryRepository = categoryRepository;
+        this.inventoryMapper = inventoryMapper;
+    }
+
+    public Mono<ServerResponse> scroll(final ServerRequest request) {
+        return handle(() -> {
+            final String search = request.queryParam("search").orElse(null);
+            final Cursor cursor = cursorOf(request);
+            final Pageable limit = limitOf(request);
+
+            return this.categoryRepository.findSummariesAfter(search, cursor, limit.getPageSize() + 1)
+                    .collectList()
+                    .map(categories -> SliceResponse.of(toSlice(categories, limit), this.inventoryMapper::toCategoryResponse,
+                            category -> new Cursor(category.getName(), category.getId())))
+                    .flatMap(BaseHandler::ok);
+        });
+    }
+
+    public Mono<ServerResponse> get(final ServerRequest request) {
+        return handle(() -> {
+            final UUID id = idOf(request);
+            return this.categoryRepository.findSummaryById(id)
+                    .map(this.inventoryMapper::toCategoryResponse)
+                    .flatMap(BaseHandler::ok)
+                    .switchIfEmpty(Mono.defer(() -> error(HttpStatus.NOT_FOUND, String.format("no category found with id '%s'", id))));
+        });
+    }
+
+}
@@ -0,0 +1,73 @@
+package neptunilus.blueprint.sa.reactive.handler;
+
+import neptunilus.blueprint.sa.common.controller.out.SliceResponse;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import neptunilus.blueprint.sa.inventory.controller.InventoryMapper;
+import neptunilus.blueprint.sa.inventory.controller.ProductController;
+import neptunilus.blueprint.sa.reactive.repository.ReactiveCategoryRepository;
+import neptunilus.blueprint.sa.reactive.repository.ReactiveProductRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Reactive handler for reading products, with the same responses as the {@link ProductController}.
+ */
+public class ProductHandler extends BaseHandler {
+
+    private final ReactiveProductRepository productRepository;
+    private final ReactiveCategoryRepository categoryRepository;
+    private final InventoryMapper inventoryMapper;
+
+    public ProductHandler(final ReactiveProductRepository productRepository, final ReactiveCategoryRepository categoryRepository,
+                          final InventoryMapper inventoryMapper) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.inventoryMapper = inventoryMapper;
+    }
+
+    public Mono<ServerResponse> scroll(final ServerRequest request) {
+        return handle(() -> {
+            final String search = request.queryParam("search").orElse(null);
+            final UUID categoryId = optionalUuid(request, "categoryId");
+            final Cursor cursor = cursorOf(request);
+            final Pageable limit = limitOf(request);
+
+            return this.productRepository.findSummariesAfter(search, categoryId, cursor, limit.getPageSize() + 1)
+                    .collectList()
+                    .flatMap(products -> requireCategoryIfEmpty(products, categoryId, () ->
+                            ok(SliceResponse.of(toSlice(products, limit), this.inventoryMapper::toProductResponse,
+                                    product -> new Cursor(product.getName(), product.getId())))));
+        });
+    }
+
+    public Mono<ServerResponse> get(final ServerRequest request) {
+        return handle(() -> {
+            final UUID id = idOf(request);
+            return this.productRepository.findSummaryById(id)
+                    .map(this.inventoryMapper::toProductResponse)
+                    .flatMap(BaseHandler::ok)
+                    .switchIfEmpty(Mono.defer(() -> error(HttpStatus.NOT_FOUND, String.format("no product found with id '%s'", id))));
+        });
+    }
+
+    /**
+     * Answers with {@code 404 Not Found} instead if no products were found for an unknown category (as the {@link ProductController}).
+     */
+    private Mono<ServerResponse> requireCategoryIfEmpty(final List<?> products, final UUID categoryId,
+                                                        final Supplier<Mono<ServerResponse>> response) {
+        if (categoryId == null || !products.isEmpty()) {
+            return response.get();
+        }
+        return this.categoryRepository.findSummaryById(categoryId)
+                .flatMap(category -> response.get())
+                .switchIfEmpty(Mono.defer(() -> error(HttpStatus.NOT_FOUND, String.format("no category found with id '%s'", categoryId))));
+    }
+
+}
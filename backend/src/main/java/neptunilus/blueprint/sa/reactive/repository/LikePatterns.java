@@ -0,0 +1,26 @@
+package neptunilus.blueprint.sa.reactive.repository;
+
+import java.util.Locale;
+
+/**
+ * Building of (case insensitive) {@code like} patterns, escaping the wildcards of the search itself.
+ */
+final class LikePatterns {
+
+    static final char ESCAPE = '\\';
+
+    private LikePatterns() {
+    }
+
+    static String containing(final String search) {
+        final StringBuilder pattern = new StringBuilder("%");
+        for (final char c : search.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                pattern.append(ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+}
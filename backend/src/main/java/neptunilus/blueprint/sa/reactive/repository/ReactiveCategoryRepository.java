@@ -0,0 +1,87 @@
+package neptunilus.blueprint.sa.reactive.repository;
+
+import io.r2dbc.spi.Row;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import neptunilus.blueprint.sa.common.search.NGrams;
+import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.repository.CategoryRepository;
+import neptunilus.blueprint.sa.inventory.repository.projection.CategorySummary;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.data.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.UUID;
+
+import static neptunilus.blueprint.sa.reactive.repository.UuidBytes.fromBytes;
+import static neptunilus.blueprint.sa.reactive.repository.UuidBytes.toBytes;
+
+/**
+ * Non-blocking, read-only access to the {@link Category}s (as summaries).
+ * <p>
+ * The statements are the SQL counterparts of the ones of {@link CategoryRepository}, including the n-gram narrowing
+ * of substring searches and the keyset pagination ordered by name and id.
+ */
+public class ReactiveCategoryRepository {
+
+    private static final String SUMMARY_SELECT = "select c.id, c.name from category c";
+    private static final String NAME_CONTAINING = " c.id in (select g.category_id from category_name_gram g" +
+            " where g.gram in (:grams) group by g.category_id having count(g.gram) = :gramCount)" +
+            " and lower(c.name) like :pattern escape '" + LikePatterns.ESCAPE + "'";
+    private static final String AFTER_CURSOR = " (c.name > :afterKey or (c.name = :afterKey and c.id > :afterId))";
+    private static final String KEYSET_ORDER = " order by c.name, c.id limit :limit";
+
+    private final DatabaseClient databaseClient;
+    private final Scheduler queryScheduler;
+
+    public ReactiveCategoryRepository(final DatabaseClient databaseClient, final Scheduler queryScheduler) {
+        this.databaseClient = databaseClient;
+        this.queryScheduler = queryScheduler;
+    }
+
+    /**
+     * Returns the summary of the category with the given id.
+     *
+     * @param id The id
+     * @return The category summary (empty if not found)
+     */
+    public Mono<CategorySummary> findSummaryById(final UUID id) {
+        return this.databaseClient.execute(SUMMARY_SELECT + " where c.id = :id")
+                .bind("id", toBytes(id))
+                .map(ReactiveCategoryRepository::toSummary)
+                .one()
+                .subscribeOn(this.queryScheduler);
+    }
+
+    /**
+     * Returns the next categories after the cursor (optionally containing the search in name) as summaries.
+     *
+     * @param search The (optional) search string for category name
+     * @param after  The cursor to continue after
+     * @param limit  The maximum number of categories
+     * @return The category summaries
+     */
+    public Flux<CategorySummary> findSummariesAfter(final String search, final Cursor after, final int limit) {
+        final boolean searching = search != null && !search.isBlank();
+        final String sql = SUMMARY_SELECT + " where" + (searching ? NAME_CONTAINING + " and" : "") + AFTER_CURSOR + KEYSET_ORDER;
+
+        GenericExecuteSpec spec = this.databaseClient.execute(sql)
+                .bind("afterKey", after.getKey())
+                .bind("afterId", toBytes(after.getId()))
+                .bind("limit", limit);
+        if (searching) {
+            spec = spec
+                    .bind("grams", NGrams.query(search))
+                    .bind("gramCount", NGrams.querySize(search))
+                    .bind("pattern", LikePatterns.containing(search));
+        }
+        return spec.map(ReactiveCategoryRepository::toSummary).all()
+                .subscribeOn(this.queryScheduler);
+    }
+
+    private static CategorySummary toSummary(final Row row) {
+        return new CategorySummary(fromBytes(row.get("id", byte[].class)), row.get("name", String.class));
+    }
+
+}
@@ -0,0 +1,102 @@
+package neptunilus.blueprint.sa.reactive.repository;
+
+import io.r2dbc.spi.Row;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import neptunilus.blueprint.sa.common.search.NGrams;
+import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.ProductRepository;
+import neptunilus.blueprint.sa.inventory.repository.projection.ProductSummary;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.data.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.UUID;
+
+import static neptunilus.blueprint.sa.reactive.repository.UuidBytes.fromBytes;
+import static neptunilus.blueprint.sa.reactive.repository.UuidBytes.toBytes;
+
+/**
+ * Non-blocking, read-only access to the {@link Product}s (as summaries with their flattened category).
+ * <p>
+ * The statements are the SQL counterparts of the ones of {@link ProductRepository}, including the n-gram narrowing
+ * of substring searches and the keyset pagination ordered by name and id.
+ */
+public class ReactiveProductRepository {
+
+    private static final String SUMMARY_SELECT = "select p.id, p.name, c.id as category_id, c.name as category_name " +
+            "from product p left join category c on c.id = p.category_id";
+    private static final String NAME_CONTAINING = " p.id in (select g.product_id from product_name_gram g" +
+            " where g.gram in (:grams) group by g.product_id having count(g.gram) = :gramCount)" +
+            " and lower(p.name) like :pattern escape '" + LikePatterns.ESCAPE + "'";
+    private static final String CATEGORY_EQUALS = " p.category_id = :categoryId";
+    private static final String AFTER_CURSOR = " (p.name > :afterKey or (p.name = :afterKey and p.id > :afterId))";
+    private static final String KEYSET_ORDER = " order by p.name, p.id limit :limit";
+
+    private final DatabaseClient databaseClient;
+    private final Scheduler queryScheduler;
+
+    public ReactiveProductRepository(final DatabaseClient databaseClient, final Scheduler queryScheduler) {
+        this.databaseClient = databaseClient;
+        this.queryScheduler = queryScheduler;
+    }
+
+    /**
+     * Returns the summary of the product with the given id.
+     *
+     * @param id The id
+     * @return The product summary (empty if not found)
+     */
+    public Mono<ProductSummary> findSummaryById(final UUID id) {
+        return this.databaseClient.execute(SUMMARY_SELECT + " where p.id = :id")
+                .bind("id", toBytes(id))
+                .map(ReactiveProductRepository::toSummary)
+                .one()
+                .subscribeOn(this.queryScheduler);
+    }
+
+    /**
+     * Returns the next products after the cursor (optionally containing the search in name and of the category
+     * with the given id) as summaries.
+     *
+     * @param search     The (optional) search string for product name
+     * @param categoryId The (optional) id of the category
+     * @param after      The cursor to continue after
+     * @param limit      The maximum number of products
+     * @return The product summaries
+     */
+    public Flux<ProductSummary> findSummariesAfter(final String search, final UUID categoryId, final Cursor after, final int limit) {
+        final boolean searching = search != null && !search.isBlank();
+        final StringBuilder sql = new StringBuilder(SUMMARY_SELECT).append(" where");
+        if (searching) {
+            sql.append(NAME_CONTAINING).append(" and");
+        }
+        if (categoryId != null) {
+            sql.append(CATEGORY_EQUALS).append(" and");
+        }
+        sql.append(AFTER_CURSOR).append(KEYSET_ORDER);
+
+        GenericExecuteSpec spec = this.databaseClient.execute(sql.toString())
+                .bind("afterKey", after.getKey())
+                .bind("afterId", toBytes(after.getId()))
+                .bind("limit", limit);
+        if (searching) {
+            spec = spec
+                    .bind("grams", NGrams.query(search))
+                    .bind("gramCount", NGrams.querySize(search))
+                    .bind("pattern", LikePatterns.containing(search));
+        }
+        if (categoryId != null) {
+            spec = spec.bind("categoryId", toBytes(categoryId));
+        }
+        return spec.map(ReactiveProductRepository::toSummary).all()
+                .subscribeOn(this.queryScheduler);
+    }
+
+    private static ProductSummary toSummary(final Row row) {
+        return new ProductSummary(fromBytes(row.get("id", byte[].class)), row.get("name", String.class),
+                fromBytes(row.get("category_id", byte[].class)), row.get("category_name", String.class));
+    }
+
+}
@@ -0,0 +1,37 @@
+package neptunilus.blueprint.sa.reactive.repository;
+
+import neptunilus.blueprint.sa.security.model.Authority;
+import neptunilus.blueprint.sa.security.model.User;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Non-blocking, read-only access to the {@link User}s (as far as needed for authorization).
+ */
+public class ReactiveUserRepository {
+
+    private final DatabaseClient databaseClient;
+    private final Scheduler queryScheduler;
+
+    public ReactiveUserRepository(final DatabaseClient databaseClient, final Scheduler queryScheduler) {
+        this.databaseClient = databaseClient;
+        this.queryScheduler = queryScheduler;
+    }
+
+    /**
+     * Returns the authorities of the current role of the user with the given email.
+     *
+     * @param email The email
+     * @return The authorities (empty if no user found)
+     */
+    public Flux<Authority> findAuthoritiesByEmail(final String email) {
+        return this.databaseClient.execute("select a.authority from user u " +
+                "join user_role_authority a on a.user_role_id = u.role_id where u.email = :email")
+                .bind("email", email)
+                .map(row -> Authority.valueOf(row.get("authority", String.class)))
+                .all()
+                .subscribeOn(this.queryScheduler);
+    }
+
+}
@@ -0,0 +1,29 @@
+package neptunilus.blueprint.sa.reactive.repository;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Conversion of {@link UUID}s from and to the binary columns they are stored in (as mapped by Hibernate).
+ */
+final class UuidBytes {
+
+    private UuidBytes() {
+    }
+
+    static byte[] toBytes(final UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    static UUID fromBytes(final byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+}
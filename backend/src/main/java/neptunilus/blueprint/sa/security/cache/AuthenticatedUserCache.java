@@ -0,0 +1,102 @@
+package neptunilus.blueprint.sa.security.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Value;
+import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
+import neptunilus.blueprint.sa.security.service.impl.AuthenticatedUserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache for {@link AuthenticatedUser}s resolved during JWT authorization.
+ * <p>
+ * Entries are keyed by the subject and the id of the token, so every new token starts with a fresh lookup.
+ * They expire after a fixed time and have to be invalidated explicitly as soon as the underlying user changes.
+ */
+public class AuthenticatedUserCache {
+
+    private final AuthenticatedUserDetailsService userDetailsService;
+    private final Cache<Key, AuthenticatedUser> cache;
+
+    public AuthenticatedUserCache(final AuthenticatedUserDetailsService userDetailsService,
+                                  final long maximumSize,
+                                  final long expirationInSeconds) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expirationInSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the authenticated user for the given subject and token id, loading it if not cached yet.
+     *
+     * @param username The username (subject of the token)
+     * @param tokenId  The id of the token
+     * @return The authenticated user
+     * @throws UsernameNotFoundException If no user with the given username is found
+     */
+    public AuthenticatedUser get(final String username, final String tokenId) throws UsernameNotFoundException {
+        Assert.notNull(username, "username must not be null");
+        return this.cache.get(new Key(username, tokenId), key -> this.userDetailsService.loadUserByUsername(key.getUsername()));
+    }
+
+    /**
+     * Removes all cached entries of the given username.
+     * <p>
+     * If called within a transaction, the entries are removed again after completion, so that concurrent
+     * lookups cannot keep the old state cached.
+     *
+     * @param username The username
+     */
+    public void invalidate(final String username) {
+        if (username == null) {
+            return;
+        }
+
+        evict(username);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(final int status) {
+                    evict(username);
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes all cached entries.
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Returns the statistics (hits, misses, evictions, ...) of the cache.
+     *
+     * @return The statistics
+     */
+    public CacheStats getStats() {
+        return this.cache.stats();
+    }
+
+    private void evict(final String username) {
+        this.cache.asMap().keySet().removeIf(key -> key.getUsername().equals(username));
+    }
+
+    @Value
+    private static class Key {
+        String username;
+        String tokenId;
+    }
+
+}
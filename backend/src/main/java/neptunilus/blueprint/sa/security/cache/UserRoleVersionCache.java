@@ -0,0 +1,54 @@
+package neptunilus.blueprint.sa.security.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.repository.UserRoleRepository;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Short living cache for the current versions of the {@link UserRole}s.
+ * <p>
+ * Used to detect outdated role information inside self-contained tokens without querying the database on every request.
+ */
+public class UserRoleVersionCache {
+
+    private final LoadingCache<UUID, Optional<Long>> cache;
+
+    public UserRoleVersionCache(final UserRoleRepository userRoleRepository, final long expirationInSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(expirationInSeconds))
+                .recordStats()
+                .build(userRoleRepository::findVersionById);
+    }
+
+    /**
+     * Checks if the given version is the current one of the user role.
+     *
+     * @param userRoleId The id of the user role
+     * @param version    The version to check
+     * @return {@code true} if the version is current, {@code false} if outdated or the role does not exist anymore
+     */
+    public boolean isCurrent(final UUID userRoleId, final Long version) {
+        if (userRoleId == null || version == null) {
+            return false;
+        }
+        final Optional<Long> currentVersion = this.cache.get(userRoleId);
+        return currentVersion != null && currentVersion.isPresent() && Objects.equals(currentVersion.get(), version);
+    }
+
+    /**
+     * Returns the statistics (hits, misses, evictions, ...) of the cache.
+     *
+     * @return The statistics
+     */
+    public CacheStats getStats() {
+        return this.cache.stats();
+    }
+
+}
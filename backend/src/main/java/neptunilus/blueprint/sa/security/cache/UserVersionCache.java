@@ -0,0 +1,84 @@
+package neptunilus.blueprint.sa.security.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.repository.UserRepository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bounded cache for the current versions of the {@link User}s.
+ * <p>
+ * Used to detect self-contained tokens of users which were changed (e.g. moved to another role) or deleted since
+ * the token was issued. Entries have to be invalidated explicitly as soon as the user changes, the expiration only
+ * bounds the delay for changes made by other instances.
+ */
+public class UserVersionCache {
+
+    private final LoadingCache<UUID, Optional<Long>> cache;
+
+    public UserVersionCache(final UserRepository userRepository, final long maximumSize, final long expirationInSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expirationInSeconds))
+                .recordStats()
+                .build(userRepository::findVersionById);
+    }
+
+    /**
+     * Checks if the given version is the current one of the user.
+     *
+     * @param userId  The id of the user
+     * @param version The version to check
+     * @return {@code true} if the version is current, {@code false} if outdated or the user does not exist anymore
+     */
+    public boolean isCurrent(final UUID userId, final Long version) {
+        if (userId == null || version == null) {
+            return false;
+        }
+        final Optional<Long> currentVersion = this.cache.get(userId);
+        return currentVersion != null && currentVersion.isPresent() && Objects.equals(currentVersion.get(), version);
+    }
+
+    /**
+     * Removes the cached version of the given user.
+     * <p>
+     * If called within a transaction, the entry is removed again after completion, so that concurrent
+     * lookups cannot keep the old version cached.
+     *
+     * @param userId The id of the user
+     */
+    public void invalidate(final UUID userId) {
+        if (userId == null) {
+            return;
+        }
+
+        this.cache.invalidate(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(final int status) {
+                    UserVersionCache.this.cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the statistics (hits, misses, evictions, ...) of the cache.
+     *
+     * @return The statistics
+     */
+    public CacheStats getStats() {
+        return this.cache.stats();
+    }
+
+}
@@ -0,0 +1,97 @@
+package neptunilus.blueprint.sa.security.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import neptunilus.blueprint.sa.security.util.JwtUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache for already verified JWTs, so that repeatedly sent tokens are not decoded, parsed and verified again.
+ * <p>
+ * Entries are keyed by the SHA-256 hash of the raw token and expire together with the token itself.
+ * Tokens failing verification are never cached. A maximum size of {@code 0} disables the cache.
+ */
+public class VerifiedTokenCache {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final JwtUtils jwtUtils;
+    private final Cache<ByteBuffer, Jws<Claims>> cache;
+
+    public VerifiedTokenCache(final JwtUtils jwtUtils, final long maximumSize) {
+        this.jwtUtils = jwtUtils;
+        this.cache = maximumSize > 0 ?
+                Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfter(new TokenExpiry())
+                        .recordStats()
+                        .build() :
+                null;
+    }
+
+    /**
+     * Returns the claims of the given token, verifying it only if not already done before.
+     *
+     * @param token The raw token
+     * @return The claims
+     * @see JwtUtils#validateAndParseClaims(String)
+     */
+    public Jws<Claims> validateAndParseClaims(final String token) {
+        if (this.cache == null || token == null) {
+            return this.jwtUtils.validateAndParseClaims(token);
+        }
+        return this.cache.get(hash(token), key -> this.jwtUtils.validateAndParseClaims(token));
+    }
+
+    /**
+     * Returns the statistics (hits, misses, evictions, ...) of the cache.
+     *
+     * @return The statistics
+     */
+    public CacheStats getStats() {
+        return this.cache != null ? this.cache.stats() : CacheStats.empty();
+    }
+
+    private static ByteBuffer hash(final String token) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(String.format("hash algorithm '%s' not available", HASH_ALGORITHM), e);
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<ByteBuffer, Jws<Claims>> {
+
+        @Override
+        public long expireAfterCreate(final ByteBuffer key, final Jws<Claims> claims, final long currentTime) {
+            final Date expiration = claims.getBody().getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(final ByteBuffer key, final Jws<Claims> claims, final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(final ByteBuffer key, final Jws<Claims> claims, final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package neptunilus.blueprint.sa.security.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import neptunilus.blueprint.sa.common.cache.ChangeCounter;
+import neptunilus.blueprint.sa.common.cache.ExistenceFilter;
+import neptunilus.blueprint.sa.common.metrics.ExistenceFilterMetrics;
+import neptunilus.blueprint.sa.security.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Configuration for the users.
+ */
+@Configuration
+public class UserConfiguration {
+
+    @Value("${security.emailFilter.enabled:true}")
+    private boolean emailFilterEnabled;
+
+    @Value("${security.emailFilter.expectedInsertions:10000}")
+    private long emailFilterExpectedInsertions;
+
+    @Value("${security.emailFilter.falsePositiveRate:0.01}")
+    private double emailFilterFalsePositiveRate;
+
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    public UserConfiguration(final UserRepository userRepository, final PlatformTransactionManager transactionManager,
+                             final MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.transactionManager = transactionManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public ChangeCounter userChangeCounter() {
+        return new ChangeCounter();
+    }
+
+    @Bean
+    public ExistenceFilter userEmailFilter() {
+        return new ExistenceFilter("userEmail", this.emailFilterExpectedInsertions, this.emailFilterFalsePositiveRate,
+                ExistenceFilter.scanning(this.transactionManager, this.userRepository::streamEmails));
+    }
+
+    /**
+     * Builds the email filter before requests are served (unless disabled, e.g. for several instances sharing the database).
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void buildEmailFilter() {
+        if (this.emailFilterEnabled) {
+            userEmailFilter().rebuild();
+        }
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void bindMetrics() {
+        new ExistenceFilterMetrics(userEmailFilter()).bindTo(this.meterRegistry);
+    }
+
+}
@@ -1,12 +1,33 @@
 package neptunilus.blueprint.sa.security.configuration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import neptunilus.blueprint.sa.common.cache.CountCache;
+import neptunilus.blueprint.sa.common.concurrent.BoundedExecutor;
+import neptunilus.blueprint.sa.common.metrics.BoundedExecutorMetrics;
+import neptunilus.blueprint.sa.common.metrics.CacheStatsMetrics;
+import neptunilus.blueprint.sa.security.cache.AuthenticatedUserCache;
+import neptunilus.blueprint.sa.security.cache.UserRoleVersionCache;
+import neptunilus.blueprint.sa.security.cache.UserVersionCache;
+import neptunilus.blueprint.sa.security.cache.VerifiedTokenCache;
 import neptunilus.blueprint.sa.security.filter.JwtAuthenticationFilter;
 import neptunilus.blueprint.sa.security.filter.JwtAuthorizationFilter;
+import neptunilus.blueprint.sa.security.model.Authority;
+import neptunilus.blueprint.sa.security.repository.UserRepository;
+import neptunilus.blueprint.sa.security.repository.UserRoleRepository;
+import neptunilus.blueprint.sa.security.service.RefreshTokenService;
 import neptunilus.blueprint.sa.security.service.impl.AuthenticatedUserDetailsService;
+import neptunilus.blueprint.sa.security.util.BCryptCalibration;
 import neptunilus.blueprint.sa.security.util.JwtUtils;
+import neptunilus.blueprint.sa.security.util.TimedPasswordEncoder;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,10 +35,14 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
+import java.time.Duration;
+import java.util.Map;
+
 /**
  * Configuration for web security.
  */
@@ -34,14 +59,77 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
     @Value("${jwt.expirationInSeconds}")
     private long jwtExpiration;
 
+    @Value("${jwt.selfContained:false}")
+    private boolean jwtSelfContained;
+
+    @Value("${security.principalCache.maximumSize:10000}")
+    private long principalCacheMaximumSize;
+
+    @Value("${security.principalCache.expirationInSeconds:60}")
+    private long principalCacheExpiration;
+
+    @Value("${security.tokenCache.maximumSize:10000}")
+    private long tokenCacheMaximumSize;
+
+    @Value("${security.roleVersionCache.expirationInSeconds:10}")
+    private long roleVersionCacheExpiration;
+
+    @Value("${security.userVersionCache.maximumSize:10000}")
+    private long userVersionCacheMaximumSize;
+
+    @Value("${security.userVersionCache.expirationInSeconds:10}")
+    private long userVersionCacheExpiration;
+
+    @Value("${security.countCache.maximumSize:1000}")
+    private long countCacheMaximumSize;
+
+    @Value("${security.countCache.expirationInSeconds:10}")
+    private long countCacheExpiration;
+
+    @Value("${security.passwordHashing.threads:2}")
+    private int passwordHashingThreads;
+
+    @Value("${security.passwordHashing.queueCapacity:50}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${security.passwordHashing.retryAfterInSeconds:1}")
+    private long passwordHashingRetryAfter;
+
+    @Value("${security.passwordHashing.timeoutInSeconds:10}")
+    private long passwordHashingTimeout;
+
+    @Value("${security.passwordEncoding.strength:0}")
+    private int passwordEncodingStrength;
+
+    @Value("${security.passwordEncoding.targetInMillis:250}")
+    private long passwordEncodingTarget;
+
+    @Value("${security.passwordEncoding.minStrength:10}")
+    private int passwordEncodingMinStrength;
+
+    @Value("${security.passwordEncoding.maxStrength:16}")
+    private int passwordEncodingMaxStrength;
+
     private final AuthenticatedUserDetailsService userDetailsService;
+    private final UserRepository userRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final RefreshTokenService refreshTokenService;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
     public WebSecurityConfiguration(
             final AuthenticatedUserDetailsService userDetailsService,
-            final ObjectMapper objectMapper) {
+            final UserRepository userRepository,
+            final UserRoleRepository userRoleRepository,
+            final RefreshTokenService refreshTokenService,
+            final ObjectMapper objectMapper,
+            final MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
+        this.userRepository = userRepository;
+        this.userRoleRepository = userRoleRepository;
+        this.refreshTokenService = refreshTokenService;
         this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -50,9 +138,15 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
                 .cors().and()
                 .csrf().disable()
                 .authorizeRequests()
+                .antMatchers(HttpMethod.POST, "/token/refresh").permitAll()
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                .requestMatchers(EndpointRequest.to(PrometheusScrapeEndpoint.class)).hasAuthority(Authority.READ_METRICS.name())
                 .anyRequest().authenticated().and()
-                .addFilterAt(new JwtAuthenticationFilter(this.objectMapper, jwtUtils(), authenticationManager()), UsernamePasswordAuthenticationFilter.class)
-                .addFilterAt(new JwtAuthorizationFilter(jwtUtils(), this.userDetailsService), BasicAuthenticationFilter.class)
+                .addFilterAt(new JwtAuthenticationFilter(this.objectMapper, jwtUtils(), this.refreshTokenService, authenticationManager(),
+                        passwordHashingExecutor(), this.passwordHashingRetryAfter, this.passwordHashingTimeout,
+                        this.meterRegistry), UsernamePasswordAuthenticationFilter.class)
+                .addFilterAt(new JwtAuthorizationFilter(jwtUtils(), verifiedTokenCache(), authenticatedUserCache(), userRoleVersionCache(),
+                        userVersionCache(), this.meterRegistry), BasicAuthenticationFilter.class)
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
     }
 
@@ -60,17 +154,75 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
     protected void configure(final AuthenticationManagerBuilder auth) throws Exception {
         auth
                 .userDetailsService(this.userDetailsService)
-                .passwordEncoder(passwordEncoder());
+                .passwordEncoder(passwordEncoder())
+                .userDetailsPasswordManager(this.userDetailsService);
     }
 
+    /**
+     * The password encoder, hashing with BCrypt of a fixed strength or of the strength calibrated to the host
+     * (if no strength is configured). The hashes are prefixed with the algorithm, so that hashes of other
+     * strengths (or without prefix, from before) still match and are replaced on the next login.
+     * The hashing is timed.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        final int strength = this.passwordEncodingStrength > 0 ? this.passwordEncodingStrength
+                : BCryptCalibration.calibrate(Duration.ofMillis(this.passwordEncodingTarget),
+                this.passwordEncodingMinStrength, this.passwordEncodingMaxStrength);
+
+        final BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder(strength);
+        final DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bCryptPasswordEncoder));
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bCryptPasswordEncoder);
+        return new TimedPasswordEncoder(passwordEncoder, this.meterRegistry);
+    }
+
+    /**
+     * The executor for the logins (verifying the password hashes), so that bursts of logins cannot occupy
+     * the request threads. Logins beyond the queue capacity are rejected.
+     */
+    @Bean
+    public BoundedExecutor passwordHashingExecutor() {
+        return new BoundedExecutor("password-hashing", this.passwordHashingThreads, this.passwordHashingQueueCapacity);
     }
 
     @Bean
     public JwtUtils jwtUtils() {
-        return new JwtUtils(this.jwtSecret, this.jwtIssuer, this.jwtExpiration);
+        return new JwtUtils(this.jwtSecret, this.jwtIssuer, this.jwtExpiration, this.jwtSelfContained, this.meterRegistry);
+    }
+
+    @Bean
+    public VerifiedTokenCache verifiedTokenCache() {
+        return new VerifiedTokenCache(jwtUtils(), this.tokenCacheMaximumSize);
+    }
+
+    @Bean
+    public AuthenticatedUserCache authenticatedUserCache() {
+        return new AuthenticatedUserCache(this.userDetailsService, this.principalCacheMaximumSize, this.principalCacheExpiration);
+    }
+
+    @Bean
+    public UserRoleVersionCache userRoleVersionCache() {
+        return new UserRoleVersionCache(this.userRoleRepository, this.roleVersionCacheExpiration);
+    }
+
+    @Bean
+    public UserVersionCache userVersionCache() {
+        return new UserVersionCache(this.userRepository, this.userVersionCacheMaximumSize, this.userVersionCacheExpiration);
+    }
+
+    @Bean
+    public CountCache userCountCache() {
+        return new CountCache(this.countCacheMaximumSize, this.countCacheExpiration);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void bindMetrics() {
+        new BoundedExecutorMetrics(passwordHashingExecutor(), "password-hashing").bindTo(this.meterRegistry);
+        new CacheStatsMetrics(verifiedTokenCache(), "verifiedToken", verifiedTokenCache()::getStats).bindTo(this.meterRegistry);
+        new CacheStatsMetrics(authenticatedUserCache(), "authenticatedUser", authenticatedUserCache()::getStats).bindTo(this.meterRegistry);
+        new CacheStatsMetrics(userRoleVersionCache(), "userRoleVersion", userRoleVersionCache()::getStats).bindTo(this.meterRegistry);
+        new CacheStatsMetrics(userVersionCache(), "userVersion", userVersionCache()::getStats).bindTo(this.meterRegistry);
+        new CacheStatsMetrics(userCountCache(), "userCount", userCountCache()::getStats).bindTo(this.meterRegistry);
     }
 
 }
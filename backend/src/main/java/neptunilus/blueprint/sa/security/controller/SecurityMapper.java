@@ -0,0 +1,54 @@
+package neptunilus.blueprint.sa.security.controller;
+
+import neptunilus.blueprint.sa.common.controller.MappingConfig;
+import neptunilus.blueprint.sa.security.controller.in.UserCreateRequest;
+import neptunilus.blueprint.sa.security.controller.in.UserRoleReferenceRequest;
+import neptunilus.blueprint.sa.security.controller.in.UserUpdateRequest;
+import neptunilus.blueprint.sa.security.controller.out.UserResponse;
+import neptunilus.blueprint.sa.security.controller.out.UserRoleResponse;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.repository.projection.UserSummary;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper between the security model and the requests/responses of the controllers (generated at compile time).
+ */
+@Mapper(config = MappingConfig.class)
+public interface SecurityMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    User toUser(UserCreateRequest userRequest);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    User toUser(UserUpdateRequest userRequest);
+
+    @Mapping(target = "name", ignore = true)
+    @Mapping(target = "authorities", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    UserRole toUserRole(UserRoleReferenceRequest userRoleRequest);
+
+    UserResponse toUserResponse(User user);
+
+    UserRoleResponse toUserRoleResponse(UserRole userRole);
+
+    default UserResponse toUserResponse(final UserSummary user) {
+        if (user == null) {
+            return null;
+        }
+        final UserResponse response = new UserResponse();
+        response.setId(user.getId());
+        response.setEmail(user.getEmail());
+        if (user.getRoleId() != null) {
+            final UserRoleResponse role = new UserRoleResponse();
+            role.setId(user.getRoleId());
+            role.setName(user.getRoleName());
+            response.setRole(role);
+        }
+        return response;
+    }
+
+}
@@ -0,0 +1,42 @@
+package neptunilus.blueprint.sa.security.controller;
+
+import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
+import neptunilus.blueprint.sa.security.controller.in.TokenRefreshRequest;
+import neptunilus.blueprint.sa.security.filter.out.LoginResponse;
+import neptunilus.blueprint.sa.security.service.RefreshTokenService;
+import neptunilus.blueprint.sa.security.util.JwtUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+/**
+ * Controller for refreshing access tokens (accessible without authentication, as the access token may be expired).
+ * <p>
+ * Every refresh token is used only once, the response contains a new access token and a new refresh token.
+ */
+@RestController
+@RequestMapping("/token")
+public class TokenController {
+
+    private final RefreshTokenService refreshTokenService;
+    private final JwtUtils jwtUtils;
+
+    public TokenController(final RefreshTokenService refreshTokenService, final JwtUtils jwtUtils) {
+        this.refreshTokenService = refreshTokenService;
+        this.jwtUtils = jwtUtils;
+    }
+
+    @PostMapping("/refresh")
+    public LoginResponse refresh(@Valid @RequestBody final TokenRefreshRequest refreshRequest) {
+        final RefreshTokenService.Rotation rotation = this.refreshTokenService.rotate(refreshRequest.getRefreshToken());
+
+        final LoginResponse response = new LoginResponse();
+        response.setAccessToken(this.jwtUtils.generate(new AuthenticatedUser(rotation.getUser())));
+        response.setRefreshToken(rotation.getRefreshToken());
+        return response;
+    }
+
+}
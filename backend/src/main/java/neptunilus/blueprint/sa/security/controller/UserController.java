@@ -1,16 +1,23 @@
 package neptunilus.blueprint.sa.security.controller;
 
 
+import neptunilus.blueprint.sa.common.controller.ETags;
+import neptunilus.blueprint.sa.common.controller.in.BulkDeleteRequest;
+import neptunilus.blueprint.sa.common.controller.out.BulkDeleteResponse;
+import neptunilus.blueprint.sa.common.controller.out.SliceResponse;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
 import neptunilus.blueprint.sa.security.controller.in.UserCreateRequest;
 import neptunilus.blueprint.sa.security.controller.in.UserUpdateRequest;
 import neptunilus.blueprint.sa.security.controller.out.UserResponse;
 import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.repository.projection.UserSummary;
 import neptunilus.blueprint.sa.security.service.UserService;
-import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
@@ -25,28 +32,50 @@ import java.util.UUID;
 public class UserController {
 
     private final UserService userService;
-    private final ModelMapper modelMapper;
+    private final SecurityMapper securityMapper;
 
-    public UserController(final UserService userService, final ModelMapper modelMapper) {
+    public UserController(final UserService userService, final SecurityMapper securityMapper) {
         this.userService = userService;
-        this.modelMapper = modelMapper;
+        this.securityMapper = securityMapper;
     }
 
     @GetMapping
-    public Page<UserResponse> search(@RequestParam(required = false) final String search, final Pageable pageable) {
-        final Page<User> users = this.userService.find(search, false, pageable);
-        return users.map(user -> this.modelMapper.map(user, UserResponse.class));
+    public Slice<UserResponse> search(@RequestParam(required = false) final String search,
+                                      @RequestParam(defaultValue = "true") final boolean count,
+                                      final Pageable pageable,
+                                      final ServletWebRequest request) {
+        if (ETags.checkNotModified(request, ETags.ofChanges(this.userService.getChangeCount()))) {
+            return null;
+        }
+        final Slice<UserSummary> users = this.userService.findSummaries(search, count, pageable);
+        return users.map(this.securityMapper::toUserResponse);
+    }
+
+    @GetMapping("/scroll")
+    public SliceResponse<UserResponse> scroll(@RequestParam(required = false) final String search,
+                                              @RequestParam(required = false) final String after,
+                                              @RequestParam(defaultValue = "20") final int size,
+                                              final ServletWebRequest request) {
+        final Cursor cursor = Cursor.decode(after);
+        if (ETags.checkNotModified(request, ETags.ofChanges(this.userService.getChangeCount()))) {
+            return null;
+        }
+        final Slice<UserSummary> users = this.userService.findSummariesAfter(search, cursor, size);
+        return SliceResponse.of(users, this.securityMapper::toUserResponse, user -> new Cursor(user.getEmail(), user.getId()));
     }
 
     @GetMapping("/{id}")
-    public UserResponse get(@PathVariable final UUID id) {
+    public UserResponse get(@PathVariable final UUID id, final ServletWebRequest request) {
         final User user = this.userService.get(id);
-        return this.modelMapper.map(user, UserResponse.class);
+        if (ETags.checkNotModified(request, ETags.ofVersion(user.getVersion(), user.getRole() != null ? user.getRole().getVersion() : null))) {
+            return null;
+        }
+        return this.securityMapper.toUserResponse(user);
     }
 
     @PostMapping
     public ResponseEntity<Void> create(@Valid @RequestBody final UserCreateRequest userRequest) {
-        final User user = this.modelMapper.map(userRequest, User.class);
+        final User user = this.securityMapper.toUser(userRequest);
         final UUID id = this.userService.create(user);
 
         final URI location = ServletUriComponentsBuilder.fromCurrentRequest()
@@ -56,13 +85,21 @@ public class UserController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Void> update(@PathVariable final UUID id, @Valid @RequestBody final UserUpdateRequest userRequest) {
-        final User update = this.modelMapper.map(userRequest, User.class);
-        this.userService.update(id, update);
+    public ResponseEntity<Void> update(@PathVariable final UUID id,
+                                       @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
+                                       @Valid @RequestBody final UserUpdateRequest userRequest) {
+        final User update = this.securityMapper.toUser(userRequest);
+        this.userService.update(id, update, ETags.parseVersion(ifMatch));
 
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/bulk/delete")
+    public BulkDeleteResponse deleteAll(@Valid @RequestBody final BulkDeleteRequest deleteRequest) {
+        final long deleted = this.userService.deleteAll(deleteRequest.getIds());
+        return new BulkDeleteResponse(deleted);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus
     public ResponseEntity<Void> delete(@PathVariable final UUID id) {
@@ -70,5 +107,4 @@ public class UserController {
 
         return ResponseEntity.noContent().build();
     }
-
 }
@@ -3,7 +3,6 @@ package neptunilus.blueprint.sa.security.controller;
 import neptunilus.blueprint.sa.security.controller.out.UserRoleResponse;
 import neptunilus.blueprint.sa.security.model.UserRole;
 import neptunilus.blueprint.sa.security.service.UserRoleService;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,23 +20,23 @@ import java.util.UUID;
 public class UserRoleController {
 
     private final UserRoleService userRoleService;
-    private final ModelMapper modelMapper;
+    private final SecurityMapper securityMapper;
 
-    public UserRoleController(final UserRoleService userRoleService, final ModelMapper modelMapper) {
+    public UserRoleController(final UserRoleService userRoleService, final SecurityMapper securityMapper) {
         this.userRoleService = userRoleService;
-        this.modelMapper = modelMapper;
+        this.securityMapper = securityMapper;
     }
 
     @GetMapping
     public Page<UserRoleResponse> search(final Pageable pageable) {
         final Page<UserRole> userRoles = this.userRoleService.find(pageable);
-        return userRoles.map(userRole -> this.modelMapper.map(userRole, UserRoleResponse.class));
+        return userRoles.map(this.securityMapper::toUserRoleResponse);
     }
 
     @GetMapping("/{id}")
     public UserRoleResponse get(@PathVariable final UUID id) {
         final UserRole userRole = this.userRoleService.get(id);
-        return this.modelMapper.map(userRole, UserRoleResponse.class);
+        return this.securityMapper.toUserRoleResponse(userRole);
     }
 
 }
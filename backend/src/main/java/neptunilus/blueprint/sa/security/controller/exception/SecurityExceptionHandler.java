@@ -3,6 +3,7 @@ package neptunilus.blueprint.sa.security.controller.exception;
 import neptunilus.blueprint.sa.common.controller.exception.ApiError;
 import neptunilus.blueprint.sa.common.controller.exception.BaseExceptionHandler;
 import neptunilus.blueprint.sa.security.controller.UserController;
+import neptunilus.blueprint.sa.security.exception.InvalidRefreshTokenException;
 import neptunilus.blueprint.sa.security.exception.UserAlreadyExistsException;
 import neptunilus.blueprint.sa.security.exception.UserNotFoundException;
 import neptunilus.blueprint.sa.security.exception.UserRoleNotFoundException;
@@ -27,6 +28,11 @@ public class SecurityExceptionHandler extends BaseExceptionHandler {
         return buildBasicErrorResponse(HttpStatus.NOT_FOUND, exception);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<ApiError> handleInvalidRefreshToken(final InvalidRefreshTokenException exception) {
+        return buildBasicErrorResponse(HttpStatus.UNAUTHORIZED, exception);
+    }
+
     @ExceptionHandler
     public ResponseEntity<ApiError> handleUserRoleNotFound(final UserRoleNotFoundException exception) {
         return buildBasicErrorResponse(HttpStatus.NOT_FOUND, exception);
@@ -0,0 +1,20 @@
+package neptunilus.blueprint.sa.security.controller.in;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+
+/**
+ * A token refresh request.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TokenRefreshRequest {
+
+    @JsonProperty("refresh_token")
+    @NotEmpty(message = "refresh token must not be empty")
+    private String refreshToken;
+
+}
@@ -0,0 +1,13 @@
+package neptunilus.blueprint.sa.security.exception;
+
+/**
+ * Thrown by {@link neptunilus.blueprint.sa.security.service.RefreshTokenService} if a refresh token is unknown,
+ * expired or already used.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(final String message) {
+        super(message);
+    }
+
+}
@@ -1,13 +1,19 @@
 package neptunilus.blueprint.sa.security.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import neptunilus.blueprint.sa.common.controller.exception.ApiError;
 import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
 import neptunilus.blueprint.sa.security.exception.JwtAuthenticationException;
 import neptunilus.blueprint.sa.security.filter.in.LoginRequest;
 import neptunilus.blueprint.sa.security.filter.out.LoginResponse;
+import neptunilus.blueprint.sa.security.service.RefreshTokenService;
 import neptunilus.blueprint.sa.security.util.JwtUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -15,13 +21,32 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.AbstractAuthenticationProcessingFilter;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Filter for user authentication that returns a JWT in success case.
+ * Filter for user authentication that returns a JWT (and a refresh token for getting new ones) in success case.
+ * <p>
+ * The authentication (loading the user and verifying the password hash) is expensive, so it runs asynchronously on
+ * a dedicated executor, not on the request thread. If the executor is saturated, the login is answered immediately
+ * with {@code 503 Service Unavailable} and a {@code Retry-After} header. The same applies if the login is not
+ * authenticated within the timeout (covering the time in the queue and the hashing), the late result is then dropped.
+ * <p>
+ * The logins are counted as {@code security.logins}, tagged with the outcome ({@code success}, {@code failure},
+ * {@code rejected} or {@code timeout}).
  */
 public class JwtAuthenticationFilter extends AbstractAuthenticationProcessingFilter {
 
@@ -30,31 +55,76 @@ public class JwtAuthenticationFilter extends AbstractAuthenticationProcessingFil
 
     private final ObjectMapper objectMapper;
     private final JwtUtils jwtUtils;
+    private final RefreshTokenService refreshTokenService;
+    private final Executor authenticationExecutor;
+    private final long retryAfterInSeconds;
+    private final long timeoutInSeconds;
+    private final Counter successCounter;
+    private final Counter failureCounter;
+    private final Counter rejectedCounter;
+    private final Counter timeoutCounter;
 
-    public JwtAuthenticationFilter(final ObjectMapper objectMapper, final JwtUtils jwtUtils, final AuthenticationManager authenticationManager) {
+    public JwtAuthenticationFilter(final ObjectMapper objectMapper,
+                                   final JwtUtils jwtUtils,
+                                   final RefreshTokenService refreshTokenService,
+                                   final AuthenticationManager authenticationManager,
+                                   final Executor authenticationExecutor,
+                                   final long retryAfterInSeconds,
+                                   final long timeoutInSeconds,
+                                   final MeterRegistry meterRegistry) {
         super(DEFAULT_FILTER_URL);
         this.objectMapper = objectMapper;
         this.jwtUtils = jwtUtils;
+        this.refreshTokenService = refreshTokenService;
+        this.authenticationExecutor = authenticationExecutor;
+        this.retryAfterInSeconds = retryAfterInSeconds;
+        this.timeoutInSeconds = timeoutInSeconds;
+        this.successCounter = loginCounter(meterRegistry, "success");
+        this.failureCounter = loginCounter(meterRegistry, "failure");
+        this.rejectedCounter = loginCounter(meterRegistry, "rejected");
+        this.timeoutCounter = loginCounter(meterRegistry, "timeout");
         setAuthenticationManager(authenticationManager);
     }
 
     @Override
-    public Authentication attemptAuthentication(final HttpServletRequest request, final HttpServletResponse response) throws AuthenticationException {
-        try {
-            final LoginRequest loginRequest = this.objectMapper.readValue(request.getReader(), LoginRequest.class);
-            final UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    loginRequest.getUsername(), loginRequest.getPassword());
+    public void doFilter(final ServletRequest req, final ServletResponse res, final FilterChain chain) throws IOException, ServletException {
+        final HttpServletRequest request = (HttpServletRequest) req;
+        final HttpServletResponse response = (HttpServletResponse) res;
 
-            return getAuthenticationManager().authenticate(authentication);
+        if (!requiresAuthentication(request, response)) {
+            chain.doFilter(request, response);
+            return;
+        }
 
+        final UsernamePasswordAuthenticationToken authentication;
+        try {
+            authentication = readAuthentication(request);
         } catch (final AuthenticationException e) {
-            throw e;
-        } catch (final Exception e) {
-            LOGGER.error("authentication failed, request not processable: {}", e.getMessage(), e);
-            throw new JwtAuthenticationException("authentication request not processable", e);
+            unsuccessfulAuthentication(request, response, e);
+            return;
+        }
+
+        final AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(TimeUnit.SECONDS.toMillis(this.timeoutInSeconds));
+        final AtomicBoolean answered = new AtomicBoolean();
+        asyncContext.addListener(new TimeoutListener(authentication.getName(), response, answered));
+        try {
+            this.authenticationExecutor.execute(() -> authenticate(request, response, chain, authentication, asyncContext, answered));
+        } catch (final RejectedExecutionException e) {
+            LOGGER.warn("authentication rejected, too many concurrent logins: {}", authentication.getName());
+            this.rejectedCounter.increment();
+            answered.set(true);
+            writeUnavailable(response, "too many concurrent logins, please retry later");
+            asyncContext.complete();
         }
     }
 
+    @Override
+    public Authentication attemptAuthentication(final HttpServletRequest request, final HttpServletResponse response) throws AuthenticationException {
+        // synchronous variant, the logins are authenticated asynchronously by doFilter
+        return getAuthenticationManager().authenticate(readAuthentication(request));
+    }
+
     @Override
     protected void successfulAuthentication(final HttpServletRequest request, final HttpServletResponse response,
                                             final FilterChain chain, final Authentication authResult) {
@@ -64,12 +134,14 @@ public class JwtAuthenticationFilter extends AbstractAuthenticationProcessingFil
 
             final LoginResponse loginResponse = new LoginResponse();
             loginResponse.setAccessToken(token);
+            loginResponse.setRefreshToken(this.refreshTokenService.issue(authenticatedUser.getUser()));
 
             response.setContentType(MediaType.APPLICATION_JSON_VALUE);
             response.setCharacterEncoding(StandardCharsets.UTF_8.displayName());
             this.objectMapper.writeValue(response.getWriter(), loginResponse);
 
             LOGGER.info("successfully authenticated user: {}", authenticatedUser.getUsername());
+            this.successCounter.increment();
 
         } catch (final Exception e) {
             LOGGER.error("authentication failed, could not write response: {}", e.getMessage(), e);
@@ -77,4 +149,111 @@ public class JwtAuthenticationFilter extends AbstractAuthenticationProcessingFil
         }
     }
 
+    @Override
+    protected void unsuccessfulAuthentication(final HttpServletRequest request, final HttpServletResponse response,
+                                              final AuthenticationException failed) throws IOException, ServletException {
+        this.failureCounter.increment();
+        super.unsuccessfulAuthentication(request, response, failed);
+    }
+
+    private UsernamePasswordAuthenticationToken readAuthentication(final HttpServletRequest request) throws AuthenticationException {
+        try {
+            final LoginRequest loginRequest = this.objectMapper.readValue(request.getReader(), LoginRequest.class);
+            return new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword());
+
+        } catch (final Exception e) {
+            LOGGER.error("authentication failed, request not processable: {}", e.getMessage(), e);
+            throw new JwtAuthenticationException("authentication request not processable", e);
+        }
+    }
+
+    /**
+     * Authenticates the login and writes the response, unless the login has been answered (i.e. timed out) already.
+     */
+    private void authenticate(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain,
+                              final UsernamePasswordAuthenticationToken authentication, final AsyncContext asyncContext,
+                              final AtomicBoolean answered) {
+        if (answered.get()) {
+            LOGGER.debug("authentication skipped, login timed out in the queue: {}", authentication.getName());
+            return;
+        }
+        try {
+            final Authentication authResult;
+            try {
+                authResult = getAuthenticationManager().authenticate(authentication);
+            } catch (final AuthenticationException e) {
+                if (answered.compareAndSet(false, true)) {
+                    unsuccessfulAuthentication(request, response, e);
+                    asyncContext.complete();
+                }
+                return;
+            }
+            if (answered.compareAndSet(false, true)) {
+                successfulAuthentication(request, response, chain, authResult);
+                asyncContext.complete();
+            } else {
+                LOGGER.debug("authentication result dropped, login timed out: {}", authentication.getName());
+            }
+
+        } catch (final Exception e) {
+            LOGGER.error("authentication failed: {}", e.getMessage(), e);
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            asyncContext.complete();
+        }
+    }
+
+    private static Counter loginCounter(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder("security.logins")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void writeUnavailable(final HttpServletResponse response, final String error) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(this.retryAfterInSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.displayName());
+        this.objectMapper.writeValue(response.getWriter(), new ApiError().withError(error));
+    }
+
+    /**
+     * Answers the login with {@code 503 Service Unavailable} once it times out, unless the authentication answered it already.
+     */
+    private final class TimeoutListener implements AsyncListener {
+
+        private final String username;
+        private final HttpServletResponse response;
+        private final AtomicBoolean answered;
+
+        TimeoutListener(final String username, final HttpServletResponse response, final AtomicBoolean answered) {
+            this.username = username;
+            this.response = response;
+            this.answered = answered;
+        }
+
+        @Override
+        public void onTimeout(final AsyncEvent event) throws IOException {
+            if (!this.answered.compareAndSet(false, true)) {
+                return;
+            }
+            LOGGER.warn("authentication timed out after {} s: {}", JwtAuthenticationFilter.this.timeoutInSeconds, this.username);
+            JwtAuthenticationFilter.this.timeoutCounter.increment();
+            writeUnavailable(this.response, "login timed out, please retry later");
+            event.getAsyncContext().complete();
+        }
+
+        @Override
+        public void onComplete(final AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(final AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(final AsyncEvent event) {
+        }
+
+    }
+
 }
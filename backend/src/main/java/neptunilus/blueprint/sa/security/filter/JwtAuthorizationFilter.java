@@ -3,9 +3,14 @@ package neptunilus.blueprint.sa.security.filter;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
 import neptunilus.blueprint.sa.security.authentication.JwtAuthenticationToken;
-import neptunilus.blueprint.sa.security.service.impl.AuthenticatedUserDetailsService;
+import neptunilus.blueprint.sa.security.cache.AuthenticatedUserCache;
+import neptunilus.blueprint.sa.security.cache.UserRoleVersionCache;
+import neptunilus.blueprint.sa.security.cache.UserVersionCache;
+import neptunilus.blueprint.sa.security.cache.VerifiedTokenCache;
 import neptunilus.blueprint.sa.security.util.JwtUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -23,10 +28,17 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
-import static neptunilus.blueprint.sa.security.util.JwtUtils.getUsername;
+import static neptunilus.blueprint.sa.security.util.JwtUtils.*;
 
 /**
  * Filter for user authorization based on a provided JWT in authorization.
+ * <p>
+ * The user is built directly from the claims of self-contained tokens as long as both the version of the user and
+ * of its role are current, otherwise it is (re)loaded. So changed (e.g. moved to another role) or deleted users do
+ * not keep the authorities of their old tokens.
+ * <p>
+ * Resolving the user is timed as {@code security.authorizations}, tagged with the outcome ({@code success} or
+ * {@code failure}, like for missing or invalid tokens).
  */
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
@@ -34,34 +46,56 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
     private static final String AUTHENTICATION_SCHEME_BEARER = "Bearer";
 
     private final JwtUtils jwtUtils;
-    private final AuthenticatedUserDetailsService userDetailsService;
-
-    public JwtAuthorizationFilter(final JwtUtils jwtUtils, final AuthenticatedUserDetailsService userDetailsService) {
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final UserRoleVersionCache userRoleVersionCache;
+    private final UserVersionCache userVersionCache;
+    private final MeterRegistry meterRegistry;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+
+    public JwtAuthorizationFilter(final JwtUtils jwtUtils,
+                                  final VerifiedTokenCache verifiedTokenCache,
+                                  final AuthenticatedUserCache authenticatedUserCache,
+                                  final UserRoleVersionCache userRoleVersionCache,
+                                  final UserVersionCache userVersionCache,
+                                  final MeterRegistry meterRegistry) {
         this.jwtUtils = jwtUtils;
-        this.userDetailsService = userDetailsService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.authenticatedUserCache = authenticatedUserCache;
+        this.userRoleVersionCache = userRoleVersionCache;
+        this.userVersionCache = userVersionCache;
+        this.meterRegistry = meterRegistry;
+        this.successTimer = authorizationTimer(meterRegistry, "success");
+        this.failureTimer = authorizationTimer(meterRegistry, "failure");
     }
 
     @Override
     protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain)
             throws IOException, ServletException {
 
+        Timer.Sample sample = null;
+        Timer timer = this.failureTimer;
         try {
             final Authentication existingAuthentication = SecurityContextHolder.getContext().getAuthentication();
             if (existingAuthentication != null && existingAuthentication.isAuthenticated()) {
                 return;
             }
 
+            sample = Timer.start(this.meterRegistry);
+
             final String token = extractToken(request);
-            final Jws<Claims> claims = this.jwtUtils.validateAndParseClaims(token);
+            final Jws<Claims> claims = this.verifiedTokenCache.validateAndParseClaims(token);
 
             final String username = getUsername(claims);
-            final AuthenticatedUser authenticatedUser = this.userDetailsService.loadUserByUsername(username);
+            final AuthenticatedUser authenticatedUser = resolveAuthenticatedUser(claims);
 
             final JwtAuthenticationToken authenticationToken = new JwtAuthenticationToken(authenticatedUser, token);
             authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
             SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             LOGGER.info("successfully authorized user: {}", username);
+            timer = this.successTimer;
 
         } catch (JwtException | IllegalArgumentException e) {
             LOGGER.info("authorization failed, jwt issue: {}", e.getMessage());
@@ -70,10 +104,29 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
             LOGGER.info("authorization failed, username issue: {}", e.getMessage());
             SecurityContextHolder.clearContext();
         } finally {
+            if (sample != null) {
+                sample.stop(timer);
+            }
             filterChain.doFilter(request, response);
         }
     }
 
+    private AuthenticatedUser resolveAuthenticatedUser(final Jws<Claims> claims) {
+        final AuthenticatedUser selfContainedUser = this.jwtUtils.getAuthenticatedUser(claims);
+        if (selfContainedUser != null
+                && this.userVersionCache.isCurrent(getUserId(claims), getUserVersion(claims))
+                && this.userRoleVersionCache.isCurrent(getRoleId(claims), getRoleVersion(claims))) {
+            return selfContainedUser;
+        }
+        return this.authenticatedUserCache.get(getUsername(claims), getTokenId(claims));
+    }
+
+    private static Timer authorizationTimer(final MeterRegistry meterRegistry, final String outcome) {
+        return Timer.builder("security.authorizations")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     private static String extractToken(final HttpServletRequest request) {
         final String header = StringUtils.trimToNull(request.getHeader(HttpHeaders.AUTHORIZATION));
         if (!StringUtils.startsWithIgnoreCase(header, AUTHENTICATION_SCHEME_BEARER)) {
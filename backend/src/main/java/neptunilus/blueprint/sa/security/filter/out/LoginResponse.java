@@ -16,4 +16,7 @@ public class LoginResponse {
     @JsonProperty("access_token")
     private String accessToken;
 
+    @JsonProperty("refresh_token")
+    private String refreshToken;
+
 }
@@ -2,8 +2,15 @@ package neptunilus.blueprint.sa.security.model;
 
 import org.springframework.security.core.GrantedAuthority;
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * The authorities used to define which actions are allowed.
+ * <p>
+ * Authorities can be encoded as bitmask over their ordinals (e.g. inside tokens),
+ * therefore new authorities must only be appended and existing ones never reordered.
  */
 public enum Authority implements GrantedAuthority {
 
@@ -26,11 +33,44 @@ public enum Authority implements GrantedAuthority {
     DELETE_USER,
 
     // user role related
-    READ_USER_ROLE;
+    READ_USER_ROLE,
+
+    // metrics related
+    READ_METRICS;
 
     @Override
     public String getAuthority() {
         return name();
     }
 
+    /**
+     * Encodes the given authorities as bitmask over their ordinals.
+     *
+     * @param authorities The authorities
+     * @return The bitmask
+     */
+    public static long toBitmask(final Collection<Authority> authorities) {
+        long bitmask = 0L;
+        for (final Authority authority : authorities) {
+            bitmask |= 1L << authority.ordinal();
+        }
+        return bitmask;
+    }
+
+    /**
+     * Decodes the authorities from the given bitmask, unknown bits are ignored.
+     *
+     * @param bitmask The bitmask
+     * @return The authorities
+     */
+    public static Set<Authority> fromBitmask(final long bitmask) {
+        final Set<Authority> authorities = EnumSet.noneOf(Authority.class);
+        for (final Authority authority : values()) {
+            if ((bitmask & (1L << authority.ordinal())) != 0) {
+                authorities.add(authority);
+            }
+        }
+        return authorities;
+    }
+
 }
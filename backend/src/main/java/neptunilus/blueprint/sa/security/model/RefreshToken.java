@@ -0,0 +1,95 @@
+package neptunilus.blueprint.sa.security.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import neptunilus.blueprint.sa.common.id.TimeOrderedUuidGenerator;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.Instant;
+import java.util.UUID;
+
+import static lombok.AccessLevel.PROTECTED;
+
+/**
+ * A refresh token, to get new access tokens without logging in again.
+ * <p>
+ * Only the hash of the token is stored, the token itself is known to the client only.
+ * <p>
+ * The tokens rotated from the same login form a family. Used tokens are kept (until they expire) to detect
+ * a replay, which revokes the whole family.
+ */
+@Getter @Setter
+@NoArgsConstructor(access = PROTECTED)
+@Entity
+@Table(name = "refresh_token", uniqueConstraints = @UniqueConstraint(name = RefreshToken.UNIQUE_TOKEN_HASH, columnNames = "token_hash"),
+        indexes = @Index(name = "idx_refresh_token_family", columnList = "family_id"))
+public class RefreshToken {
+
+    /**
+     * The name of the unique constraint on the token hash (also the index of the lookups).
+     */
+    public static final String UNIQUE_TOKEN_HASH = "uk_refresh_token_hash";
+
+    /**
+     * The unique identifier.
+     */
+    @Id
+    @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUuidGenerator.NAME, strategy = TimeOrderedUuidGenerator.STRATEGY)
+    private UUID id;
+
+    /**
+     * The hash of the token (not empty).
+     */
+    @NotEmpty
+    @Size(max = 64)
+    @Column(name = "token_hash")
+    private String tokenHash;
+
+    /**
+     * The user the token was issued to (removed with the user by the database).
+     */
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    /**
+     * The id of the family (shared by all tokens rotated from the same login).
+     */
+    @NotNull
+    @Column(name = "family_id")
+    private UUID familyId;
+
+    /**
+     * If the token was already used (replaced by a new one).
+     */
+    private boolean used;
+
+    /**
+     * The expiration.
+     */
+    @NotNull
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    public RefreshToken(final String tokenHash, final User user, final Instant expiresAt) {
+        this(tokenHash, user, UUID.randomUUID(), expiresAt);
+    }
+
+    public RefreshToken(final String tokenHash, final User user, final UUID familyId, final Instant expiresAt) {
+        this.tokenHash = tokenHash;
+        this.user = user;
+        this.familyId = familyId;
+        this.expiresAt = expiresAt;
+    }
+
+}
@@ -3,6 +3,8 @@ package neptunilus.blueprint.sa.security.model;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import neptunilus.blueprint.sa.common.id.TimeOrderedUuidGenerator;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.Email;
@@ -19,14 +21,20 @@ import static lombok.AccessLevel.PROTECTED;
 @Getter @Setter
 @NoArgsConstructor(access = PROTECTED)
 @Entity
-@Table(name = "user")
+@Table(name = "user", uniqueConstraints = @UniqueConstraint(name = User.UNIQUE_EMAIL, columnNames = "email"))
 public class User {
 
+    /**
+     * The name of the unique constraint on the email, used to detect conflicting writes.
+     */
+    public static final String UNIQUE_EMAIL = "uk_user_email";
+
     /**
      * The unique identifier.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUuidGenerator.NAME, strategy = TimeOrderedUuidGenerator.STRATEGY)
     private UUID id;
 
     /**
@@ -35,7 +43,6 @@ public class User {
     @NotEmpty
     @Email
     @Size(max = 100)
-    @Column(unique = true)
     private String email;
 
     /**
@@ -53,6 +60,12 @@ public class User {
     @JoinColumn(name = "role_id")
     private UserRole role;
 
+    /**
+     * The version, incremented on every change (used for optimistic locking and ETags).
+     */
+    @Version
+    private Long version;
+
     public User(final String email, final String password, final UserRole role) {
         this.email = email;
         this.password = password;
@@ -3,6 +3,8 @@ package neptunilus.blueprint.sa.security.model;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import neptunilus.blueprint.sa.common.id.TimeOrderedUuidGenerator;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotEmpty;
@@ -27,7 +29,8 @@ public class UserRole {
      * The unique identifier.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUuidGenerator.NAME, strategy = TimeOrderedUuidGenerator.STRATEGY)
     private UUID id;
 
     /**
@@ -48,6 +51,12 @@ public class UserRole {
     @Column(name = "authority")
     private Set<Authority> authorities = new HashSet<>();
 
+    /**
+     * The version, incremented on every change (also of the authorities).
+     */
+    @Version
+    private Long version;
+
     public UserRole(final String name, final Set<Authority> authorities) {
         this.name = name;
         if (authorities != null) {
@@ -0,0 +1,74 @@
+package neptunilus.blueprint.sa.security.repository;
+
+import neptunilus.blueprint.sa.security.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The repository for the {@link RefreshToken}s.
+ * <p>
+ * The modifications run in one statement each (bypassing the persistence context), their counts tell if
+ * a concurrent request was faster.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    /**
+     * Returns the {@link RefreshToken} with the given hash together with its user, role and authorities
+     * (in one statement) or {@link Optional#empty()} if none found.
+     *
+     * @param tokenHash The hash of the token
+     * @return The refresh token
+     */
+    @Query("select t from RefreshToken t join fetch t.user u join fetch u.role r left join fetch r.authorities where t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findOneWithUserByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Marks the unused {@link RefreshToken} with the given hash as used.
+     *
+     * @param tokenHash The hash of the token
+     * @return The number of marked tokens (0 if already used in the meantime)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update RefreshToken t set t.used = true where t.tokenHash = :tokenHash and t.used = false")
+    int markUsedByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Deletes all {@link RefreshToken}s of the family with the given id.
+     *
+     * @param familyId The id of the family
+     * @return The number of deleted tokens
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from RefreshToken t where t.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") UUID familyId);
+
+    /**
+     * Deletes all {@link RefreshToken}s of the user with the given id.
+     *
+     * @param userId The id of the user
+     * @return The number of deleted tokens
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from RefreshToken t where t.user.id = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Deletes the {@link RefreshToken}s of the user with the given id expired before the given time.
+     *
+     * @param userId The id of the user
+     * @param time   The time
+     * @return The number of deleted tokens
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from RefreshToken t where t.user.id = :userId and t.expiresAt < :time")
+    int deleteByUserIdAndExpiresAtBefore(@Param("userId") UUID userId, @Param("time") Instant time);
+
+}
@@ -1,20 +1,46 @@
 package neptunilus.blueprint.sa.security.repository;
 
+import neptunilus.blueprint.sa.common.pagination.Cursor;
 import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.repository.projection.UserSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * The repository for the {@link User}s.
+ * <p>
+ * The summary finders return slices, their totals are counted separately (if needed at all).
+ * The {@code ...After} finders implement keyset pagination ordered by email and id, starting after the given {@link Cursor}.
+ * The {@code stream...} finders return forward-only streams (fetched in chunks of {@link #STREAM_FETCH_SIZE} rows)
+ * which have to be consumed inside a transaction and closed afterwards.
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
 
+    String SUMMARY_SELECT = "select new neptunilus.blueprint.sa.security.repository.projection.UserSummary(u.id, u.email, r.id, r.name) " +
+            "from User u left join u.role r";
+    String SUMMARY_COUNT = "select count(u) from User u";
+    String EMAIL_CONTAINING = " where lower(u.email) like lower(concat('%', :#{escape(#search)}, '%')) escape :#{escapeCharacter()}";
+    String AFTER_CURSOR = " (u.email > :#{#after.key} or (u.email = :#{#after.key} and u.id > :#{#after.id}))";
+    String KEYSET_ORDER = " order by u.email, u.id";
+    String STREAM_FETCH_SIZE = "500";
+
     /**
      * Returns the {@link User} with the given email or {@link Optional#empty()} if none found.
      *
@@ -23,6 +49,56 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     Optional<User> findOneByEmail(String email);
 
+    /**
+     * Returns the emails of the {@link User}s with the given ids (in one statement).
+     *
+     * @param ids The ids
+     * @return The emails
+     */
+    @Query("select u.email from User u where u.id in :ids")
+    List<String> findEmailsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Returns the version of the {@link User} with the given id or {@link Optional#empty()} if none found.
+     *
+     * @param id The id
+     * @return The version
+     */
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Streams the emails of all {@link User}s (unordered).
+     *
+     * @return The emails
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select u.email from User u")
+    Stream<String> streamEmails();
+
+    /**
+     * Deletes the {@link User}s with the given ids in one statement (bypassing the persistence context).
+     *
+     * @param ids The ids
+     * @return The number of deleted users
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Replaces the password hash of the {@link User} with the given email, unless it was changed in the meantime
+     * (in one statement, bypassing the persistence context and not incrementing the version, as the hash is never returned).
+     *
+     * @param email           The email
+     * @param currentPassword The current password hash
+     * @param newPassword     The new password hash
+     * @return The number of updated users (0 if the hash was changed in the meantime)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.password = :newPassword where u.email = :email and u.password = :currentPassword")
+    int updatePassword(@Param("email") String email, @Param("currentPassword") String currentPassword, @Param("newPassword") String newPassword);
+
     /**
      * Returns all {@link User}s containing the search in email.
      *
@@ -32,4 +108,53 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     Page<User> findByEmailContainingIgnoreCase(String search, Pageable pageable);
 
+    /**
+     * Returns all {@link User}s as read-only summaries.
+     *
+     * @param pageable The pagination information
+     * @return The user summaries
+     */
+    @Query(SUMMARY_SELECT)
+    Slice<UserSummary> findSummaries(Pageable pageable);
+
+    /**
+     * Returns all {@link User}s containing the search in email as read-only summaries.
+     *
+     * @param search   The search
+     * @param pageable The pagination information
+     * @return The user summaries
+     */
+    @Query(SUMMARY_SELECT + EMAIL_CONTAINING)
+    Slice<UserSummary> findSummariesByEmailContainingIgnoreCase(String search, Pageable pageable);
+
+    /**
+     * Counts all {@link User}s containing the search in email.
+     *
+     * @param search The search
+     * @return The number of users
+     */
+    @Query(SUMMARY_COUNT + EMAIL_CONTAINING)
+    long countByEmailContainingIgnoreCase(String search);
+
+    /**
+     * Returns the next {@link User}s after the cursor as read-only summaries.
+     *
+     * @param after    The cursor to continue after
+     * @param pageable The size of the slice (unsorted)
+     * @return The user summaries
+     */
+    @Query(SUMMARY_SELECT + " where" + AFTER_CURSOR + KEYSET_ORDER)
+    Slice<UserSummary> findSummariesAfter(@Param("after") Cursor after, Pageable pageable);
+
+    /**
+     * Returns the next {@link User}s containing the search in email after the cursor as read-only summaries.
+     *
+     * @param search   The search
+     * @param after    The cursor to continue after
+     * @param pageable The size of the slice (unsorted)
+     * @return The user summaries
+     */
+    @Query(SUMMARY_SELECT + EMAIL_CONTAINING + " and" + AFTER_CURSOR + KEYSET_ORDER)
+    Slice<UserSummary> findSummariesByEmailContainingIgnoreCaseAfter(String search, @Param("after") Cursor after, Pageable pageable);
+
 }
@@ -2,6 +2,8 @@ package neptunilus.blueprint.sa.security.repository;
 
 import neptunilus.blueprint.sa.security.model.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -21,4 +23,13 @@ public interface UserRoleRepository extends JpaRepository<UserRole, UUID> {
      */
     Optional<UserRole> findOneByName(String name);
 
+    /**
+     * Returns the version of the {@link UserRole} with the given id or {@link Optional#empty()} if none found.
+     *
+     * @param id The id
+     * @return The version
+     */
+    @Query("select r.version from UserRole r where r.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
 }
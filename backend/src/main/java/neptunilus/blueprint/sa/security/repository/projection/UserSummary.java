@@ -0,0 +1,22 @@
+package neptunilus.blueprint.sa.security.repository.projection;
+
+import lombok.Value;
+import neptunilus.blueprint.sa.security.model.User;
+
+import java.util.UUID;
+
+/**
+ * Read-only projection of a {@link User} (with its flattened role) for listings.
+ */
+@Value
+public class UserSummary {
+
+    UUID id;
+
+    String email;
+
+    UUID roleId;
+
+    String roleName;
+
+}
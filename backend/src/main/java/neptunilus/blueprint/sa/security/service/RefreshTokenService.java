@@ -0,0 +1,61 @@
+package neptunilus.blueprint.sa.security.service;
+
+import lombok.Value;
+import neptunilus.blueprint.sa.security.exception.InvalidRefreshTokenException;
+import neptunilus.blueprint.sa.security.model.User;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Service for handling with refresh tokens.
+ * <p>
+ * Used before the user is authenticated (on login and refresh), so the methods are not secured.
+ */
+@Service
+public interface RefreshTokenService {
+
+    /**
+     * Issues a new refresh token for the given user (starting a new family of rotated tokens).
+     *
+     * @param user The user
+     * @return The refresh token
+     */
+    String issue(User user);
+
+    /**
+     * Replaces the given refresh token by a new one of the same family, every refresh token can be used only once.
+     * Using a token again revokes its whole family, as either the client or an attacker holds a stolen copy.
+     *
+     * @param refreshToken The refresh token
+     * @return The user of the token and the new refresh token
+     * @throws InvalidRefreshTokenException If the refresh token is unknown, expired or already used
+     */
+    Rotation rotate(String refreshToken) throws InvalidRefreshTokenException;
+
+    /**
+     * Revokes all refresh tokens of the user with the given id.
+     *
+     * @param userId The id of the user
+     */
+    void revokeAll(UUID userId);
+
+    /**
+     * The result of a {@link #rotate(String)}.
+     */
+    @Value
+    class Rotation {
+
+        /**
+         * The user (with role and authorities).
+         */
+        User user;
+
+        /**
+         * The new refresh token.
+         */
+        String refreshToken;
+
+    }
+
+}
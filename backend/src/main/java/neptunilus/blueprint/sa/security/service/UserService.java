@@ -1,13 +1,18 @@
 package neptunilus.blueprint.sa.security.service;
 
+import neptunilus.blueprint.sa.common.exception.VersionMismatchException;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
 import neptunilus.blueprint.sa.security.exception.UserAlreadyExistsException;
 import neptunilus.blueprint.sa.security.exception.UserNotFoundException;
 import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.repository.projection.UserSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.UUID;
 
 /**
@@ -27,6 +32,29 @@ public interface UserService {
     @PreAuthorize("hasAuthority('READ_USER')")
     Page<User> find(String search, boolean strict, Pageable pageable);
 
+    /**
+     * Returns read-only summaries of the available users (for listings).
+     *
+     * @param search   The (optional) search string for user email
+     * @param count    Flag, if the total should be counted (the result is a {@link Page} then)
+     * @param pageable The pagination information
+     * @return The user summaries
+     */
+    @PreAuthorize("hasAuthority('READ_USER')")
+    Slice<UserSummary> findSummaries(String search, boolean count, Pageable pageable);
+
+    /**
+     * Returns read-only summaries of the available users ordered by email, continuing after the given cursor
+     * (keyset pagination without total count).
+     *
+     * @param search The (optional) search string for user email
+     * @param after  The (optional) cursor to continue after, {@code null} for the first slice
+     * @param size   The maximum number of users
+     * @return The user summaries
+     */
+    @PreAuthorize("hasAuthority('READ_USER')")
+    Slice<UserSummary> findSummariesAfter(String search, Cursor after, int size);
+
     /**
      * Returns the user with the given id.
      *
@@ -37,6 +65,14 @@ public interface UserService {
     @PreAuthorize("hasAuthority('READ_USER') or #id == authentication.principal.user.id")
     User get(UUID id) throws UserNotFoundException;
 
+    /**
+     * Returns the number of changes of the users made so far (as a cheap version of the listings).
+     *
+     * @return The number of changes
+     */
+    @PreAuthorize("hasAuthority('READ_USER')")
+    long getChangeCount();
+
     /**
      * Creates a new user.
      *
@@ -50,13 +86,15 @@ public interface UserService {
     /**
      * Updates an existing user.
      *
-     * @param id     The id of the existing user to update
-     * @param update The new data for the user
+     * @param id      The id of the existing user to update
+     * @param update  The new data for the user
+     * @param version The expected current version of the user (or {@code null} to update any version)
      * @throws UserNotFoundException      If a user with the given id is not found
      * @throws UserAlreadyExistsException If a user with the new email is already there
+     * @throws VersionMismatchException   If the user is not in the expected version anymore
      */
     @PreAuthorize("hasAuthority('UPDATE_USER') or #id == authentication.principal.user.id")
-    void update(UUID id, User update) throws UserNotFoundException, UserAlreadyExistsException;
+    void update(UUID id, User update, Long version) throws UserNotFoundException, UserAlreadyExistsException, VersionMismatchException;
 
     /**
      * Deletes an existing user (if in the system).
@@ -66,4 +104,13 @@ public interface UserService {
     @PreAuthorize("hasAuthority('DELETE_USER')")
     void delete(UUID id);
 
+    /**
+     * Deletes the users with the given ids in set-based statements (unknown ids are ignored).
+     *
+     * @param ids The ids of the users to remove
+     * @return The number of deleted users
+     */
+    @PreAuthorize("hasAuthority('DELETE_USER')")
+    long deleteAll(Collection<UUID> ids);
+
 }
@@ -3,15 +3,26 @@ package neptunilus.blueprint.sa.security.service.impl;
 import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
 import neptunilus.blueprint.sa.security.model.User;
 import neptunilus.blueprint.sa.security.repository.UserRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Specific implementation of {@link UserDetailsService}.
+ * <p>
+ * Also replaces outdated password hashes (e.g. of a lower BCrypt strength than the current one) right after a
+ * successful login, as only then the raw password is known.
  */
 @Service
-public class AuthenticatedUserDetailsService implements UserDetailsService {
+public class AuthenticatedUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuthenticatedUserDetailsService.class);
 
     private final UserRepository userRepository;
 
@@ -19,12 +30,32 @@ public class AuthenticatedUserDetailsService implements UserDetailsService {
         this.userRepository = userRepository;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public AuthenticatedUser loadUserByUsername(final String username) throws UsernameNotFoundException {
         final User user = this.userRepository.findOneByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException(String.format("no user with email '%s' found", username)));
 
+        // the authorities are needed outside of the transaction (and possibly cached)
+        if (user.getRole() != null) {
+            Hibernate.initialize(user.getRole().getAuthorities());
+        }
+
         return new AuthenticatedUser(user);
     }
 
+    @Transactional
+    @Override
+    public UserDetails updatePassword(final UserDetails user, final String newPassword) {
+        final AuthenticatedUser authenticatedUser = (AuthenticatedUser) user;
+        final String email = authenticatedUser.getUsername();
+
+        if (this.userRepository.updatePassword(email, authenticatedUser.getPassword(), newPassword) > 0) {
+            authenticatedUser.getUser().setPassword(newPassword);
+            LOGGER.info("rehashed password of user: {}", email);
+        }
+
+        return authenticatedUser;
+    }
+
 }
@@ -0,0 +1,115 @@
+package neptunilus.blueprint.sa.security.service.impl;
+
+import neptunilus.blueprint.sa.security.exception.InvalidRefreshTokenException;
+import neptunilus.blueprint.sa.security.model.RefreshToken;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.repository.RefreshTokenRepository;
+import neptunilus.blueprint.sa.security.repository.UserRepository;
+import neptunilus.blueprint.sa.security.service.RefreshTokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Concrete implementation of {@link RefreshTokenService}.
+ * <p>
+ * The tokens are random and long enough to not be guessable, so a (fast) SHA-256 is sufficient to store them
+ * and to find them by an indexed lookup, no password hashing is needed.
+ */
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final long refreshExpiration;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenServiceImpl(final RefreshTokenRepository refreshTokenRepository,
+                                   final UserRepository userRepository,
+                                   @Value("${jwt.refreshExpirationInSeconds:2592000}") final long refreshExpiration) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    @Transactional
+    @Override
+    public String issue(final User user) {
+        Assert.notNull(user, "user must not be null");
+        Assert.notNull(user.getId(), "user id must not be null");
+
+        return issue(user, UUID.randomUUID());
+    }
+
+    // the revocation of a replayed token's family must not be rolled back with the rejection
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    @Override
+    public Rotation rotate(final String refreshToken) throws InvalidRefreshTokenException {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new InvalidRefreshTokenException("refresh token must not be empty");
+        }
+
+        final String tokenHash = hash(refreshToken);
+        final RefreshToken existingToken = this.refreshTokenRepository.findOneWithUserByTokenHash(tokenHash)
+                .orElseThrow(() -> new InvalidRefreshTokenException("refresh token is unknown or already used"));
+        final User user = existingToken.getUser();
+
+        // expired tokens are removed with the next login of the user
+        if (existingToken.getExpiresAt().isBefore(Instant.now())) {
+            throw new InvalidRefreshTokenException("refresh token is expired");
+        }
+        // only one of concurrent refreshes with the same token marks it, any other use is a replay
+        if (existingToken.isUsed() || this.refreshTokenRepository.markUsedByTokenHash(tokenHash) == 0) {
+            this.refreshTokenRepository.deleteByFamilyId(existingToken.getFamilyId());
+            throw new InvalidRefreshTokenException("refresh token is unknown or already used");
+        }
+
+        return new Rotation(user, issue(user, existingToken.getFamilyId()));
+    }
+
+    @Transactional
+    @Override
+    public void revokeAll(final UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        this.refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    private String issue(final User user, final UUID familyId) {
+        final Instant now = Instant.now();
+        this.refreshTokenRepository.deleteByUserIdAndExpiresAtBefore(user.getId(), now);
+
+        final String token = generateToken();
+        this.refreshTokenRepository.save(new RefreshToken(hash(token), this.userRepository.getOne(user.getId()), familyId,
+                now.plusSeconds(this.refreshExpiration)));
+        return token;
+    }
+
+    private String generateToken() {
+        final byte[] bytes = new byte[TOKEN_BYTES];
+        this.random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(final String token) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+}
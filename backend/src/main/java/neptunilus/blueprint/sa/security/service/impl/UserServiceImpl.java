@@ -1,21 +1,38 @@
 package neptunilus.blueprint.sa.security.service.impl;
 
+import neptunilus.blueprint.sa.common.bulk.Chunks;
+import neptunilus.blueprint.sa.common.cache.ChangeCounter;
+import neptunilus.blueprint.sa.common.cache.CountCache;
+import neptunilus.blueprint.sa.common.cache.ExistenceFilter;
+import neptunilus.blueprint.sa.common.exception.UniqueConstraints;
+import neptunilus.blueprint.sa.common.exception.VersionMismatchException;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import neptunilus.blueprint.sa.reactive.cache.ReactiveAuthorityCache;
+import neptunilus.blueprint.sa.security.cache.AuthenticatedUserCache;
+import neptunilus.blueprint.sa.security.cache.UserVersionCache;
 import neptunilus.blueprint.sa.security.exception.UserAlreadyExistsException;
 import neptunilus.blueprint.sa.security.exception.UserNotFoundException;
 import neptunilus.blueprint.sa.security.model.User;
 import neptunilus.blueprint.sa.security.model.UserRole;
 import neptunilus.blueprint.sa.security.repository.UserRepository;
+import neptunilus.blueprint.sa.security.repository.projection.UserSummary;
+import neptunilus.blueprint.sa.security.service.RefreshTokenService;
 import neptunilus.blueprint.sa.security.service.UserRoleService;
 import neptunilus.blueprint.sa.security.service.UserService;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Objects;
 import java.util.Optional;
@@ -30,13 +47,34 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserRoleService userRoleService;
     private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final UserVersionCache userVersionCache;
+    private final ObjectProvider<ReactiveAuthorityCache> reactiveAuthorityCache;
+    private final CountCache userCountCache;
+    private final ChangeCounter userChangeCounter;
+    private final ExistenceFilter userEmailFilter;
 
     public UserServiceImpl(final UserRepository userRepository,
                            final UserRoleService userRoleService,
-                           final PasswordEncoder passwordEncoder) {
+                           final PasswordEncoder passwordEncoder,
+                           final RefreshTokenService refreshTokenService,
+                           final AuthenticatedUserCache authenticatedUserCache,
+                           final UserVersionCache userVersionCache,
+                           final ObjectProvider<ReactiveAuthorityCache> reactiveAuthorityCache,
+                           @Qualifier("userCountCache") final CountCache userCountCache,
+                           @Qualifier("userChangeCounter") final ChangeCounter userChangeCounter,
+                           @Qualifier("userEmailFilter") final ExistenceFilter userEmailFilter) {
         this.userRepository = userRepository;
         this.userRoleService = userRoleService;
         this.passwordEncoder = passwordEncoder;
+        this.refreshTokenService = refreshTokenService;
+        this.authenticatedUserCache = authenticatedUserCache;
+        this.userVersionCache = userVersionCache;
+        this.reactiveAuthorityCache = reactiveAuthorityCache;
+        this.userCountCache = userCountCache;
+        this.userChangeCounter = userChangeCounter;
+        this.userEmailFilter = userEmailFilter;
     }
 
     @Transactional(readOnly = true)
@@ -46,12 +84,39 @@ public class UserServiceImpl implements UserService {
             return this.userRepository.findAll(pageable);
         }
         if (strict) {
+            if (!this.userEmailFilter.mightContain(search)) {
+                return Page.empty();
+            }
             final Optional<User> user = this.userRepository.findOneByEmail(search);
             return user.isPresent() ? new PageImpl<>(Collections.singletonList(user.get())) : Page.empty();
         }
         return this.userRepository.findByEmailContainingIgnoreCase(search, pageable);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<UserSummary> findSummaries(final String search, final boolean count, final Pageable pageable) {
+        if (StringUtils.isBlank(search)) {
+            final Slice<UserSummary> users = this.userRepository.findSummaries(pageable);
+            return count ? this.userCountCache.toPage(users, Collections.emptyList(), this.userRepository::count) : users;
+        }
+        final Slice<UserSummary> users = this.userRepository.findSummariesByEmailContainingIgnoreCase(search, pageable);
+        return count ? this.userCountCache.toPage(users, Collections.singletonList(search),
+                () -> this.userRepository.countByEmailContainingIgnoreCase(search)) : users;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<UserSummary> findSummariesAfter(final String search, final Cursor after, final int size) {
+        final Cursor cursor = Cursor.orFirst(after);
+        final Pageable limit = Cursor.limit(size);
+
+        if (StringUtils.isBlank(search)) {
+            return this.userRepository.findSummariesAfter(cursor, limit);
+        }
+        return this.userRepository.findSummariesByEmailContainingIgnoreCaseAfter(search, cursor, limit);
+    }
+
     @Transactional(readOnly = true)
     @Override
     public User get(final UUID id) throws UserNotFoundException {
@@ -61,44 +126,64 @@ public class UserServiceImpl implements UserService {
         return user.orElseThrow(() -> new UserNotFoundException(String.format("no user found with id '%s'", id)));
     }
 
+    @Override
+    public long getChangeCount() {
+        return this.userChangeCounter.get();
+    }
+
     @Transactional
     @Override
     public UUID create(final User user) throws UserAlreadyExistsException {
         Assert.notNull(user, "user must not be null");
-        assertUserWithEmailNotPresent(user.getEmail());
 
         final UserRole userRoleFetched = user.getRole() != null ?
                 this.userRoleService.get(user.getRole().getId()) : null;
         final String passwordEncoded = this.passwordEncoder.encode(user.getPassword());
 
         User newUser = new User(user.getEmail(), passwordEncoded, userRoleFetched);
-        newUser = this.userRepository.save(newUser);
+        newUser = saveWithUniqueEmail(newUser);
+        this.userCountCache.invalidateAll();
+        this.userChangeCounter.changed();
 
         return newUser.getId();
     }
 
     @Transactional
     @Override
-    public void update(final UUID id, final User update) throws UserNotFoundException {
+    public void update(final UUID id, final User update, final Long version) throws UserNotFoundException, VersionMismatchException {
         Assert.notNull(id, "id must not be null");
         Assert.notNull(update, "new data must not be null");
 
         final User existingUser = get(id);
-
-        if (!Objects.equals(existingUser.getEmail(), update.getEmail())) {
-            assertUserWithEmailNotPresent(update.getEmail());
+        if (version != null && !version.equals(existingUser.getVersion())) {
+            throw new VersionMismatchException(String.format("user with id '%s' is not in version %d anymore", id, version));
         }
 
         final UserRole newUserRole = update.getRole() == null ?
                 existingUser.getRole() : this.userRoleService.get(update.getRole().getId());
-        final String passwordEncoded = update.getPassword() == null || update.getPassword().isBlank() ?
-                existingUser.getPassword() : this.passwordEncoder.encode(update.getPassword());
+        final boolean passwordChanged = update.getPassword() != null && !update.getPassword().isBlank();
+        final String passwordEncoded = passwordChanged ?
+                this.passwordEncoder.encode(update.getPassword()) : existingUser.getPassword();
+
+        invalidateAuthorities(existingUser.getEmail());
+        this.userVersionCache.invalidate(id);
 
+        final boolean emailChanged = !Objects.equals(existingUser.getEmail(), update.getEmail());
         existingUser.setEmail(update.getEmail());
         existingUser.setPassword(passwordEncoded);
         existingUser.setRole(newUserRole);
 
-        this.userRepository.save(existingUser);
+        saveWithUniqueEmail(existingUser);
+        if (passwordChanged) {
+            // logins with the old password must not be continued by refreshing (revoked after saving, as the
+            // deletion clears the persistence context)
+            this.refreshTokenService.revokeAll(id);
+        }
+        this.userCountCache.invalidateAll();
+        this.userChangeCounter.changed();
+        if (emailChanged) {
+            this.userEmailFilter.removed(1);
+        }
     }
 
     @Transactional
@@ -109,13 +194,55 @@ public class UserServiceImpl implements UserService {
         }
 
         final Optional<User> existingUser = this.userRepository.findById(id);
-        existingUser.ifPresent(this.userRepository::delete);
+        existingUser.ifPresent(user -> {
+            invalidateAuthorities(user.getEmail());
+            this.userVersionCache.invalidate(id);
+            this.userRepository.delete(user);
+            this.userCountCache.invalidateAll();
+            this.userChangeCounter.changed();
+            this.userEmailFilter.removed(1);
+        });
+    }
+
+    @Transactional
+    @Override
+    public long deleteAll(final Collection<UUID> ids) {
+        Assert.notNull(ids, "ids must not be null");
+
+        final long deleted = Chunks.sum(ids, chunk -> {
+            this.userRepository.findEmailsByIdIn(chunk).forEach(this::invalidateAuthorities);
+            chunk.forEach(this.userVersionCache::invalidate);
+            return this.userRepository.deleteByIdIn(chunk);
+        });
+        if (deleted > 0) {
+            this.userCountCache.invalidateAll();
+            this.userChangeCounter.changed();
+            this.userEmailFilter.removed(deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Removes the cached authorities of the user, of the servlet and (if enabled) of the reactive API.
+     */
+    private void invalidateAuthorities(final String email) {
+        this.authenticatedUserCache.invalidate(email);
+        this.reactiveAuthorityCache.ifAvailable(cache -> cache.invalidate(email));
     }
 
-    private void assertUserWithEmailNotPresent(final String email) {
-        final Optional<User> existingUser = this.userRepository.findOneByEmail(email);
-        if (existingUser.isPresent()) {
-            throw new UserAlreadyExistsException(String.format("user with email '%s' already exists", email));
+    /**
+     * Saves (and flushes) the user, relying on the unique constraint of the database instead of checking the email before.
+     */
+    private User saveWithUniqueEmail(final User user) {
+        try {
+            final User savedUser = this.userRepository.saveAndFlush(user);
+            this.userEmailFilter.put(user.getEmail());
+            return savedUser;
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, User.UNIQUE_EMAIL)) {
+                throw new UserAlreadyExistsException(String.format("user with email '%s' already exists", user.getEmail()));
+            }
+            throw e;
         }
     }
 
@@ -0,0 +1,87 @@
+package neptunilus.blueprint.sa.security.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+
+/**
+ * Calibration of the BCrypt strength (the logarithmic work factor) to the host.
+ * <p>
+ * Every additional strength doubles the time of hashing a password, so it is enough to measure a cheap strength
+ * and extrapolate to the strongest one still within the target time.
+ */
+public final class BCryptCalibration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BCryptCalibration.class);
+
+    private static final int MEASURED_STRENGTH = 6;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final String SAMPLE_PASSWORD = "calibration";
+
+    private BCryptCalibration() {
+    }
+
+    /**
+     * Measures the hashing on this host and returns the strongest strength within the target time.
+     *
+     * @param target      The target time of hashing (and verifying) a password
+     * @param minStrength The minimal strength, even if slower than the target
+     * @param maxStrength The maximal strength, even if faster than the target
+     * @return The strength
+     */
+    public static int calibrate(final Duration target, final int minStrength, final int maxStrength) {
+        final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(MEASURED_STRENGTH);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            encoder.encode(SAMPLE_PASSWORD);
+        }
+
+        // the fastest round is the least disturbed by other work on the host
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            final long started = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            fastest = Math.min(fastest, System.nanoTime() - started);
+        }
+
+        final Duration measured = Duration.ofNanos(fastest);
+        final int strength = strengthFor(target, measured, MEASURED_STRENGTH, minStrength, maxStrength);
+        LOGGER.info("calibrated BCrypt strength {} for target {} (strength {} took {})", strength, target, MEASURED_STRENGTH, measured);
+        return strength;
+    }
+
+    /**
+     * Extrapolates the strongest strength within the target time from a measured one.
+     *
+     * @param target           The target time
+     * @param measured         The measured time
+     * @param measuredStrength The measured strength
+     * @param minStrength      The minimal strength
+     * @param maxStrength      The maximal strength
+     * @return The strength
+     */
+    public static int strengthFor(final Duration target, final Duration measured, final int measuredStrength,
+                                  final int minStrength, final int maxStrength) {
+        Assert.isTrue(4 <= minStrength && minStrength <= maxStrength && maxStrength <= 31, "strengths must be within 4 and 31");
+
+        if (measured.isZero() || measured.isNegative()) {
+            return maxStrength;
+        }
+
+        int strength = measuredStrength;
+        Duration time = measured;
+        while (strength < maxStrength && time.multipliedBy(2).compareTo(target) <= 0) {
+            strength++;
+            time = time.multipliedBy(2);
+        }
+        while (strength > minStrength && time.compareTo(target) > 0) {
+            strength--;
+            time = time.dividedBy(2);
+        }
+        return Math.max(minStrength, Math.min(maxStrength, strength));
+    }
+
+}
@@ -1,66 +1,178 @@
 package neptunilus.blueprint.sa.security.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Header;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Serializer;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
+import neptunilus.blueprint.sa.security.model.Authority;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
 
 import java.security.Key;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.time.Instant;
 import java.util.Date;
 import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.UUID;
 
 /**
  * Utilities for JWT handling.
+ * <p>
+ * The signing key, the JSON serializer and the parser are built once on construction and shared afterwards,
+ * all of them are safe to be used by concurrent requests.
+ * <p>
+ * In self-contained mode the generated tokens additionally carry the user id and version, the authorities
+ * (as bitmask) and the version of the role, so that authorization does not need to load the user.
+ * <p>
+ * Generating and verifying are timed as {@code security.jwt}, tagged with the operation and its outcome.
  */
 public class JwtUtils {
 
     private static final String ROLE_CLAIM = "role";
+    private static final String ROLE_VERSION_CLAIM = "rv";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String USER_VERSION_CLAIM = "uv";
+    private static final String AUTHORITIES_CLAIM = "auth";
+    private static final Map<String, Object> HEADER = Map.of(Header.TYPE, Header.JWT_TYPE);
 
-    private final String jwtSecret;
     private final String jwtIssuer;
     private final long jwtExpiration;
+    private final boolean selfContained;
+    private final Key key;
+    private final Serializer<Map<String, ?>> serializer;
+    private final JwtParser parser;
+    private final MeterRegistry meterRegistry;
+    private final Timer generateTimer;
+    private final Timer verifySuccessTimer;
+    private final Timer verifyFailureTimer;
 
-    public JwtUtils(final String jwtSecret, final String jwtIssuer, final long jwtExpiration) {
-        this.jwtSecret = jwtSecret;
+    public JwtUtils(final String jwtSecret, final String jwtIssuer, final long jwtExpiration, final boolean selfContained,
+                    final MeterRegistry meterRegistry) {
         this.jwtIssuer = jwtIssuer;
         this.jwtExpiration = jwtExpiration;
+        this.selfContained = selfContained;
+        this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.serializer = loadSerializer();
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(this.key)
+                .build();
+        this.meterRegistry = meterRegistry;
+        this.generateTimer = timer(meterRegistry, "generate", "success");
+        this.verifySuccessTimer = timer(meterRegistry, "verify", "success");
+        this.verifyFailureTimer = timer(meterRegistry, "verify", "failure");
     }
 
     public String generate(final AuthenticatedUser authenticatedUser) {
-        return Jwts.builder()
-                .signWith(getKey(), SignatureAlgorithm.HS512)
-                .setHeaderParam("typ", "JWT")
+        final Timer.Sample sample = Timer.start(this.meterRegistry);
+        final Instant now = Instant.now();
+        final User user = authenticatedUser.getUser();
+
+        final JwtBuilder builder = Jwts.builder()
+                .setHeader(HEADER)
                 .setId(UUID.randomUUID().toString())
                 .setIssuer(this.jwtIssuer)
-                .setIssuedAt(convertToDate(LocalDateTime.now()))
+                .setIssuedAt(Date.from(now))
                 .setSubject(authenticatedUser.getUsername())
-                .setExpiration(convertToDate(LocalDateTime.now().plusSeconds(this.jwtExpiration)))
-                .addClaims(Map.of(ROLE_CLAIM, authenticatedUser.getUser().getRole().getId()))
+                .setExpiration(Date.from(now.plusSeconds(this.jwtExpiration)))
+                .claim(ROLE_CLAIM, user.getRole().getId());
+
+        if (this.selfContained) {
+            builder
+                    .claim(USER_ID_CLAIM, user.getId())
+                    .claim(USER_VERSION_CLAIM, user.getVersion())
+                    .claim(ROLE_VERSION_CLAIM, user.getRole().getVersion())
+                    .claim(AUTHORITIES_CLAIM, Authority.toBitmask(user.getRole().getAuthorities()));
+        }
+
+        final String token = builder
+                .signWith(this.key, SignatureAlgorithm.HS512)
+                .serializeToJsonWith(this.serializer)
                 .compact();
+        sample.stop(this.generateTimer);
+        return token;
     }
 
     public Jws<Claims> validateAndParseClaims(final String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getKey())
-                .build()
-                .parseClaimsJws(token);
+        final Timer.Sample sample = Timer.start(this.meterRegistry);
+        try {
+            final Jws<Claims> claims = this.parser.parseClaimsJws(token);
+            sample.stop(this.verifySuccessTimer);
+            return claims;
+        } catch (final RuntimeException e) {
+            sample.stop(this.verifyFailureTimer);
+            throw e;
+        }
     }
 
     public static String getUsername(final Jws<Claims> claims) {
         return claims.getBody().getSubject();
     }
 
-    private Key getKey() {
-        return Keys.hmacShaKeyFor(this.jwtSecret.getBytes());
+    public static String getTokenId(final Jws<Claims> claims) {
+        return claims.getBody().getId();
+    }
+
+    public static UUID getRoleId(final Jws<Claims> claims) {
+        final String roleId = claims.getBody().get(ROLE_CLAIM, String.class);
+        return roleId != null ? UUID.fromString(roleId) : null;
+    }
+
+    public static Long getRoleVersion(final Jws<Claims> claims) {
+        return claims.getBody().get(ROLE_VERSION_CLAIM, Long.class);
+    }
+
+    public static UUID getUserId(final Jws<Claims> claims) {
+        final String userId = claims.getBody().get(USER_ID_CLAIM, String.class);
+        return userId != null ? UUID.fromString(userId) : null;
+    }
+
+    public static Long getUserVersion(final Jws<Claims> claims) {
+        return claims.getBody().get(USER_VERSION_CLAIM, Long.class);
+    }
+
+    /**
+     * Builds a lightweight {@link AuthenticatedUser} directly from the claims of a self-contained token.
+     * The user contains id, email, version and role (id, version, authorities) only.
+     *
+     * @param claims The claims
+     * @return The authenticated user or {@code null} if not in self-contained mode or the token is not self-contained
+     */
+    public AuthenticatedUser getAuthenticatedUser(final Jws<Claims> claims) {
+        final Claims body = claims.getBody();
+        if (!this.selfContained || !body.containsKey(AUTHORITIES_CLAIM) || !body.containsKey(USER_ID_CLAIM)) {
+            return null;
+        }
+
+        final UserRole role = new UserRole(null, Authority.fromBitmask(body.get(AUTHORITIES_CLAIM, Long.class)));
+        role.setId(getRoleId(claims));
+        role.setVersion(getRoleVersion(claims));
+
+        final User user = new User(body.getSubject(), null, role);
+        user.setId(getUserId(claims));
+        user.setVersion(getUserVersion(claims));
+
+        return new AuthenticatedUser(user);
+    }
+
+    private static Timer timer(final MeterRegistry meterRegistry, final String operation, final String outcome) {
+        return Timer.builder("security.jwt")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
-    private static Date convertToDate(final LocalDateTime localDateTime) {
-        return Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
+    @SuppressWarnings("unchecked")
+    private static Serializer<Map<String, ?>> loadSerializer() {
+        return ServiceLoader.load(Serializer.class).findFirst()
+                .orElseThrow(() -> new IllegalStateException("no JWT serializer found on classpath"));
     }
 
 }
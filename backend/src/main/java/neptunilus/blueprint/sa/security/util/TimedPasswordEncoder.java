@@ -0,0 +1,47 @@
+package neptunilus.blueprint.sa.security.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password encoder timing the hashing of another one as {@code security.password.encoding}, tagged with the
+ * operation ({@code encode} or {@code matches}).
+ * <p>
+ * Hashing is deliberately slow (and the strength is calibrated to the host), so the timings show how much of
+ * the login time it takes.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(final PasswordEncoder delegate, final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(meterRegistry, "encode");
+        this.matchesTimer = timer(meterRegistry, "matches");
+    }
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return this.encodeTimer.record(() -> this.delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+        return this.matchesTimer.record(() -> this.delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(final MeterRegistry meterRegistry, final String operation) {
+        return Timer.builder("security.password.encoding")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+}
@@ -1,13 +1,31 @@
 package neptunilus.blueprint.sa.common;
 
+import neptunilus.blueprint.sa.security.repository.UserRepository;
+import neptunilus.blueprint.sa.security.repository.UserRoleRepository;
+import neptunilus.blueprint.sa.security.service.RefreshTokenService;
 import neptunilus.blueprint.sa.security.service.impl.AuthenticatedUserDetailsService;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.test.context.support.WithMockUser;
 
 @WithMockUser
+@ImportAutoConfiguration({MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class,
+        SimpleMetricsExportAutoConfiguration.class})
 public abstract class MockedSecurityControllerTest {
 
     @MockBean
     protected AuthenticatedUserDetailsService authenticatedUserDetailsService;
 
+    @MockBean
+    protected UserRepository userRepository;
+
+    @MockBean
+    protected UserRoleRepository userRoleRepository;
+
+    @MockBean
+    protected RefreshTokenService refreshTokenService;
+
 }
@@ -0,0 +1,44 @@
+package neptunilus.blueprint.sa.common.bulk;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChunksTest {
+
+    @Test
+    public void testSum_ShouldApplyToDistinctItemsInChunks() {
+        List<Integer> items = new ArrayList<>(IntStream.range(0, Chunks.SIZE + 1).boxed().collect(Collectors.toList()));
+        items.addAll(Arrays.asList(0, 1, null));
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        long total = Chunks.sum(items, chunk -> {
+            chunkSizes.add(chunk.size());
+            return chunk.size();
+        });
+
+        assertThat(total).isEqualTo(Chunks.SIZE + 1);
+        assertThat(chunkSizes).containsExactly(Chunks.SIZE, 1);
+    }
+
+    @Test
+    public void testCollect_ShouldCollectResultsOfAllChunks() {
+        List<Integer> items = IntStream.range(0, 2 * Chunks.SIZE + 1).boxed().collect(Collectors.toList());
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        List<Integer> results = Chunks.collect(items, chunk -> {
+            chunkSizes.add(chunk.size());
+            return chunk.stream().filter(item -> item % 2 == 0).collect(Collectors.toList());
+        });
+
+        assertThat(results).hasSize(Chunks.SIZE + 1);
+        assertThat(chunkSizes).containsExactly(Chunks.SIZE, Chunks.SIZE, 1);
+    }
+
+}
@@ -0,0 +1,39 @@
+package neptunilus.blueprint.sa.common.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChangeCounterTest {
+
+    @Test
+    public void testChanged_ShouldCountImmediately() {
+        ChangeCounter changeCounter = new ChangeCounter();
+
+        changeCounter.changed();
+        changeCounter.changed();
+
+        assertThat(changeCounter.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testChanged_ShouldCountAgainAfterCompletionOfTransaction() {
+        ChangeCounter changeCounter = new ChangeCounter();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeCounter.changed();
+            assertThat(changeCounter.get()).isEqualTo(1);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(changeCounter.get()).isEqualTo(2);
+    }
+
+}
@@ -0,0 +1,58 @@
+package neptunilus.blueprint.sa.common.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CountCacheTest {
+
+    @Test
+    public void testToPage_ShouldCountOncePerFilter() {
+        CountCache countCache = new CountCache(10, 60);
+        AtomicLong counted = new AtomicLong();
+
+        SliceImpl<String> slice = new SliceImpl<>(List.of("a", "b"), PageRequest.of(0, 2), true);
+
+        Page<String> page1 = countCache.toPage(slice, List.of("a"), () -> counted.incrementAndGet() + 9);
+        Page<String> page2 = countCache.toPage(slice, List.of("a"), () -> counted.incrementAndGet() + 9);
+        Page<String> page3 = countCache.toPage(slice, List.of("b"), () -> counted.incrementAndGet() + 9);
+
+        assertThat(page1.getTotalElements()).isEqualTo(10);
+        assertThat(page2.getTotalElements()).isEqualTo(10);
+        assertThat(page3.getTotalElements()).isEqualTo(11);
+        assertThat(counted.get()).isEqualTo(2);
+        assertThat(countCache.getStats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testToPage_ShouldNotCountIfTotalIsKnownFromSlice() {
+        CountCache countCache = new CountCache(10, 60);
+
+        SliceImpl<String> slice = new SliceImpl<>(List.of("a"), PageRequest.of(3, 2), false);
+
+        Page<String> page = countCache.toPage(slice, List.of(), () -> {
+            throw new AssertionError("must not count");
+        });
+
+        assertThat(page.getTotalElements()).isEqualTo(7);
+        assertThat(countCache.getStats().requestCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testInvalidateAll_ShouldCountAgain() {
+        CountCache countCache = new CountCache(10, 60);
+        AtomicLong counted = new AtomicLong();
+
+        countCache.get(List.of(), counted::incrementAndGet);
+        countCache.invalidateAll();
+
+        assertThat(countCache.get(List.of(), counted::incrementAndGet)).isEqualTo(2);
+    }
+
+}
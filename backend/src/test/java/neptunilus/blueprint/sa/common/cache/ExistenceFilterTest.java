@@ -0,0 +1,121 @@
+package neptunilus.blueprint.sa.common.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExistenceFilterTest {
+
+    @Test
+    public void testMightContain_ShouldContainEverythingBeforeBuild() {
+        ExistenceFilter filter = new ExistenceFilter("test", 100, 0.01, values -> values.accept("a"));
+
+        assertThat(filter.mightContain("a")).isTrue();
+        assertThat(filter.mightContain("b")).isTrue();
+        assertThat(filter.getExpectedFalsePositiveRate()).isEqualTo(1);
+    }
+
+    @Test
+    public void testMightContain_ShouldContainScannedAndPutValues() {
+        ExistenceFilter filter = new ExistenceFilter("test", 100, 0.01, values -> values.accept("scanned"));
+        filter.rebuild();
+
+        assertThat(filter.mightContain("scanned")).isTrue();
+        assertThat(filter.mightContain("put")).isFalse();
+
+        filter.put("put");
+
+        assertThat(filter.mightContain("put")).isTrue();
+        assertThat(filter.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testMightContain_ShouldNeverMissAndKeepFalsePositiveRateWhenGrowingBeyondExpectedInsertions() {
+        List<String> values = new ArrayList<>();
+        IntStream.range(0, 50_000).forEach(i -> values.add("value" + i));
+
+        ExistenceFilter filter = new ExistenceFilter("test", 1000, 0.01, consumer -> values.forEach(consumer));
+        filter.rebuild();
+
+        assertThat(values).allMatch(filter::mightContain);
+
+        long falsePositives = IntStream.range(0, 50_000).filter(i -> filter.mightContain("other" + i)).count();
+        assertThat(falsePositives / 50_000d).isLessThan(0.02);
+        assertThat(filter.getExpectedFalsePositiveRate()).isLessThan(0.02);
+        assertThat(filter.getMemoryInBytes()).isGreaterThan(0);
+    }
+
+    @Test
+    public void testRebuild_ShouldDropRemovedValues() {
+        List<String> values = new ArrayList<>(List.of("a", "b"));
+        ExistenceFilter filter = new ExistenceFilter("test", 100, 0.01, consumer -> values.forEach(consumer));
+        filter.rebuild();
+
+        values.remove("b");
+        filter.removed(1);
+        assertThat(filter.getStaleCount()).isEqualTo(1);
+
+        filter.rebuild();
+
+        assertThat(filter.mightContain("a")).isTrue();
+        assertThat(filter.mightContain("b")).isFalse();
+        assertThat(filter.getStaleCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testPut_ShouldNeverLosePutsDuringConcurrentRebuilds() throws Exception {
+        Queue<String> committed = new ConcurrentLinkedQueue<>();
+        ExistenceFilter filter = new ExistenceFilter("test", 100, 0.01, committed::forEach);
+        filter.rebuild();
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CompletableFuture<Void> rebuilds = CompletableFuture.runAsync(() -> {
+            while (writing.get()) {
+                filter.rebuild();
+            }
+        });
+
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String value = "put" + i;
+            committed.add(value);
+            filter.put(value);
+            if (!filter.mightContain(value)) {
+                missing.add(value);
+            }
+        }
+        writing.set(false);
+        rebuilds.get(30, TimeUnit.SECONDS);
+
+        assertThat(missing).isEmpty();
+        assertThat(committed).allMatch(filter::mightContain);
+    }
+
+    @Test
+    public void testRemoved_ShouldRebuildOnDedicatedThreadWhenTooManyValuesAreStale() throws Exception {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch rebuilt = new CountDownLatch(2);
+        ExistenceFilter filter = new ExistenceFilter("test", 4, 0.01, values -> {
+            threads.add(Thread.currentThread().getName());
+            rebuilt.countDown();
+        });
+        filter.rebuild();
+
+        filter.removed(2);
+
+        assertThat(rebuilt.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads.get(1)).startsWith("existence-filter-test-");
+    }
+
+}
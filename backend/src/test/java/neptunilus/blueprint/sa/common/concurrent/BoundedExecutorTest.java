@@ -0,0 +1,85 @@
+package neptunilus.blueprint.sa.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class BoundedExecutorTest {
+
+    @Test
+    public void testExecute_ShouldRejectIfQueueIsFull() throws Exception {
+        BoundedExecutor executor = new BoundedExecutor("test", 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+
+        try {
+            executor.execute(() -> {
+                started.countDown();
+                await(release);
+                done.countDown();
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            executor.execute(done::countDown);
+
+            assertThatExceptionOfType(RejectedExecutionException.class)
+                    .isThrownBy(() -> executor.execute(done::countDown));
+
+            assertThat(executor.getStats().getActiveCount()).isEqualTo(1);
+            assertThat(executor.getStats().getQueueSize()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.getStats().getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testExecute_ShouldRecordQueueWaitAndExecutionTime() throws Exception {
+        BoundedExecutor executor = new BoundedExecutor("test", 1, 10);
+        CountDownLatch done = new CountDownLatch(2);
+
+        try {
+            executor.execute(() -> {
+                sleep(50);
+                done.countDown();
+            });
+            executor.execute(done::countDown);
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        BoundedExecutor.Stats stats = executor.getStats();
+        assertThat(stats.getCompletedCount()).isEqualTo(2);
+        assertThat(stats.getRejectedCount()).isZero();
+        assertThat(stats.getTotalExecution().toMillis()).isGreaterThanOrEqualTo(50);
+        assertThat(stats.getTotalQueueWait().toMillis()).isGreaterThanOrEqualTo(40);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
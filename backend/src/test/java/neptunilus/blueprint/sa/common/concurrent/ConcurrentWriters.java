@@ -0,0 +1,66 @@
+package neptunilus.blueprint.sa.common.concurrent;
+
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Helper for the stress tests of concurrent writers.
+ */
+public final class ConcurrentWriters {
+
+    private ConcurrentWriters() {
+    }
+
+    /**
+     * Runs the writers in parallel threads released at once, returning the result or the exception of each one.
+     *
+     * @param writers     The writers, each run in its own thread
+     * @param authorities The authorities the writers are authenticated with
+     * @return The outcomes in the order of the writers
+     */
+    public static List<Object> run(final List<? extends Callable<?>> writers, final String... authorities) throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(writers.size());
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (final Callable<?> writer : writers) {
+                futures.add(executor.submit(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("writer", null, authorities));
+                    try {
+                        start.await();
+                        return writer.call();
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            start.countDown();
+
+            final List<Object> outcomes = new ArrayList<>();
+            for (final Future<?> future : futures) {
+                try {
+                    outcomes.add(future.get(30, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    outcomes.add(e.getCause());
+                } catch (TimeoutException e) {
+                    outcomes.add(e);
+                }
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package neptunilus.blueprint.sa.common.controller;
+
+import neptunilus.blueprint.sa.common.exception.VersionMismatchException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ETagsTest {
+
+    @Test
+    public void testOfVersion_ShouldSkipMissingAssociations() {
+        assertThat(ETags.ofVersion(3L, 1L)).isEqualTo("W/\"3.1\"");
+        assertThat(ETags.ofVersion(3L, (Long) null)).isEqualTo("W/\"3\"");
+        assertThat(ETags.ofVersion(null)).isEqualTo("W/\"0\"");
+    }
+
+    @Test
+    public void testOfChanges_ShouldDifferPerCount() {
+        assertThat(ETags.ofChanges(1)).isEqualTo(ETags.ofChanges(1)).isNotEqualTo(ETags.ofChanges(2));
+        assertThat(ETags.ofChanges(1)).startsWith("W/\"").endsWith("-1\"");
+    }
+
+    @Test
+    public void testParseVersion_ShouldAcceptAnyVersionWithoutTag() {
+        assertThat(ETags.parseVersion(null)).isNull();
+        assertThat(ETags.parseVersion(" ")).isNull();
+        assertThat(ETags.parseVersion("*")).isNull();
+    }
+
+    @Test
+    public void testParseVersion_ShouldReturnVersionOfEntityOnly() {
+        assertThat(ETags.parseVersion("\"3\"")).isEqualTo(3L);
+        assertThat(ETags.parseVersion(ETags.ofVersion(3L, 1L))).isEqualTo(3L);
+    }
+
+    @Test
+    public void testParseVersion_ShouldAcceptWeakAndStrongTags() {
+        assertThat(ETags.parseVersion("W/\"3\"")).isEqualTo(3L);
+        assertThat(ETags.parseVersion(" W/\"3.1\" ")).isEqualTo(3L);
+        assertThat(ETags.parseVersion("\"3.1\"")).isEqualTo(3L);
+    }
+
+    @Test
+    public void testParseVersion_ShouldThrowExceptionIfTagIsNoVersion() {
+        assertThatExceptionOfType(VersionMismatchException.class)
+                .isThrownBy(() -> ETags.parseVersion("W/3"))
+                .withMessage("entity tag W/3 does not match the current version");
+        assertThatExceptionOfType(VersionMismatchException.class)
+                .isThrownBy(() -> ETags.parseVersion(ETags.ofChanges(3)));
+        assertThatExceptionOfType(VersionMismatchException.class)
+                .isThrownBy(() -> ETags.parseVersion("\"3\", \"4\""));
+    }
+
+}
@@ -0,0 +1,27 @@
+package neptunilus.blueprint.sa.common.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UniqueConstraintsTest {
+
+    @Test
+    public void testIsViolated_ShouldMatchConstraintNameReportedByDatabase() {
+        DataIntegrityViolationException exception = new DataIntegrityViolationException("conflict",
+                new ConstraintViolationException("conflict", null, "PUBLIC.UK_PRODUCT_NAME_INDEX_1 ON PUBLIC.PRODUCT(NAME) VALUES 1"));
+
+        assertThat(UniqueConstraints.isViolated(exception, "uk_product_name")).isTrue();
+        assertThat(UniqueConstraints.isViolated(exception, "uk_category_name")).isFalse();
+    }
+
+    @Test
+    public void testIsViolated_ShouldNotMatchOtherIntegrityViolations() {
+        assertThat(UniqueConstraints.isViolated(new DataIntegrityViolationException("invalid"), "uk_product_name")).isFalse();
+        assertThat(UniqueConstraints.isViolated(new DataIntegrityViolationException("invalid",
+                new ConstraintViolationException("invalid", null, null)), "uk_product_name")).isFalse();
+    }
+
+}
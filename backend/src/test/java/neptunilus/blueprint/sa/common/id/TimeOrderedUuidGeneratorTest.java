@@ -0,0 +1,44 @@
+package neptunilus.blueprint.sa.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    public void testNext_ShouldReturnVersion7WithCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = TimeOrderedUuidGenerator.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after + 1);
+    }
+
+    @Test
+    public void testNext_ShouldReturnStrictlyIncreasingIds() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(TimeOrderedUuidGenerator.next());
+        }
+
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+        assertThat(ids).isSortedAccordingTo(Comparator.comparing(UUID::toString));
+    }
+
+    @Test
+    public void testGenerate_ShouldReturnNewId() {
+        assertThat(new TimeOrderedUuidGenerator().generate(null, null))
+                .isInstanceOf(UUID.class)
+                .isNotEqualTo(new TimeOrderedUuidGenerator().generate(null, null));
+    }
+
+}
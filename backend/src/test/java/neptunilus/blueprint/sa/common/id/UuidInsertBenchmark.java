@@ -0,0 +1,87 @@
+package neptunilus.blueprint.sa.common.id;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares inserting rows with random (version 4) against {@link TimeOrderedUuidGenerator time-ordered} primary keys
+ * into a table already filled with {@link #EXISTING_ROWS} rows (score is the time for inserting {@link #ROWS} rows).
+ * <p>
+ * Run the main method (e.g. from the IDE) with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class UuidInsertBenchmark {
+
+    private static final int EXISTING_ROWS = 1_000_000;
+    private static final int ROWS = 100_000;
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"random", "timeOrdered"})
+    private String keys;
+
+    private Supplier<UUID> generator;
+    private Connection connection;
+
+    @Setup(Level.Iteration)
+    public void setup() throws SQLException {
+        this.generator = "random".equals(this.keys) ? UUID::randomUUID : TimeOrderedUuidGenerator::next;
+        this.connection = DriverManager.getConnection("jdbc:h2:mem:uuids");
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute("create table item (id uuid primary key, name varchar(100))");
+        }
+        insert(EXISTING_ROWS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws SQLException {
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute("drop table item");
+        }
+        this.connection.close();
+    }
+
+    @Benchmark
+    public int insert() throws SQLException {
+        return insert(ROWS);
+    }
+
+    private int insert(final int rows) throws SQLException {
+        try (PreparedStatement statement = this.connection.prepareStatement("insert into item (id, name) values (?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                statement.setObject(1, this.generator.get());
+                statement.setString(2, "item" + i);
+                statement.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+        return rows;
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UuidInsertBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
@@ -0,0 +1,88 @@
+package neptunilus.blueprint.sa.common.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+public class InvocationMetricsPostProcessorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InvocationMetricsPostProcessor postProcessor = new InvocationMetricsPostProcessor(meterRegistryProvider(this.meterRegistry));
+
+    @Test
+    public void testPostProcess_ShouldTimeServicesByMethodAndException() {
+        MyService service = (MyService) this.postProcessor.postProcessAfterInitialization(new MyService(), "myService");
+
+        assertThat(service.find("some term")).isEqualTo("found");
+        assertThatIllegalStateException().isThrownBy(service::fail);
+
+        assertThat(this.meterRegistry.get(InvocationMetricsPostProcessor.SERVICE_METRIC)
+                .tags("service", "MyService", "method", "find", "exception", InvocationMetricsInterceptor.NO_EXCEPTION)
+                .timer().count()).isEqualTo(1);
+        assertThat(this.meterRegistry.get(InvocationMetricsPostProcessor.SERVICE_METRIC)
+                .tags("service", "MyService", "method", "fail", "exception", "IllegalStateException")
+                .timer().count()).isEqualTo(1);
+        assertThat(this.meterRegistry.getMeters()).hasSize(2);
+    }
+
+    @Test
+    public void testPostProcess_ShouldRegisterTimersOnlyOnce() {
+        AtomicInteger lookups = new AtomicInteger();
+        this.meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public Meter.Id map(final Meter.Id id) {
+                lookups.incrementAndGet();
+                return id;
+            }
+        });
+        MyService service = (MyService) this.postProcessor.postProcessAfterInitialization(new MyService(), "myService");
+
+        for (int i = 0; i < 3; i++) {
+            service.find("some term");
+            assertThatIllegalStateException().isThrownBy(service::fail);
+        }
+
+        assertThat(lookups).hasValue(2);
+        assertThat(this.meterRegistry.get(InvocationMetricsPostProcessor.SERVICE_METRIC)
+                .tags("method", "find").timer().count()).isEqualTo(3);
+        assertThat(this.meterRegistry.get(InvocationMetricsPostProcessor.SERVICE_METRIC)
+                .tags("method", "fail").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    public void testPostProcess_ShouldIgnoreOtherBeans() {
+        Object bean = new Object();
+
+        assertThat(this.postProcessor.postProcessAfterInitialization(bean, "bean")).isSameAs(bean);
+    }
+
+    private static ObjectProvider<MeterRegistry> meterRegistryProvider(final MeterRegistry meterRegistry) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        return beanFactory.getBeanProvider(MeterRegistry.class);
+    }
+
+    @Service
+    public static class MyService {
+
+        public String find(final String search) {
+            return "found";
+        }
+
+        public void fail() {
+            throw new IllegalStateException("failed");
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package neptunilus.blueprint.sa.common.metrics;
+
+import neptunilus.blueprint.sa.security.model.Authority;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser(authorities = "READ_CATEGORY")
+    public void testScrape_ShouldExposeMetricsOfAllLayers() throws Exception {
+        this.mockMvc
+                .perform(get("/category").param("search", "secret term"))
+                .andExpect(status().isOk());
+
+        String scrape = scrape();
+
+        assertThat(scrape).contains("http_server_requests_seconds_bucket{");
+        assertThat(scrape).contains("uri=\"/category\"");
+        assertThat(scrape).contains("service_invocations_seconds_count{exception=\"none\",method=\"findSummaries\",service=\"CategoryServiceImpl\",}");
+        assertThat(scrape).contains("spring_data_repository_invocations_seconds_count{");
+        assertThat(scrape).contains("repository=\"CategoryRepository\"");
+        assertThat(scrape).contains("cache_hit_ratio{cache=\"categoryCount\",}");
+        assertThat(scrape).contains("existence_filter_values{name=\"categoryName\",}");
+        assertThat(scrape).contains("executor_rejected_tasks_total{name=\"password-hashing\",}");
+        assertThat(scrape).contains("hikaricp_connections{");
+        assertThat(scrape).doesNotContain("secret term");
+    }
+
+    @Test
+    public void testScrape_ShouldExposeSecurityMetrics() throws Exception {
+        MvcResult login = this.mockMvc
+                .perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"username\": \"unknown@mail.xy\", \"password\": \"password\" }"))
+                .andReturn();
+        awaitCompletion(login);
+        assertThat(login.getResponse().getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+        this.mockMvc
+                .perform(get("/category").header(HttpHeaders.AUTHORIZATION, "Bearer invalid"))
+                .andExpect(status().isForbidden());
+
+        String scrape = scrape();
+
+        assertThat(scrape).contains("security_logins_total{outcome=\"failure\",}");
+        assertThat(scrape).contains("security_jwt_seconds_count{operation=\"verify\",outcome=\"failure\",}");
+        assertThat(scrape).contains("security_authorizations_seconds_count{outcome=\"failure\",}");
+        assertThat(scrape).contains("security_password_encoding_seconds_count{operation=\"matches\",}");
+    }
+
+    @Test
+    public void testScrape_ShouldRequireMetricsAuthority() throws Exception {
+        this.mockMvc
+                .perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+        this.mockMvc
+                .perform(get("/actuator/prometheus").with(user("user").authorities(Authority.READ_CATEGORY)))
+                .andExpect(status().isForbidden());
+        this.mockMvc
+                .perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    private static void awaitCompletion(final MvcResult result) throws InterruptedException {
+        // the logins are authenticated on the password hashing executor
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (result.getRequest().isAsyncStarted() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private String scrape() throws Exception {
+        return this.mockMvc
+                .perform(get("/actuator/prometheus").with(user("prometheus").authorities(Authority.READ_METRICS)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+}
@@ -0,0 +1,46 @@
+package neptunilus.blueprint.sa.common.pagination;
+
+import neptunilus.blueprint.sa.common.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class CursorTest {
+
+    @Test
+    public void testDecode_ShouldReturnEncodedCursor() {
+        Cursor cursor = new Cursor("my:Prödüct 1/2", UUID.randomUUID());
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(Cursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    public void testDecode_ShouldReturnNullIfNoTokenGiven() {
+        assertThat(Cursor.decode(null)).isNull();
+        assertThat(Cursor.decode("")).isNull();
+    }
+
+    @Test
+    public void testDecode_ShouldThrowExceptionIfTokenIsMalformed() {
+        String notAnId = Base64.getUrlEncoder().encodeToString("not-an-id-not-an-id-not-an-id-not-an:key".getBytes());
+
+        assertThatExceptionOfType(InvalidCursorException.class).isThrownBy(() -> Cursor.decode("not base64!"));
+        assertThatExceptionOfType(InvalidCursorException.class).isThrownBy(() -> Cursor.decode("c2hvcnQ"));
+        assertThatExceptionOfType(InvalidCursorException.class).isThrownBy(() -> Cursor.decode(notAnId));
+    }
+
+    @Test
+    public void testLimit_ShouldKeepSizeInBounds() {
+        assertThat(Cursor.limit(0).getPageSize()).isEqualTo(1);
+        assertThat(Cursor.limit(50).getPageSize()).isEqualTo(50);
+        assertThat(Cursor.limit(Integer.MAX_VALUE).getPageSize()).isEqualTo(Cursor.MAX_SIZE);
+    }
+
+}
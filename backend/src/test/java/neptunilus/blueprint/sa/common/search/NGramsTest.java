@@ -0,0 +1,39 @@
+package neptunilus.blueprint.sa.common.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NGramsTest {
+
+    @Test
+    public void testIndex_ShouldReturnAllLowerCaseGramsUpToMaxLength() {
+        assertThat(NGrams.index("AbcB")).containsExactlyInAnyOrder("a", "b", "c", "ab", "bc", "cb", "abc", "bcb");
+    }
+
+    @Test
+    public void testIndex_ShouldReturnEmptyForNull() {
+        assertThat(NGrams.index(null)).isEmpty();
+    }
+
+    @Test
+    public void testQuery_ShouldReturnLongestPossibleGrams() {
+        assertThat(NGrams.query("ProD")).containsExactlyInAnyOrder("pro", "rod");
+        assertThat(NGrams.query("Pr")).containsExactly("pr");
+        assertThat(NGrams.query("p")).containsExactly("p");
+    }
+
+    @Test
+    public void testQuery_ShouldReturnEmptyForNullOrEmpty() {
+        assertThat(NGrams.query(null)).isEmpty();
+        assertThat(NGrams.query("")).isEmpty();
+        assertThat(NGrams.querySize("")).isEqualTo(0);
+    }
+
+    @Test
+    public void testQuery_ShouldBeContainedInIndexOfContainingText() {
+        assertThat(NGrams.index("myProduct1")).containsAll(NGrams.query("PRODUCT"));
+        assertThat(NGrams.querySize("aaaa")).isEqualTo(1);
+    }
+
+}
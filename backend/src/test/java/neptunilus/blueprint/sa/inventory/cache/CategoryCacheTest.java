@@ -0,0 +1,129 @@
+package neptunilus.blueprint.sa.inventory.cache;
+
+import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CategoryCacheTest {
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
+
+    CategoryCacheTest(@Mock final CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+        this.categoryCache = new CategoryCache(this.categoryRepository, 10, 60);
+    }
+
+    @Test
+    public void testGet_ShouldNotCacheUnknownCategory() {
+        UUID id = UUID.randomUUID();
+
+        doReturn(Optional.empty()).when(this.categoryRepository).findById(id);
+
+        assertThat(this.categoryCache.get(id)).isEmpty();
+        assertThat(this.categoryCache.get(id)).isEmpty();
+
+        verify(this.categoryRepository, times(2)).findById(id);
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
+
+    @Test
+    public void testGetAll_ShouldLoadOnlyMissingCategoriesAtOnce() {
+        Category cached = createCategory("cached");
+        Category missing = createCategory("missing");
+
+        doReturn(Optional.of(cached)).when(this.categoryRepository).findById(cached.getId());
+        doReturn(List.of(missing)).when(this.categoryRepository).findAllById(List.of(missing.getId()));
+
+        this.categoryCache.get(cached.getId());
+
+        assertThat(this.categoryCache.getAll(List.of(cached.getId(), missing.getId())))
+                .usingElementComparatorOnFields("id", "name", "version").containsExactlyInAnyOrder(cached, missing);
+        assertThat(this.categoryCache.getAll(List.of(cached.getId(), missing.getId())))
+                .usingElementComparatorOnFields("id", "name", "version").containsExactlyInAnyOrder(cached, missing);
+
+        verify(this.categoryRepository).findById(cached.getId());
+        verify(this.categoryRepository).findAllById(List.of(missing.getId()));
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
+
+    @Test
+    public void testGetByName_ShouldAlsoCacheById() {
+        Category category = createCategory("myCategory");
+
+        doReturn(Optional.of(category)).when(this.categoryRepository).findOneByName("myCategory");
+
+        assertThat(this.categoryCache.getByName("myCategory").orElseThrow()).isEqualToComparingOnlyGivenFields(category, "id", "name", "version");
+        assertThat(this.categoryCache.getByName("myCategory").orElseThrow()).isEqualToComparingOnlyGivenFields(category, "id", "name", "version");
+        assertThat(this.categoryCache.get(category.getId()).orElseThrow()).isEqualToComparingOnlyGivenFields(category, "id", "name", "version");
+
+        assertThat(this.categoryCache.getStats().hitCount()).isEqualTo(2);
+        assertThat(this.categoryCache.getStats().missCount()).isEqualTo(1);
+
+        verify(this.categoryRepository).findOneByName("myCategory");
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
+
+    @Test
+    public void testGet_ShouldReturnOwnCopiesInsteadOfLoadedCategory() {
+        Category category = createCategory("myCategory");
+        category.setVersion(3L);
+
+        doReturn(Optional.of(category)).when(this.categoryRepository).findById(category.getId());
+
+        Category first = this.categoryCache.get(category.getId()).orElseThrow();
+        Category second = this.categoryCache.get(category.getId()).orElseThrow();
+
+        assertThat(first).isNotSameAs(category).isNotSameAs(second);
+        assertThat(first).isEqualToComparingOnlyGivenFields(category, "id", "name", "version");
+        assertThat(first).extracting("nameGrams").isEqualTo(Set.of());
+
+        first.setName("changed");
+
+        assertThat(this.categoryCache.get(category.getId()).orElseThrow()).extracting("name").isEqualTo("myCategory");
+
+        verify(this.categoryRepository).findById(category.getId());
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
+
+    @Test
+    public void testInvalidateAll_ShouldRemoveCategoriesByIdAndByName() {
+        Category category = createCategory("myCategory");
+        Category otherCategory = createCategory("otherCategory");
+
+        doReturn(Optional.of(category)).when(this.categoryRepository).findOneByName("myCategory");
+        doReturn(Optional.of(otherCategory)).when(this.categoryRepository).findOneByName("otherCategory");
+
+        this.categoryCache.getByName("myCategory");
+        this.categoryCache.getByName("otherCategory");
+
+        this.categoryCache.invalidateAll(List.of(category.getId()));
+
+        this.categoryCache.getByName("myCategory");
+        this.categoryCache.getByName("otherCategory");
+        this.categoryCache.get(otherCategory.getId());
+
+        verify(this.categoryRepository, times(2)).findOneByName("myCategory");
+        verify(this.categoryRepository).findOneByName("otherCategory");
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
+
+    private static Category createCategory(final String name) {
+        Category category = new Category(name);
+        category.setId(UUID.randomUUID());
+        return category;
+    }
+
+}
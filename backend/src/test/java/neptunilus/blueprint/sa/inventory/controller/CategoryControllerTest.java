@@ -1,28 +1,34 @@
 package neptunilus.blueprint.sa.inventory.controller;
 
 import neptunilus.blueprint.sa.common.MockedSecurityControllerTest;
+import neptunilus.blueprint.sa.common.bulk.BulkItemResult;
+import neptunilus.blueprint.sa.common.bulk.Chunks;
+import neptunilus.blueprint.sa.common.controller.ETags;
+import neptunilus.blueprint.sa.common.exception.VersionMismatchException;
 import neptunilus.blueprint.sa.inventory.controller.in.CategoryCreateRequest;
 import neptunilus.blueprint.sa.inventory.controller.in.CategoryUpdateRequest;
 import neptunilus.blueprint.sa.inventory.controller.out.CategoryResponse;
 import neptunilus.blueprint.sa.inventory.exception.CategoryAlreadyExistsException;
 import neptunilus.blueprint.sa.inventory.exception.CategoryNotFoundException;
 import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.repository.projection.CategorySummary;
 import neptunilus.blueprint.sa.inventory.service.CategoryService;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -45,14 +51,13 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
     private CategoryService categoryService;
 
     @MockBean
-    @Qualifier("inventoryMapper")
-    private ModelMapper modelMapper;
+    private InventoryMapper inventoryMapper;
 
     @Test
     public void testSearch_ShouldReturnEmptyPageIfNothingFound() throws Exception {
         String search = "search";
 
-        doReturn(Page.empty()).when(this.categoryService).find(eq(search), eq(false), any(Pageable.class));
+        doReturn(Page.empty()).when(this.categoryService).findSummaries(eq(search), eq(true), any(Pageable.class));
 
         this.mockMvc
                 .perform(
@@ -64,21 +69,22 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isEmpty());
 
-        verify(this.categoryService).find(eq(search), eq(false), any(Pageable.class));
+        verify(this.categoryService).getChangeCount();
+        verify(this.categoryService).findSummaries(eq(search), eq(true), any(Pageable.class));
 
-        verifyNoMoreInteractions(this.categoryService, this.modelMapper);
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
     public void testSearch_ShouldReturnCategoriesIfFoundWithoutSearch() throws Exception {
-        Category category = new Category("myCategory");
-        Page<Category> categories = new PageImpl<>(List.of(category));
-        doReturn(categories).when(this.categoryService).find(isNull(), eq(false), any(Pageable.class));
+        CategorySummary category = new CategorySummary(UUID.randomUUID(), "myCategory");
+        Page<CategorySummary> categories = new PageImpl<>(List.of(category));
+        doReturn(categories).when(this.categoryService).findSummaries(isNull(), eq(true), any(Pageable.class));
 
         CategoryResponse categoryResponse = new CategoryResponse();
-        categoryResponse.setId(UUID.randomUUID());
-        categoryResponse.setName("myCategory");
-        doReturn(categoryResponse).when(this.modelMapper).map(category, CategoryResponse.class);
+        categoryResponse.setId(category.getId());
+        categoryResponse.setName(category.getName());
+        doReturn(categoryResponse).when(this.inventoryMapper).toCategoryResponse(category);
 
         this.mockMvc
                 .perform(
@@ -91,10 +97,11 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.content[0].id").value(equalTo(categoryResponse.getId().toString())))
                 .andExpect(jsonPath("$.content[0].name").value(equalTo(categoryResponse.getName())));
 
-        verify(this.categoryService).find(isNull(), eq(false), any(Pageable.class));
-        verify(this.modelMapper).map(category, CategoryResponse.class);
+        verify(this.categoryService).getChangeCount();
+        verify(this.categoryService).findSummaries(isNull(), eq(true), any(Pageable.class));
+        verify(this.inventoryMapper).toCategoryResponse(category);
 
-        verifyNoMoreInteractions(this.categoryService, this.modelMapper);
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -102,14 +109,14 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
         ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
         String search = "search";
 
-        Category category = new Category("myCategory");
-        Page<Category> categories = new PageImpl<>(List.of(category));
-        doReturn(categories).when(this.categoryService).find(eq(search), eq(false), any(Pageable.class));
+        CategorySummary category = new CategorySummary(UUID.randomUUID(), "myCategory");
+        Page<CategorySummary> categories = new PageImpl<>(List.of(category));
+        doReturn(categories).when(this.categoryService).findSummaries(eq(search), eq(true), any(Pageable.class));
 
         CategoryResponse categoryResponse = new CategoryResponse();
-        categoryResponse.setId(UUID.randomUUID());
-        categoryResponse.setName("myCategory");
-        doReturn(categoryResponse).when(this.modelMapper).map(category, CategoryResponse.class);
+        categoryResponse.setId(category.getId());
+        categoryResponse.setName(category.getName());
+        doReturn(categoryResponse).when(this.inventoryMapper).toCategoryResponse(category);
 
         this.mockMvc
                 .perform(
@@ -126,13 +133,84 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.content[0].id").value(equalTo(categoryResponse.getId().toString())))
                 .andExpect(jsonPath("$.content[0].name").value(equalTo(categoryResponse.getName())));
 
-        verify(this.categoryService).find(eq(search), eq(false), pageableCaptor.capture());
+        verify(this.categoryService).getChangeCount();
+        verify(this.categoryService).findSummaries(eq(search), eq(true), pageableCaptor.capture());
         assertThat(pageableCaptor.getValue()).extracting("pageNumber").isEqualTo(2);
         assertThat(pageableCaptor.getValue()).extracting("pageSize").isEqualTo(10);
         assertThat(pageableCaptor.getValue().getSort().getOrderFor("name")).extracting("direction").isEqualTo(Sort.Direction.DESC);
-        verify(this.modelMapper).map(category, CategoryResponse.class);
+        verify(this.inventoryMapper).toCategoryResponse(category);
 
-        verifyNoMoreInteractions(this.categoryService, this.modelMapper);
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testScroll_ShouldReturnLastSliceWithoutNextCursor() throws Exception {
+        CategorySummary category = new CategorySummary(UUID.randomUUID(), "myCategory");
+        doReturn(new SliceImpl<>(List.of(category))).when(this.categoryService).findSummariesAfter(null, null, 20);
+
+        CategoryResponse categoryResponse = new CategoryResponse();
+        categoryResponse.setId(category.getId());
+        categoryResponse.setName(category.getName());
+
+        doReturn(categoryResponse).when(this.inventoryMapper).toCategoryResponse(category);
+
+        this.mockMvc
+                .perform(
+                        get("/category/scroll")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name", is("myCategory")))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        verify(this.categoryService).getChangeCount();
+        verify(this.categoryService).findSummariesAfter(null, null, 20);
+        verify(this.inventoryMapper).toCategoryResponse(category);
+
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testSearch_ShouldReturn304IfListingNotModified() throws Exception {
+        doReturn(5L).when(this.categoryService).getChangeCount();
+
+        this.mockMvc
+                .perform(
+                        get("/category")
+                                .header(HttpHeaders.IF_NONE_MATCH, ETags.ofChanges(5L))
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.ofChanges(5L)))
+                .andExpect(result -> assertThat(result.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT))
+                .andExpect(content().string(emptyString()));
+
+        verify(this.categoryService).getChangeCount();
+
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testSearch_ShouldReturn304IfListingNotModifiedForStrongTag() throws Exception {
+        doReturn(5L).when(this.categoryService).getChangeCount();
+
+        this.mockMvc
+                .perform(
+                        get("/category")
+                                .header(HttpHeaders.IF_NONE_MATCH, ETags.ofChanges(5L).substring("W/".length()))
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.ofChanges(5L)))
+                .andExpect(content().string(emptyString()));
+
+        verify(this.categoryService).getChangeCount();
+
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -155,7 +233,7 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
 
         verify(this.categoryService).get(id);
 
-        verifyNoMoreInteractions(this.categoryService, this.modelMapper);
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -174,7 +252,7 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("invalid")))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase(id)));
 
-        verifyNoInteractions(this.categoryService, this.modelMapper);
+        verifyNoInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -188,7 +266,7 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
         CategoryResponse categoryResponse = new CategoryResponse();
         categoryResponse.setId(id);
         categoryResponse.setName("myCategory");
-        doReturn(categoryResponse).when(this.modelMapper).map(category, CategoryResponse.class);
+        doReturn(categoryResponse).when(this.inventoryMapper).toCategoryResponse(category);
 
         this.mockMvc
                 .perform(
@@ -201,9 +279,34 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.name").value(equalTo(categoryResponse.getName())));
 
         verify(this.categoryService).get(id);
-        verify(this.modelMapper).map(category, CategoryResponse.class);
+        verify(this.inventoryMapper).toCategoryResponse(category);
+
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testGet_ShouldReturn304IfCategoryNotModified() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        Category category = new Category("myCategory");
+        category.setId(id);
+        category.setVersion(3L);
+        doReturn(category).when(this.categoryService).get(id);
+
+        this.mockMvc
+                .perform(
+                        get("/category/{id}", id)
+                                .header(HttpHeaders.IF_NONE_MATCH, "W/\"3\"")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"3\""))
+                .andExpect(content().string(emptyString()));
+
+        verify(this.categoryService).get(id);
 
-        verifyNoMoreInteractions(this.categoryService, this.modelMapper);
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -213,7 +316,7 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
         String body = "{ \"name\": \"myCategory\" }";
 
         Category category = new Category("myCategory");
-        doReturn(category).when(this.modelMapper).map(any(CategoryCreateRequest.class), eq(Category.class));
+        doReturn(category).when(this.inventoryMapper).toCategory(any(CategoryCreateRequest.class));
 
         doThrow(new CategoryAlreadyExistsException(String.format("category with name '%s' already exists", "myCategory")))
                 .when(this.categoryService).create(category);
@@ -232,11 +335,11 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("exists")))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("myCategory")));
 
-        verify(this.modelMapper).map(categoryRequestCaptor.capture(), eq(Category.class));
+        verify(this.inventoryMapper).toCategory(categoryRequestCaptor.capture());
         assertThat(categoryRequestCaptor.getValue()).extracting("name").isEqualTo("myCategory");
         verify(this.categoryService).create(category);
 
-        verifyNoMoreInteractions(this.categoryService, this.modelMapper);
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -256,7 +359,7 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo("category name must not be empty")));
 
-        verifyNoInteractions(this.categoryService, this.modelMapper);
+        verifyNoInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -264,7 +367,7 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
         String body = "{ \"name\": \"myCategory\" }";
 
         Category category = new Category("myCategory");
-        doReturn(category).when(this.modelMapper).map(any(CategoryCreateRequest.class), eq(Category.class));
+        doReturn(category).when(this.inventoryMapper).toCategory(any(CategoryCreateRequest.class));
 
         doThrow(new DataIntegrityViolationException("invalid"))
                 .when(this.categoryService).create(category);
@@ -282,10 +385,10 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo("invalid")));
 
-        verify(this.modelMapper).map(any(CategoryCreateRequest.class), eq(Category.class));
+        verify(this.inventoryMapper).toCategory(any(CategoryCreateRequest.class));
         verify(this.categoryService).create(category);
 
-        verifyNoMoreInteractions(this.categoryService, this.modelMapper);
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -295,7 +398,7 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
         String body = "{ \"name\": \"myCategory\" }";
 
         Category category = new Category("myCategory");
-        doReturn(category).when(this.modelMapper).map(any(CategoryCreateRequest.class), eq(Category.class));
+        doReturn(category).when(this.inventoryMapper).toCategory(any(CategoryCreateRequest.class));
 
         UUID newId = UUID.randomUUID();
         doReturn(newId).when(this.categoryService).create(category);
@@ -312,11 +415,65 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(header().string("Location", containsString(newId.toString())))
                 .andExpect(jsonPath("$").doesNotExist());
 
-        verify(this.modelMapper).map(categoryRequestCaptor.capture(), eq(Category.class));
+        verify(this.inventoryMapper).toCategory(categoryRequestCaptor.capture());
         assertThat(categoryRequestCaptor.getValue()).extracting("name").isEqualTo("myCategory");
         verify(this.categoryService).create(category);
 
-        verifyNoMoreInteractions(this.categoryService, this.modelMapper);
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testCreateAll_ShouldReturnOutcomePerItemAndThroughput() throws Exception {
+        String body = "[ { \"name\": \"myCategory1\" }, { \"name\": \"myCategory2\" } ]";
+
+        Category category1 = new Category("myCategory1");
+        Category category2 = new Category("myCategory2");
+        doReturn(category1, category2).when(this.inventoryMapper).toCategory(any(CategoryCreateRequest.class));
+
+        UUID id = UUID.randomUUID();
+        doReturn(List.of(BulkItemResult.created(0, id), BulkItemResult.failed(1, "category with name 'myCategory2' already exists")))
+                .when(this.categoryService).createAll(List.of(category1, category2));
+
+        this.mockMvc
+                .perform(
+                        post("/category/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].index").value(0))
+                .andExpect(jsonPath("$.items[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.items[1].index").value(1))
+                .andExpect(jsonPath("$.items[1].error").value(containsStringIgnoringCase("exists")))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.itemsPerSecond").value(greaterThan(0d)));
+
+        verify(this.inventoryMapper, times(2)).toCategory(any(CategoryCreateRequest.class));
+        verify(this.categoryService).createAll(List.of(category1, category2));
+
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testCreateAll_ShouldReturn400IfTooManyItems() throws Exception {
+        String body = "[" + String.join(",", Collections.nCopies(Chunks.MAX_BULK_ITEMS + 1, "{ \"name\": \"myCategory\" }")) + "]";
+
+        this.mockMvc
+                .perform(
+                        post("/category/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0]").value(String.format("at most %d categories can be created at once", Chunks.MAX_BULK_ITEMS)));
+
+        verifyNoInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -327,10 +484,10 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
         String update = "{ \"name\": \"myCategory\" }";
 
         Category category = new Category("myCategory");
-        doReturn(category).when(this.modelMapper).map(any(CategoryUpdateRequest.class), eq(Category.class));
+        doReturn(category).when(this.inventoryMapper).toCategory(any(CategoryUpdateRequest.class));
 
         doThrow(new CategoryNotFoundException(String.format("no category found with id '%s'", id)))
-                .when(this.categoryService).update(id, category);
+                .when(this.categoryService).update(id, category, null);
 
         this.mockMvc
                 .perform(
@@ -345,11 +502,11 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo(String.format("no category found with id '%s'", id))));
 
-        verify(this.modelMapper).map(categoryRequestCaptor.capture(), eq(Category.class));
+        verify(this.inventoryMapper).toCategory(categoryRequestCaptor.capture());
         assertThat(categoryRequestCaptor.getValue()).extracting("name").isEqualTo("myCategory");
-        verify(this.categoryService).update(id, category);
+        verify(this.categoryService).update(id, category, null);
 
-        verifyNoMoreInteractions(this.categoryService, this.modelMapper);
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -360,10 +517,10 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
         String update = "{ \"name\": \"myCategory\" }";
 
         Category category = new Category("myCategory");
-        doReturn(category).when(this.modelMapper).map(any(CategoryUpdateRequest.class), eq(Category.class));
+        doReturn(category).when(this.inventoryMapper).toCategory(any(CategoryUpdateRequest.class));
 
         doThrow(new CategoryAlreadyExistsException(String.format("category with name '%s' already exists", "myCategory")))
-                .when(this.categoryService).update(id, category);
+                .when(this.categoryService).update(id, category, null);
 
         this.mockMvc
                 .perform(
@@ -378,11 +535,11 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo(String.format("category with name '%s' already exists", "myCategory"))));
 
-        verify(this.modelMapper).map(categoryRequestCaptor.capture(), eq(Category.class));
+        verify(this.inventoryMapper).toCategory(categoryRequestCaptor.capture());
         assertThat(categoryRequestCaptor.getValue()).extracting("name").isEqualTo("myCategory");
-        verify(this.categoryService).update(id, category);
+        verify(this.categoryService).update(id, category, null);
 
-        verifyNoMoreInteractions(this.categoryService, this.modelMapper);
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -404,7 +561,7 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("invalid")))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase(id)));
 
-        verifyNoInteractions(this.categoryService, this.modelMapper);
+        verifyNoInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -425,7 +582,7 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("category name must not be empty")));
 
-        verifyNoInteractions(this.categoryService, this.modelMapper);
+        verifyNoInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -434,10 +591,10 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
         String body = "{ \"name\": \"myCategory\" }";
 
         Category category = new Category("myCategory");
-        doReturn(category).when(this.modelMapper).map(any(CategoryUpdateRequest.class), eq(Category.class));
+        doReturn(category).when(this.inventoryMapper).toCategory(any(CategoryUpdateRequest.class));
 
         doThrow(new DataIntegrityViolationException("invalid"))
-                .when(this.categoryService).update(id, category);
+                .when(this.categoryService).update(id, category, null);
 
         this.mockMvc
                 .perform(
@@ -452,10 +609,10 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo("invalid")));
 
-        verify(this.modelMapper).map(any(CategoryUpdateRequest.class), eq(Category.class));
-        verify(this.categoryService).update(id, category);
+        verify(this.inventoryMapper).toCategory(any(CategoryUpdateRequest.class));
+        verify(this.categoryService).update(id, category, null);
 
-        verifyNoMoreInteractions(this.categoryService, this.modelMapper);
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -466,9 +623,9 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
         String update = "{ \"name\": \"myCategory\" }";
 
         Category category = new Category("myCategory");
-        doReturn(category).when(this.modelMapper).map(any(CategoryUpdateRequest.class), eq(Category.class));
+        doReturn(category).when(this.inventoryMapper).toCategory(any(CategoryUpdateRequest.class));
 
-        doNothing().when(this.categoryService).update(id, category);
+        doNothing().when(this.categoryService).update(id, category, null);
 
         this.mockMvc
                 .perform(
@@ -481,11 +638,42 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
                 .andExpect(status().isNoContent())
                 .andExpect(jsonPath("$").doesNotExist());
 
-        verify(this.modelMapper).map(categoryRequestCaptor.capture(), eq(Category.class));
+        verify(this.inventoryMapper).toCategory(categoryRequestCaptor.capture());
         assertThat(categoryRequestCaptor.getValue()).extracting("name").isEqualTo("myCategory");
-        verify(this.categoryService).update(id, category);
+        verify(this.categoryService).update(id, category, null);
 
-        verifyNoMoreInteractions(this.categoryService, this.modelMapper);
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testUpdate_ShouldPassVersionOfIfMatch() throws Exception {
+        UUID id = UUID.randomUUID();
+        String update = "{ \"name\": \"myCategory\" }";
+
+        Category category = new Category("myCategory");
+        doReturn(category).when(this.inventoryMapper).toCategory(any(CategoryUpdateRequest.class));
+
+        doThrow(new VersionMismatchException(String.format("category with id '%s' is not in version %d anymore", id, 3L)))
+                .when(this.categoryService).update(id, category, 3L);
+
+        this.mockMvc
+                .perform(
+                        put("/category/{id}", id)
+                                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(update)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.timestamp").isNotEmpty())
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0]").value(equalTo(String.format("category with id '%s' is not in version 3 anymore", id))));
+
+        verify(this.inventoryMapper).toCategory(any(CategoryUpdateRequest.class));
+        verify(this.categoryService).update(id, category, 3L);
+
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
     }
 
     @Test
@@ -503,6 +691,47 @@ public class CategoryControllerTest extends MockedSecurityControllerTest {
 
         verify(this.categoryService).delete(id);
 
-        verifyNoMoreInteractions(this.categoryService, this.modelMapper);
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldDeleteGivenIds() throws Exception {
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        String body = String.format("{ \"ids\": [ \"%s\", \"%s\" ] }", id1, id2);
+
+        doReturn(2L).when(this.categoryService).deleteAll(List.of(id1, id2));
+
+        this.mockMvc
+                .perform(
+                        post("/category/bulk/delete")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        verify(this.categoryService).deleteAll(List.of(id1, id2));
+
+        verifyNoMoreInteractions(this.categoryService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldReturn400IfIdsNotProvided() throws Exception {
+        this.mockMvc
+                .perform(
+                        post("/category/bulk/delete")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{ }")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("ids must not be null")));
+
+        verifyNoInteractions(this.categoryService, this.inventoryMapper);
     }
 }
@@ -0,0 +1,91 @@
+package neptunilus.blueprint.sa.inventory.controller;
+
+import neptunilus.blueprint.sa.inventory.controller.in.CategoryReferenceRequest;
+import neptunilus.blueprint.sa.inventory.controller.in.ProductCreateRequest;
+import neptunilus.blueprint.sa.inventory.controller.out.ProductResponse;
+import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.model.Product;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the generated {@link InventoryMapper} with the reflective {@link ModelMapper} used before.
+ * <p>
+ * Run the main method (e.g. from the IDE) with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryMapperBenchmark {
+
+    private final InventoryMapper inventoryMapper = new InventoryMapperImpl();
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    private Product product;
+    private ProductCreateRequest productRequest;
+
+    @Setup
+    public void setup() {
+        Category category = new Category("myCategory");
+        category.setId(UUID.randomUUID());
+
+        this.product = new Product("myProduct", category);
+        this.product.setId(UUID.randomUUID());
+
+        CategoryReferenceRequest categoryRequest = new CategoryReferenceRequest();
+        categoryRequest.setId(category.getId());
+
+        this.productRequest = new ProductCreateRequest();
+        this.productRequest.setName("myProduct");
+        this.productRequest.setCategory(categoryRequest);
+    }
+
+    @Benchmark
+    public ProductResponse toResponseGenerated() {
+        return this.inventoryMapper.toProductResponse(this.product);
+    }
+
+    @Benchmark
+    public ProductResponse toResponseModelMapper() {
+        return this.modelMapper.map(this.product, ProductResponse.class);
+    }
+
+    @Benchmark
+    public Product fromRequestGenerated() {
+        return this.inventoryMapper.toProduct(this.productRequest);
+    }
+
+    @Benchmark
+    public Product fromRequestModelMapper() {
+        return this.modelMapper.map(this.productRequest, Product.class);
+    }
+
+    /**
+     * First mapping of a fresh {@link ModelMapper}, including the construction of its type map.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Measurement(iterations = 20)
+    public ProductResponse firstUseModelMapper() {
+        return new ModelMapper().map(this.product, ProductResponse.class);
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InventoryMapperBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
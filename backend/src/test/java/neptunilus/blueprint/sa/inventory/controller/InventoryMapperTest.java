@@ -1,13 +1,13 @@
 package neptunilus.blueprint.sa.inventory.controller;
 
-import neptunilus.blueprint.sa.common.configuration.MappingConfiguration;
 import neptunilus.blueprint.sa.inventory.controller.in.*;
 import neptunilus.blueprint.sa.inventory.controller.out.CategoryResponse;
 import neptunilus.blueprint.sa.inventory.controller.out.ProductResponse;
 import neptunilus.blueprint.sa.inventory.model.Category;
 import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.projection.CategorySummary;
+import neptunilus.blueprint.sa.inventory.repository.projection.ProductSummary;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 
 import java.util.UUID;
 
@@ -15,7 +15,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 public class InventoryMapperTest {
 
-    private final ModelMapper inventoryMapper = new MappingConfiguration().modelMapper();
+    private final InventoryMapper inventoryMapper = new InventoryMapperImpl();
 
     @Test
     public void testMap_ShouldMapCategoryCreateRequestToCategoryCorrectly() {
@@ -24,7 +24,7 @@ public class InventoryMapperTest {
         CategoryCreateRequest categoryRequest = new CategoryCreateRequest();
         categoryRequest.setName(categoryName);
 
-        Category category = this.inventoryMapper.map(categoryRequest, Category.class);
+        Category category = this.inventoryMapper.toCategory(categoryRequest);
 
         assertThat(category).extracting("id").isNull();
         assertThat(category).extracting("name").isEqualTo(categoryName);
@@ -37,7 +37,7 @@ public class InventoryMapperTest {
         CategoryUpdateRequest categoryRequest = new CategoryUpdateRequest();
         categoryRequest.setName(categoryName);
 
-        Category category = this.inventoryMapper.map(categoryRequest, Category.class);
+        Category category = this.inventoryMapper.toCategory(categoryRequest);
 
         assertThat(category).extracting("id").isNull();
         assertThat(category).extracting("name").isEqualTo(categoryName);
@@ -51,7 +51,7 @@ public class InventoryMapperTest {
         Category category = new Category(categoryName);
         category.setId(categoryId);
 
-        CategoryResponse categoryResponse = this.inventoryMapper.map(category, CategoryResponse.class);
+        CategoryResponse categoryResponse = this.inventoryMapper.toCategoryResponse(category);
 
         assertThat(categoryResponse).extracting("id").isEqualTo(categoryId);
         assertThat(categoryResponse).extracting("name").isEqualTo(categoryName);
@@ -70,7 +70,7 @@ public class InventoryMapperTest {
         productRequest.setName(productName);
         productRequest.setCategory(categoryRequest);
 
-        Product product = this.inventoryMapper.map(productRequest, Product.class);
+        Product product = this.inventoryMapper.toProduct(productRequest);
 
         assertThat(product).extracting("id").isNull();
         assertThat(product).extracting("name").isEqualTo(productName);
@@ -91,7 +91,7 @@ public class InventoryMapperTest {
         productRequest.setName(productName);
         productRequest.setCategory(categoryRequest);
 
-        Product product = this.inventoryMapper.map(productRequest, Product.class);
+        Product product = this.inventoryMapper.toProduct(productRequest);
 
         assertThat(product).extracting("id").isNull();
         assertThat(product).extracting("name").isEqualTo(productName);
@@ -112,11 +112,51 @@ public class InventoryMapperTest {
         Product product = new Product(productName, category);
         product.setId(productId);
 
-        ProductResponse productResponse = this.inventoryMapper.map(product, ProductResponse.class);
+        ProductResponse productResponse = this.inventoryMapper.toProductResponse(product);
 
         assertThat(productResponse).extracting("id").isEqualTo(productId);
         assertThat(productResponse).extracting("name").isEqualTo(productName);
         assertThat(productResponse).extracting("category").extracting("id").isEqualTo(categoryId);
         assertThat(productResponse).extracting("category").extracting("name").isEqualTo(categoryName);
     }
+
+    @Test
+    public void testMap_ShouldMapCategorySummaryToCategoryResponseCorrectly() {
+        UUID categoryId = UUID.randomUUID();
+        String categoryName = "categoryName";
+
+        CategorySummary category = new CategorySummary(categoryId, categoryName);
+
+        CategoryResponse categoryResponse = this.inventoryMapper.toCategoryResponse(category);
+
+        assertThat(categoryResponse).extracting("id").isEqualTo(categoryId);
+        assertThat(categoryResponse).extracting("name").isEqualTo(categoryName);
+    }
+
+    @Test
+    public void testMap_ShouldMapProductSummaryToProductResponseCorrectly() {
+        UUID categoryId = UUID.randomUUID();
+        String categoryName = "categoryName";
+        UUID productId = UUID.randomUUID();
+        String productName = "productName";
+
+        ProductSummary product = new ProductSummary(productId, productName, categoryId, categoryName);
+
+        ProductResponse productResponse = this.inventoryMapper.toProductResponse(product);
+
+        assertThat(productResponse).extracting("id").isEqualTo(productId);
+        assertThat(productResponse).extracting("name").isEqualTo(productName);
+        assertThat(productResponse).extracting("category").extracting("id").isEqualTo(categoryId);
+        assertThat(productResponse).extracting("category").extracting("name").isEqualTo(categoryName);
+    }
+
+    @Test
+    public void testMap_ShouldMapProductSummaryWithoutCategoryToProductResponseCorrectly() {
+        ProductSummary product = new ProductSummary(UUID.randomUUID(), "productName", null, null);
+
+        ProductResponse productResponse = this.inventoryMapper.toProductResponse(product);
+
+        assertThat(productResponse).extracting("name").isEqualTo("productName");
+        assertThat(productResponse).extracting("category").isNull();
+    }
 }
@@ -1,6 +1,12 @@
 package neptunilus.blueprint.sa.inventory.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import neptunilus.blueprint.sa.common.MockedSecurityControllerTest;
+import neptunilus.blueprint.sa.common.bulk.BulkItemResult;
+import neptunilus.blueprint.sa.common.bulk.Chunks;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
 import neptunilus.blueprint.sa.inventory.controller.in.ProductCreateRequest;
 import neptunilus.blueprint.sa.inventory.controller.in.ProductUpdateRequest;
 import neptunilus.blueprint.sa.inventory.controller.out.CategoryResponse;
@@ -10,24 +16,29 @@ import neptunilus.blueprint.sa.inventory.exception.ProductAlreadyExistsException
 import neptunilus.blueprint.sa.inventory.exception.ProductNotFoundException;
 import neptunilus.blueprint.sa.inventory.model.Category;
 import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.projection.ProductSummary;
 import neptunilus.blueprint.sa.inventory.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -41,6 +52,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(ProductController.class)
 public class ProductControllerTest extends MockedSecurityControllerTest {
 
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -48,14 +61,13 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
     private ProductService productService;
 
     @MockBean
-    @Qualifier("inventoryMapper")
-    private ModelMapper modelMapper;
+    private InventoryMapper inventoryMapper;
 
     @Test
     public void testSearch_ShouldReturnEmptyPageIfNothingFound() throws Exception {
         String search = "search";
 
-        doReturn(Page.empty()).when(this.productService).find(eq(search), eq(false), isNull(), any(Pageable.class));
+        doReturn(Page.empty()).when(this.productService).findSummaries(eq(search), isNull(), eq(true), any(Pageable.class));
 
         this.mockMvc
                 .perform(
@@ -67,27 +79,28 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isEmpty());
 
-        verify(this.productService).find(eq(search), eq(false), isNull(), any(Pageable.class));
+        verify(this.productService).getChangeCount();
+        verify(this.productService).findSummaries(eq(search), isNull(), eq(true), any(Pageable.class));
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
     public void testSearch_ShouldReturnProductsIfFoundWithoutCategoryAndWithoutSearch() throws Exception {
-        Product product = new Product("myProduct", new Category("myCategory"));
-        Page<Product> products = new PageImpl<>(List.of(product));
-        doReturn(products).when(this.productService).find(isNull(), eq(false), isNull(), any(Pageable.class));
+        ProductSummary product = new ProductSummary(UUID.randomUUID(), "myProduct", UUID.randomUUID(), "myCategory");
+        Page<ProductSummary> products = new PageImpl<>(List.of(product));
+        doReturn(products).when(this.productService).findSummaries(isNull(), isNull(), eq(true), any(Pageable.class));
 
         CategoryResponse categoryResponse = new CategoryResponse();
-        categoryResponse.setId(UUID.randomUUID());
-        categoryResponse.setName("myCategory");
+        categoryResponse.setId(product.getCategoryId());
+        categoryResponse.setName(product.getCategoryName());
 
         ProductResponse productResponse = new ProductResponse();
-        productResponse.setId(UUID.randomUUID());
-        productResponse.setName("myProduct");
+        productResponse.setId(product.getId());
+        productResponse.setName(product.getName());
         productResponse.setCategory(categoryResponse);
 
-        doReturn(productResponse).when(this.modelMapper).map(product, ProductResponse.class);
+        doReturn(productResponse).when(this.inventoryMapper).toProductResponse(product);
 
         this.mockMvc
                 .perform(
@@ -102,10 +115,46 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.content[0].category.id").value(equalTo(categoryResponse.getId().toString())))
                 .andExpect(jsonPath("$.content[0].category.name").value(equalTo(categoryResponse.getName())));
 
-        verify(this.productService).find(isNull(), eq(false), isNull(), any(Pageable.class));
-        verify(this.modelMapper).map(product, ProductResponse.class);
+        verify(this.productService).getChangeCount();
+        verify(this.productService).findSummaries(isNull(), isNull(), eq(true), any(Pageable.class));
+        verify(this.inventoryMapper).toProductResponse(product);
+
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testSearch_ShouldReturnSmileIfAccepted() throws Exception {
+        ProductSummary product = new ProductSummary(UUID.randomUUID(), "myProduct", null, null);
+        Page<ProductSummary> products = new PageImpl<>(List.of(product));
+        doReturn(products).when(this.productService).findSummaries(isNull(), isNull(), eq(true), any(Pageable.class));
+
+        ProductResponse productResponse = new ProductResponse();
+        productResponse.setId(product.getId());
+        productResponse.setName(product.getName());
+
+        doReturn(productResponse).when(this.inventoryMapper).toProductResponse(product);
+
+        MvcResult result = this.mockMvc
+                .perform(
+                        get("/product")
+                                .accept(SMILE)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn();
+
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        JsonNode page = smileMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertThat(page.path("content")).hasSize(1);
+        assertThat(smileMapper.treeToValue(page.path("content").path(0), ProductResponse.class))
+                .extracting("id", "name").containsExactly(productResponse.getId(), productResponse.getName());
+
+        verify(this.productService).getChangeCount();
+        verify(this.productService).findSummaries(isNull(), isNull(), eq(true), any(Pageable.class));
+        verify(this.inventoryMapper).toProductResponse(product);
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -114,20 +163,20 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
         String search = "search";
         UUID categoryId = UUID.randomUUID();
 
-        Product product = new Product("myProduct", new Category("myCategory"));
-        Page<Product> products = new PageImpl<>(List.of(product));
-        doReturn(products).when(this.productService).find(eq(search), eq(false), eq(categoryId), any(Pageable.class));
+        ProductSummary product = new ProductSummary(UUID.randomUUID(), "myProduct", categoryId, "myCategory");
+        Page<ProductSummary> products = new PageImpl<>(List.of(product));
+        doReturn(products).when(this.productService).findSummaries(eq(search), eq(categoryId), eq(true), any(Pageable.class));
 
         CategoryResponse categoryResponse = new CategoryResponse();
         categoryResponse.setId(categoryId);
         categoryResponse.setName("myCategory");
 
         ProductResponse productResponse = new ProductResponse();
-        productResponse.setId(UUID.randomUUID());
+        productResponse.setId(product.getId());
         productResponse.setName("myProduct");
         productResponse.setCategory(categoryResponse);
 
-        doReturn(productResponse).when(this.modelMapper).map(product, ProductResponse.class);
+        doReturn(productResponse).when(this.inventoryMapper).toProductResponse(product);
 
         this.mockMvc
                 .perform(
@@ -147,13 +196,217 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.content[0].category.id").value(equalTo(categoryResponse.getId().toString())))
                 .andExpect(jsonPath("$.content[0].category.name").value(equalTo(categoryResponse.getName())));
 
-        verify(this.productService).find(eq(search), eq(false), eq(categoryId), pageableCaptor.capture());
+        verify(this.productService).getChangeCount();
+        verify(this.productService).findSummaries(eq(search), eq(categoryId), eq(true), pageableCaptor.capture());
         assertThat(pageableCaptor.getValue()).extracting("pageNumber").isEqualTo(2);
         assertThat(pageableCaptor.getValue()).extracting("pageSize").isEqualTo(10);
         assertThat(pageableCaptor.getValue().getSort().getOrderFor("name")).extracting("direction").isEqualTo(Sort.Direction.DESC);
-        verify(this.modelMapper).map(product, ProductResponse.class);
+        verify(this.inventoryMapper).toProductResponse(product);
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testSearch_ShouldReturnTotalsOnlyIfCounted() throws Exception {
+        ProductSummary product = new ProductSummary(UUID.randomUUID(), "myProduct", null, null);
+        doReturn(new PageImpl<>(List.of(product), PageRequest.of(0, 1), 5)).when(this.productService)
+                .findSummaries(isNull(), isNull(), eq(true), any(Pageable.class));
+        doReturn(new SliceImpl<>(List.of(product), PageRequest.of(0, 1), true)).when(this.productService)
+                .findSummaries(isNull(), isNull(), eq(false), any(Pageable.class));
+
+        this.mockMvc
+                .perform(
+                        get("/product")
+                                .param("size", "1")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(5)))
+                .andExpect(jsonPath("$.last", is(false)));
+
+        this.mockMvc
+                .perform(
+                        get("/product")
+                                .param("size", "1")
+                                .param("count", "false")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.last", is(false)));
+
+        verify(this.productService, times(2)).getChangeCount();
+        verify(this.productService).findSummaries(isNull(), isNull(), eq(true), any(Pageable.class));
+        verify(this.productService).findSummaries(isNull(), isNull(), eq(false), any(Pageable.class));
+        verify(this.inventoryMapper, times(2)).toProductResponse(product);
+
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testScroll_ShouldReturnSliceWithNextCursorIfMoreAvailable() throws Exception {
+        String search = "search";
+        UUID categoryId = UUID.randomUUID();
+        Cursor after = new Cursor("myProduct0", UUID.randomUUID());
+
+        ProductSummary product = new ProductSummary(UUID.randomUUID(), "myProduct1", categoryId, "myCategory");
+        doReturn(new SliceImpl<>(List.of(product), PageRequest.of(0, 1), true)).when(this.productService)
+                .findSummariesAfter(search, categoryId, after, 1);
+
+        ProductResponse productResponse = new ProductResponse();
+        productResponse.setId(product.getId());
+        productResponse.setName(product.getName());
+
+        doReturn(productResponse).when(this.inventoryMapper).toProductResponse(product);
+
+        this.mockMvc
+                .perform(
+                        get("/product/scroll")
+                                .param("search", search)
+                                .param("categoryId", categoryId.toString())
+                                .param("after", after.encode())
+                                .param("size", "1")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(product.getId().toString())))
+                .andExpect(jsonPath("$.next", is(new Cursor("myProduct1", product.getId()).encode())));
+
+        verify(this.productService).getChangeCount();
+        verify(this.productService).findSummariesAfter(search, categoryId, after, 1);
+        verify(this.inventoryMapper).toProductResponse(product);
+
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testScroll_ShouldReturn400IfCursorIsInvalid() throws Exception {
+        this.mockMvc
+                .perform(
+                        get("/product/scroll")
+                                .param("after", "invalid")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasSize(1)));
+
+        verifyNoInteractions(this.productService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testExport_ShouldStreamProductsAsNdjson() throws Exception {
+        UUID categoryId = UUID.randomUUID();
+        ProductSummary product1 = new ProductSummary(UUID.randomUUID(), "myProduct1", categoryId, "myCategory");
+        ProductSummary product2 = new ProductSummary(UUID.randomUUID(), "myProduct2", null, null);
+        doAnswer(invocation -> {
+            Consumer<ProductSummary> action = invocation.getArgument(2);
+            action.accept(product1);
+            action.accept(product2);
+            return null;
+        }).when(this.productService).forEachSummary(eq("search"), eq(categoryId), any());
+
+        ProductResponse productResponse1 = new ProductResponse();
+        productResponse1.setId(product1.getId());
+        productResponse1.setName(product1.getName());
+        ProductResponse productResponse2 = new ProductResponse();
+        productResponse2.setId(product2.getId());
+        productResponse2.setName(product2.getName());
+        doReturn(productResponse1).when(this.inventoryMapper).toProductResponse(product1);
+        doReturn(productResponse2).when(this.inventoryMapper).toProductResponse(product2);
+
+        MvcResult result = this.mockMvc
+                .perform(
+                        get("/product/export")
+                                .param("search", "search")
+                                .param("categoryId", categoryId.toString())
+                                .accept("application/x-ndjson")
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = this.mockMvc
+                .perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(content.split("\n"))
+                .hasSize(2)
+                .satisfies(lines -> assertThat(lines[0]).contains(product1.getId().toString(), "myProduct1"))
+                .satisfies(lines -> assertThat(lines[1]).contains(product2.getId().toString(), "myProduct2"));
+
+        verify(this.productService).forEachSummary(eq("search"), eq(categoryId), any());
+        verify(this.inventoryMapper).toProductResponse(product1);
+        verify(this.inventoryMapper).toProductResponse(product2);
+
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testExport_ShouldStreamProductsAsCsv() throws Exception {
+        UUID categoryId = UUID.randomUUID();
+        ProductSummary product1 = new ProductSummary(UUID.randomUUID(), "my \"Product\", 1", categoryId, "myCategory");
+        ProductSummary product2 = new ProductSummary(UUID.randomUUID(), "myProduct2", null, null);
+        doAnswer(invocation -> {
+            Consumer<ProductSummary> action = invocation.getArgument(2);
+            action.accept(product1);
+            action.accept(product2);
+            return null;
+        }).when(this.productService).forEachSummary(isNull(), isNull(), any());
+
+        MvcResult result = this.mockMvc
+                .perform(
+                        get("/product/export")
+                                .accept("text/csv")
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc
+                .perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("id,name,categoryId,categoryName\r\n" +
+                        product1.getId() + ",\"my \"\"Product\"\", 1\"," + categoryId + ",myCategory\r\n" +
+                        product2.getId() + ",myProduct2,,\r\n"));
+
+        verify(this.productService).forEachSummary(isNull(), isNull(), any());
+
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testExport_ShouldReturn404IfCategoryNotFound() throws Exception {
+        UUID categoryId = UUID.randomUUID();
+        doThrow(new CategoryNotFoundException(String.format("no category found with id '%s'", categoryId)))
+                .when(this.productService).forEachSummary(isNull(), eq(categoryId), any());
+
+        MvcResult result = this.mockMvc
+                .perform(
+                        get("/product/export")
+                                .param("categoryId", categoryId.toString())
+                                .accept("application/x-ndjson")
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc
+                .perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.errors[0]").value(equalTo(String.format("no category found with id '%s'", categoryId))));
+
+        verify(this.productService).forEachSummary(isNull(), eq(categoryId), any());
+
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -176,7 +429,7 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
 
         verify(this.productService).get(id);
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -195,7 +448,7 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("invalid")))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase(id)));
 
-        verifyNoInteractions(this.productService, this.modelMapper);
+        verifyNoInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -208,7 +461,7 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
         ProductResponse productResponse = new ProductResponse();
         productResponse.setId(id);
         productResponse.setName("myProduct");
-        doReturn(productResponse).when(this.modelMapper).map(product, ProductResponse.class);
+        doReturn(productResponse).when(this.inventoryMapper).toProductResponse(product);
 
         this.mockMvc
                 .perform(
@@ -222,9 +475,42 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.category").doesNotExist());
 
         verify(this.productService).get(id);
-        verify(this.modelMapper).map(product, ProductResponse.class);
+        verify(this.inventoryMapper).toProductResponse(product);
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testGet_ShouldTagProductWithVersionsOfProductAndCategory() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        Category category = new Category("myCategory");
+        category.setVersion(1L);
+        Product product = new Product("myProduct", category);
+        product.setVersion(3L);
+        doReturn(product).when(this.productService).get(id);
+
+        ProductResponse productResponse = new ProductResponse();
+        productResponse.setId(id);
+        productResponse.setName("myProduct");
+        doReturn(productResponse).when(this.inventoryMapper).toProductResponse(product);
+
+        this.mockMvc
+                .perform(
+                        get("/product/{id}", id)
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"3.1\""))
+                .andExpect(result -> assertThat(result.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT))
+                .andExpect(jsonPath("$.id").value(equalTo(productResponse.getId().toString())));
+
+        verify(this.productService).get(id);
+        verify(this.inventoryMapper).toProductResponse(product);
+
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -234,7 +520,7 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
         String body = "{ \"name\": \"myProduct\" }";
 
         Product product = new Product("myProduct");
-        doReturn(product).when(this.modelMapper).map(any(ProductCreateRequest.class), eq(Product.class));
+        doReturn(product).when(this.inventoryMapper).toProduct(any(ProductCreateRequest.class));
 
         doThrow(new ProductAlreadyExistsException(String.format("product with name '%s' already exists", "myProduct")))
                 .when(this.productService).create(product);
@@ -253,12 +539,12 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("exists")))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("myProduct")));
 
-        verify(this.modelMapper).map(productRequestCaptor.capture(), eq(Product.class));
+        verify(this.inventoryMapper).toProduct(productRequestCaptor.capture());
         assertThat(productRequestCaptor.getValue()).extracting("name").isEqualTo("myProduct");
         assertThat(productRequestCaptor.getValue()).extracting("category").isNull();
         verify(this.productService).create(product);
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -269,7 +555,7 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
         String body = "{ \"name\": \"myProduct\", \"category\": { \"id\": \"" + categoryId + "\" } }";
 
         Product product = new Product("myProduct");
-        doReturn(product).when(this.modelMapper).map(any(ProductCreateRequest.class), eq(Product.class));
+        doReturn(product).when(this.inventoryMapper).toProduct(any(ProductCreateRequest.class));
 
         doThrow(new CategoryNotFoundException(String.format("no category found with id '%s'", categoryId)))
                 .when(this.productService).create(product);
@@ -287,12 +573,12 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo(String.format("no category found with id '%s'", categoryId))));
 
-        verify(this.modelMapper).map(productRequestCaptor.capture(), eq(Product.class));
+        verify(this.inventoryMapper).toProduct(productRequestCaptor.capture());
         assertThat(productRequestCaptor.getValue()).extracting("name").isEqualTo("myProduct");
         assertThat(productRequestCaptor.getValue()).extracting("category").extracting("id").isEqualTo(categoryId);
         verify(this.productService).create(product);
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -312,7 +598,7 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("product name must not be empty")));
 
-        verifyNoInteractions(this.productService, this.modelMapper);
+        verifyNoInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -320,7 +606,7 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
         String body = "{ \"name\": \"myProduct\" }";
 
         Product product = new Product("myProduct");
-        doReturn(product).when(this.modelMapper).map(any(ProductCreateRequest.class), eq(Product.class));
+        doReturn(product).when(this.inventoryMapper).toProduct(any(ProductCreateRequest.class));
 
         doThrow(new DataIntegrityViolationException("invalid"))
                 .when(this.productService).create(product);
@@ -338,10 +624,10 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo("invalid")));
 
-        verify(this.modelMapper).map(any(ProductCreateRequest.class), eq(Product.class));
+        verify(this.inventoryMapper).toProduct(any(ProductCreateRequest.class));
         verify(this.productService).create(product);
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -351,7 +637,7 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
         String body = "{ \"name\": \"myProduct\" }";
 
         Product product = new Product("myProduct");
-        doReturn(product).when(this.modelMapper).map(any(ProductCreateRequest.class), eq(Product.class));
+        doReturn(product).when(this.inventoryMapper).toProduct(any(ProductCreateRequest.class));
 
         UUID newId = UUID.randomUUID();
         doReturn(newId).when(this.productService).create(product);
@@ -368,11 +654,65 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(header().string("Location", containsString(newId.toString())))
                 .andExpect(jsonPath("$").doesNotExist());
 
-        verify(this.modelMapper).map(productRequestCaptor.capture(), eq(Product.class));
+        verify(this.inventoryMapper).toProduct(productRequestCaptor.capture());
         assertThat(productRequestCaptor.getValue()).extracting("name").isEqualTo("myProduct");
         verify(this.productService).create(product);
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testCreateAll_ShouldReturnOutcomePerItemAndThroughput() throws Exception {
+        String body = "[ { \"name\": \"myProduct1\" }, { \"name\": \"myProduct2\" } ]";
+
+        Product product1 = new Product("myProduct1");
+        Product product2 = new Product("myProduct2");
+        doReturn(product1, product2).when(this.inventoryMapper).toProduct(any(ProductCreateRequest.class));
+
+        UUID id = UUID.randomUUID();
+        doReturn(List.of(BulkItemResult.created(0, id), BulkItemResult.failed(1, "product with name 'myProduct2' already exists")))
+                .when(this.productService).createAll(List.of(product1, product2));
+
+        this.mockMvc
+                .perform(
+                        post("/product/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].index").value(0))
+                .andExpect(jsonPath("$.items[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.items[1].index").value(1))
+                .andExpect(jsonPath("$.items[1].error").value(containsStringIgnoringCase("exists")))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.itemsPerSecond").value(greaterThan(0d)));
+
+        verify(this.inventoryMapper, times(2)).toProduct(any(ProductCreateRequest.class));
+        verify(this.productService).createAll(List.of(product1, product2));
+
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testCreateAll_ShouldReturn400IfTooManyItems() throws Exception {
+        String body = "[" + String.join(",", Collections.nCopies(Chunks.MAX_BULK_ITEMS + 1, "{ \"name\": \"myProduct\" }")) + "]";
+
+        this.mockMvc
+                .perform(
+                        post("/product/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0]").value(String.format("at most %d products can be created at once", Chunks.MAX_BULK_ITEMS)));
+
+        verifyNoInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -383,10 +723,10 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
         String update = "{ \"name\": \"myProduct\" }";
 
         Product product = new Product("myProduct");
-        doReturn(product).when(this.modelMapper).map(any(ProductUpdateRequest.class), eq(Product.class));
+        doReturn(product).when(this.inventoryMapper).toProduct(any(ProductUpdateRequest.class));
 
         doThrow(new ProductNotFoundException(String.format("no product found with id '%s'", id)))
-                .when(this.productService).update(id, product);
+                .when(this.productService).update(id, product, null);
 
         this.mockMvc
                 .perform(
@@ -401,11 +741,11 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo(String.format("no product found with id '%s'", id))));
 
-        verify(this.modelMapper).map(productRequestCaptor.capture(), eq(Product.class));
+        verify(this.inventoryMapper).toProduct(productRequestCaptor.capture());
         assertThat(productRequestCaptor.getValue()).extracting("name").isEqualTo("myProduct");
-        verify(this.productService).update(id, product);
+        verify(this.productService).update(id, product, null);
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -416,10 +756,10 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
         String update = "{ \"name\": \"myProduct\" }";
 
         Product product = new Product("myProduct");
-        doReturn(product).when(this.modelMapper).map(any(ProductUpdateRequest.class), eq(Product.class));
+        doReturn(product).when(this.inventoryMapper).toProduct(any(ProductUpdateRequest.class));
 
         doThrow(new ProductAlreadyExistsException(String.format("product with name '%s' already exists", "myProduct")))
-                .when(this.productService).update(id, product);
+                .when(this.productService).update(id, product, null);
 
         this.mockMvc
                 .perform(
@@ -434,11 +774,11 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo(String.format("product with name '%s' already exists", "myProduct"))));
 
-        verify(this.modelMapper).map(productRequestCaptor.capture(), eq(Product.class));
+        verify(this.inventoryMapper).toProduct(productRequestCaptor.capture());
         assertThat(productRequestCaptor.getValue()).extracting("name").isEqualTo("myProduct");
-        verify(this.productService).update(id, product);
+        verify(this.productService).update(id, product, null);
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -460,7 +800,7 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("invalid")))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase(id)));
 
-        verifyNoInteractions(this.productService, this.modelMapper);
+        verifyNoInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -481,7 +821,7 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("product name must not be empty")));
 
-        verifyNoInteractions(this.productService, this.modelMapper);
+        verifyNoInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -490,10 +830,10 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
         String body = "{ \"name\": \"myProduct\" }";
 
         Product product = new Product("myProduct");
-        doReturn(product).when(this.modelMapper).map(any(ProductUpdateRequest.class), eq(Product.class));
+        doReturn(product).when(this.inventoryMapper).toProduct(any(ProductUpdateRequest.class));
 
         doThrow(new DataIntegrityViolationException("invalid"))
-                .when(this.productService).update(id, product);
+                .when(this.productService).update(id, product, null);
 
         this.mockMvc
                 .perform(
@@ -508,10 +848,10 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo("invalid")));
 
-        verify(this.modelMapper).map(any(ProductUpdateRequest.class), eq(Product.class));
-        verify(this.productService).update(id, product);
+        verify(this.inventoryMapper).toProduct(any(ProductUpdateRequest.class));
+        verify(this.productService).update(id, product, null);
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -523,10 +863,10 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
         String update = "{ \"name\": \"myProduct\", \"category\": { \"id\": \"" + categoryId + "\" } }";
 
         Product product = new Product("myProduct");
-        doReturn(product).when(this.modelMapper).map(any(ProductUpdateRequest.class), eq(Product.class));
+        doReturn(product).when(this.inventoryMapper).toProduct(any(ProductUpdateRequest.class));
 
         doThrow(new CategoryNotFoundException(String.format("no category found with id '%s'", categoryId)))
-                .when(this.productService).update(id, product);
+                .when(this.productService).update(id, product, null);
 
         this.mockMvc
                 .perform(
@@ -541,12 +881,12 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo(String.format("no category found with id '%s'", categoryId))));
 
-        verify(this.modelMapper).map(productRequestCaptor.capture(), eq(Product.class));
+        verify(this.inventoryMapper).toProduct(productRequestCaptor.capture());
         assertThat(productRequestCaptor.getValue()).extracting("name").isEqualTo("myProduct");
         assertThat(productRequestCaptor.getValue()).extracting("category").extracting("id").isEqualTo(categoryId);
-        verify(this.productService).update(id, product);
+        verify(this.productService).update(id, product, null);
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -557,9 +897,9 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
         String update = "{ \"name\": \"myProduct\" }";
 
         Product product = new Product("myProduct");
-        doReturn(product).when(this.modelMapper).map(any(ProductUpdateRequest.class), eq(Product.class));
+        doReturn(product).when(this.inventoryMapper).toProduct(any(ProductUpdateRequest.class));
 
-        doNothing().when(this.productService).update(id, product);
+        doNothing().when(this.productService).update(id, product, null);
 
         this.mockMvc
                 .perform(
@@ -572,11 +912,11 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
                 .andExpect(status().isNoContent())
                 .andExpect(jsonPath("$").doesNotExist());
 
-        verify(this.modelMapper).map(productRequestCaptor.capture(), eq(Product.class));
+        verify(this.inventoryMapper).toProduct(productRequestCaptor.capture());
         assertThat(productRequestCaptor.getValue()).extracting("name").isEqualTo("myProduct");
-        verify(this.productService).update(id, product);
+        verify(this.productService).update(id, product, null);
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
     }
 
     @Test
@@ -594,6 +934,89 @@ public class ProductControllerTest extends MockedSecurityControllerTest {
 
         verify(this.productService).delete(id);
 
-        verifyNoMoreInteractions(this.productService, this.modelMapper);
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldDeleteGivenIds() throws Exception {
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        String body = String.format("{ \"ids\": [ \"%s\", \"%s\" ] }", id1, id2);
+
+        doReturn(2L).when(this.productService).deleteAll(List.of(id1, id2));
+
+        this.mockMvc
+                .perform(
+                        post("/product/bulk/delete")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        verify(this.productService).deleteAll(List.of(id1, id2));
+
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldReturn400IfNeitherIdsNorCategoryIdProvided() throws Exception {
+        this.mockMvc
+                .perform(
+                        post("/product/bulk/delete")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{ }")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("either ids or category id must be given")));
+
+        verifyNoInteractions(this.productService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldDeleteAllOfCategory() throws Exception {
+        UUID categoryId = UUID.randomUUID();
+        String body = String.format("{ \"categoryId\": \"%s\" }", categoryId);
+
+        doReturn(5L).when(this.productService).deleteAllByCategory(categoryId);
+
+        this.mockMvc
+                .perform(
+                        post("/product/bulk/delete")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(5));
+
+        verify(this.productService).deleteAllByCategory(categoryId);
+
+        verifyNoMoreInteractions(this.productService, this.inventoryMapper);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldReturn400IfIdsAndCategoryIdProvided() throws Exception {
+        String body = String.format("{ \"ids\": [ \"%s\" ], \"categoryId\": \"%s\" }", UUID.randomUUID(), UUID.randomUUID());
+
+        this.mockMvc
+                .perform(
+                        post("/product/bulk/delete")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("either ids or category id must be given")));
+
+        verifyNoInteractions(this.productService, this.inventoryMapper);
     }
 }
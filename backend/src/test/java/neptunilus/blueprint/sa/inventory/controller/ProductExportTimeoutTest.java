@@ -0,0 +1,104 @@
+package neptunilus.blueprint.sa.inventory.controller;
+
+import neptunilus.blueprint.sa.inventory.repository.projection.ProductSummary;
+import neptunilus.blueprint.sa.inventory.service.ProductService;
+import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
+import neptunilus.blueprint.sa.security.model.Authority;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.repository.UserRepository;
+import neptunilus.blueprint.sa.security.repository.UserRoleRepository;
+import neptunilus.blueprint.sa.security.util.JwtUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+/**
+ * Tests that the streamed exports are not cut off by the async timeout of the container, on a real server
+ * (with the container default lowered, to not wait for it).
+ */
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+public class ProductExportTimeoutTest {
+
+    private static final long CONTAINER_TIMEOUT_MILLIS = 1000;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @MockBean
+    private ProductService productService;
+
+    @AfterEach
+    public void cleanUp() {
+        this.userRepository.deleteAll();
+        this.userRoleRepository.deleteAll();
+    }
+
+    @Test
+    public void testExport_ShouldCompleteIfRunningLongerThanContainerTimeout() {
+        ProductSummary product = new ProductSummary(UUID.randomUUID(), "myProduct", null, null);
+        doAnswer(invocation -> {
+            Thread.sleep(3 * CONTAINER_TIMEOUT_MILLIS);
+            Consumer<ProductSummary> action = invocation.getArgument(2);
+            action.accept(product);
+            return null;
+        }).when(this.productService).forEachSummary(isNull(), isNull(), any());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(tokenOf(Authority.READ_PRODUCT));
+        headers.set(HttpHeaders.ACCEPT, "text/csv");
+
+        ResponseEntity<String> response = this.restTemplate.exchange("/product/export", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("id,name,categoryId,categoryName\r\n" + product.getId() + ",myProduct,,\r\n");
+    }
+
+    private String tokenOf(final Authority authority) {
+        UserRole role = this.userRoleRepository.save(new UserRole("exporter", Set.of(authority)));
+        User user = this.userRepository.save(new User("exporter@mail.xy", "password", role));
+        return this.jwtUtils.generate(new AuthenticatedUser(user));
+    }
+
+    @TestConfiguration
+    static class ContainerTimeoutConfiguration {
+
+        @Bean
+        public WebServerFactoryCustomizer<TomcatServletWebServerFactory> containerTimeoutCustomizer() {
+            return factory -> factory.addConnectorCustomizers(connector -> connector.setAsyncTimeout(CONTAINER_TIMEOUT_MILLIS));
+        }
+
+    }
+
+}
@@ -0,0 +1,105 @@
+package neptunilus.blueprint.sa.inventory.controller;
+
+import neptunilus.blueprint.sa.SpringAngularBlueprintApplication;
+import neptunilus.blueprint.sa.inventory.controller.out.ProductResponse;
+import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.CategoryRepository;
+import neptunilus.blueprint.sa.inventory.repository.ProductRepository;
+import neptunilus.blueprint.sa.inventory.service.ProductService;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares listing a page of products by loading managed entities and mapping them with {@link ModelMapper}
+ * against the read-only projection used by {@link ProductController#search}.
+ * <p>
+ * Run the main method (e.g. from the IDE) with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductListingBenchmark {
+
+    private static final int CATEGORY_COUNT = 20;
+    private static final int PRODUCT_COUNT = 1000;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductController productController;
+    private ModelMapper modelMapper;
+    private Pageable pageable;
+    private ServletWebRequest request;
+
+    @Setup
+    public void setup() {
+        this.context = new SpringApplicationBuilder(SpringAngularBlueprintApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+
+        this.productService = this.context.getBean(ProductService.class);
+        this.productController = this.context.getBean(ProductController.class);
+        this.modelMapper = new ModelMapper();
+        this.pageable = PageRequest.of(0, this.pageSize);
+        this.request = new ServletWebRequest(new MockHttpServletRequest());
+
+        CategoryRepository categoryRepository = this.context.getBean(CategoryRepository.class);
+        ProductRepository productRepository = this.context.getBean(ProductRepository.class);
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            Category category = i < CATEGORY_COUNT ?
+                    categoryRepository.save(new Category("category" + i)) :
+                    categoryRepository.findOneByName("category" + (i % CATEGORY_COUNT)).orElseThrow();
+            productRepository.save(new Product("product" + i, category));
+        }
+
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user", null, "READ_PRODUCT"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        this.context.close();
+    }
+
+    @Benchmark
+    public List<ProductResponse> entitiesWithModelMapper() {
+        return this.productService.find(null, false, null, this.pageable)
+                .map(product -> this.modelMapper.map(product, ProductResponse.class))
+                .getContent();
+    }
+
+    @Benchmark
+    public List<ProductResponse> projections() {
+        return this.productController.search(null, null, true, this.pageable, this.request).getContent();
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductListingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
@@ -0,0 +1,107 @@
+package neptunilus.blueprint.sa.inventory.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import neptunilus.blueprint.sa.inventory.controller.out.CategoryResponse;
+import neptunilus.blueprint.sa.inventory.controller.out.ProductResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares the serialization of a page of products as JSON and as Smile, each with and without gzip compression.
+ * <p>
+ * The time per operation is the CPU spent per page, the bytes on the wire per page are printed once per setup.
+ * Run the main method (e.g. from the IDE) with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    private static final int CATEGORY_COUNT = 20;
+
+    @Param({"20", "100", "500"})
+    private int pageSize;
+
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+
+    private Page<ProductResponse> page;
+
+    @Setup
+    public void setup() throws IOException {
+        List<CategoryResponse> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORY_COUNT; i++) {
+            CategoryResponse category = new CategoryResponse();
+            category.setId(UUID.randomUUID());
+            category.setName("category" + i);
+            categories.add(category);
+        }
+
+        List<ProductResponse> products = new ArrayList<>();
+        for (int i = 0; i < this.pageSize; i++) {
+            ProductResponse product = new ProductResponse();
+            product.setId(UUID.randomUUID());
+            product.setName("product" + i);
+            product.setCategory(categories.get(i % CATEGORY_COUNT));
+            products.add(product);
+        }
+        this.page = new PageImpl<>(products, PageRequest.of(0, this.pageSize), 10_000);
+
+        System.out.printf("%nbytes per page of %d: json=%d, json+gzip=%d, smile=%d, smile+gzip=%d%n", this.pageSize,
+                json().length, jsonGzip().length, smile().length, smileGzip().length);
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return this.jsonMapper.writeValueAsBytes(this.page);
+    }
+
+    @Benchmark
+    public byte[] jsonGzip() throws IOException {
+        return gzip(this.jsonMapper, this.page);
+    }
+
+    @Benchmark
+    public byte[] smile() throws IOException {
+        return this.smileMapper.writeValueAsBytes(this.page);
+    }
+
+    @Benchmark
+    public byte[] smileGzip() throws IOException {
+        return gzip(this.smileMapper, this.page);
+    }
+
+    private static byte[] gzip(final ObjectMapper objectMapper, final Object value) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(outputStream, value);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseFormatBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
@@ -1,20 +1,27 @@
 package neptunilus.blueprint.sa.inventory.repository;
 
+import neptunilus.blueprint.sa.common.pagination.Cursor;
 import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.projection.CategorySummary;
 import org.assertj.core.api.InstanceOfAssertFactories;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
 import javax.validation.ConstraintViolationException;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringJUnitConfig
 @DataJpaTest
@@ -89,6 +96,74 @@ public class CategoryRepositoryTest {
         assertThat(categories).extracting("name").containsExactlyInAnyOrder("myCategory1", "myCategory2");
     }
 
+    @Test
+    public void testFindByNameContainingIgnoreCase_ShouldFindByNewNameAfterRename() {
+        Category category = this.testEntityManager.persist(new Category("oldName"));
+        this.testEntityManager.persist(new Category("o"));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Category categoryToRename = this.testEntityManager.find(Category.class, category.getId());
+        categoryToRename.setName("newName");
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        assertThat(this.categoryRepository.findByNameContainingIgnoreCase("OLD", null)).isEmpty();
+        assertThat(this.categoryRepository.findByNameContainingIgnoreCase("ewN", null)).extracting("name").containsExactly("newName");
+        assertThat(this.categoryRepository.findSummariesByNameContainingIgnoreCase("o", PageRequest.of(0, 10))).hasSize(1);
+    }
+
+    @Test
+    public void testFindSummaries_ShouldFindAll() {
+        Category category = new Category("myCategory");
+        UUID id = this.testEntityManager.persist(category).getId();
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Slice<CategorySummary> categories = this.categoryRepository.findSummaries(PageRequest.of(0, 10));
+        assertThat(categories).hasSize(1);
+        assertThat(categories).extracting("id", "name").containsExactly(tuple(id, "myCategory"));
+    }
+
+    @Test
+    public void testFindSummariesByNameContainingIgnoreCase_ShouldFindTheCorrectOnes() {
+        Category categoryToFind = new Category("my_Category1");
+        this.testEntityManager.persist(categoryToFind);
+
+        Category categoryNotToFind = new Category("myXCategory2");
+        this.testEntityManager.persist(categoryNotToFind);
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Slice<CategorySummary> categories = this.categoryRepository.findSummariesByNameContainingIgnoreCase("y_c", PageRequest.of(0, 10));
+        assertThat(categories).hasSize(1);
+        assertThat(categories).extracting("name").containsExactly("my_Category1");
+    }
+
+    @Test
+    public void testDeleteByIdIn_ShouldDeleteAfterProductsAreUnassigned() {
+        Category categoryToDelete = this.testEntityManager.persist(new Category("category1"));
+        Category categoryToKeep = this.testEntityManager.persist(new Category("category2"));
+
+        Product productToUnassign = this.testEntityManager.persist(new Product("myProduct1", categoryToDelete));
+        Product productToKeep = this.testEntityManager.persist(new Product("myProduct2", categoryToKeep));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        List<UUID> ids = List.of(categoryToDelete.getId(), UUID.randomUUID());
+        assertThat(this.categoryRepository.unassignProductsByIdIn(ids)).isEqualTo(1);
+        assertThat(this.categoryRepository.deleteByIdIn(ids)).isEqualTo(1);
+
+        assertThat(this.categoryRepository.findAll()).extracting("name").containsExactly("category2");
+        assertThat(this.testEntityManager.find(Product.class, productToUnassign.getId()).getCategory()).isNull();
+        assertThat(this.testEntityManager.find(Product.class, productToKeep.getId()).getCategory()).isNotNull();
+    }
+
     @Test
     public void testInsertInvalid_ShouldThrowException() {
         Category invalidCategory = new Category("");
@@ -98,4 +173,28 @@ public class CategoryRepositoryTest {
                 .extracting("constraintViolations").asInstanceOf(InstanceOfAssertFactories.ITERABLE)
                 .extracting("propertyPath").asString().contains("name");
     }
+
+    @Test
+    public void testFindSummariesByNameContainingIgnoreCaseAfter_ShouldContinueAfterCursor() {
+        Category category1 = new Category("myCategory1");
+        UUID id1 = this.testEntityManager.persist(category1).getId();
+
+        Category category2 = new Category("MYCATEGORY2");
+        UUID id2 = this.testEntityManager.persist(category2).getId();
+
+        Category categoryNotToFind = new Category("SomethingElse");
+        this.testEntityManager.persist(categoryNotToFind);
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Slice<CategorySummary> first = this.categoryRepository.findSummariesByNameContainingIgnoreCaseAfter("category", Cursor.FIRST, PageRequest.of(0, 1));
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first).extracting("id").containsExactly(id2);
+
+        Slice<CategorySummary> second = this.categoryRepository.findSummariesByNameContainingIgnoreCaseAfter("category", new Cursor("MYCATEGORY2", id2), PageRequest.of(0, 1));
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second).extracting("id", "name").containsExactly(tuple(id1, "myCategory1"));
+    }
+
 }
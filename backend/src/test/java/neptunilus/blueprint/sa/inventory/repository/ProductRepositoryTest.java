@@ -1,24 +1,37 @@
 package neptunilus.blueprint.sa.inventory.repository;
 
+import neptunilus.blueprint.sa.common.pagination.Cursor;
 import neptunilus.blueprint.sa.inventory.model.Category;
 import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.projection.ProductSummary;
 import org.assertj.core.api.InstanceOfAssertFactories;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
 import javax.validation.ConstraintViolationException;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringJUnitConfig
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class ProductRepositoryTest {
 
     @Autowired
@@ -82,7 +95,7 @@ public class ProductRepositoryTest {
     }
 
     @Test
-    public void testFindOneByNameAndCategory_ShouldFind() {
+    public void testFindOneByNameAndCategoryId_ShouldFind() {
         Category categoryToFind = new Category("category");
         this.testEntityManager.persist(categoryToFind);
 
@@ -98,7 +111,7 @@ public class ProductRepositoryTest {
         this.testEntityManager.flush();
         this.testEntityManager.clear();
 
-        Optional<Product> product = this.productRepository.findOneByNameAndCategory("myProduct", categoryToFind);
+        Optional<Product> product = this.productRepository.findOneByNameAndCategoryId("myProduct", categoryToFind.getId());
         assertThat(product).isPresent();
         assertThat(product).get().extracting("name").isEqualTo("myProduct");
         assertThat(product.get().getCategory()).isNotNull();
@@ -106,17 +119,38 @@ public class ProductRepositoryTest {
     }
 
     @Test
-    public void testFindOneByNameAndCategory_ShouldNotFind() {
+    public void testFindOneByNameAndCategoryId_ShouldNotFind() {
         Category category = new Category("category");
         this.testEntityManager.persist(category);
 
         Product product = new Product("myProduct", category);
         this.testEntityManager.persist(product);
 
-        Optional<Product> productFound = this.productRepository.findOneByNameAndCategory("myProduct2", category);
+        Optional<Product> productFound = this.productRepository.findOneByNameAndCategoryId("myProduct2", category.getId());
         assertThat(productFound).isNotPresent();
     }
 
+    @Test
+    public void testInsert_ShouldGenerateIdsInInsertionOrder() {
+        UUID first = this.testEntityManager.persist(new Product("myProduct1")).getId();
+        UUID second = this.testEntityManager.persist(new Product("myProduct2")).getId();
+
+        assertThat(first.version()).isEqualTo(7);
+        assertThat(second.toString()).isGreaterThan(first.toString());
+    }
+
+    @Test
+    public void testFindNamesByNameIn_ShouldReturnOnlyUsedNames() {
+        this.testEntityManager.persist(new Product("myProduct1"));
+        this.testEntityManager.persist(new Product("myProduct2"));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        assertThat(this.productRepository.findNamesByNameIn(List.of("myProduct1", "myProduct3", "MYPRODUCT2")))
+                .containsExactly("myProduct1");
+    }
+
     @Test
     public void testFindByNameContainingIgnoreCase_ShouldFindTheCorrectOnes() {
         Category category = new Category("category");
@@ -140,7 +174,51 @@ public class ProductRepositoryTest {
     }
 
     @Test
-    public void testFindByCategory_ShouldFind() {
+    public void testFindByNameContainingIgnoreCase_ShouldFindByShortSearch() {
+        this.testEntityManager.persist(new Product("xy"));
+        this.testEntityManager.persist(new Product("axb"));
+        this.testEntityManager.persist(new Product("YXZ"));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        assertThat(this.productRepository.findByNameContainingIgnoreCase("X", null))
+                .extracting("name").containsExactlyInAnyOrder("xy", "axb", "YXZ");
+        assertThat(this.productRepository.findByNameContainingIgnoreCase("xy", null))
+                .extracting("name").containsExactly("xy");
+    }
+
+    @Test
+    public void testFindByNameContainingIgnoreCase_ShouldNotFindByGramsInWrongOrder() {
+        this.testEntityManager.persist(new Product("abcdbc"));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        assertThat(this.productRepository.findByNameContainingIgnoreCase("bcdb", null)).hasSize(1);
+        assertThat(this.productRepository.findByNameContainingIgnoreCase("bcbc", null)).isEmpty();
+    }
+
+    @Test
+    public void testFindByNameContainingIgnoreCase_ShouldFindByNewNameAfterRename() {
+        Product product = this.testEntityManager.persist(new Product("oldName"));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Product productToRename = this.testEntityManager.find(Product.class, product.getId());
+        productToRename.setName("newName");
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        assertThat(this.productRepository.findByNameContainingIgnoreCase("old", null)).isEmpty();
+        assertThat(this.productRepository.findByNameContainingIgnoreCase("new", null)).hasSize(1);
+        assertThat(this.productRepository.countByNameContainingIgnoreCase("name")).isEqualTo(1);
+    }
+
+    @Test
+    public void testFindByCategoryId_ShouldFind() {
         Category categoryToFind = new Category("category1");
         this.testEntityManager.persist(categoryToFind);
         Product productToFind = new Product("myProduct1", categoryToFind);
@@ -154,14 +232,14 @@ public class ProductRepositoryTest {
         this.testEntityManager.flush();
         this.testEntityManager.clear();
 
-        Page<Product> products = this.productRepository.findByCategory(categoryToFind, null);
+        Page<Product> products = this.productRepository.findByCategoryId(categoryToFind.getId(), null);
         assertThat(products).hasSize(1);
         assertThat(products).extracting("name").containsExactly("myProduct1");
         assertThat(products).extracting("category").extracting("name").containsExactly("category1");
     }
 
     @Test
-    public void testFindByCategory_ShouldNotFind() {
+    public void testFindByCategoryId_ShouldNotFind() {
         Category categoryWithoutProduct = new Category("category1");
         this.testEntityManager.persist(categoryWithoutProduct);
 
@@ -173,12 +251,12 @@ public class ProductRepositoryTest {
         this.testEntityManager.flush();
         this.testEntityManager.clear();
 
-        Page<Product> products = this.productRepository.findByCategory(categoryWithoutProduct, null);
+        Page<Product> products = this.productRepository.findByCategoryId(categoryWithoutProduct.getId(), null);
         assertThat(products).isEmpty();
     }
 
     @Test
-    public void testFindByNameContainingIgnoreCaseAndCategory_ShouldFindTheCorrectOnes() {
+    public void testFindByNameContainingIgnoreCaseAndCategoryId_ShouldFindTheCorrectOnes() {
         Category category = new Category("category");
         this.testEntityManager.persist(category);
 
@@ -194,11 +272,149 @@ public class ProductRepositoryTest {
         this.testEntityManager.flush();
         this.testEntityManager.clear();
 
-        Page<Product> products = this.productRepository.findByNameContainingIgnoreCaseAndCategory("product", category, null);
+        Page<Product> products = this.productRepository.findByNameContainingIgnoreCaseAndCategoryId("product", category.getId(), null);
         assertThat(products).hasSize(1);
         assertThat(products).extracting("name").containsExactly("myProduct1");
     }
 
+    @Test
+    public void testFindSummaries_ShouldFindAllWithAndWithoutCategory() {
+        Category category = new Category("category");
+        UUID categoryId = this.testEntityManager.persist(category).getId();
+
+        Product productWithCategory = new Product("myProduct1", category);
+        UUID id1 = this.testEntityManager.persist(productWithCategory).getId();
+
+        Product productWithoutCategory = new Product("myProduct2");
+        UUID id2 = this.testEntityManager.persist(productWithoutCategory).getId();
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Slice<ProductSummary> products = this.productRepository.findSummaries(PageRequest.of(0, 10, Sort.by("name")));
+        assertThat(products).extracting("id", "name", "categoryId", "categoryName").containsExactly(
+                tuple(id1, "myProduct1", categoryId, "category"),
+                tuple(id2, "myProduct2", null, null));
+    }
+
+    @Test
+    public void testFindSummariesByNameContainingIgnoreCase_ShouldFindTheCorrectOnes() {
+        Product productToFind1 = new Product("myProduct1");
+        this.testEntityManager.persist(productToFind1);
+
+        Product productToFind2 = new Product("MYPRODUCT2");
+        this.testEntityManager.persist(productToFind2);
+
+        Product productNotToFind = new Product("SomethingElse");
+        this.testEntityManager.persist(productNotToFind);
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Slice<ProductSummary> products = this.productRepository.findSummariesByNameContainingIgnoreCase("product", PageRequest.of(0, 1, Sort.by("name")));
+        assertThat(products.hasNext()).isTrue();
+        assertThat(this.productRepository.countByNameContainingIgnoreCase("product")).isEqualTo(2);
+        assertThat(products).extracting("name").containsExactly("MYPRODUCT2");
+    }
+
+    @Test
+    public void testFindSummariesByCategoryId_ShouldFind() {
+        Category categoryToFind = new Category("category1");
+        this.testEntityManager.persist(categoryToFind);
+        Product productToFind = new Product("myProduct1", categoryToFind);
+        this.testEntityManager.persist(productToFind);
+
+        Category categoryNotToFind = new Category("category2");
+        this.testEntityManager.persist(categoryNotToFind);
+        Product productNotToFind = new Product("myProduct2", categoryNotToFind);
+        this.testEntityManager.persist(productNotToFind);
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Slice<ProductSummary> products = this.productRepository.findSummariesByCategoryId(categoryToFind.getId(), PageRequest.of(0, 10));
+        assertThat(products).extracting("name", "categoryName").containsExactly(tuple("myProduct1", "category1"));
+    }
+
+    @Test
+    public void testFindSummariesByNameContainingIgnoreCaseAndCategoryId_ShouldFindTheCorrectOnes() {
+        Category category = new Category("category");
+        this.testEntityManager.persist(category);
+
+        Product productToFind = new Product("myProduct1", category);
+        this.testEntityManager.persist(productToFind);
+
+        Product productNotToFind1 = new Product("myProduct2");
+        this.testEntityManager.persist(productNotToFind1);
+
+        Product productNotToFind2 = new Product("SomethingElse", category);
+        this.testEntityManager.persist(productNotToFind2);
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Slice<ProductSummary> products = this.productRepository.findSummariesByNameContainingIgnoreCaseAndCategoryId("product", category.getId(), PageRequest.of(0, 10));
+        assertThat(products).extracting("name").containsExactly("myProduct1");
+    }
+
+    @Test
+    public void testStreamSummariesByNameContainingIgnoreCaseAndCategoryId_ShouldStreamTheCorrectOnesOrderedByName() {
+        Category category = new Category("category");
+        this.testEntityManager.persist(category);
+
+        this.testEntityManager.persist(new Product("myProduct2", category));
+        this.testEntityManager.persist(new Product("myProduct1", category));
+        this.testEntityManager.persist(new Product("myProduct3"));
+        this.testEntityManager.persist(new Product("SomethingElse", category));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        try (Stream<ProductSummary> products = this.productRepository.streamSummariesByNameContainingIgnoreCaseAndCategoryId("product", category.getId())) {
+            assertThat(products)
+                    .extracting("name", "categoryName")
+                    .containsExactly(tuple("myProduct1", "category"), tuple("myProduct2", "category"));
+        }
+        try (Stream<ProductSummary> products = this.productRepository.streamSummaries()) {
+            assertThat(products).extracting("name").containsExactly("SomethingElse", "myProduct1", "myProduct2", "myProduct3");
+        }
+    }
+
+    @Test
+    public void testDeleteByIdIn_ShouldDeleteOnlyTheGivenOnesWithTheirNameGrams() {
+        UUID idToDelete1 = this.testEntityManager.persist(new Product("myProduct1")).getId();
+        UUID idToDelete2 = this.testEntityManager.persist(new Product("myProduct2")).getId();
+        this.testEntityManager.persist(new Product("myProduct3"));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        int deleted = this.productRepository.deleteByIdIn(List.of(idToDelete1, idToDelete2, UUID.randomUUID()));
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(this.productRepository.findAll()).extracting("name").containsExactly("myProduct3");
+        assertThat(this.productRepository.countByNameContainingIgnoreCase("product")).isEqualTo(1);
+    }
+
+    @Test
+    public void testDeleteByCategoryId_ShouldDeleteOnlyTheOnesOfTheCategory() {
+        Category categoryToDelete = this.testEntityManager.persist(new Category("category1"));
+        Category categoryToKeep = this.testEntityManager.persist(new Category("category2"));
+
+        this.testEntityManager.persist(new Product("myProduct1", categoryToDelete));
+        this.testEntityManager.persist(new Product("myProduct2", categoryToDelete));
+        this.testEntityManager.persist(new Product("myProduct3", categoryToKeep));
+        this.testEntityManager.persist(new Product("myProduct4"));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        int deleted = this.productRepository.deleteByCategoryId(categoryToDelete.getId());
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(this.productRepository.findAll()).extracting("name").containsExactlyInAnyOrder("myProduct3", "myProduct4");
+    }
+
     @Test
     public void testInsertInvalid_ShouldThrowException() {
         Product invalidProduct = new Product("");
@@ -208,4 +424,91 @@ public class ProductRepositoryTest {
                 .extracting("constraintViolations").asInstanceOf(InstanceOfAssertFactories.ITERABLE)
                 .extracting("propertyPath").asString().contains("name");
     }
+
+    @Test
+    public void testFind_ShouldFetchCategoriesWithConstantStatementCount() {
+        Category category = null;
+        for (int i = 0; i < 10; i++) {
+            category = new Category("category" + i);
+            this.testEntityManager.persist(category);
+            this.testEntityManager.persist(new Product("myProduct" + i, category));
+        }
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Pageable pageable = PageRequest.of(0, 5);
+        Category lastCategory = category;
+
+        assertStatementCount(2, () -> this.productRepository.findAll(pageable));
+        assertStatementCount(2, () -> this.productRepository.findByNameContainingIgnoreCase("product", pageable));
+        assertStatementCount(1, () -> this.productRepository.findByCategoryId(lastCategory.getId(), pageable));
+        assertStatementCount(1, () -> this.productRepository.findByNameContainingIgnoreCaseAndCategoryId("product", lastCategory.getId(), pageable));
+        assertStatementCount(1, () -> this.productRepository.findOneByName("myProduct0").orElseThrow());
+        assertStatementCount(1, () -> this.productRepository.findOneByNameAndCategoryId("myProduct9", lastCategory.getId()).orElseThrow());
+    }
+
+    @Test
+    public void testFindSummariesAfter_ShouldContinueAfterCursorInStableOrder() {
+        Product product3 = new Product("myProduct3");
+        UUID id3 = this.testEntityManager.persist(product3).getId();
+
+        Product product1 = new Product("myProduct1");
+        UUID id1 = this.testEntityManager.persist(product1).getId();
+
+        Product product2 = new Product("myProduct2");
+        UUID id2 = this.testEntityManager.persist(product2).getId();
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Slice<ProductSummary> first = this.productRepository.findSummariesAfter(Cursor.FIRST, PageRequest.of(0, 2));
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first).extracting("id").containsExactly(id1, id2);
+
+        Slice<ProductSummary> second = this.productRepository.findSummariesAfter(new Cursor("myProduct2", id2), PageRequest.of(0, 2));
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second).extracting("id").containsExactly(id3);
+    }
+
+    @Test
+    public void testFindSummariesByNameContainingIgnoreCaseAndCategoryIdAfter_ShouldFindTheCorrectOnes() {
+        Category categoryToFind = new Category("category1");
+        this.testEntityManager.persist(categoryToFind);
+        Category categoryNotToFind = new Category("category2");
+        this.testEntityManager.persist(categoryNotToFind);
+
+        Product productBeforeCursor = new Product("myProduct1", categoryToFind);
+        UUID idBeforeCursor = this.testEntityManager.persist(productBeforeCursor).getId();
+
+        Product productToFind = new Product("myProduct2", categoryToFind);
+        UUID idToFind = this.testEntityManager.persist(productToFind).getId();
+
+        Product productNotToFind1 = new Product("myProduct3", categoryNotToFind);
+        this.testEntityManager.persist(productNotToFind1);
+
+        Product productNotToFind2 = new Product("SomethingElse", categoryToFind);
+        this.testEntityManager.persist(productNotToFind2);
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Slice<ProductSummary> products = this.productRepository.findSummariesByNameContainingIgnoreCaseAndCategoryIdAfter(
+                "PRODUCT", categoryToFind.getId(), new Cursor("myProduct1", idBeforeCursor), PageRequest.of(0, 10));
+        assertThat(products.hasNext()).isFalse();
+        assertThat(products).extracting("id", "categoryName").containsExactly(tuple(idToFind, "category1"));
+    }
+
+    private void assertStatementCount(final long expectedCount, final Supplier<?> query) {
+        Statistics statistics = this.testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Object result = query.get();
+        Iterable<?> products = result instanceof Iterable ? (Iterable<?>) result : Collections.singletonList(result);
+        products.forEach(product -> assertThat(((Product) product).getCategory().getName()).isNotEmpty());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expectedCount);
+        this.testEntityManager.clear();
+    }
 }
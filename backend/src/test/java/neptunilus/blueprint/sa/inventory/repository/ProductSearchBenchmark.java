@@ -0,0 +1,118 @@
+package neptunilus.blueprint.sa.inventory.repository;
+
+import neptunilus.blueprint.sa.SpringAngularBlueprintApplication;
+import neptunilus.blueprint.sa.common.search.NGrams;
+import neptunilus.blueprint.sa.inventory.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a substring search on the product names by a plain {@code like '%search%'} scan against the
+ * {@link NGrams} filtered one used by {@link ProductRepository}.
+ * <p>
+ * Run the main method (e.g. from the IDE) with the test classpath. It seeds 20k products by default, the
+ * production-like volume of 1M products needs the system properties {@code -Dproducts=1000000 -Dheap=8g}
+ * (the in-memory database then also holds the tens of millions of name n-grams).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final String DEFAULT_PRODUCT_COUNT = "20000";
+    private static final int BATCH_SIZE = 1000;
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+    @Param({"needle", "qx"})
+    private String search;
+
+    @Param(DEFAULT_PRODUCT_COUNT)
+    private int productCount;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private ProductRepository productRepository;
+
+    @Setup
+    public void setup() {
+        this.context = new SpringApplicationBuilder(SpringAngularBlueprintApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+
+        this.entityManagerFactory = this.context.getBean(EntityManagerFactory.class);
+        this.productRepository = this.context.getBean(ProductRepository.class);
+
+        Random random = new Random(42);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(this.context.getBean(PlatformTransactionManager.class));
+        for (int offset = 0; offset < this.productCount; offset += BATCH_SIZE) {
+            int start = offset;
+            int end = Math.min(offset + BATCH_SIZE, this.productCount);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = start; i < end; i++) {
+                    String name = i % 2_000 == 0 ? "haystack-needle-" + i : randomName(random, i);
+                    this.productRepository.save(new Product(name));
+                }
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public long likeScan() {
+        EntityManager entityManager = this.entityManagerFactory.createEntityManager();
+        try {
+            return entityManager
+                    .createQuery("select count(p) from Product p where lower(p.name) like lower(concat('%', :search, '%'))", Long.class)
+                    .setParameter("search", this.search)
+                    .getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public long nGramIndex() {
+        return this.productRepository.countByNameContainingIgnoreCase(this.search);
+    }
+
+    private static String randomName(final Random random, final int number) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            name.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return name.append('-').append(number).toString();
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(ProductSearchBenchmark.class.getSimpleName())
+                .param("productCount", System.getProperty("products", DEFAULT_PRODUCT_COUNT))
+                .addProfiler(GCProfiler.class);
+        String heap = System.getProperty("heap");
+        if (heap != null) {
+            options = options.jvmArgsAppend("-Xmx" + heap);
+        }
+        new Runner(options.build()).run();
+    }
+
+}
@@ -1,25 +1,45 @@
 package neptunilus.blueprint.sa.inventory.service;
 
+import neptunilus.blueprint.sa.common.bulk.BulkItemResult;
+import neptunilus.blueprint.sa.common.cache.ChangeCounter;
+import neptunilus.blueprint.sa.common.cache.CountCache;
+import neptunilus.blueprint.sa.common.cache.ExistenceFilter;
+import neptunilus.blueprint.sa.common.exception.VersionMismatchException;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import neptunilus.blueprint.sa.inventory.cache.CategoryCache;
 import neptunilus.blueprint.sa.inventory.exception.CategoryAlreadyExistsException;
 import neptunilus.blueprint.sa.inventory.exception.CategoryNotFoundException;
 import neptunilus.blueprint.sa.inventory.model.Category;
 import neptunilus.blueprint.sa.inventory.repository.CategoryRepository;
+import neptunilus.blueprint.sa.inventory.repository.projection.CategorySummary;
 import neptunilus.blueprint.sa.inventory.service.impl.CategoryServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
+import javax.validation.Validation;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.*;
 
@@ -27,11 +47,14 @@ import static org.mockito.Mockito.*;
 public class CategoryServiceTest {
 
     private final CategoryRepository categoryRepository;
+    private final ExistenceFilter categoryNameFilter;
     private final CategoryService categoryService;
 
     CategoryServiceTest(@Mock final CategoryRepository categoryRepository) {
         this.categoryRepository = categoryRepository;
-        this.categoryService = new CategoryServiceImpl(categoryRepository);
+        this.categoryNameFilter = new ExistenceFilter("categoryName", 100, 0.01, names -> names.accept("existing"));
+        this.categoryService = new CategoryServiceImpl(categoryRepository, Validation.buildDefaultValidatorFactory().getValidator(),
+                new CountCache(10, 60), new ChangeCounter(), this.categoryNameFilter, new CategoryCache(categoryRepository, 10, 60));
     }
 
     @Test
@@ -52,6 +75,16 @@ public class CategoryServiceTest {
         verifyNoMoreInteractions(this.categoryRepository);
     }
 
+    @Test
+    public void testFind_shouldNotQueryWithStrictIfNameFilterRulesOutSearch() {
+        this.categoryNameFilter.rebuild();
+
+        Page<Category> page = this.categoryService.find("unknown", true, Pageable.unpaged());
+
+        assertThat(page).isEmpty();
+        verifyNoInteractions(this.categoryRepository);
+    }
+
     @Test
     public void testFind_shouldFindSomeWithSearchAndWithoutStrict() {
         String search = "search";
@@ -106,6 +139,56 @@ public class CategoryServiceTest {
         verifyNoMoreInteractions(this.categoryRepository);
     }
 
+    @Test
+    public void testFindSummaries_shouldFindSomeWithSearch() {
+        String search = "search";
+        Pageable pageable = Pageable.unpaged();
+
+        CategorySummary existingCategory = new CategorySummary(UUID.randomUUID(), "myCategory");
+        doReturn(new PageImpl<>(Collections.singletonList(existingCategory))).when(this.categoryRepository)
+                .findSummariesByNameContainingIgnoreCase(search, pageable);
+
+        Slice<CategorySummary> page = this.categoryService.findSummaries(search, true, pageable);
+
+        assertThat(page).containsExactly(existingCategory);
+
+        verify(this.categoryRepository).findSummariesByNameContainingIgnoreCase(search, pageable);
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
+
+    @Test
+    public void testFindSummaries_shouldFindAllWithoutSearch() {
+        String search = null;
+        Pageable pageable = Pageable.unpaged();
+
+        CategorySummary existingCategory = new CategorySummary(UUID.randomUUID(), "myCategory");
+        doReturn(new PageImpl<>(Collections.singletonList(existingCategory))).when(this.categoryRepository).findSummaries(pageable);
+
+        Slice<CategorySummary> page = this.categoryService.findSummaries(search, true, pageable);
+
+        assertThat(page).containsExactly(existingCategory);
+
+        verify(this.categoryRepository).findSummaries(pageable);
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
+
+    @Test
+    public void testFindSummariesAfterCursor_shouldContinueWithSearch() {
+        String search = "search";
+        Cursor after = new Cursor("myCategory1", UUID.randomUUID());
+
+        CategorySummary existingCategory = new CategorySummary(UUID.randomUUID(), "myCategory2");
+        doReturn(new SliceImpl<>(Collections.singletonList(existingCategory))).when(this.categoryRepository)
+                .findSummariesByNameContainingIgnoreCaseAfter(search, after, PageRequest.of(0, 1));
+
+        Slice<CategorySummary> slice = this.categoryService.findSummariesAfter(search, after, 0);
+
+        assertThat(slice).containsExactly(existingCategory);
+
+        verify(this.categoryRepository).findSummariesByNameContainingIgnoreCaseAfter(search, after, PageRequest.of(0, 1));
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
+
     @Test
     public void testGet_ShouldThrowExceptionIfIdNotProvided() {
         assertThatExceptionOfType(IllegalArgumentException.class)
@@ -135,7 +218,22 @@ public class CategoryServiceTest {
         doReturn(Optional.of(category)).when(this.categoryRepository).findById(id);
 
         Category categoryReturned = this.categoryService.get(id);
-        assertThat(categoryReturned).isSameAs(category);
+        assertThat(categoryReturned).isEqualToComparingOnlyGivenFields(category, "id", "name", "version");
+
+        verify(this.categoryRepository).findById(id);
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
+
+    @Test
+    public void testGet_ShouldLoadCategoryOnlyOnce() {
+        UUID id = UUID.randomUUID();
+        Category category = new Category("myCategory");
+        category.setId(id);
+
+        doReturn(Optional.of(category)).when(this.categoryRepository).findById(id);
+
+        assertThat(this.categoryService.get(id)).isEqualToComparingOnlyGivenFields(category, "id", "name", "version");
+        assertThat(this.categoryService.get(id)).isEqualToComparingOnlyGivenFields(category, "id", "name", "version");
 
         verify(this.categoryRepository).findById(id);
         verifyNoMoreInteractions(this.categoryRepository);
@@ -152,15 +250,15 @@ public class CategoryServiceTest {
     @Test
     public void testCreate_ShouldThrowExceptionIfCategoryAlreadyExists() {
         String name = "myCategory";
-        Category existingCategory = new Category(name);
         Category newCategory = new Category(name);
 
-        doReturn(Optional.of(existingCategory)).when(this.categoryRepository).findOneByName(name);
+        doThrow(new DataIntegrityViolationException("conflict", new ConstraintViolationException("conflict", null, Category.UNIQUE_NAME)))
+                .when(this.categoryRepository).saveAndFlush(any(Category.class));
 
         assertThatExceptionOfType(CategoryAlreadyExistsException.class)
                 .isThrownBy(() -> this.categoryService.create(newCategory))
                 .withMessageContainingAll("category", "exists", name);
-        verify(this.categoryRepository).findOneByName(name);
+        verify(this.categoryRepository).saveAndFlush(any(Category.class));
         verifyNoMoreInteractions(this.categoryRepository);
     }
 
@@ -171,25 +269,61 @@ public class CategoryServiceTest {
         String name = "myCategory";
         Category newCategory = new Category(name);
 
-        doReturn(Optional.empty()).when(this.categoryRepository).findOneByName(name);
-
         Category persistedCategory = new Category(name);
         persistedCategory.setId(UUID.randomUUID());
-        doReturn(persistedCategory).when(this.categoryRepository).save(any(Category.class));
+        doReturn(persistedCategory).when(this.categoryRepository).saveAndFlush(any(Category.class));
 
         UUID newId = this.categoryService.create(newCategory);
 
-        verify(this.categoryRepository).findOneByName(name);
-        verify(this.categoryRepository).save(categoryCaptor.capture());
+        verify(this.categoryRepository).saveAndFlush(categoryCaptor.capture());
         assertThat(newId).isEqualTo(persistedCategory.getId());
         assertThat(categoryCaptor.getValue()).extracting("name").isEqualTo(name);
         verifyNoMoreInteractions(this.categoryRepository);
     }
 
+    @Test
+    public void testGetAll_ShouldNotQueryWithoutIds() {
+        assertThat(this.categoryService.getAll(Collections.emptySet())).isEmpty();
+        verifyNoInteractions(this.categoryRepository);
+    }
+
+    @Test
+    public void testCreateAll_ShouldReportEachCategoryAndSaveValidOnesAtOnce() {
+        ArgumentCaptor<List<Category>> categoriesCaptor = ArgumentCaptor.forClass(List.class);
+
+        List<Category> categories = Arrays.asList(
+                new Category("new1"),
+                new Category("existing"),
+                new Category("new1"),
+                new Category(null),
+                new Category("new2"));
+
+        doReturn(Set.of("existing")).when(this.categoryRepository).findNamesByNameIn(anyCollection());
+        doAnswer(invocation -> {
+            List<Category> categoriesToSave = invocation.getArgument(0);
+            categoriesToSave.forEach(category -> category.setId(UUID.randomUUID()));
+            return categoriesToSave;
+        }).when(this.categoryRepository).saveAll(anyList());
+
+        List<BulkItemResult> results = this.categoryService.createAll(categories);
+
+        assertThat(results).extracting("created").containsExactly(true, false, false, false, true);
+        assertThat(results.get(0).getId()).isNotNull();
+        assertThat(results.get(1).getError()).contains("exists", "existing");
+        assertThat(results.get(2).getError()).contains("exists", "new1");
+        assertThat(results.get(3).getError()).contains("name", "empty");
+        assertThat(results.get(4).getId()).isNotNull();
+
+        verify(this.categoryRepository).findNamesByNameIn(argThat(names -> Set.copyOf(names).equals(Set.of("new1", "existing", "new2"))));
+        verify(this.categoryRepository).saveAll(categoriesCaptor.capture());
+        assertThat(categoriesCaptor.getValue()).extracting("name").containsExactly("new1", "new2");
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
+
     @Test
     public void testUpdate_ShouldThrowExceptionIfIdNotProvided() {
         assertThatExceptionOfType(IllegalArgumentException.class)
-                .isThrownBy(() -> this.categoryService.update(null, new Category(null)))
+                .isThrownBy(() -> this.categoryService.update(null, new Category(null), null))
                 .withMessageContainingAll("id", "null");
         verifyNoInteractions(this.categoryRepository);
     }
@@ -197,7 +331,7 @@ public class CategoryServiceTest {
     @Test
     public void testUpdate_ShouldThrowExceptionIfUpdateNotProvided() {
         assertThatExceptionOfType(IllegalArgumentException.class)
-                .isThrownBy(() -> this.categoryService.update(UUID.randomUUID(), null))
+                .isThrownBy(() -> this.categoryService.update(UUID.randomUUID(), null, null))
                 .withMessageContainingAll("data", "null");
         verifyNoInteractions(this.categoryRepository);
     }
@@ -209,7 +343,7 @@ public class CategoryServiceTest {
         doReturn(Optional.empty()).when(this.categoryRepository).findById(id);
 
         assertThatExceptionOfType(CategoryNotFoundException.class)
-                .isThrownBy(() -> this.categoryService.update(id, new Category(null)))
+                .isThrownBy(() -> this.categoryService.update(id, new Category(null), null))
                 .withMessageContainingAll("no", "category", id.toString());
         verify(this.categoryRepository).findById(id);
         verifyNoMoreInteractions(this.categoryRepository);
@@ -224,16 +358,54 @@ public class CategoryServiceTest {
         Category existingCategory = new Category(name);
         doReturn(Optional.of(existingCategory)).when(this.categoryRepository).findById(id);
 
-        Category conflictingCategory = new Category(newName);
-        doReturn(Optional.of(conflictingCategory)).when(this.categoryRepository).findOneByName(newName);
+        doThrow(new DataIntegrityViolationException("conflict", new ConstraintViolationException("conflict", null, Category.UNIQUE_NAME)))
+                .when(this.categoryRepository).saveAndFlush(any(Category.class));
 
         Category update = new Category(newName);
 
         assertThatExceptionOfType(CategoryAlreadyExistsException.class)
-                .isThrownBy(() -> this.categoryService.update(id, update))
+                .isThrownBy(() -> this.categoryService.update(id, update, null))
                 .withMessageContainingAll("category", "exists", newName);
         verify(this.categoryRepository).findById(id);
-        verify(this.categoryRepository).findOneByName(newName);
+        verify(this.categoryRepository).saveAndFlush(any(Category.class));
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
+
+    @Test
+    public void testUpdate_ShouldThrowExceptionIfCategoryIsNotInExpectedVersion() {
+        UUID id = UUID.randomUUID();
+        Category existingCategory = new Category("myCategory");
+        existingCategory.setVersion(2L);
+
+        doReturn(Optional.of(existingCategory)).when(this.categoryRepository).findById(id);
+
+        assertThatExceptionOfType(VersionMismatchException.class)
+                .isThrownBy(() -> this.categoryService.update(id, new Category("newName"), 1L))
+                .withMessage("category with id '%s' is not in version 1 anymore", id)
+                .withNoCause();
+
+        assertThat(existingCategory.getName()).isEqualTo("myCategory");
+        assertThat(this.categoryService.getChangeCount()).isZero();
+
+        verify(this.categoryRepository).findById(id);
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
+
+    @Test
+    public void testUpdate_ShouldCountChangeIfCategoryIsInExpectedVersion() {
+        UUID id = UUID.randomUUID();
+        Category existingCategory = new Category("myCategory");
+        existingCategory.setVersion(2L);
+
+        doReturn(Optional.of(existingCategory)).when(this.categoryRepository).findById(id);
+
+        this.categoryService.update(id, new Category("newName"), 2L);
+
+        assertThat(existingCategory.getName()).isEqualTo("newName");
+        assertThat(this.categoryService.getChangeCount()).isEqualTo(1);
+
+        verify(this.categoryRepository).findById(id);
+        verify(this.categoryRepository).saveAndFlush(existingCategory);
         verifyNoMoreInteractions(this.categoryRepository);
     }
 
@@ -248,13 +420,11 @@ public class CategoryServiceTest {
         Category update = new Category(newName);
 
         doReturn(Optional.of(existingCategory)).when(this.categoryRepository).findById(id);
-        doReturn(Optional.empty()).when(this.categoryRepository).findOneByName(newName);
 
-        this.categoryService.update(id, update);
+        this.categoryService.update(id, update, null);
 
         verify(this.categoryRepository).findById(id);
-        verify(this.categoryRepository).findOneByName(newName);
-        verify(this.categoryRepository).save(categoryCaptor.capture());
+        verify(this.categoryRepository).saveAndFlush(categoryCaptor.capture());
         assertThat(categoryCaptor.getValue()).isSameAs(existingCategory);
         assertThat(categoryCaptor.getValue()).extracting("name").isEqualTo(newName);
         verifyNoMoreInteractions(this.categoryRepository);
@@ -271,15 +441,38 @@ public class CategoryServiceTest {
 
         doReturn(Optional.of(existingCategory)).when(this.categoryRepository).findById(id);
 
-        this.categoryService.update(id, update);
+        this.categoryService.update(id, update, null);
 
         verify(this.categoryRepository).findById(id);
-        verify(this.categoryRepository).save(categoryCaptor.capture());
+        verify(this.categoryRepository).saveAndFlush(categoryCaptor.capture());
         assertThat(categoryCaptor.getValue()).isSameAs(existingCategory);
         assertThat(categoryCaptor.getValue()).extracting("name").isEqualTo(name);
         verifyNoMoreInteractions(this.categoryRepository);
     }
 
+    @Test
+    public void testUpdate_ShouldInvalidateCachedCategory() {
+        UUID id = UUID.randomUUID();
+        Category cachedCategory = new Category("myCategory");
+        cachedCategory.setId(id);
+        Category existingCategory = new Category("myCategory");
+        existingCategory.setId(id);
+
+        doReturn(Optional.of(cachedCategory), Optional.of(existingCategory), Optional.of(existingCategory))
+                .when(this.categoryRepository).findById(id);
+
+        assertThat(this.categoryService.get(id)).isEqualToComparingOnlyGivenFields(cachedCategory, "id", "name", "version");
+
+        this.categoryService.update(id, new Category("newName"), null);
+
+        assertThat(cachedCategory.getName()).isEqualTo("myCategory");
+        assertThat(this.categoryService.get(id)).isEqualToComparingOnlyGivenFields(existingCategory, "id", "name", "version");
+
+        verify(this.categoryRepository, times(3)).findById(id);
+        verify(this.categoryRepository).saveAndFlush(same(existingCategory));
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
+
     @Test
     public void testDelete_ShouldDoNothingIfIdNotProvided() {
         this.categoryService.delete(null);
@@ -311,4 +504,48 @@ public class CategoryServiceTest {
         verify(this.categoryRepository).delete(same(existingCategory));
         verifyNoMoreInteractions(this.categoryRepository);
     }
+
+    @Test
+    public void testDelete_ShouldInvalidateCachedCategory() {
+        UUID id = UUID.randomUUID();
+        Category existingCategory = new Category("myCategory");
+        existingCategory.setId(id);
+
+        doReturn(Optional.of(existingCategory), Optional.of(existingCategory), Optional.empty())
+                .when(this.categoryRepository).findById(id);
+
+        assertThat(this.categoryService.get(id)).isEqualToComparingOnlyGivenFields(existingCategory, "id", "name", "version");
+
+        this.categoryService.delete(id);
+
+        assertThatExceptionOfType(CategoryNotFoundException.class)
+                .isThrownBy(() -> this.categoryService.get(id));
+
+        verify(this.categoryRepository, times(3)).findById(id);
+        verify(this.categoryRepository).delete(same(existingCategory));
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldThrowExceptionIfIdsNotProvided() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> this.categoryService.deleteAll(null))
+                .withMessageContainingAll("ids", "null");
+        verifyNoInteractions(this.categoryRepository);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldUnassignProductsBeforeDeleting() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+        doReturn(5).when(this.categoryRepository).unassignProductsByIdIn(ids);
+        doReturn(2).when(this.categoryRepository).deleteByIdIn(ids);
+
+        assertThat(this.categoryService.deleteAll(ids)).isEqualTo(2);
+
+        InOrder inOrder = inOrder(this.categoryRepository);
+        inOrder.verify(this.categoryRepository).unassignProductsByIdIn(ids);
+        inOrder.verify(this.categoryRepository).deleteByIdIn(ids);
+        verifyNoMoreInteractions(this.categoryRepository);
+    }
 }
@@ -0,0 +1,81 @@
+package neptunilus.blueprint.sa.inventory.service;
+
+import neptunilus.blueprint.sa.common.concurrent.ConcurrentWriters;
+import neptunilus.blueprint.sa.inventory.exception.CategoryAlreadyExistsException;
+import neptunilus.blueprint.sa.inventory.exception.ProductAlreadyExistsException;
+import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.CategoryRepository;
+import neptunilus.blueprint.sa.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stress test for concurrent writers of the same name, relying on the unique constraints only.
+ */
+@SpringBootTest
+public class ConcurrentUniqueNameTest {
+
+    private static final int WRITERS = 16;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @AfterEach
+    public void cleanUp() {
+        this.productRepository.deleteAll();
+        this.categoryRepository.deleteAll();
+    }
+
+    @Test
+    public void testCreate_ShouldCreateExactlyOneProductPerNameForConcurrentWriters() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            final String name = "product" + round;
+
+            final List<Object> outcomes = runConcurrently("CREATE_PRODUCT", () -> this.productService.create(new Product(name)));
+
+            assertThat(outcomes).filteredOn(UUID.class::isInstance).hasSize(1);
+            assertThat(outcomes).filteredOn(ProductAlreadyExistsException.class::isInstance).hasSize(WRITERS - 1);
+            assertThat(this.productRepository.findOneByName(name)).isPresent();
+        }
+        assertThat(this.productRepository.count()).isEqualTo(ROUNDS);
+    }
+
+    @Test
+    public void testCreate_ShouldCreateExactlyOneCategoryPerNameForConcurrentWriters() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            final String name = "category" + round;
+
+            final List<Object> outcomes = runConcurrently("CREATE_CATEGORY", () -> this.categoryService.create(new Category(name)));
+
+            assertThat(outcomes).filteredOn(UUID.class::isInstance).hasSize(1);
+            assertThat(outcomes).filteredOn(CategoryAlreadyExistsException.class::isInstance).hasSize(WRITERS - 1);
+            assertThat(this.categoryRepository.findOneByName(name)).isPresent();
+        }
+        assertThat(this.categoryRepository.count()).isEqualTo(ROUNDS);
+    }
+
+    private static List<Object> runConcurrently(final String authority, final Callable<?> writer) throws InterruptedException {
+        return ConcurrentWriters.run(Collections.nCopies(WRITERS, writer), authority);
+    }
+
+}
@@ -0,0 +1,99 @@
+package neptunilus.blueprint.sa.inventory.service;
+
+import neptunilus.blueprint.sa.SpringAngularBlueprintApplication;
+import neptunilus.blueprint.sa.common.bulk.BulkItemResult;
+import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.CategoryRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares creating products one at a time through {@link ProductService#create} against
+ * {@link ProductService#createAll}, with and without JDBC batching (score in products per second).
+ * <p>
+ * Run the main method (e.g. from the IDE) with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductBulkCreateBenchmark {
+
+    private static final int BULK_SIZE = 500;
+
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private Category category;
+    private long counter;
+
+    @Setup
+    public void setup() {
+        this.context = new SpringApplicationBuilder(SpringAngularBlueprintApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + this.jdbcBatchSize)
+                .run();
+
+        this.productService = this.context.getBean(ProductService.class);
+        this.category = this.context.getBean(CategoryRepository.class).save(new Category("category"));
+
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("user", null, "CREATE_PRODUCT", "READ_CATEGORY"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        this.context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public List<UUID> oneByOne() {
+        final List<UUID> ids = new ArrayList<>(BULK_SIZE);
+        for (Product product : nextProducts()) {
+            ids.add(this.productService.create(product));
+        }
+        return ids;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public List<BulkItemResult> bulk() {
+        return this.productService.createAll(nextProducts());
+    }
+
+    private List<Product> nextProducts() {
+        final List<Product> products = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            products.add(new Product("product" + this.counter++, this.category));
+        }
+        return products;
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductBulkCreateBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
@@ -1,26 +1,50 @@
 package neptunilus.blueprint.sa.inventory.service;
 
+import neptunilus.blueprint.sa.common.bulk.BulkItemResult;
+import neptunilus.blueprint.sa.common.cache.ChangeCounter;
+import neptunilus.blueprint.sa.common.cache.CountCache;
+import neptunilus.blueprint.sa.common.cache.ExistenceFilter;
+import neptunilus.blueprint.sa.common.exception.VersionMismatchException;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import neptunilus.blueprint.sa.inventory.exception.CategoryNotFoundException;
 import neptunilus.blueprint.sa.inventory.exception.ProductAlreadyExistsException;
 import neptunilus.blueprint.sa.inventory.exception.ProductNotFoundException;
 import neptunilus.blueprint.sa.inventory.model.Category;
 import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.CategoryRepository;
 import neptunilus.blueprint.sa.inventory.repository.ProductRepository;
+import neptunilus.blueprint.sa.inventory.repository.projection.ProductSummary;
 import neptunilus.blueprint.sa.inventory.service.impl.ProductServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
+import javax.validation.Validation;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.*;
 
@@ -28,13 +52,19 @@ import static org.mockito.Mockito.*;
 public class ProductServiceTest {
 
     private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
     private final CategoryService categoryService;
+    private final ExistenceFilter productNameFilter;
     private final ProductService productService;
 
-    ProductServiceTest(@Mock final ProductRepository productRepository, @Mock final CategoryService categoryService) {
+    ProductServiceTest(@Mock final ProductRepository productRepository, @Mock final CategoryRepository categoryRepository,
+                       @Mock final CategoryService categoryService) {
         this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
         this.categoryService = categoryService;
-        this.productService = new ProductServiceImpl(this.productRepository, this.categoryService);
+        this.productNameFilter = new ExistenceFilter("productName", 100, 0.01, names -> names.accept("existing"));
+        this.productService = new ProductServiceImpl(this.productRepository, this.categoryRepository, this.categoryService,
+                Validation.buildDefaultValidatorFactory().getValidator(), new CountCache(10, 60), new ChangeCounter(), new ChangeCounter(), this.productNameFilter);
     }
 
     @Test
@@ -66,19 +96,49 @@ public class ProductServiceTest {
         Category category = new Category("myCategory");
         category.setId(existingCategoryId);
 
-        Category existingCategory = new Category("myCategory");
-        doReturn(existingCategory).when(this.categoryService).get(existingCategoryId);
 
         Product existingProduct = new Product("myProduct");
-        doReturn(new PageImpl<>(Collections.singletonList(existingProduct))).when(this.productRepository).findByCategory(existingCategory, pageable);
+        doReturn(new PageImpl<>(Collections.singletonList(existingProduct))).when(this.productRepository).findByCategoryId(existingCategoryId, pageable);
 
         Page<Product> page = this.productService.find(search, strict, existingCategoryId, pageable);
 
         assertThat(page).hasSize(1);
         assertThat(page).extracting("name").containsExactly("myProduct");
 
+        verify(this.productRepository).findByCategoryId(existingCategoryId, pageable);
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testFind_shouldThrowExceptionIfNothingFoundAndCategoryNotExists() {
+        UUID unknownCategoryId = UUID.randomUUID();
+        Pageable pageable = Pageable.unpaged();
+
+        doReturn(Page.empty()).when(this.productRepository).findByCategoryId(unknownCategoryId, pageable);
+        doThrow(new CategoryNotFoundException("not found")).when(this.categoryService).get(unknownCategoryId);
+
+        assertThatExceptionOfType(CategoryNotFoundException.class)
+                .isThrownBy(() -> this.productService.find(null, false, unknownCategoryId, pageable));
+
+        verify(this.productRepository).findByCategoryId(unknownCategoryId, pageable);
+        verify(this.categoryService).get(unknownCategoryId);
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testFind_shouldReturnEmptyIfNothingFoundAndCategoryExists() {
+        UUID existingCategoryId = UUID.randomUUID();
+        Pageable pageable = Pageable.unpaged();
+
+        doReturn(Page.empty()).when(this.productRepository).findByNameContainingIgnoreCaseAndCategoryId("search", existingCategoryId, pageable);
+        doReturn(new Category("myCategory")).when(this.categoryService).get(existingCategoryId);
+
+        Page<Product> page = this.productService.find("search", false, existingCategoryId, pageable);
+
+        assertThat(page).isEmpty();
+
+        verify(this.productRepository).findByNameContainingIgnoreCaseAndCategoryId("search", existingCategoryId, pageable);
         verify(this.categoryService).get(existingCategoryId);
-        verify(this.productRepository).findByCategory(existingCategory, pageable);
         verifyNoMoreInteractions(this.productRepository, this.categoryService);
     }
 
@@ -111,19 +171,16 @@ public class ProductServiceTest {
         Category category = new Category("myCategory");
         category.setId(existingCategoryId);
 
-        Category existingCategory = new Category("myCategory");
-        doReturn(existingCategory).when(this.categoryService).get(existingCategoryId);
 
         Product existingProduct = new Product("myProduct");
-        doReturn(new PageImpl<>(Collections.singletonList(existingProduct))).when(this.productRepository).findByCategory(existingCategory, pageable);
+        doReturn(new PageImpl<>(Collections.singletonList(existingProduct))).when(this.productRepository).findByCategoryId(existingCategoryId, pageable);
 
         Page<Product> page = this.productService.find(search, strict, existingCategoryId, pageable);
 
         assertThat(page).hasSize(1);
         assertThat(page).extracting("name").containsExactly("myProduct");
 
-        verify(this.categoryService).get(existingCategoryId);
-        verify(this.productRepository).findByCategory(existingCategory, pageable);
+        verify(this.productRepository).findByCategoryId(existingCategoryId, pageable);
         verifyNoMoreInteractions(this.productRepository, this.categoryService);
     }
 
@@ -156,20 +213,17 @@ public class ProductServiceTest {
         Category category = new Category("myCategory");
         category.setId(existingCategoryId);
 
-        Category existingCategory = new Category("myCategory");
-        doReturn(existingCategory).when(this.categoryService).get(existingCategoryId);
 
         Product existingProduct = new Product("myProduct");
         doReturn(new PageImpl<>(Collections.singletonList(existingProduct))).when(this.productRepository)
-                .findByNameContainingIgnoreCaseAndCategory(search, existingCategory, pageable);
+                .findByNameContainingIgnoreCaseAndCategoryId(search, existingCategoryId, pageable);
 
         Page<Product> page = this.productService.find(search, strict, existingCategoryId, pageable);
 
         assertThat(page).hasSize(1);
         assertThat(page).extracting("name").containsExactly("myProduct");
 
-        verify(this.categoryService).get(existingCategoryId);
-        verify(this.productRepository).findByNameContainingIgnoreCaseAndCategory(search, existingCategory, pageable);
+        verify(this.productRepository).findByNameContainingIgnoreCaseAndCategoryId(search, existingCategoryId, pageable);
         verifyNoMoreInteractions(this.productRepository, this.categoryService);
     }
 
@@ -192,6 +246,16 @@ public class ProductServiceTest {
         verifyNoMoreInteractions(this.productRepository, this.categoryService);
     }
 
+    @Test
+    public void testFind_shouldNotQueryWithStrictIfNameFilterRulesOutSearch() {
+        this.productNameFilter.rebuild();
+
+        Page<Product> page = this.productService.find("unknown", true, null, Pageable.unpaged());
+
+        assertThat(page).isEmpty();
+        verifyNoInteractions(this.productRepository, this.categoryService);
+    }
+
     @Test
     public void testFind_shouldFindSomeWithSearchAndWithStrictAndWithCategory() {
         String search = "search";
@@ -202,19 +266,213 @@ public class ProductServiceTest {
         Category category = new Category("myCategory");
         category.setId(existingCategoryId);
 
-        Category existingCategory = new Category("myCategory");
-        doReturn(existingCategory).when(this.categoryService).get(existingCategoryId);
 
         Product existingProduct = new Product("myProduct");
-        doReturn(Optional.of(existingProduct)).when(this.productRepository).findOneByNameAndCategory(search, existingCategory);
+        doReturn(Optional.of(existingProduct)).when(this.productRepository).findOneByNameAndCategoryId(search, existingCategoryId);
 
         Page<Product> page = this.productService.find(search, strict, existingCategoryId, pageable);
 
         assertThat(page).hasSize(1);
         assertThat(page).extracting("name").containsExactly("myProduct");
 
+        verify(this.productRepository).findOneByNameAndCategoryId(search, existingCategoryId);
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testFindSummaries_shouldFindSomeWithoutSearchAndWithoutCategory() {
+        Pageable pageable = Pageable.unpaged();
+
+        ProductSummary existingProduct = new ProductSummary(UUID.randomUUID(), "myProduct", null, null);
+        doReturn(new PageImpl<>(Collections.singletonList(existingProduct))).when(this.productRepository).findSummaries(pageable);
+
+        Slice<ProductSummary> page = this.productService.findSummaries(null, null, true, pageable);
+
+        assertThat(page).containsExactly(existingProduct);
+
+        verify(this.productRepository).findSummaries(pageable);
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testFindSummaries_shouldFindSomeWithoutSearchAndWithCategory() {
+        Pageable pageable = Pageable.unpaged();
+
+        UUID existingCategoryId = UUID.randomUUID();
+
+        ProductSummary existingProduct = new ProductSummary(UUID.randomUUID(), "myProduct", null, null);
+        doReturn(new PageImpl<>(Collections.singletonList(existingProduct))).when(this.productRepository)
+                .findSummariesByCategoryId(existingCategoryId, pageable);
+
+        Slice<ProductSummary> page = this.productService.findSummaries(null, existingCategoryId, true, pageable);
+
+        assertThat(page).containsExactly(existingProduct);
+
+        verify(this.productRepository).findSummariesByCategoryId(existingCategoryId, pageable);
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testFindSummaries_shouldFindSomeWithSearchAndWithoutCategory() {
+        String search = "search";
+        Pageable pageable = Pageable.unpaged();
+
+        ProductSummary existingProduct = new ProductSummary(UUID.randomUUID(), "myProduct", null, null);
+        doReturn(new PageImpl<>(Collections.singletonList(existingProduct))).when(this.productRepository)
+                .findSummariesByNameContainingIgnoreCase(search, pageable);
+
+        Slice<ProductSummary> page = this.productService.findSummaries(search, null, true, pageable);
+
+        assertThat(page).containsExactly(existingProduct);
+
+        verify(this.productRepository).findSummariesByNameContainingIgnoreCase(search, pageable);
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testFindSummaries_shouldFindSomeWithSearchAndWithCategory() {
+        String search = "search";
+        Pageable pageable = Pageable.unpaged();
+
+        UUID existingCategoryId = UUID.randomUUID();
+
+        ProductSummary existingProduct = new ProductSummary(UUID.randomUUID(), "myProduct", null, null);
+        doReturn(new PageImpl<>(Collections.singletonList(existingProduct))).when(this.productRepository)
+                .findSummariesByNameContainingIgnoreCaseAndCategoryId(search, existingCategoryId, pageable);
+
+        Slice<ProductSummary> page = this.productService.findSummaries(search, existingCategoryId, true, pageable);
+
+        assertThat(page).containsExactly(existingProduct);
+
+        verify(this.productRepository).findSummariesByNameContainingIgnoreCaseAndCategoryId(search, existingCategoryId, pageable);
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testFindSummaries_shouldCountTotalOnlyOnceForSameFilter() {
+        String search = "search";
+        Pageable pageable = PageRequest.of(0, 1);
+
+        ProductSummary existingProduct = new ProductSummary(UUID.randomUUID(), "myProduct", null, null);
+        doReturn(new SliceImpl<>(Collections.singletonList(existingProduct), pageable, true)).when(this.productRepository)
+                .findSummariesByNameContainingIgnoreCase(search, pageable);
+        doReturn(5L).when(this.productRepository).countByNameContainingIgnoreCase(search);
+
+        Slice<ProductSummary> page1 = this.productService.findSummaries(search, null, true, pageable);
+        Slice<ProductSummary> page2 = this.productService.findSummaries(search, null, true, pageable);
+
+        assertThat(page1).isInstanceOfSatisfying(Page.class, page -> assertThat(page.getTotalElements()).isEqualTo(5));
+        assertThat(page2).isInstanceOfSatisfying(Page.class, page -> assertThat(page.getTotalElements()).isEqualTo(5));
+
+        verify(this.productRepository, times(2)).findSummariesByNameContainingIgnoreCase(search, pageable);
+        verify(this.productRepository).countByNameContainingIgnoreCase(search);
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testFindSummaries_shouldNotCountTotalIfNotRequested() {
+        Pageable pageable = PageRequest.of(0, 1);
+
+        ProductSummary existingProduct = new ProductSummary(UUID.randomUUID(), "myProduct", null, null);
+        Slice<ProductSummary> existingProducts = new SliceImpl<>(Collections.singletonList(existingProduct), pageable, true);
+        doReturn(existingProducts).when(this.productRepository).findSummaries(pageable);
+
+        Slice<ProductSummary> slice = this.productService.findSummaries(null, null, false, pageable);
+
+        assertThat(slice).isSameAs(existingProducts);
+
+        verify(this.productRepository).findSummaries(pageable);
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testFindSummaries_shouldCountTotalAgainAfterCreate() {
+        Pageable pageable = PageRequest.of(0, 1);
+
+        ProductSummary existingProduct = new ProductSummary(UUID.randomUUID(), "myProduct", null, null);
+        doReturn(new SliceImpl<>(Collections.singletonList(existingProduct), pageable, true)).when(this.productRepository).findSummaries(pageable);
+        doReturn(5L, 6L).when(this.productRepository).count();
+        doReturn(new Product("newProduct")).when(this.productRepository).saveAndFlush(any(Product.class));
+
+        Slice<ProductSummary> before = this.productService.findSummaries(null, null, true, pageable);
+        this.productService.create(new Product("newProduct"));
+        Slice<ProductSummary> after = this.productService.findSummaries(null, null, true, pageable);
+
+        assertThat(before).isInstanceOfSatisfying(Page.class, page -> assertThat(page.getTotalElements()).isEqualTo(5));
+        assertThat(after).isInstanceOfSatisfying(Page.class, page -> assertThat(page.getTotalElements()).isEqualTo(6));
+
+        verify(this.productRepository, times(2)).count();
+    }
+
+    @Test
+    public void testFindSummariesAfterCursor_shouldStartWithFirstSliceWithoutSearchAndWithoutCategory() {
+        ProductSummary existingProduct = new ProductSummary(UUID.randomUUID(), "myProduct", null, null);
+        doReturn(new SliceImpl<>(Collections.singletonList(existingProduct))).when(this.productRepository)
+                .findSummariesAfter(Cursor.FIRST, PageRequest.of(0, 20));
+
+        Slice<ProductSummary> slice = this.productService.findSummariesAfter(null, null, null, 20);
+
+        assertThat(slice).containsExactly(existingProduct);
+
+        verify(this.productRepository).findSummariesAfter(Cursor.FIRST, PageRequest.of(0, 20));
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testFindSummariesAfterCursor_shouldContinueWithSearchAndWithCategory() {
+        String search = "search";
+        Cursor after = new Cursor("myProduct1", UUID.randomUUID());
+
+        UUID existingCategoryId = UUID.randomUUID();
+
+        ProductSummary existingProduct = new ProductSummary(UUID.randomUUID(), "myProduct2", existingCategoryId, "myCategory");
+        doReturn(new SliceImpl<>(Collections.singletonList(existingProduct))).when(this.productRepository)
+                .findSummariesByNameContainingIgnoreCaseAndCategoryIdAfter(search, existingCategoryId, after, PageRequest.of(0, Cursor.MAX_SIZE));
+
+        Slice<ProductSummary> slice = this.productService.findSummariesAfter(search, existingCategoryId, after, Integer.MAX_VALUE);
+
+        assertThat(slice).containsExactly(existingProduct);
+
+        verify(this.productRepository).findSummariesByNameContainingIgnoreCaseAndCategoryIdAfter(search, existingCategoryId, after, PageRequest.of(0, Cursor.MAX_SIZE));
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testForEachSummary_shouldPassAllAndCloseStreamWithSearchAndWithCategory() {
+        String search = "search";
+
+        UUID existingCategoryId = UUID.randomUUID();
+        Category existingCategory = new Category("myCategory");
+        doReturn(existingCategory).when(this.categoryService).get(existingCategoryId);
+
+        ProductSummary product1 = new ProductSummary(UUID.randomUUID(), "myProduct1", existingCategoryId, "myCategory");
+        ProductSummary product2 = new ProductSummary(UUID.randomUUID(), "myProduct2", existingCategoryId, "myCategory");
+        AtomicBoolean closed = new AtomicBoolean();
+        doReturn(Stream.of(product1, product2).onClose(() -> closed.set(true))).when(this.productRepository)
+                .streamSummariesByNameContainingIgnoreCaseAndCategoryId(search, existingCategoryId);
+
+        List<ProductSummary> products = new ArrayList<>();
+        this.productService.forEachSummary(search, existingCategoryId, products::add);
+
+        assertThat(products).containsExactly(product1, product2);
+        assertThat(closed).isTrue();
+
         verify(this.categoryService).get(existingCategoryId);
-        verify(this.productRepository).findOneByNameAndCategory(search, existingCategory);
+        verify(this.productRepository).streamSummariesByNameContainingIgnoreCaseAndCategoryId(search, existingCategoryId);
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testForEachSummary_shouldPassAllWithoutSearchAndWithoutCategory() {
+        ProductSummary product = new ProductSummary(UUID.randomUUID(), "myProduct", null, null);
+        doReturn(Stream.of(product)).when(this.productRepository).streamSummaries();
+
+        List<ProductSummary> products = new ArrayList<>();
+        this.productService.forEachSummary(" ", null, products::add);
+
+        assertThat(products).containsExactly(product);
+
+        verify(this.productRepository).streamSummaries();
         verifyNoMoreInteractions(this.productRepository, this.categoryService);
     }
 
@@ -264,15 +522,15 @@ public class ProductServiceTest {
     @Test
     public void testCreate_ShouldThrowExceptionIfProductAlreadyExists() {
         String name = "myProduct";
-        Product existingProduct = new Product(name);
         Product newProduct = new Product(name);
 
-        doReturn(Optional.of(existingProduct)).when(this.productRepository).findOneByName(name);
+        doThrow(new DataIntegrityViolationException("conflict", new ConstraintViolationException("conflict", null, Product.UNIQUE_NAME)))
+                .when(this.productRepository).saveAndFlush(any(Product.class));
 
         assertThatExceptionOfType(ProductAlreadyExistsException.class)
                 .isThrownBy(() -> this.productService.create(newProduct))
                 .withMessageContainingAll("product", "exists", name);
-        verify(this.productRepository).findOneByName(name);
+        verify(this.productRepository).saveAndFlush(any(Product.class));
         verifyNoMoreInteractions(this.productRepository, this.categoryService);
     }
 
@@ -288,24 +546,26 @@ public class ProductServiceTest {
         Product newProduct = new Product(name, category);
 
         Category existingCategory = new Category("category");
+        existingCategory.setId(categoryId);
         doReturn(existingCategory).when(this.categoryService).get(categoryId);
 
-        doReturn(Optional.empty()).when(this.productRepository).findOneByName(name);
+        Category categoryReference = mock(Category.class);
+        doReturn(categoryReference).when(this.categoryRepository).getOne(categoryId);
 
         Product persistedProduct = new Product(name, existingCategory);
         persistedProduct.setId(UUID.randomUUID());
 
-        doReturn(persistedProduct).when(this.productRepository).save(any(Product.class));
+        doReturn(persistedProduct).when(this.productRepository).saveAndFlush(any(Product.class));
 
         UUID newId = this.productService.create(newProduct);
 
-        verify(this.productRepository).findOneByName(name);
         verify(this.categoryService).get(categoryId);
-        verify(this.productRepository).save(productCaptor.capture());
+        verify(this.categoryRepository).getOne(categoryId);
+        verify(this.productRepository).saveAndFlush(productCaptor.capture());
         assertThat(newId).isEqualTo(persistedProduct.getId());
         assertThat(productCaptor.getValue()).extracting("name").isEqualTo(name);
-        assertThat(productCaptor.getValue()).extracting("category").isSameAs(existingCategory);
-        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+        assertThat(productCaptor.getValue()).extracting("category").isSameAs(categoryReference);
+        verifyNoMoreInteractions(this.productRepository, this.categoryRepository, this.categoryService);
     }
 
     @Test
@@ -315,27 +575,105 @@ public class ProductServiceTest {
         String name = "myProduct";
         Product newProduct = new Product(name, null);
 
-        doReturn(Optional.empty()).when(this.productRepository).findOneByName(name);
-
         Product persistedProduct = new Product(name);
         persistedProduct.setId(UUID.randomUUID());
 
-        doReturn(persistedProduct).when(this.productRepository).save(any(Product.class));
+        doReturn(persistedProduct).when(this.productRepository).saveAndFlush(any(Product.class));
 
         UUID newId = this.productService.create(newProduct);
 
-        verify(this.productRepository).findOneByName(name);
-        verify(this.productRepository).save(productCaptor.capture());
+        verify(this.productRepository).saveAndFlush(productCaptor.capture());
         assertThat(newId).isEqualTo(persistedProduct.getId());
         assertThat(productCaptor.getValue()).extracting("name").isEqualTo(name);
         assertThat(productCaptor.getValue()).extracting("category").isNull();
         verifyNoMoreInteractions(this.productRepository, this.categoryService);
     }
 
+    @Test
+    public void testCreateAll_ShouldReportEachProductAndSaveValidOnesAtOnce() {
+        ArgumentCaptor<List<Product>> productsCaptor = ArgumentCaptor.forClass(List.class);
+
+        UUID existingCategoryId = UUID.randomUUID();
+        Category existingCategory = new Category("category");
+        existingCategory.setId(existingCategoryId);
+
+        UUID unknownCategoryId = UUID.randomUUID();
+        Category unknownCategory = new Category("unknown");
+        unknownCategory.setId(unknownCategoryId);
+
+        Category categoryReference = new Category(null);
+        categoryReference.setId(existingCategoryId);
+
+        List<Product> products = Arrays.asList(
+                new Product("new1", categoryReference),
+                new Product("existing"),
+                new Product("new1"),
+                new Product("new2", unknownCategory),
+                new Product(""),
+                null,
+                new Product("new3"));
+
+        doReturn(Set.of("existing")).when(this.productRepository).findNamesByNameIn(anyCollection());
+        doReturn(List.of(existingCategory)).when(this.categoryService).getAll(anyCollection());
+        Category existingCategoryReference = mock(Category.class);
+        doReturn(existingCategoryReference).when(this.categoryRepository).getOne(existingCategoryId);
+        doAnswer(invocation -> {
+            List<Product> productsToSave = invocation.getArgument(0);
+            productsToSave.forEach(product -> product.setId(UUID.randomUUID()));
+            return productsToSave;
+        }).when(this.productRepository).saveAll(anyList());
+
+        List<BulkItemResult> results = this.productService.createAll(products);
+
+        assertThat(results).extracting("index").containsExactly(0, 1, 2, 3, 4, 5, 6);
+        assertThat(results).extracting("created").containsExactly(true, false, false, false, false, false, true);
+        assertThat(results.get(0).getId()).isNotNull();
+        assertThat(results.get(1).getError()).contains("exists", "existing");
+        assertThat(results.get(2).getError()).contains("exists", "new1");
+        assertThat(results.get(3).getError()).contains("category", unknownCategoryId.toString());
+        assertThat(results.get(4).getError()).contains("name", "empty");
+        assertThat(results.get(5).getError()).contains("null");
+        assertThat(results.get(6).getId()).isNotNull();
+
+        verify(this.productRepository).findNamesByNameIn(argThat(names -> Set.copyOf(names).equals(Set.of("new1", "existing", "new2", "", "new3"))));
+        verify(this.categoryService).getAll(Set.of(existingCategoryId, unknownCategoryId));
+        verify(this.categoryRepository).getOne(existingCategoryId);
+        verify(this.productRepository).saveAll(productsCaptor.capture());
+        assertThat(productsCaptor.getValue()).extracting("name").containsExactly("new1", "new3");
+        assertThat(productsCaptor.getValue()).extracting("category").containsExactly(existingCategoryReference, null);
+        verifyNoMoreInteractions(this.productRepository, this.categoryRepository, this.categoryService);
+    }
+
+    @Test
+    public void testCreateAll_ShouldLookUpOnlyNamesNotRuledOutByNameFilter() {
+        this.productNameFilter.rebuild();
+
+        doReturn(Set.of("existing")).when(this.productRepository).findNamesByNameIn(anyCollection());
+
+        List<BulkItemResult> results = this.productService.createAll(List.of(new Product("existing"), new Product("new")));
+
+        assertThat(results).extracting("created").containsExactly(false, true);
+        assertThat(this.productNameFilter.mightContain("new")).isTrue();
+        verify(this.productRepository).findNamesByNameIn(List.of("existing"));
+        verify(this.productRepository).saveAll(anyList());
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testCreateAll_ShouldNotSaveIfNoProductIsValid() {
+        doReturn(Set.of("existing")).when(this.productRepository).findNamesByNameIn(anyCollection());
+
+        List<BulkItemResult> results = this.productService.createAll(List.of(new Product("existing")));
+
+        assertThat(results).extracting("created").containsExactly(false);
+        verify(this.productRepository).findNamesByNameIn(List.of("existing"));
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
     @Test
     public void testUpdate_ShouldThrowExceptionIfIdNotProvided() {
         assertThatExceptionOfType(IllegalArgumentException.class)
-                .isThrownBy(() -> this.productService.update(null, new Product(null)))
+                .isThrownBy(() -> this.productService.update(null, new Product(null), null))
                 .withMessageContainingAll("id", "null");
         verifyNoInteractions(this.productRepository, this.categoryService);
     }
@@ -343,7 +681,7 @@ public class ProductServiceTest {
     @Test
     public void testUpdate_ShouldThrowExceptionIfUpdateNotProvided() {
         assertThatExceptionOfType(IllegalArgumentException.class)
-                .isThrownBy(() -> this.productService.update(UUID.randomUUID(), null))
+                .isThrownBy(() -> this.productService.update(UUID.randomUUID(), null, null))
                 .withMessageContainingAll("data", "null");
         verifyNoInteractions(this.productRepository, this.categoryService);
     }
@@ -355,7 +693,7 @@ public class ProductServiceTest {
         doReturn(Optional.empty()).when(this.productRepository).findById(id);
 
         assertThatExceptionOfType(ProductNotFoundException.class)
-                .isThrownBy(() -> this.productService.update(id, new Product(null)))
+                .isThrownBy(() -> this.productService.update(id, new Product(null), null))
                 .withMessageContainingAll("no", "product", id.toString());
         verify(this.productRepository).findById(id);
         verifyNoMoreInteractions(this.productRepository, this.categoryService);
@@ -370,16 +708,36 @@ public class ProductServiceTest {
         Product existingProduct = new Product(name);
         doReturn(Optional.of(existingProduct)).when(this.productRepository).findById(id);
 
-        Product conflictingProduct = new Product(newName);
-        doReturn(Optional.of(conflictingProduct)).when(this.productRepository).findOneByName(newName);
+        doThrow(new DataIntegrityViolationException("conflict", new ConstraintViolationException("conflict", null, Product.UNIQUE_NAME)))
+                .when(this.productRepository).saveAndFlush(any(Product.class));
 
         Product update = new Product(newName);
 
         assertThatExceptionOfType(ProductAlreadyExistsException.class)
-                .isThrownBy(() -> this.productService.update(id, update))
+                .isThrownBy(() -> this.productService.update(id, update, null))
                 .withMessageContainingAll("product", "exists", newName);
         verify(this.productRepository).findById(id);
-        verify(this.productRepository).findOneByName(newName);
+        verify(this.productRepository).saveAndFlush(any(Product.class));
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testUpdate_ShouldThrowExceptionIfProductIsNotInExpectedVersion() {
+        UUID id = UUID.randomUUID();
+        Product existingProduct = new Product("myProduct");
+        existingProduct.setVersion(2L);
+
+        doReturn(Optional.of(existingProduct)).when(this.productRepository).findById(id);
+
+        assertThatExceptionOfType(VersionMismatchException.class)
+                .isThrownBy(() -> this.productService.update(id, new Product("newName"), 1L))
+                .withMessage("product with id '%s' is not in version 1 anymore", id)
+                .withNoCause();
+
+        assertThat(existingProduct.getName()).isEqualTo("myProduct");
+        assertThat(this.productService.getChangeCount()).isZero();
+
+        verify(this.productRepository).findById(id);
         verifyNoMoreInteractions(this.productRepository, this.categoryService);
     }
 
@@ -399,22 +757,24 @@ public class ProductServiceTest {
         Product update = new Product(newName, newCategory);
 
         Category existingCategory = new Category("category");
+        existingCategory.setId(newCategoryId);
         doReturn(existingCategory).when(this.categoryService).get(newCategoryId);
 
-        doReturn(Optional.of(existingProduct)).when(this.productRepository).findById(id);
+        Category categoryReference = mock(Category.class);
+        doReturn(categoryReference).when(this.categoryRepository).getOne(newCategoryId);
 
-        doReturn(Optional.empty()).when(this.productRepository).findOneByName(newName);
+        doReturn(Optional.of(existingProduct)).when(this.productRepository).findById(id);
 
-        this.productService.update(id, update);
+        this.productService.update(id, update, null);
 
         verify(this.productRepository).findById(id);
         verify(this.categoryService).get(newCategoryId);
-        verify(this.productRepository).findOneByName(newName);
-        verify(this.productRepository).save(productCaptor.capture());
+        verify(this.categoryRepository).getOne(newCategoryId);
+        verify(this.productRepository).saveAndFlush(productCaptor.capture());
         assertThat(productCaptor.getValue()).isSameAs(existingProduct);
         assertThat(productCaptor.getValue()).extracting("name").isEqualTo(newName);
-        assertThat(productCaptor.getValue()).extracting("category").isSameAs(existingCategory);
-        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+        assertThat(productCaptor.getValue()).extracting("category").isSameAs(categoryReference);
+        verifyNoMoreInteractions(this.productRepository, this.categoryRepository, this.categoryService);
     }
 
     @Test
@@ -430,13 +790,10 @@ public class ProductServiceTest {
 
         doReturn(Optional.of(existingProduct)).when(this.productRepository).findById(id);
 
-        doReturn(Optional.empty()).when(this.productRepository).findOneByName(newName);
-
-        this.productService.update(id, update);
+        this.productService.update(id, update, null);
 
         verify(this.productRepository).findById(id);
-        verify(this.productRepository).findOneByName(newName);
-        verify(this.productRepository).save(productCaptor.capture());
+        verify(this.productRepository).saveAndFlush(productCaptor.capture());
         assertThat(productCaptor.getValue()).isSameAs(existingProduct);
         assertThat(productCaptor.getValue()).extracting("name").isEqualTo(newName);
         assertThat(productCaptor.getValue()).extracting("category").isNull();
@@ -474,4 +831,73 @@ public class ProductServiceTest {
         verify(this.productRepository).delete(same(existingProduct));
         verifyNoMoreInteractions(this.productRepository, this.categoryService);
     }
+
+    @Test
+    public void testDeleteAll_ShouldThrowExceptionIfIdsNotProvided() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> this.productService.deleteAll(null))
+                .withMessageContainingAll("ids", "null");
+        verifyNoInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldDeleteInChunksWithoutDuplicates() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        ids.add(ids.get(0));
+        ids.add(null);
+
+        doAnswer(invocation -> invocation.<List<UUID>>getArgument(0).size() - 1)
+                .when(this.productRepository).deleteByIdIn(anyCollection());
+
+        assertThat(this.productService.deleteAll(ids)).isEqualTo(2497);
+
+        verify(this.productRepository).deleteByIdIn(ids.subList(0, 1000));
+        verify(this.productRepository).deleteByIdIn(ids.subList(1000, 2000));
+        verify(this.productRepository).deleteByIdIn(ids.subList(2000, 2500));
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldDoNothingIfIdsEmpty() {
+        assertThat(this.productService.deleteAll(List.of())).isEqualTo(0);
+        verifyNoInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testDeleteAllByCategory_ShouldThrowExceptionIfCategoryIdNotProvided() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> this.productService.deleteAllByCategory(null))
+                .withMessageContainingAll("category", "null");
+        verifyNoInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testDeleteAllByCategory_ShouldThrowExceptionIfCategoryNotExists() throws Exception {
+        UUID categoryId = UUID.randomUUID();
+
+        doReturn(0).when(this.productRepository).deleteByCategoryId(categoryId);
+        doThrow(new CategoryNotFoundException("not found")).when(this.categoryService).get(categoryId);
+
+        assertThatExceptionOfType(CategoryNotFoundException.class)
+                .isThrownBy(() -> this.productService.deleteAllByCategory(categoryId));
+
+        verify(this.productRepository).deleteByCategoryId(categoryId);
+        verify(this.categoryService).get(categoryId);
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
+
+    @Test
+    public void testDeleteAllByCategory_ShouldDeleteAllOfCategoryAtOnceWithoutLoadingIt() throws Exception {
+        UUID categoryId = UUID.randomUUID();
+
+        doReturn(42).when(this.productRepository).deleteByCategoryId(categoryId);
+
+        assertThat(this.productService.deleteAllByCategory(categoryId)).isEqualTo(42);
+
+        verify(this.productRepository).deleteByCategoryId(categoryId);
+        verifyNoMoreInteractions(this.productRepository, this.categoryService);
+    }
 }
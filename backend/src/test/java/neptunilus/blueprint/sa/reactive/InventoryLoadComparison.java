@@ -0,0 +1,157 @@
+package neptunilus.blueprint.sa.reactive;
+
+import neptunilus.blueprint.sa.SpringAngularBlueprintApplication;
+import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.CategoryRepository;
+import neptunilus.blueprint.sa.inventory.repository.ProductRepository;
+import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
+import neptunilus.blueprint.sa.security.model.Authority;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.repository.UserRepository;
+import neptunilus.blueprint.sa.security.repository.UserRoleRepository;
+import neptunilus.blueprint.sa.security.util.JwtUtils;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test comparing the p99 latency and the number of threads of the servlet stack against the reactive one, for
+ * the same product listing at a high number of concurrent requests.
+ * <p>
+ * Both stacks run in the same application (the servlet one on {@code server.port}, the reactive one on
+ * {@code reactive.port}), the threads are told apart by their names: the Tomcat workers for the servlet stack, the
+ * event loops and the query threads for the reactive one.
+ * <p>
+ * Run the main method (e.g. from the IDE) with the test classpath.
+ */
+public class InventoryLoadComparison {
+
+    private static final int PRODUCT_COUNT = 2_000;
+    private static final int CONCURRENCY = 512;
+    private static final int WARMUP_REQUESTS = 5_000;
+    private static final int MEASURED_REQUESTS = 20_000;
+    private static final String PATH = "/product/scroll?size=20";
+
+    public static void main(final String... args) {
+        final ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringAngularBlueprintApplication.class)
+                .properties("server.port=0", "reactive.enabled=true", "reactive.port=0", "logging.level.root=WARN")
+                .run();
+
+        // the client gets its own event loops, to not compete with the ones of the reactive server
+        final LoopResources loops = LoopResources.create("load-client", 2, true);
+        try {
+            final String token = seed(context);
+            final int servletPort = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            final int reactivePort = context.getBean("reactiveServer", DisposableServer.class).port();
+
+            // one connection per concurrent request, as the elastic provider had
+            final HttpClient client = HttpClient.create(ConnectionProvider.builder("load-client").maxConnections(CONCURRENCY).build())
+                    .tcpConfiguration(tcp -> tcp.runOn(loops))
+                    .headers(headers -> headers.add(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+
+            run("servlet", client.baseUrl("http://localhost:" + servletPort), "http-nio-");
+            run("reactive", client.baseUrl("http://localhost:" + reactivePort), "reactor-http-", "reactive-query-");
+        } finally {
+            loops.disposeLater().block();
+            context.close();
+        }
+    }
+
+    private static String seed(final ConfigurableApplicationContext context) {
+        final CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        final ProductRepository productRepository = context.getBean(ProductRepository.class);
+
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            final Category category = categoryRepository.save(new Category("category"));
+            for (int i = 0; i < PRODUCT_COUNT; i++) {
+                productRepository.save(new Product("product-" + i, category));
+            }
+        });
+
+        final UserRole role = context.getBean(UserRoleRepository.class)
+                .save(new UserRole("reader", Set.of(Authority.READ_PRODUCT, Authority.READ_CATEGORY)));
+        final User user = context.getBean(UserRepository.class).save(new User("reader@mail.xy", "password", role));
+        return context.getBean(JwtUtils.class).generate(new AuthenticatedUser(user));
+    }
+
+    private static void run(final String stack, final HttpClient client, final String... threadPrefixes) {
+        load(client, WARMUP_REQUESTS);
+
+        final AtomicInteger peakThreads = new AtomicInteger();
+        final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakThreads.accumulateAndGet(countThreads(threadPrefixes), Math::max),
+                0, 10, TimeUnit.MILLISECONDS);
+
+        final long started = System.nanoTime();
+        final long[] latencies;
+        try {
+            latencies = load(client, MEASURED_REQUESTS);
+        } finally {
+            sampler.shutdownNow();
+        }
+        final Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        Arrays.sort(latencies);
+        System.out.printf("%-8s %d requests (%d concurrent) in %d ms: %.0f req/s, p50 %.1f ms, p99 %.1f ms, "
+                        + "max %.1f ms, peak threads %d%n",
+                stack, MEASURED_REQUESTS, CONCURRENCY, elapsed.toMillis(), MEASURED_REQUESTS * 1e9 / elapsed.toNanos(),
+                millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.99)),
+                millis(latencies[latencies.length - 1]), peakThreads.get());
+    }
+
+    private static long[] load(final HttpClient client, final int requests) {
+        final long[] latencies = new long[requests];
+        Flux.range(0, requests)
+                .flatMap(i -> request(client).doOnNext(latency -> latencies[i] = latency), CONCURRENCY)
+                .blockLast();
+        return latencies;
+    }
+
+    private static Mono<Long> request(final HttpClient client) {
+        return Mono.defer(() -> {
+            final long started = System.nanoTime();
+            return client.get()
+                    .uri(PATH)
+                    .responseSingle((response, body) -> {
+                        if (response.status().code() != 200) {
+                            return Mono.error(new IllegalStateException("unexpected status " + response.status()));
+                        }
+                        return body.asString();
+                    })
+                    .map(body -> System.nanoTime() - started);
+        });
+    }
+
+    private static int countThreads(final String... prefixes) {
+        return (int) Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> Arrays.stream(prefixes).anyMatch(thread.getName()::startsWith))
+                .count();
+    }
+
+    private static long percentile(final long[] sorted, final double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / 1e6;
+    }
+
+}
@@ -0,0 +1,284 @@
+package neptunilus.blueprint.sa.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import neptunilus.blueprint.sa.inventory.model.Category;
+import neptunilus.blueprint.sa.inventory.model.Product;
+import neptunilus.blueprint.sa.inventory.repository.CategoryRepository;
+import neptunilus.blueprint.sa.inventory.repository.ProductRepository;
+import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
+import neptunilus.blueprint.sa.security.model.Authority;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.repository.UserRepository;
+import neptunilus.blueprint.sa.security.repository.UserRoleRepository;
+import neptunilus.blueprint.sa.security.service.UserService;
+import neptunilus.blueprint.sa.security.util.JwtUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.netty.DisposableServer;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tests the reactive inventory API on its own server, reading the data written by the JPA repositories.
+ */
+@SpringBootTest(properties = {"reactive.enabled=true", "reactive.port=0"})
+public class ReactiveInventoryTest {
+
+    @Autowired
+    private DisposableServer reactiveServer;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @AfterEach
+    public void cleanUp() {
+        this.productRepository.deleteAll();
+        this.categoryRepository.deleteAll();
+        this.userRepository.deleteAll();
+        this.userRoleRepository.deleteAll();
+    }
+
+    @Test
+    public void testScrollProducts_ShouldReturnSlicesOfMatchingProducts() throws Exception {
+        Category category = this.categoryRepository.save(new Category("fruits"));
+        Product apple = this.productRepository.save(new Product("apple", category));
+        Product pineapple = this.productRepository.save(new Product("pineapple", category));
+        this.productRepository.save(new Product("apple juice"));
+        this.productRepository.save(new Product("banana", category));
+
+        String token = tokenOf(Authority.READ_PRODUCT);
+
+        byte[] body = client().get()
+                .uri(uri -> uri.path("/product/scroll")
+                        .queryParam("search", "APPL")
+                        .queryParam("categoryId", category.getId())
+                        .queryParam("size", 1).build())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.content[0].id").isEqualTo(apple.getId().toString())
+                .jsonPath("$.content[0].name").isEqualTo("apple")
+                .jsonPath("$.content[0].category.id").isEqualTo(category.getId().toString())
+                .jsonPath("$.content[0].category.name").isEqualTo("fruits")
+                .jsonPath("$.next").isNotEmpty()
+                .returnResult().getResponseBody();
+        String next = this.objectMapper.readTree(body).get("next").asText();
+
+        client().get()
+                .uri(uri -> uri.path("/product/scroll")
+                        .queryParam("search", "APPL")
+                        .queryParam("categoryId", category.getId())
+                        .queryParam("after", next)
+                        .queryParam("size", 1).build())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.content[0].id").isEqualTo(pineapple.getId().toString())
+                .jsonPath("$.next").doesNotExist();
+    }
+
+    @Test
+    public void testScrollProducts_ShouldReturn400IfCursorInvalid() {
+        client().get()
+                .uri("/product/scroll?after=invalid")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenOf(Authority.READ_PRODUCT))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors[0]").isEqualTo("invalid cursor 'invalid'");
+    }
+
+    @Test
+    public void testScrollProducts_ShouldReturn404IfCategoryNotFound() {
+        Category category = this.categoryRepository.save(new Category("empty"));
+        String token = tokenOf(Authority.READ_PRODUCT);
+
+        client().get()
+                .uri(uri -> uri.path("/product/scroll").queryParam("categoryId", category.getId()).build())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(0);
+
+        UUID unknownId = UUID.randomUUID();
+        client().get()
+                .uri(uri -> uri.path("/product/scroll").queryParam("categoryId", unknownId).build())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.errors[0]").isEqualTo(String.format("no category found with id '%s'", unknownId));
+    }
+
+    @Test
+    public void testGetProduct_ShouldReturnProductOr404() {
+        Product product = this.productRepository.save(new Product("apple"));
+        String token = tokenOf(Authority.READ_PRODUCT);
+
+        client().get()
+                .uri("/product/{id}", product.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(product.getId().toString())
+                .jsonPath("$.name").isEqualTo("apple")
+                .jsonPath("$.category").doesNotExist();
+
+        UUID unknownId = UUID.randomUUID();
+        client().get()
+                .uri("/product/{id}", unknownId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.errors[0]").isEqualTo(String.format("no product found with id '%s'", unknownId));
+
+        client().get()
+                .uri("/product/abc")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testScrollCategories_ShouldReturnMatchingCategories() {
+        Category fruits = this.categoryRepository.save(new Category("fruits"));
+        this.categoryRepository.save(new Category("vegetables"));
+        Category fruitJuices = this.categoryRepository.save(new Category("fruit_juices"));
+
+        client().get()
+                .uri(uri -> uri.path("/category/scroll").queryParam("search", "fruit").build())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenOf(Authority.READ_CATEGORY))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.content[0].id").isEqualTo(fruitJuices.getId().toString())
+                .jsonPath("$.content[1].id").isEqualTo(fruits.getId().toString())
+                .jsonPath("$.next").doesNotExist();
+
+        client().get()
+                .uri(uri -> uri.path("/category/scroll").queryParam("search", "t_j").build())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenOf(Authority.READ_CATEGORY))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.content[0].name").isEqualTo("fruit_juices");
+
+        client().get()
+                .uri("/category/{id}", fruits.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenOf(Authority.READ_CATEGORY))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("fruits");
+    }
+
+    @Test
+    public void testRequest_ShouldDenyWithoutValidTokenOrAuthority() {
+        client().get()
+                .uri("/product/scroll")
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody().isEmpty();
+
+        client().get()
+                .uri("/product/scroll")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer invalid")
+                .exchange()
+                .expectStatus().isForbidden();
+
+        client().get()
+                .uri("/product/scroll")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenOf(Authority.READ_CATEGORY))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    public void testRequest_ShouldDenyAfterUserWasDemotedOrDeleted() {
+        UserRole productReader = this.userRoleRepository.save(new UserRole("productReader", Set.of(Authority.READ_PRODUCT)));
+        UserRole categoryReader = this.userRoleRepository.save(new UserRole("categoryReader", Set.of(Authority.READ_CATEGORY)));
+        User user = this.userRepository.save(new User("demoted@mail.xy", "password", productReader));
+        String token = this.jwtUtils.generate(new AuthenticatedUser(user));
+
+        requestProducts(token).expectStatus().isOk();
+
+        asUserAdmin(() -> this.userService.update(user.getId(), new User(user.getEmail(), null, categoryReader), null));
+
+        requestProducts(token).expectStatus().isForbidden();
+
+        User otherUser = this.userRepository.save(new User("deleted@mail.xy", "password", productReader));
+        String otherToken = this.jwtUtils.generate(new AuthenticatedUser(otherUser));
+
+        requestProducts(otherToken).expectStatus().isOk();
+
+        asUserAdmin(() -> this.userService.deleteAll(List.of(otherUser.getId())));
+
+        requestProducts(otherToken).expectStatus().isForbidden();
+    }
+
+    private WebTestClient.ResponseSpec requestProducts(final String token) {
+        return client().get()
+                .uri("/product/scroll")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange();
+    }
+
+    private static void asUserAdmin(final Runnable action) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("admin", null,
+                Authority.UPDATE_USER.name(), Authority.DELETE_USER.name(), Authority.READ_USER_ROLE.name()));
+        try {
+            action.run();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private WebTestClient client() {
+        return WebTestClient.bindToServer().baseUrl("http://localhost:" + this.reactiveServer.port()).build();
+    }
+
+    private String tokenOf(final Authority authority) {
+        UserRole role = this.userRoleRepository.save(new UserRole("role" + UUID.randomUUID(), Set.of(authority)));
+        User user = this.userRepository.save(new User(UUID.randomUUID() + "@mail.xy", "password", role));
+        return this.jwtUtils.generate(new AuthenticatedUser(user));
+    }
+
+}
@@ -0,0 +1,26 @@
+package neptunilus.blueprint.sa.reactive.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ReactiveConfigurationTest {
+
+    @Test
+    public void testR2dbcUrlOf_ShouldDeriveUrlOfInMemoryH2Database() {
+        assertThat(ReactiveConfiguration.r2dbcUrlOf("jdbc:h2:mem:inventory;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"))
+                .isEqualTo("r2dbc:h2:mem:///inventory");
+        assertThat(ReactiveConfiguration.r2dbcUrlOf("jdbc:h2:mem:inventory")).isEqualTo("r2dbc:h2:mem:///inventory");
+    }
+
+    @Test
+    public void testR2dbcUrlOf_ShouldRequireConfiguredUrlForOtherDatabases() {
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> ReactiveConfiguration.r2dbcUrlOf("jdbc:postgresql://localhost/inventory"))
+                .withMessageContaining("reactive.r2dbc.url");
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> ReactiveConfiguration.r2dbcUrlOf(null));
+    }
+
+}
@@ -0,0 +1,90 @@
+package neptunilus.blueprint.sa.security.cache;
+
+import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
+import neptunilus.blueprint.sa.security.model.Authority;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.service.impl.AuthenticatedUserDetailsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthenticatedUserCacheTest {
+
+    private final AuthenticatedUserDetailsService userDetailsService;
+    private final AuthenticatedUserCache authenticatedUserCache;
+
+    AuthenticatedUserCacheTest(@Mock final AuthenticatedUserDetailsService userDetailsService) {
+        this.userDetailsService = userDetailsService;
+        this.authenticatedUserCache = new AuthenticatedUserCache(this.userDetailsService, 10, 60);
+    }
+
+    @Test
+    public void testGet_ShouldLoadOnlyOncePerToken() {
+        String username = "me@mail.xy";
+        AuthenticatedUser authenticatedUser = createAuthenticatedUser(username);
+
+        doReturn(authenticatedUser).when(this.userDetailsService).loadUserByUsername(username);
+
+        assertThat(this.authenticatedUserCache.get(username, "token1")).isSameAs(authenticatedUser);
+        assertThat(this.authenticatedUserCache.get(username, "token1")).isSameAs(authenticatedUser);
+        assertThat(this.authenticatedUserCache.get(username, "token2")).isSameAs(authenticatedUser);
+
+        assertThat(this.authenticatedUserCache.getStats().hitCount()).isEqualTo(1);
+        assertThat(this.authenticatedUserCache.getStats().missCount()).isEqualTo(2);
+
+        verify(this.userDetailsService, times(2)).loadUserByUsername(username);
+        verifyNoMoreInteractions(this.userDetailsService);
+    }
+
+    @Test
+    public void testGet_ShouldNotCacheUnknownUser() {
+        String username = "me@mail.xy";
+
+        doThrow(new UsernameNotFoundException("user not found")).when(this.userDetailsService).loadUserByUsername(username);
+
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+                .isThrownBy(() -> this.authenticatedUserCache.get(username, "token"));
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+                .isThrownBy(() -> this.authenticatedUserCache.get(username, "token"));
+
+        verify(this.userDetailsService, times(2)).loadUserByUsername(username);
+        verifyNoMoreInteractions(this.userDetailsService);
+    }
+
+    @Test
+    public void testInvalidate_ShouldReloadOnlyInvalidatedUser() {
+        String username = "me@mail.xy";
+        String otherUsername = "other@mail.xy";
+
+        doReturn(createAuthenticatedUser(username)).when(this.userDetailsService).loadUserByUsername(username);
+        doReturn(createAuthenticatedUser(otherUsername)).when(this.userDetailsService).loadUserByUsername(otherUsername);
+
+        this.authenticatedUserCache.get(username, "token1");
+        this.authenticatedUserCache.get(otherUsername, "token2");
+
+        this.authenticatedUserCache.invalidate(username);
+
+        this.authenticatedUserCache.get(username, "token1");
+        this.authenticatedUserCache.get(otherUsername, "token2");
+
+        verify(this.userDetailsService, times(2)).loadUserByUsername(username);
+        verify(this.userDetailsService).loadUserByUsername(otherUsername);
+        verifyNoMoreInteractions(this.userDetailsService);
+    }
+
+    private static AuthenticatedUser createAuthenticatedUser(final String username) {
+        UserRole role = new UserRole("myRole", Set.of(Authority.READ_CATEGORY));
+        return new AuthenticatedUser(new User(username, "password", role));
+    }
+
+}
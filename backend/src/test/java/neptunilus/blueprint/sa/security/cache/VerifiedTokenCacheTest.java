@@ -0,0 +1,92 @@
+package neptunilus.blueprint.sa.security.cache;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
+import neptunilus.blueprint.sa.security.model.Authority;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.util.JwtUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.*;
+
+public class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "dGlCEqrpmkP2NqWwB-mTXASixxlSstPPW9nrazlsS358YETji9g5VapuX72IKi2eoZg4cY6yRZ0Ft7GmZGz-dw";
+
+    @Test
+    public void testValidateAndParseClaims_ShouldVerifyOnlyOnce() {
+        JwtUtils jwtUtils = spy(new JwtUtils(SECRET, "myIssuer", 3600, false, new SimpleMeterRegistry()));
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(jwtUtils, 10);
+
+        String token = jwtUtils.generate(createAuthenticatedUser());
+
+        Jws<Claims> claims = verifiedTokenCache.validateAndParseClaims(token);
+        assertThat(verifiedTokenCache.validateAndParseClaims(token)).isSameAs(claims);
+        assertThat(claims.getBody().getSubject()).isEqualTo("me@mail.xy");
+
+        assertThat(verifiedTokenCache.getStats().hitCount()).isEqualTo(1);
+        verify(jwtUtils).validateAndParseClaims(token);
+    }
+
+    @Test
+    public void testValidateAndParseClaims_ShouldNotCacheInvalidToken() {
+        JwtUtils jwtUtils = spy(new JwtUtils(SECRET, "myIssuer", 3600, false, new SimpleMeterRegistry()));
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(jwtUtils, 10);
+
+        String token = "invalid";
+
+        assertThatExceptionOfType(MalformedJwtException.class)
+                .isThrownBy(() -> verifiedTokenCache.validateAndParseClaims(token));
+        assertThatExceptionOfType(MalformedJwtException.class)
+                .isThrownBy(() -> verifiedTokenCache.validateAndParseClaims(token));
+
+        verify(jwtUtils, times(2)).validateAndParseClaims(token);
+    }
+
+    @Test
+    public void testValidateAndParseClaims_ShouldNotCacheExpiredToken() {
+        JwtUtils jwtUtils = spy(new JwtUtils(SECRET, "myIssuer", 0, false, new SimpleMeterRegistry()));
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(jwtUtils, 10);
+
+        String token = jwtUtils.generate(createAuthenticatedUser());
+
+        assertThatExceptionOfType(ExpiredJwtException.class)
+                .isThrownBy(() -> verifiedTokenCache.validateAndParseClaims(token));
+
+        assertThat(verifiedTokenCache.getStats().hitCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testValidateAndParseClaims_ShouldAlwaysVerifyIfDisabled() {
+        JwtUtils jwtUtils = spy(new JwtUtils(SECRET, "myIssuer", 3600, false, new SimpleMeterRegistry()));
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(jwtUtils, 0);
+
+        String token = jwtUtils.generate(createAuthenticatedUser());
+
+        verifiedTokenCache.validateAndParseClaims(token);
+        verifiedTokenCache.validateAndParseClaims(token);
+
+        verify(jwtUtils, times(2)).validateAndParseClaims(token);
+    }
+
+    private static AuthenticatedUser createAuthenticatedUser() {
+        UserRole role = new UserRole("myRole", Set.of(Authority.READ_CATEGORY));
+        role.setId(UUID.randomUUID());
+
+        User user = new User("me@mail.xy", "password", role);
+        user.setId(UUID.randomUUID());
+
+        return new AuthenticatedUser(user);
+    }
+
+}
@@ -1,6 +1,5 @@
 package neptunilus.blueprint.sa.security.controller;
 
-import neptunilus.blueprint.sa.common.configuration.MappingConfiguration;
 import neptunilus.blueprint.sa.security.controller.in.UserCreateRequest;
 import neptunilus.blueprint.sa.security.controller.in.UserRoleReferenceRequest;
 import neptunilus.blueprint.sa.security.controller.in.UserUpdateRequest;
@@ -9,9 +8,9 @@ import neptunilus.blueprint.sa.security.controller.out.UserRoleResponse;
 import neptunilus.blueprint.sa.security.model.Authority;
 import neptunilus.blueprint.sa.security.model.User;
 import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.repository.projection.UserSummary;
 import org.assertj.core.api.InstanceOfAssertFactories;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 
 import java.util.Set;
 import java.util.UUID;
@@ -20,7 +19,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 public class SecurityMapperTest {
 
-    private final ModelMapper securityMapper = new MappingConfiguration().modelMapper();
+    private final SecurityMapper securityMapper = new SecurityMapperImpl();
 
     @Test
     public void testMap_ShouldMapUserRoleToUserRoleResponseCorrectly() {
@@ -30,7 +29,7 @@ public class SecurityMapperTest {
         UserRole userRole = new UserRole(userRoleName, Set.of(Authority.CREATE_CATEGORY));
         userRole.setId(userRoleId);
 
-        UserRoleResponse userRoleResponse = this.securityMapper.map(userRole, UserRoleResponse.class);
+        UserRoleResponse userRoleResponse = this.securityMapper.toUserRoleResponse(userRole);
 
         assertThat(userRoleResponse).extracting("id").isEqualTo(userRoleId);
         assertThat(userRoleResponse).extracting("name").isEqualTo(userRoleName);
@@ -51,7 +50,7 @@ public class SecurityMapperTest {
         userRequest.setPassword(userPassword);
         userRequest.setRole(userRoleRequest);
 
-        User user = this.securityMapper.map(userRequest, User.class);
+        User user = this.securityMapper.toUser(userRequest);
 
         assertThat(user).extracting("id").isNull();
         assertThat(user).extracting("email").isEqualTo(userEmail);
@@ -76,7 +75,7 @@ public class SecurityMapperTest {
         userRequest.setPassword(userPassword);
         userRequest.setRole(userRoleRequest);
 
-        User user = this.securityMapper.map(userRequest, User.class);
+        User user = this.securityMapper.toUser(userRequest);
 
         assertThat(user).extracting("id").isNull();
         assertThat(user).extracting("email").isEqualTo(userEmail);
@@ -99,7 +98,24 @@ public class SecurityMapperTest {
         User user = new User(userEmail, "password", userRole);
         user.setId(userId);
 
-        UserResponse userResponse = this.securityMapper.map(user, UserResponse.class);
+        UserResponse userResponse = this.securityMapper.toUserResponse(user);
+
+        assertThat(userResponse).extracting("id").isEqualTo(userId);
+        assertThat(userResponse).extracting("email").isEqualTo(userEmail);
+        assertThat(userResponse).extracting("role").extracting("id").isEqualTo(userRoleId);
+        assertThat(userResponse).extracting("role").extracting("name").isEqualTo(userRoleName);
+    }
+
+    @Test
+    public void testMap_ShouldMapUserSummaryToUserResponseCorrectly() {
+        UUID userRoleId = UUID.randomUUID();
+        String userRoleName = "userRoleName";
+        UUID userId = UUID.randomUUID();
+        String userEmail = "me@mail.xy";
+
+        UserSummary user = new UserSummary(userId, userEmail, userRoleId, userRoleName);
+
+        UserResponse userResponse = this.securityMapper.toUserResponse(user);
 
         assertThat(userResponse).extracting("id").isEqualTo(userId);
         assertThat(userResponse).extracting("email").isEqualTo(userEmail);
@@ -0,0 +1,105 @@
+package neptunilus.blueprint.sa.security.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import neptunilus.blueprint.sa.common.MockedSecurityControllerTest;
+import neptunilus.blueprint.sa.security.exception.InvalidRefreshTokenException;
+import neptunilus.blueprint.sa.security.model.Authority;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.service.RefreshTokenService;
+import neptunilus.blueprint.sa.security.util.JwtUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TokenController.class)
+public class TokenControllerTest extends MockedSecurityControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    public void testRefresh_ShouldReturnNewTokens() throws Exception {
+        UserRole role = new UserRole("myRole", Set.of(Authority.CREATE_CATEGORY));
+        role.setId(UUID.randomUUID());
+
+        User user = new User("me@mail.xy", null, role);
+        user.setId(UUID.randomUUID());
+
+        doReturn(new RefreshTokenService.Rotation(user, "newRefreshToken")).when(this.refreshTokenService).rotate("oldRefreshToken");
+
+        MvcResult result = this.mockMvc
+                .perform(
+                        post("/token/refresh")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{ \"refresh_token\": \"oldRefreshToken\" }")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refresh_token").value("newRefreshToken"))
+                .andReturn();
+
+        String accessToken = JsonPath.read(result.getResponse().getContentAsString(), "$.access_token");
+        Jws<Claims> claims = this.jwtUtils.validateAndParseClaims(accessToken);
+        assertThat(JwtUtils.getUsername(claims)).isEqualTo("me@mail.xy");
+        assertThat(JwtUtils.getRoleId(claims)).isEqualTo(role.getId());
+
+        verify(this.refreshTokenService).rotate("oldRefreshToken");
+        verifyNoMoreInteractions(this.refreshTokenService);
+    }
+
+    @Test
+    public void testRefresh_ShouldReturn401IfTokenInvalid() throws Exception {
+        doThrow(new InvalidRefreshTokenException("refresh token is unknown or already used"))
+                .when(this.refreshTokenService).rotate("oldRefreshToken");
+
+        this.mockMvc
+                .perform(
+                        post("/token/refresh")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{ \"refresh_token\": \"oldRefreshToken\" }")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.access_token").doesNotExist())
+                .andExpect(jsonPath("$.errors[0]").value("refresh token is unknown or already used"));
+
+        verify(this.refreshTokenService).rotate("oldRefreshToken");
+        verifyNoMoreInteractions(this.refreshTokenService);
+    }
+
+    @Test
+    public void testRefresh_ShouldReturn400IfTokenMissing() throws Exception {
+        this.mockMvc
+                .perform(
+                        post("/token/refresh")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{}")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(this.refreshTokenService);
+    }
+
+}
@@ -82,7 +82,7 @@ public class UserControllerSecurityTest {
                 .andExpect(status().isNoContent())
                 .andExpect(jsonPath("$").doesNotExist());
 
-        verify(this.userService).update(eq(idToUpdate), any(User.class));
+        verify(this.userService).update(eq(idToUpdate), any(User.class), isNull());
     }
 
     @Test
@@ -117,7 +117,7 @@ public class UserControllerSecurityTest {
                 .andExpect(status().isNoContent())
                 .andExpect(jsonPath("$").doesNotExist());
 
-        verify(this.userService).update(eq(idToUpdate), any(User.class));
+        verify(this.userService).update(eq(idToUpdate), any(User.class), isNull());
     }
 
     @Test
@@ -152,7 +152,7 @@ public class UserControllerSecurityTest {
                 .andExpect(status().isNoContent())
                 .andExpect(jsonPath("$").doesNotExist());
 
-        verify(this.userService).update(eq(idToUpdate), any(User.class));
+        verify(this.userService).update(eq(idToUpdate), any(User.class), isNull());
     }
 
     @Test
@@ -1,6 +1,7 @@
 package neptunilus.blueprint.sa.security.controller;
 
 import neptunilus.blueprint.sa.common.MockedSecurityControllerTest;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
 import neptunilus.blueprint.sa.security.controller.in.UserCreateRequest;
 import neptunilus.blueprint.sa.security.controller.in.UserUpdateRequest;
 import neptunilus.blueprint.sa.security.controller.out.UserResponse;
@@ -9,19 +10,21 @@ import neptunilus.blueprint.sa.security.exception.UserAlreadyExistsException;
 import neptunilus.blueprint.sa.security.exception.UserNotFoundException;
 import neptunilus.blueprint.sa.security.exception.UserRoleNotFoundException;
 import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.repository.projection.UserSummary;
 import neptunilus.blueprint.sa.security.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -47,14 +50,13 @@ public class UserControllerTest extends MockedSecurityControllerTest {
     private UserService userService;
 
     @MockBean
-    @Qualifier("securityMapper")
-    private ModelMapper modelMapper;
+    private SecurityMapper securityMapper;
 
     @Test
     public void testSearch_ShouldReturnEmptyPageIfNothingFound() throws Exception {
         String search = "search@search.xy";
 
-        doReturn(Page.empty()).when(this.userService).find(eq(search), eq(false), any(Pageable.class));
+        doReturn(Page.empty()).when(this.userService).findSummaries(eq(search), eq(true), any(Pageable.class));
 
         this.mockMvc
                 .perform(
@@ -66,27 +68,28 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isEmpty());
 
-        verify(this.userService).find(eq(search), eq(false), any(Pageable.class));
+        verify(this.userService).getChangeCount();
+        verify(this.userService).findSummaries(eq(search), eq(true), any(Pageable.class));
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
     }
 
     @Test
     public void testSearch_ShouldReturnUsersIfFoundWithoutSearch() throws Exception {
-        User user = new User("test@mail.xy", "password", null);
-        Page<User> users = new PageImpl<>(List.of(user));
-        doReturn(users).when(this.userService).find(isNull(), eq(false), any(Pageable.class));
+        UserSummary user = new UserSummary(UUID.randomUUID(), "me@mail.xy", UUID.randomUUID(), "myUserRole");
+        Page<UserSummary> users = new PageImpl<>(List.of(user));
+        doReturn(users).when(this.userService).findSummaries(isNull(), eq(true), any(Pageable.class));
 
         UserRoleResponse userRoleResponse = new UserRoleResponse();
-        userRoleResponse.setId(UUID.randomUUID());
-        userRoleResponse.setName("myUserRole");
+        userRoleResponse.setId(user.getRoleId());
+        userRoleResponse.setName(user.getRoleName());
 
         UserResponse userResponse = new UserResponse();
-        userResponse.setId(UUID.randomUUID());
-        userResponse.setEmail("me@mail.xy");
+        userResponse.setId(user.getId());
+        userResponse.setEmail(user.getEmail());
         userResponse.setRole(userRoleResponse);
 
-        doReturn(userResponse).when(this.modelMapper).map(user, UserResponse.class);
+        doReturn(userResponse).when(this.securityMapper).toUserResponse(user);
 
         this.mockMvc
                 .perform(
@@ -101,10 +104,11 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.content[0].role.id").value(equalTo(userRoleResponse.getId().toString())))
                 .andExpect(jsonPath("$.content[0].role.name").value(equalTo(userRoleResponse.getName())));
 
-        verify(this.userService).find(isNull(), eq(false), any(Pageable.class));
-        verify(this.modelMapper).map(user, UserResponse.class);
+        verify(this.userService).getChangeCount();
+        verify(this.userService).findSummaries(isNull(), eq(true), any(Pageable.class));
+        verify(this.securityMapper).toUserResponse(user);
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -112,20 +116,20 @@ public class UserControllerTest extends MockedSecurityControllerTest {
         ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
         String search = "my@mail.xy";
 
-        User user = new User("me@mailxy", "password", null);
-        Page<User> users = new PageImpl<>(List.of(user));
-        doReturn(users).when(this.userService).find(eq(search), eq(false), any(Pageable.class));
+        UserSummary user = new UserSummary(UUID.randomUUID(), "me@mail.xy", UUID.randomUUID(), "myUserRole");
+        Page<UserSummary> users = new PageImpl<>(List.of(user));
+        doReturn(users).when(this.userService).findSummaries(eq(search), eq(true), any(Pageable.class));
 
         UserRoleResponse userRoleResponse = new UserRoleResponse();
-        userRoleResponse.setId(UUID.randomUUID());
-        userRoleResponse.setName("myUserRole");
+        userRoleResponse.setId(user.getRoleId());
+        userRoleResponse.setName(user.getRoleName());
 
         UserResponse userResponse = new UserResponse();
-        userResponse.setId(UUID.randomUUID());
-        userResponse.setEmail("me@mail.xy");
+        userResponse.setId(user.getId());
+        userResponse.setEmail(user.getEmail());
         userResponse.setRole(userRoleResponse);
 
-        doReturn(userResponse).when(this.modelMapper).map(user, UserResponse.class);
+        doReturn(userResponse).when(this.securityMapper).toUserResponse(user);
 
         this.mockMvc
                 .perform(
@@ -144,13 +148,44 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.content[0].role.id").value(equalTo(userRoleResponse.getId().toString())))
                 .andExpect(jsonPath("$.content[0].role.name").value(equalTo(userRoleResponse.getName())));
 
-        verify(this.userService).find(eq(search), eq(false), pageableCaptor.capture());
+        verify(this.userService).getChangeCount();
+        verify(this.userService).findSummaries(eq(search), eq(true), pageableCaptor.capture());
         assertThat(pageableCaptor.getValue()).extracting("pageNumber").isEqualTo(2);
         assertThat(pageableCaptor.getValue()).extracting("pageSize").isEqualTo(10);
         assertThat(pageableCaptor.getValue().getSort().getOrderFor("name")).extracting("direction").isEqualTo(Sort.Direction.DESC);
-        verify(this.modelMapper).map(user, UserResponse.class);
+        verify(this.securityMapper).toUserResponse(user);
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
+    }
+
+    @Test
+    public void testScroll_ShouldReturnSliceWithNextCursorIfMoreAvailable() throws Exception {
+        UserSummary user = new UserSummary(UUID.randomUUID(), "me@mail.xy", UUID.randomUUID(), "myRole");
+        doReturn(new SliceImpl<>(List.of(user), PageRequest.of(0, 1), true)).when(this.userService).findSummariesAfter("mail", null, 1);
+
+        UserResponse userResponse = new UserResponse();
+        userResponse.setId(user.getId());
+        userResponse.setEmail(user.getEmail());
+
+        doReturn(userResponse).when(this.securityMapper).toUserResponse(user);
+
+        this.mockMvc
+                .perform(
+                        get("/user/scroll")
+                                .param("search", "mail")
+                                .param("size", "1")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.next", is(new Cursor("me@mail.xy", user.getId()).encode())));
+
+        verify(this.userService).getChangeCount();
+        verify(this.userService).findSummariesAfter("mail", null, 1);
+        verify(this.securityMapper).toUserResponse(user);
+
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -173,7 +208,7 @@ public class UserControllerTest extends MockedSecurityControllerTest {
 
         verify(this.userService).get(id);
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -192,7 +227,7 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("invalid")))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase(id)));
 
-        verifyNoInteractions(this.userService, this.modelMapper);
+        verifyNoInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -205,7 +240,7 @@ public class UserControllerTest extends MockedSecurityControllerTest {
         UserResponse userResponse = new UserResponse();
         userResponse.setId(id);
         userResponse.setEmail("me@mail.xy");
-        doReturn(userResponse).when(this.modelMapper).map(user, UserResponse.class);
+        doReturn(userResponse).when(this.securityMapper).toUserResponse(user);
 
         this.mockMvc
                 .perform(
@@ -219,9 +254,9 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.role").doesNotExist());
 
         verify(this.userService).get(id);
-        verify(this.modelMapper).map(user, UserResponse.class);
+        verify(this.securityMapper).toUserResponse(user);
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -231,7 +266,7 @@ public class UserControllerTest extends MockedSecurityControllerTest {
         String body = "{ \"email\": \"me@mail.xy\", \"password\": \"password\", \"role\": { \"id\": \"" + UUID.randomUUID().toString() + "\" }  }";
 
         User user = new User("me@mail.xy", "password", null);
-        doReturn(user).when(this.modelMapper).map(any(UserCreateRequest.class), eq(User.class));
+        doReturn(user).when(this.securityMapper).toUser(any(UserCreateRequest.class));
 
         doThrow(new UserAlreadyExistsException(String.format("user with email '%s' already exists", "me@mail.xy")))
                 .when(this.userService).create(user);
@@ -250,11 +285,11 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("exists")))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("me@mail.xy")));
 
-        verify(this.modelMapper).map(userRequestCaptor.capture(), eq(User.class));
+        verify(this.securityMapper).toUser(userRequestCaptor.capture());
         assertThat(userRequestCaptor.getValue()).extracting("email").isEqualTo("me@mail.xy");
         verify(this.userService).create(user);
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -265,7 +300,7 @@ public class UserControllerTest extends MockedSecurityControllerTest {
         String body = "{ \"email\": \"me@mail.xy\", \"password\": \"password\", \"role\": { \"id\": \"" + userRoleId + "\" } }";
 
         User user = new User("me@mail.xy", "password", null);
-        doReturn(user).when(this.modelMapper).map(any(UserCreateRequest.class), eq(User.class));
+        doReturn(user).when(this.securityMapper).toUser(any(UserCreateRequest.class));
 
         doThrow(new UserRoleNotFoundException(String.format("no user role found with id '%s'", userRoleId)))
                 .when(this.userService).create(user);
@@ -283,13 +318,13 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo(String.format("no user role found with id '%s'", userRoleId))));
 
-        verify(this.modelMapper).map(userRequestCaptor.capture(), eq(User.class));
+        verify(this.securityMapper).toUser(userRequestCaptor.capture());
         assertThat(userRequestCaptor.getValue()).extracting("email").isEqualTo("me@mail.xy");
         assertThat(userRequestCaptor.getValue()).extracting("password").isEqualTo("password");
         assertThat(userRequestCaptor.getValue()).extracting("role").extracting("id").isEqualTo(userRoleId);
         verify(this.userService).create(user);
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -309,7 +344,7 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(2)))
                 .andExpect(jsonPath("$.errors", containsInAnyOrder("referenced user role id must not be null", "user email must not be empty")));
 
-        verifyNoInteractions(this.userService, this.modelMapper);
+        verifyNoInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -317,7 +352,7 @@ public class UserControllerTest extends MockedSecurityControllerTest {
         String body = "{ \"email\": \"me@mail.xy\", \"password\": \"password\", \"role\": { \"id\": \"" + UUID.randomUUID().toString() + "\" } }";
 
         User user = new User("", null, null);
-        doReturn(user).when(this.modelMapper).map(any(UserCreateRequest.class), eq(User.class));
+        doReturn(user).when(this.securityMapper).toUser(any(UserCreateRequest.class));
 
         doThrow(new DataIntegrityViolationException("invalid"))
                 .when(this.userService).create(user);
@@ -335,10 +370,10 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("invalid")));
 
-        verify(this.modelMapper).map(any(UserCreateRequest.class), eq(User.class));
+        verify(this.securityMapper).toUser(any(UserCreateRequest.class));
         verify(this.userService).create(user);
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -349,7 +384,7 @@ public class UserControllerTest extends MockedSecurityControllerTest {
         String body = "{ \"email\": \"me@mail.xy\", \"password\": \"password\", \"role\": { \"id\": \"" + userRoleId + "\" } }";
 
         User user = new User("me@mail.xy", "password", null);
-        doReturn(user).when(this.modelMapper).map(any(UserCreateRequest.class), eq(User.class));
+        doReturn(user).when(this.securityMapper).toUser(any(UserCreateRequest.class));
 
         UUID newId = UUID.randomUUID();
         doReturn(newId).when(this.userService).create(user);
@@ -366,13 +401,13 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(header().string("Location", containsString(newId.toString())))
                 .andExpect(jsonPath("$").doesNotExist());
 
-        verify(this.modelMapper).map(userRequestCaptor.capture(), eq(User.class));
+        verify(this.securityMapper).toUser(userRequestCaptor.capture());
         assertThat(userRequestCaptor.getValue()).extracting("email").isEqualTo("me@mail.xy");
         assertThat(userRequestCaptor.getValue()).extracting("password").isEqualTo("password");
         assertThat(userRequestCaptor.getValue()).extracting("role").extracting("id").isEqualTo(userRoleId);
         verify(this.userService).create(user);
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -383,10 +418,10 @@ public class UserControllerTest extends MockedSecurityControllerTest {
         String update = "{ \"email\": \"me@mail.xy\", \"password\": \"password\" }";
 
         User user = new User("me@mail.xy", "password", null);
-        doReturn(user).when(this.modelMapper).map(any(UserUpdateRequest.class), eq(User.class));
+        doReturn(user).when(this.securityMapper).toUser(any(UserUpdateRequest.class));
 
         doThrow(new UserNotFoundException(String.format("no user found with id '%s'", id)))
-                .when(this.userService).update(id, user);
+                .when(this.userService).update(id, user, null);
 
         this.mockMvc
                 .perform(
@@ -401,11 +436,11 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo(String.format("no user found with id '%s'", id))));
 
-        verify(this.modelMapper).map(userRequestCaptor.capture(), eq(User.class));
+        verify(this.securityMapper).toUser(userRequestCaptor.capture());
         assertThat(userRequestCaptor.getValue()).extracting("email").isEqualTo("me@mail.xy");
-        verify(this.userService).update(id, user);
+        verify(this.userService).update(id, user, null);
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -416,10 +451,10 @@ public class UserControllerTest extends MockedSecurityControllerTest {
         String update = "{ \"email\": \"me@mail.xy\", \"password\": \"password\" }";
 
         User user = new User("me@mail.xy", "password", null);
-        doReturn(user).when(this.modelMapper).map(any(UserUpdateRequest.class), eq(User.class));
+        doReturn(user).when(this.securityMapper).toUser(any(UserUpdateRequest.class));
 
         doThrow(new UserAlreadyExistsException(String.format("user with email '%s' already exists", "me@mail.xy")))
-                .when(this.userService).update(id, user);
+                .when(this.userService).update(id, user, null);
 
         this.mockMvc
                 .perform(
@@ -434,11 +469,11 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo(String.format("user with email '%s' already exists", "me@mail.xy"))));
 
-        verify(this.modelMapper).map(userRequestCaptor.capture(), eq(User.class));
+        verify(this.securityMapper).toUser(userRequestCaptor.capture());
         assertThat(userRequestCaptor.getValue()).extracting("email").isEqualTo("me@mail.xy");
-        verify(this.userService).update(id, user);
+        verify(this.userService).update(id, user, null);
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -460,7 +495,7 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("invalid")))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase(id)));
 
-        verifyNoInteractions(this.userService, this.modelMapper);
+        verifyNoInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -481,7 +516,7 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("user email must be a valid one")));
 
-        verifyNoInteractions(this.userService, this.modelMapper);
+        verifyNoInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -490,9 +525,9 @@ public class UserControllerTest extends MockedSecurityControllerTest {
         String update = "{ \"email\": \"me@mail.xy\", \"password\": \"password\" }";
 
         User user = new User("", "", null);
-        doReturn(user).when(this.modelMapper).map(any(UserUpdateRequest.class), eq(User.class));
+        doReturn(user).when(this.securityMapper).toUser(any(UserUpdateRequest.class));
 
-        doThrow(new DataIntegrityViolationException("invalid")).when(this.userService).update(id, user);
+        doThrow(new DataIntegrityViolationException("invalid")).when(this.userService).update(id, user, null);
 
         this.mockMvc
                 .perform(
@@ -507,10 +542,10 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("invalid")));
 
-        verify(this.modelMapper).map(any(UserUpdateRequest.class), eq(User.class));
-        verify(this.userService).update(id, user);
+        verify(this.securityMapper).toUser(any(UserUpdateRequest.class));
+        verify(this.userService).update(id, user, null);
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -522,10 +557,10 @@ public class UserControllerTest extends MockedSecurityControllerTest {
         String update = "{ \"email\": \"me@mail.xy\", \"password\": \"password\", \"role\": { \"id\": \"" + userRoleId + "\" } }";
 
         User user = new User("me@mail.xy", "password", null);
-        doReturn(user).when(this.modelMapper).map(any(UserUpdateRequest.class), eq(User.class));
+        doReturn(user).when(this.securityMapper).toUser(any(UserUpdateRequest.class));
 
         doThrow(new UserRoleNotFoundException(String.format("no user role found with id '%s'", userRoleId)))
-                .when(this.userService).update(id, user);
+                .when(this.userService).update(id, user, null);
 
         this.mockMvc
                 .perform(
@@ -540,12 +575,12 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors", hasSize(1)))
                 .andExpect(jsonPath("$.errors[0]").value(equalTo(String.format("no user role found with id '%s'", userRoleId))));
 
-        verify(this.modelMapper).map(userRequestCaptor.capture(), eq(User.class));
+        verify(this.securityMapper).toUser(userRequestCaptor.capture());
         assertThat(userRequestCaptor.getValue()).extracting("email").isEqualTo("me@mail.xy");
         assertThat(userRequestCaptor.getValue()).extracting("role").extracting("id").isEqualTo(userRoleId);
-        verify(this.userService).update(id, user);
+        verify(this.userService).update(id, user, null);
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -556,9 +591,9 @@ public class UserControllerTest extends MockedSecurityControllerTest {
         String update = "{ \"email\": \"me@mail.xy\", \"password\": \"password\" }";
 
         User user = new User("me@mail.xy", "password", null);
-        doReturn(user).when(this.modelMapper).map(any(UserUpdateRequest.class), eq(User.class));
+        doReturn(user).when(this.securityMapper).toUser(any(UserUpdateRequest.class));
 
-        doNothing().when(this.userService).update(id, user);
+        doNothing().when(this.userService).update(id, user, null);
 
         this.mockMvc
                 .perform(
@@ -571,11 +606,62 @@ public class UserControllerTest extends MockedSecurityControllerTest {
                 .andExpect(status().isNoContent())
                 .andExpect(jsonPath("$").doesNotExist());
 
-        verify(this.modelMapper).map(userRequestCaptor.capture(), eq(User.class));
+        verify(this.securityMapper).toUser(userRequestCaptor.capture());
         assertThat(userRequestCaptor.getValue()).extracting("email").isEqualTo("me@mail.xy");
-        verify(this.userService).update(id, user);
+        verify(this.userService).update(id, user, null);
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
+    }
+
+    @Test
+    public void testUpdate_ShouldPassVersionOfWeakIfMatch() throws Exception {
+        UUID id = UUID.randomUUID();
+        String update = "{ \"email\": \"me@mail.xy\" }";
+
+        User user = new User("me@mail.xy", null, null);
+        doReturn(user).when(this.securityMapper).toUser(any(UserUpdateRequest.class));
+
+        doNothing().when(this.userService).update(id, user, 3L);
+
+        this.mockMvc
+                .perform(
+                        put("/user/{id}", id)
+                                .header(HttpHeaders.IF_MATCH, "W/\"3.1\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(update)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isNoContent());
+
+        verify(this.securityMapper).toUser(any(UserUpdateRequest.class));
+        verify(this.userService).update(id, user, 3L);
+
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
+    }
+
+    @Test
+    public void testUpdate_ShouldReturn412IfIfMatchIsNoVersion() throws Exception {
+        UUID id = UUID.randomUUID();
+        String update = "{ \"email\": \"me@mail.xy\" }";
+
+        this.mockMvc
+                .perform(
+                        put("/user/{id}", id)
+                                .header(HttpHeaders.IF_MATCH, "W/\"abc\"")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(update)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.timestamp").isNotEmpty())
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0]").value(equalTo("entity tag W/\"abc\" does not match the current version")));
+
+        verify(this.securityMapper).toUser(any(UserUpdateRequest.class));
+
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
     }
 
     @Test
@@ -593,6 +679,47 @@ public class UserControllerTest extends MockedSecurityControllerTest {
 
         verify(this.userService).delete(id);
 
-        verifyNoMoreInteractions(this.userService, this.modelMapper);
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldDeleteGivenIds() throws Exception {
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        String body = String.format("{ \"ids\": [ \"%s\", \"%s\" ] }", id1, id2);
+
+        doReturn(2L).when(this.userService).deleteAll(List.of(id1, id2));
+
+        this.mockMvc
+                .perform(
+                        post("/user/bulk/delete")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        verify(this.userService).deleteAll(List.of(id1, id2));
+
+        verifyNoMoreInteractions(this.userService, this.securityMapper);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldReturn400IfIdsNotProvided() throws Exception {
+        this.mockMvc
+                .perform(
+                        post("/user/bulk/delete")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{ }")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("ids must not be null")));
+
+        verifyNoInteractions(this.userService, this.securityMapper);
     }
 }
@@ -7,9 +7,7 @@ import neptunilus.blueprint.sa.security.model.UserRole;
 import neptunilus.blueprint.sa.security.service.UserRoleService;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
@@ -42,8 +40,7 @@ public class UserRoleControllerTest extends MockedSecurityControllerTest {
     private UserRoleService userRoleService;
 
     @MockBean
-    @Qualifier("securityMapper")
-    private ModelMapper modelMapper;
+    private SecurityMapper securityMapper;
 
     @Test
     public void testSearch_ShouldReturnEmptyPageIfNothingFound() throws Exception {
@@ -60,7 +57,7 @@ public class UserRoleControllerTest extends MockedSecurityControllerTest {
 
         verify(this.userRoleService).find(any(Pageable.class));
 
-        verifyNoMoreInteractions(this.userRoleService, this.modelMapper);
+        verifyNoMoreInteractions(this.userRoleService, this.securityMapper);
     }
 
     @Test
@@ -74,7 +71,7 @@ public class UserRoleControllerTest extends MockedSecurityControllerTest {
         UserRoleResponse userRoleResponse = new UserRoleResponse();
         userRoleResponse.setId(UUID.randomUUID());
         userRoleResponse.setName("myCategory");
-        doReturn(userRoleResponse).when(this.modelMapper).map(userRole, UserRoleResponse.class);
+        doReturn(userRoleResponse).when(this.securityMapper).toUserRoleResponse(userRole);
 
         this.mockMvc
                 .perform(
@@ -94,9 +91,9 @@ public class UserRoleControllerTest extends MockedSecurityControllerTest {
         assertThat(pageableCaptor.getValue()).extracting("pageNumber").isEqualTo(2);
         assertThat(pageableCaptor.getValue()).extracting("pageSize").isEqualTo(10);
         assertThat(pageableCaptor.getValue().getSort().getOrderFor("name")).extracting("direction").isEqualTo(Sort.Direction.DESC);
-        verify(this.modelMapper).map(userRole, UserRoleResponse.class);
+        verify(this.securityMapper).toUserRoleResponse(userRole);
 
-        verifyNoMoreInteractions(this.userRoleService, this.modelMapper);
+        verifyNoMoreInteractions(this.userRoleService, this.securityMapper);
     }
 
     @Test
@@ -119,7 +116,7 @@ public class UserRoleControllerTest extends MockedSecurityControllerTest {
 
         verify(this.userRoleService).get(id);
 
-        verifyNoMoreInteractions(this.userRoleService, this.modelMapper);
+        verifyNoMoreInteractions(this.userRoleService, this.securityMapper);
     }
 
     @Test
@@ -138,7 +135,7 @@ public class UserRoleControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase("invalid")))
                 .andExpect(jsonPath("$.errors[0]").value(containsStringIgnoringCase(id)));
 
-        verifyNoInteractions(this.userRoleService, this.modelMapper);
+        verifyNoInteractions(this.userRoleService, this.securityMapper);
     }
 
     @Test
@@ -152,7 +149,7 @@ public class UserRoleControllerTest extends MockedSecurityControllerTest {
         UserRoleResponse userRoleResponse = new UserRoleResponse();
         userRoleResponse.setId(id);
         userRoleResponse.setName("myUserRole");
-        doReturn(userRoleResponse).when(this.modelMapper).map(userRole, UserRoleResponse.class);
+        doReturn(userRoleResponse).when(this.securityMapper).toUserRoleResponse(userRole);
 
         this.mockMvc
                 .perform(
@@ -165,8 +162,8 @@ public class UserRoleControllerTest extends MockedSecurityControllerTest {
                 .andExpect(jsonPath("$.name").value(equalTo(userRoleResponse.getName())));
 
         verify(this.userRoleService).get(id);
-        verify(this.modelMapper).map(userRole, UserRoleResponse.class);
+        verify(this.securityMapper).toUserRoleResponse(userRole);
 
-        verifyNoMoreInteractions(this.userRoleService, this.modelMapper);
+        verifyNoMoreInteractions(this.userRoleService, this.securityMapper);
     }
 }
@@ -0,0 +1,104 @@
+package neptunilus.blueprint.sa.security.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
+import neptunilus.blueprint.sa.security.cache.AuthenticatedUserCache;
+import neptunilus.blueprint.sa.security.cache.UserRoleVersionCache;
+import neptunilus.blueprint.sa.security.cache.UserVersionCache;
+import neptunilus.blueprint.sa.security.cache.VerifiedTokenCache;
+import neptunilus.blueprint.sa.security.model.Authority;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.repository.UserRepository;
+import neptunilus.blueprint.sa.security.repository.UserRoleRepository;
+import neptunilus.blueprint.sa.security.service.impl.AuthenticatedUserDetailsService;
+import neptunilus.blueprint.sa.security.util.JwtUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares the throughput of {@link JwtAuthorizationFilter} with and without the {@link VerifiedTokenCache}
+ * for a repeatedly sent token (the principal itself is always cached).
+ * <p>
+ * Run the main method (e.g. from the IDE) with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthorizationFilterBenchmark {
+
+    private static final String SECRET = "6HNJnu9d0qAAjL9LF2TlZDHzuI0_nYw12vzW-nGCeBsx4YfHbfsljSK2V2-Uz3gKOSBkT9fApfYBlRChW274-bB23OYosptykhuSH-I63Bs";
+
+    @Param({"0", "10000"})
+    private long tokenCacheSize;
+
+    private JwtAuthorizationFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setup() {
+        UserRole role = new UserRole("myRole", Set.of(Authority.READ_CATEGORY));
+        role.setId(UUID.randomUUID());
+
+        User user = new User("me@mail.xy", "password", role);
+        user.setId(UUID.randomUUID());
+
+        AuthenticatedUser authenticatedUser = new AuthenticatedUser(user);
+        AuthenticatedUserDetailsService userDetailsService = new AuthenticatedUserDetailsService(null) {
+            @Override
+            public AuthenticatedUser loadUserByUsername(final String username) {
+                return authenticatedUser;
+            }
+        };
+
+        JwtUtils jwtUtils = new JwtUtils(SECRET, "myIssuer", 3600, false, new SimpleMeterRegistry());
+        this.filter = new JwtAuthorizationFilter(
+                jwtUtils,
+                new VerifiedTokenCache(jwtUtils, this.tokenCacheSize),
+                new AuthenticatedUserCache(userDetailsService, 10000, 3600),
+                new UserRoleVersionCache(mock(UserRoleRepository.class), 10),
+                new UserVersionCache(mock(UserRepository.class), 10, 10),
+                new SimpleMeterRegistry());
+        this.authorizationHeader = String.format("Bearer %s", jwtUtils.generate(authenticatedUser));
+    }
+
+    @Benchmark
+    public Object filter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/product");
+        request.addHeader(HttpHeaders.AUTHORIZATION, this.authorizationHeader);
+
+        try {
+            this.filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthorizationFilterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
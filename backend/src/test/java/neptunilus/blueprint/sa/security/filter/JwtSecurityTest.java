@@ -1,13 +1,17 @@
 package neptunilus.blueprint.sa.security.filter;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import neptunilus.blueprint.sa.common.concurrent.BoundedExecutor;
 import neptunilus.blueprint.sa.inventory.service.CategoryService;
 import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
 import neptunilus.blueprint.sa.security.model.Authority;
 import neptunilus.blueprint.sa.security.model.User;
 import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.service.RefreshTokenService;
 import neptunilus.blueprint.sa.security.service.impl.AuthenticatedUserDetailsService;
 import neptunilus.blueprint.sa.security.util.JwtUtils;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -15,18 +19,32 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.io.IOException;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -49,8 +67,16 @@ public class JwtSecurityTest {
     @SpyBean
     private CategoryService categoryService;
 
+    @MockBean
+    private BoundedExecutor passwordHashingExecutor;
+
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
     @Test
     public void testLogin_ShouldDenyWithUnknownUser() throws Exception {
+        runLoginsImmediately();
+
         String username = "me@mail.xy";
         String password = "password";
         String body = "{ \"username\": \"" + username + "\", \"password\": \"" + password + "\" }";
@@ -71,6 +97,8 @@ public class JwtSecurityTest {
 
     @Test
     public void testLogin_ShouldDenyWithWrongPassword() throws Exception {
+        runLoginsImmediately();
+
         String username = "me@mail.xy";
         String password = "password";
         String body = "{ \"username\": \"" + username + "\", \"password\": \"" + password + "\" }";
@@ -99,6 +127,8 @@ public class JwtSecurityTest {
 
     @Test
     public void testLogin_ShouldAllowWithValidCredentials() throws Exception {
+        runLoginsImmediately();
+
         String username = "me@mail.xy";
         String password = "password";
         String body = "{ \"username\": \"" + username + "\", \"password\": \"" + password + "\" }";
@@ -112,6 +142,44 @@ public class JwtSecurityTest {
 
         AuthenticatedUser authenticatedUser = new AuthenticatedUser(user);
         doReturn(authenticatedUser).when(this.authenticatedUserDetailsService).loadUserByUsername(username);
+        doReturn("myRefreshToken").when(this.refreshTokenService).issue(user);
+
+        this.mockMvc
+                .perform(
+                        post("/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.access_token").isNotEmpty())
+                .andExpect(jsonPath("$.refresh_token").value("myRefreshToken"));
+
+        verify(this.refreshTokenService).issue(user);
+    }
+
+    @Test
+    public void testLogin_ShouldRehashOutdatedPassword() throws Exception {
+        runLoginsImmediately();
+
+        String username = "me@mail.xy";
+        String password = "password";
+        String body = "{ \"username\": \"" + username + "\", \"password\": \"" + password + "\" }";
+
+        UserRole role = new UserRole("myRole", Set.of(Authority.CREATE_CATEGORY));
+        role.setId(UUID.randomUUID());
+
+        // as stored before the hashes were prefixed
+        String passwordEncoded = new BCryptPasswordEncoder(4).encode(password);
+        assertThat(this.passwordEncoder.upgradeEncoding(passwordEncoded)).isTrue();
+
+        User user = new User(username, passwordEncoded, role);
+        user.setId(UUID.randomUUID());
+
+        AuthenticatedUser authenticatedUser = new AuthenticatedUser(user);
+        doReturn(authenticatedUser).when(this.authenticatedUserDetailsService).loadUserByUsername(username);
+        doAnswer(invocation -> invocation.getArgument(0)).when(this.authenticatedUserDetailsService).updatePassword(any(), anyString());
 
         this.mockMvc
                 .perform(
@@ -123,12 +191,134 @@ public class JwtSecurityTest {
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.access_token").isNotEmpty());
+
+        ArgumentCaptor<String> newPassword = ArgumentCaptor.forClass(String.class);
+        verify(this.authenticatedUserDetailsService).updatePassword(same(authenticatedUser), newPassword.capture());
+        assertThat(newPassword.getValue()).startsWith("{bcrypt}");
+        assertThat(this.passwordEncoder.matches(password, newPassword.getValue())).isTrue();
+        assertThat(this.passwordEncoder.upgradeEncoding(newPassword.getValue())).isFalse();
+    }
+
+    @Test
+    public void testRefresh_ShouldAllowWithoutAccessToken() throws Exception {
+        UserRole role = new UserRole("myRole", Set.of(Authority.CREATE_CATEGORY));
+        role.setId(UUID.randomUUID());
+
+        User user = new User("me@mail.xy", null, role);
+        user.setId(UUID.randomUUID());
+
+        doReturn(new RefreshTokenService.Rotation(user, "newRefreshToken")).when(this.refreshTokenService).rotate("oldRefreshToken");
+
+        this.mockMvc
+                .perform(
+                        post("/token/refresh")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{ \"refresh_token\": \"oldRefreshToken\" }")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.access_token").isNotEmpty())
+                .andExpect(jsonPath("$.refresh_token").value("newRefreshToken"));
+
+        verify(this.refreshTokenService).rotate("oldRefreshToken");
+        verifyNoInteractions(this.authenticatedUserDetailsService, this.passwordHashingExecutor);
+    }
+
+    @Test
+    public void testLogin_ShouldReturn503IfTooManyConcurrentLogins() throws Exception {
+        String body = "{ \"username\": \"me@mail.xy\", \"password\": \"password\" }";
+
+        doThrow(new RejectedExecutionException("queue full")).when(this.passwordHashingExecutor).execute(any(Runnable.class));
+
+        this.mockMvc
+                .perform(
+                        post("/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andDo(print())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.errors[0]").value("too many concurrent logins, please retry later"));
+
+        verify(this.passwordHashingExecutor).execute(any(Runnable.class));
+        verifyNoInteractions(this.authenticatedUserDetailsService);
+    }
+
+    @Test
+    public void testLogin_ShouldReturn503AndSkipAuthenticationIfLoginTimesOutInQueue() throws Exception {
+        String body = "{ \"username\": \"me@mail.xy\", \"password\": \"password\" }";
+
+        MvcResult result = this.mockMvc
+                .perform(
+                        post("/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andReturn();
+
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        assertThat(asyncContext.getTimeout()).isEqualTo(10_000);
+        timeOut(asyncContext);
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(result.getResponse().getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(result.getResponse().getContentAsString()).contains("login timed out, please retry later");
+
+        ArgumentCaptor<Runnable> authentication = ArgumentCaptor.forClass(Runnable.class);
+        verify(this.passwordHashingExecutor).execute(authentication.capture());
+        authentication.getValue().run();
+
+        verifyNoInteractions(this.authenticatedUserDetailsService, this.refreshTokenService);
+    }
+
+    @Test
+    public void testLogin_ShouldReturn503AndDropResultIfLoginTimesOutWhileAuthenticating() throws Exception {
+        String username = "me@mail.xy";
+        String password = "password";
+        String body = "{ \"username\": \"" + username + "\", \"password\": \"" + password + "\" }";
+
+        UserRole role = new UserRole("myRole", Set.of(Authority.CREATE_CATEGORY));
+        role.setId(UUID.randomUUID());
+
+        User user = new User(username, this.passwordEncoder.encode(password), role);
+        user.setId(UUID.randomUUID());
+
+        AtomicReference<MockAsyncContext> asyncContext = new AtomicReference<>();
+        doAnswer(invocation -> {
+            timeOut(asyncContext.get());
+            return new AuthenticatedUser(user);
+        }).when(this.authenticatedUserDetailsService).loadUserByUsername(username);
+
+        MvcResult result = this.mockMvc
+                .perform(
+                        post("/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andReturn();
+        asyncContext.set((MockAsyncContext) result.getRequest().getAsyncContext());
+
+        ArgumentCaptor<Runnable> authentication = ArgumentCaptor.forClass(Runnable.class);
+        verify(this.passwordHashingExecutor).execute(authentication.capture());
+        authentication.getValue().run();
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(result.getResponse().getContentAsString()).contains("login timed out, please retry later")
+                .doesNotContain("access_token");
+
+        verify(this.authenticatedUserDetailsService).loadUserByUsername(username);
+        verifyNoInteractions(this.refreshTokenService);
     }
 
     @Test
     public void testRequest_ShouldDenyWithExpiredToken() throws Exception {
         String secret = "dGlCEqrpmkP2NqWwB-mTXASixxlSstPPW9nrazlsS358YETji9g5VapuX72IKi2eoZg4cY6yRZ0Ft7GmZGz-dw";
-        JwtUtils jwtUtils = new JwtUtils(secret, "myIssuer", 0);
+        JwtUtils jwtUtils = new JwtUtils(secret, "myIssuer", 0, false, new SimpleMeterRegistry());
 
         UserRole role = new UserRole("myRole", Set.of(Authority.CREATE_CATEGORY));
         role.setId(UUID.randomUUID());
@@ -156,7 +346,7 @@ public class JwtSecurityTest {
     @Test
     public void testRequest_ShouldDenyWithWrongTokenSignature() throws Exception {
         String secret = "XXXdGlCEqrpmkP2NqWwB-mTXASixxlSstPPW9nrazlsS358YETji9g5VapuX72IKi2eoZg4cY6yRZ0Ft7GmZGz-dw";
-        JwtUtils jwtUtils = new JwtUtils(secret, "myIssuer", 3600);
+        JwtUtils jwtUtils = new JwtUtils(secret, "myIssuer", 3600, false, new SimpleMeterRegistry());
 
         UserRole role = new UserRole("myRole", Set.of(Authority.CREATE_CATEGORY));
         role.setId(UUID.randomUUID());
@@ -218,7 +408,21 @@ public class JwtSecurityTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").exists());
 
-        verify(this.categoryService).find(isNull(), eq(false), any(Pageable.class));
+        verify(this.categoryService).findSummaries(isNull(), eq(true), any(Pageable.class));
+    }
+
+    private static void timeOut(final MockAsyncContext asyncContext) throws IOException {
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+    }
+
+    private void runLoginsImmediately() {
+        // on the request thread, so that the responses are complete as soon as the requests return
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(this.passwordHashingExecutor).execute(any(Runnable.class));
     }
 
 }
@@ -0,0 +1,173 @@
+package neptunilus.blueprint.sa.security.filter;
+
+import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
+import neptunilus.blueprint.sa.security.model.Authority;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.repository.UserRepository;
+import neptunilus.blueprint.sa.security.repository.UserRoleRepository;
+import neptunilus.blueprint.sa.security.service.UserService;
+import neptunilus.blueprint.sa.security.service.impl.AuthenticatedUserDetailsService;
+import neptunilus.blueprint.sa.security.util.JwtUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"jwt.selfContained=true", "security.roleVersionCache.expirationInSeconds=0",
+        "security.userVersionCache.expirationInSeconds=60"})
+@AutoConfigureMockMvc
+@Transactional
+public class JwtSelfContainedSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @MockBean
+    private AuthenticatedUserDetailsService authenticatedUserDetailsService;
+
+    @Test
+    public void testRequest_ShouldAllowWithoutLoadingUserIfRoleVersionIsCurrent() throws Exception {
+        UserRole role = this.userRoleRepository.saveAndFlush(new UserRole("myRole", Set.of(Authority.READ_CATEGORY)));
+
+        User user = this.userRepository.saveAndFlush(new User("me@mail.xy", "password", role));
+
+        String token = this.jwtUtils.generate(new AuthenticatedUser(user));
+
+        this.mockMvc
+                .perform(
+                        get("/category")
+                                .accept(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.AUTHORIZATION, String.format("Bearer %s", token))
+                )
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        verifyNoInteractions(this.authenticatedUserDetailsService);
+    }
+
+    @Test
+    public void testRequest_ShouldLoadUserIfRoleVersionIsOutdated() throws Exception {
+        UserRole role = this.userRoleRepository.saveAndFlush(new UserRole("myRole", Set.of(Authority.READ_CATEGORY)));
+
+        User user = this.userRepository.saveAndFlush(new User("me@mail.xy", "password", role));
+
+        String token = this.jwtUtils.generate(new AuthenticatedUser(user));
+
+        role.getAuthorities().remove(Authority.READ_CATEGORY);
+        role.getAuthorities().add(Authority.READ_PRODUCT);
+        this.userRoleRepository.saveAndFlush(role);
+
+        doReturn(new AuthenticatedUser(user)).when(this.authenticatedUserDetailsService).loadUserByUsername(user.getEmail());
+
+        this.mockMvc
+                .perform(
+                        get("/category")
+                                .accept(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.AUTHORIZATION, String.format("Bearer %s", token))
+                )
+                .andDo(print())
+                .andExpect(status().isForbidden());
+
+        verify(this.authenticatedUserDetailsService).loadUserByUsername(user.getEmail());
+    }
+
+    @Test
+    public void testRequest_ShouldLoadUserIfMovedToOtherRole() throws Exception {
+        UserRole role = this.userRoleRepository.saveAndFlush(new UserRole("myRole", Set.of(Authority.READ_CATEGORY)));
+        UserRole otherRole = this.userRoleRepository.saveAndFlush(new UserRole("otherRole", Set.of(Authority.READ_PRODUCT)));
+        User user = this.userRepository.saveAndFlush(new User("me@mail.xy", "password", role));
+
+        String token = this.jwtUtils.generate(new AuthenticatedUser(user));
+        requestCategories(token).andExpect(status().isOk());
+
+        asUserAdmin(() -> this.userService.update(user.getId(), new User(user.getEmail(), null, otherRole), null));
+        this.userRepository.flush();
+
+        doReturn(new AuthenticatedUser(user)).when(this.authenticatedUserDetailsService).loadUserByUsername(user.getEmail());
+
+        requestCategories(token).andExpect(status().isForbidden());
+
+        verify(this.authenticatedUserDetailsService).loadUserByUsername(user.getEmail());
+    }
+
+    @Test
+    public void testRequest_ShouldDenyIfUserIsDeleted() throws Exception {
+        UserRole role = this.userRoleRepository.saveAndFlush(new UserRole("myRole", Set.of(Authority.READ_CATEGORY)));
+        User user = this.userRepository.saveAndFlush(new User("me@mail.xy", "password", role));
+
+        String token = this.jwtUtils.generate(new AuthenticatedUser(user));
+        requestCategories(token).andExpect(status().isOk());
+
+        asUserAdmin(() -> this.userService.delete(user.getId()));
+
+        doThrow(new UsernameNotFoundException("user not found")).when(this.authenticatedUserDetailsService).loadUserByUsername(user.getEmail());
+
+        requestCategories(token).andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testRequest_ShouldDenyIfUserIsDeletedInBulk() throws Exception {
+        UserRole role = this.userRoleRepository.saveAndFlush(new UserRole("myRole", Set.of(Authority.READ_CATEGORY)));
+        User user = this.userRepository.saveAndFlush(new User("me@mail.xy", "password", role));
+
+        String token = this.jwtUtils.generate(new AuthenticatedUser(user));
+        requestCategories(token).andExpect(status().isOk());
+
+        asUserAdmin(() -> this.userService.deleteAll(List.of(user.getId())));
+
+        doThrow(new UsernameNotFoundException("user not found")).when(this.authenticatedUserDetailsService).loadUserByUsername(user.getEmail());
+
+        requestCategories(token).andExpect(status().isForbidden());
+    }
+
+    private ResultActions requestCategories(final String token) throws Exception {
+        return this.mockMvc
+                .perform(
+                        get("/category")
+                                .accept(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.AUTHORIZATION, String.format("Bearer %s", token))
+                )
+                .andDo(print());
+    }
+
+    private static void asUserAdmin(final Runnable action) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("admin", null,
+                Authority.UPDATE_USER.name(), Authority.DELETE_USER.name(), Authority.READ_USER_ROLE.name()));
+        try {
+            action.run();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+}
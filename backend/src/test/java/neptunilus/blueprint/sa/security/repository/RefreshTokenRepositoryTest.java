@@ -0,0 +1,127 @@
+package neptunilus.blueprint.sa.security.repository;
+
+import neptunilus.blueprint.sa.security.model.RefreshToken;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static neptunilus.blueprint.sa.security.model.Authority.CREATE_CATEGORY;
+import static neptunilus.blueprint.sa.security.model.Authority.READ_USER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringJUnitConfig
+@DataJpaTest
+public class RefreshTokenRepositoryTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void testFindOneWithUserByTokenHash_ShouldFindWithUserAndAuthorities() {
+        User user = persistUser("a@abc.xy");
+        this.testEntityManager.persist(new RefreshToken("hash1", user, Instant.now().plusSeconds(60)));
+        this.testEntityManager.persist(new RefreshToken("hash2", user, Instant.now().plusSeconds(60)));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Optional<RefreshToken> refreshToken = this.refreshTokenRepository.findOneWithUserByTokenHash("hash1");
+        this.testEntityManager.clear();
+
+        assertThat(refreshToken).isPresent();
+        assertThat(refreshToken).get().extracting("user").extracting("email").isEqualTo("a@abc.xy");
+        assertThat(refreshToken.get().getUser().getRole().getAuthorities()).containsExactlyInAnyOrder(CREATE_CATEGORY, READ_USER);
+
+        assertThat(this.refreshTokenRepository.findOneWithUserByTokenHash("hash3")).isEmpty();
+    }
+
+    @Test
+    public void testMarkUsedByTokenHash_ShouldMarkOnlyOnce() {
+        User user = persistUser("a@abc.xy");
+        this.testEntityManager.persist(new RefreshToken("hash1", user, Instant.now().plusSeconds(60)));
+        this.testEntityManager.persist(new RefreshToken("hash2", user, Instant.now().plusSeconds(60)));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        assertThat(this.refreshTokenRepository.markUsedByTokenHash("hash1")).isEqualTo(1);
+        assertThat(this.refreshTokenRepository.markUsedByTokenHash("hash1")).isEqualTo(0);
+
+        assertThat(this.refreshTokenRepository.findAll()).extracting("tokenHash", "used")
+                .containsExactlyInAnyOrder(tuple("hash1", true), tuple("hash2", false));
+    }
+
+    @Test
+    public void testDeleteByFamilyId_ShouldDeleteOnlyTokensOfFamily() {
+        User user = persistUser("a@abc.xy");
+        UUID familyId = UUID.randomUUID();
+        this.testEntityManager.persist(new RefreshToken("hash1", user, familyId, Instant.now().plusSeconds(60)));
+        this.testEntityManager.persist(new RefreshToken("hash2", user, familyId, Instant.now().plusSeconds(60)));
+        this.testEntityManager.persist(new RefreshToken("hash3", user, Instant.now().plusSeconds(60)));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        assertThat(this.refreshTokenRepository.deleteByFamilyId(familyId)).isEqualTo(2);
+
+        assertThat(this.refreshTokenRepository.findAll()).extracting("tokenHash").containsExactly("hash3");
+    }
+
+    @Test
+    public void testDeleteByUserIdAndExpiresAtBefore_ShouldDeleteOnlyExpiredOnesOfUser() {
+        User user1 = persistUser("a@abc.xy");
+        User user2 = persistUser("b@abc.xy");
+        Instant now = Instant.now();
+        this.testEntityManager.persist(new RefreshToken("expired1", user1, now.minusSeconds(1)));
+        this.testEntityManager.persist(new RefreshToken("valid1", user1, now.plusSeconds(60)));
+        this.testEntityManager.persist(new RefreshToken("expired2", user2, now.minusSeconds(1)));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        assertThat(this.refreshTokenRepository.deleteByUserIdAndExpiresAtBefore(user1.getId(), now)).isEqualTo(1);
+
+        assertThat(this.refreshTokenRepository.findAll()).extracting("tokenHash").containsExactlyInAnyOrder("valid1", "expired2");
+
+        assertThat(this.refreshTokenRepository.deleteByUserId(user1.getId())).isEqualTo(1);
+
+        assertThat(this.refreshTokenRepository.findAll()).extracting("tokenHash").containsExactly("expired2");
+    }
+
+    @Test
+    public void testDeleteUser_ShouldDeleteItsTokens() {
+        User user1 = persistUser("a@abc.xy");
+        User user2 = persistUser("b@abc.xy");
+        this.testEntityManager.persist(new RefreshToken("hash1", user1, Instant.now().plusSeconds(60)));
+        this.testEntityManager.persist(new RefreshToken("hash2", user2, Instant.now().plusSeconds(60)));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        this.userRepository.deleteByIdIn(Set.of(user1.getId()));
+
+        assertThat(this.refreshTokenRepository.findAll()).extracting("tokenHash").containsExactly("hash2");
+    }
+
+    private User persistUser(final String email) {
+        UserRole userRole = this.testEntityManager.persist(new UserRole("role" + email, Set.of(CREATE_CATEGORY, READ_USER)));
+        return this.testEntityManager.persist(new User(email, "password", userRole));
+    }
+
+}
@@ -1,17 +1,23 @@
 package neptunilus.blueprint.sa.security.repository;
 
+import neptunilus.blueprint.sa.common.pagination.Cursor;
 import neptunilus.blueprint.sa.security.model.Authority;
 import neptunilus.blueprint.sa.security.model.User;
 import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.repository.projection.UserSummary;
 import org.assertj.core.api.InstanceOfAssertFactories;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
 import javax.validation.ConstraintViolationException;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -19,6 +25,7 @@ import java.util.UUID;
 import static neptunilus.blueprint.sa.security.model.Authority.CREATE_CATEGORY;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringJUnitConfig
 @DataJpaTest
@@ -105,6 +112,81 @@ public class UserRepositoryTest {
         assertThat(users).extracting("email").containsExactlyInAnyOrder("test@abc.xy", "test2@abc.xy");
     }
 
+    @Test
+    public void testFindSummaries_ShouldFindAllWithRole() {
+        UserRole userRole = new UserRole("role", Set.of(CREATE_CATEGORY));
+        UUID roleId = this.testEntityManager.persist(userRole).getId();
+
+        User user = new User("test@abc.xy", "password", userRole);
+        UUID id = this.testEntityManager.persist(user).getId();
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Slice<UserSummary> users = this.userRepository.findSummaries(PageRequest.of(0, 10));
+        assertThat(users).hasSize(1);
+        assertThat(users).extracting("id", "email", "roleId", "roleName").containsExactly(tuple(id, "test@abc.xy", roleId, "role"));
+    }
+
+    @Test
+    public void testFindSummariesByEmailContainingIgnoreCase_ShouldFindTheCorrectOnes() {
+        UserRole userRole = new UserRole("role", Set.of(CREATE_CATEGORY));
+        this.testEntityManager.persist(userRole);
+
+        User userToFind1 = new User("test@abc.xy", "password", userRole);
+        this.testEntityManager.persist(userToFind1);
+
+        User userToFind2 = new User("test2@ABC.xy", "password", userRole);
+        this.testEntityManager.persist(userToFind2);
+
+        User userNotToFind = new User("test@xyz.ab", "password", userRole);
+        this.testEntityManager.persist(userNotToFind);
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Slice<UserSummary> users = this.userRepository.findSummariesByEmailContainingIgnoreCase("abc", PageRequest.of(0, 1, Sort.by("email")));
+        assertThat(users.hasNext()).isTrue();
+        assertThat(this.userRepository.countByEmailContainingIgnoreCase("abc")).isEqualTo(2);
+        assertThat(users).extracting("email").containsExactly("test2@ABC.xy");
+    }
+
+    @Test
+    public void testDeleteByIdIn_ShouldDeleteOnlyTheGivenOnes() {
+        UserRole userRole = new UserRole("role", Set.of(CREATE_CATEGORY));
+        this.testEntityManager.persist(userRole);
+
+        UUID idToDelete = this.testEntityManager.persist(new User("a@abc.xy", "password", userRole)).getId();
+        this.testEntityManager.persist(new User("b@abc.xy", "password", userRole));
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        List<UUID> ids = List.of(idToDelete, UUID.randomUUID());
+        assertThat(this.userRepository.findEmailsByIdIn(ids)).containsExactly("a@abc.xy");
+        assertThat(this.userRepository.deleteByIdIn(ids)).isEqualTo(1);
+
+        assertThat(this.userRepository.findAll()).extracting("email").containsExactly("b@abc.xy");
+    }
+
+    @Test
+    public void testUpdatePassword_ShouldUpdateOnlyIfCurrentPasswordMatches() {
+        UserRole userRole = new UserRole("role", Set.of(CREATE_CATEGORY));
+        this.testEntityManager.persist(userRole);
+
+        UUID id = this.testEntityManager.persist(new User("a@abc.xy", "old", userRole)).getId();
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        assertThat(this.userRepository.updatePassword("a@abc.xy", "other", "new")).isEqualTo(0);
+        assertThat(this.userRepository.findById(id)).get().extracting("password").isEqualTo("old");
+
+        assertThat(this.userRepository.updatePassword("a@abc.xy", "old", "new")).isEqualTo(1);
+        assertThat(this.userRepository.findById(id)).get().extracting("password").isEqualTo("new");
+        assertThat(this.userRepository.findById(id)).get().extracting("version").isEqualTo(0L);
+    }
+
     @Test
     public void testInsertInvalid_ShouldThrowException() {
         User invalidUser = new User("abc", "abc", null);
@@ -114,4 +196,28 @@ public class UserRepositoryTest {
                 .extracting("constraintViolations").asInstanceOf(InstanceOfAssertFactories.ITERABLE)
                 .extracting("propertyPath").asString().contains("email", "role");
     }
+
+    @Test
+    public void testFindSummariesAfter_ShouldContinueAfterCursor() {
+        UserRole userRole = new UserRole("role", Set.of(CREATE_CATEGORY));
+        UUID roleId = this.testEntityManager.persist(userRole).getId();
+
+        User user1 = new User("a@abc.xy", "password", userRole);
+        UUID id1 = this.testEntityManager.persist(user1).getId();
+
+        User user2 = new User("b@abc.xy", "password", userRole);
+        UUID id2 = this.testEntityManager.persist(user2).getId();
+
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        Slice<UserSummary> first = this.userRepository.findSummariesAfter(Cursor.FIRST, PageRequest.of(0, 1));
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first).extracting("id").containsExactly(id1);
+
+        Slice<UserSummary> second = this.userRepository.findSummariesAfter(new Cursor("a@abc.xy", id1), PageRequest.of(0, 1));
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second).extracting("id", "email", "roleId").containsExactly(tuple(id2, "b@abc.xy", roleId));
+    }
+
 }
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Optional;
@@ -68,4 +69,35 @@ public class AuthenticatedUserDetailsServiceTest {
         verifyNoMoreInteractions(this.userRepository);
     }
 
+    @Test
+    public void testUpdatePassword_ShouldReplacePasswordIfUnchanged() {
+        User user = new User("me@mail.xy", "old", new UserRole("myRole", Set.of(Authority.CREATE_CATEGORY)));
+        AuthenticatedUser authenticatedUser = new AuthenticatedUser(user);
+
+        doReturn(1).when(this.userRepository).updatePassword("me@mail.xy", "old", "new");
+
+        UserDetails updated = this.authenticatedUserDetailsService.updatePassword(authenticatedUser, "new");
+
+        assertThat(updated).isSameAs(authenticatedUser);
+        assertThat(updated).extracting("password").isEqualTo("new");
+
+        verify(this.userRepository).updatePassword("me@mail.xy", "old", "new");
+        verifyNoMoreInteractions(this.userRepository);
+    }
+
+    @Test
+    public void testUpdatePassword_ShouldKeepPasswordIfChangedMeanwhile() {
+        User user = new User("me@mail.xy", "old", new UserRole("myRole", Set.of(Authority.CREATE_CATEGORY)));
+        AuthenticatedUser authenticatedUser = new AuthenticatedUser(user);
+
+        doReturn(0).when(this.userRepository).updatePassword("me@mail.xy", "old", "new");
+
+        UserDetails updated = this.authenticatedUserDetailsService.updatePassword(authenticatedUser, "new");
+
+        assertThat(updated).extracting("password").isEqualTo("old");
+
+        verify(this.userRepository).updatePassword("me@mail.xy", "old", "new");
+        verifyNoMoreInteractions(this.userRepository);
+    }
+
 }
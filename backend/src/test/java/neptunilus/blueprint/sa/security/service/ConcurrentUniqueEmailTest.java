@@ -0,0 +1,97 @@
+package neptunilus.blueprint.sa.security.service;
+
+import neptunilus.blueprint.sa.common.concurrent.ConcurrentWriters;
+import neptunilus.blueprint.sa.security.exception.UserAlreadyExistsException;
+import neptunilus.blueprint.sa.security.model.Authority;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.repository.UserRepository;
+import neptunilus.blueprint.sa.security.repository.UserRoleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stress test for concurrent writers of the same email, relying on the unique constraint only.
+ */
+@SpringBootTest
+public class ConcurrentUniqueEmailTest {
+
+    private static final int WRITERS = 16;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    private UserRole role;
+
+    @BeforeEach
+    public void setUp() {
+        this.role = this.userRoleRepository.saveAndFlush(new UserRole("myRole", Set.of(Authority.READ_USER)));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        this.userRepository.deleteAll();
+        this.userRoleRepository.deleteAll();
+    }
+
+    @Test
+    public void testCreate_ShouldCreateExactlyOneUserPerEmailForConcurrentWriters() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            final String email = String.format("user%d@mail.xy", round);
+
+            final List<Object> outcomes = ConcurrentWriters.run(
+                    Collections.nCopies(WRITERS, () -> this.userService.create(new User(email, "password", this.role))),
+                    "CREATE_USER", "READ_USER_ROLE");
+
+            assertThat(outcomes).filteredOn(UUID.class::isInstance).hasSize(1);
+            assertThat(outcomes).filteredOn(UserAlreadyExistsException.class::isInstance).hasSize(WRITERS - 1);
+            assertThat(this.userRepository.findOneByEmail(email)).isPresent();
+        }
+        assertThat(this.userRepository.count()).isEqualTo(ROUNDS);
+    }
+
+    @Test
+    public void testUpdate_ShouldChangeExactlyOneUserToEmailForConcurrentWriters() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            final String email = String.format("target%d@mail.xy", round);
+
+            final List<Callable<?>> writers = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                final UUID id = this.userRepository.saveAndFlush(
+                        new User(String.format("user%d-%d@mail.xy", round, i), "password", this.role)).getId();
+                writers.add(() -> {
+                    this.userService.update(id, new User(email, null, null), null);
+                    return id;
+                });
+            }
+
+            final List<Object> outcomes = ConcurrentWriters.run(writers, "UPDATE_USER");
+
+            assertThat(outcomes).filteredOn(UUID.class::isInstance).hasSize(1);
+            assertThat(outcomes).filteredOn(UserAlreadyExistsException.class::isInstance).hasSize(WRITERS - 1);
+            assertThat(this.userRepository.findOneByEmail(email))
+                    .hasValueSatisfying(user -> assertThat(outcomes).contains(user.getId()));
+        }
+        assertThat(this.userRepository.count()).isEqualTo(ROUNDS * WRITERS);
+    }
+
+}
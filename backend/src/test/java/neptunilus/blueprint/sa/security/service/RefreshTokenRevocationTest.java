@@ -0,0 +1,105 @@
+package neptunilus.blueprint.sa.security.service;
+
+import neptunilus.blueprint.sa.security.exception.InvalidRefreshTokenException;
+import neptunilus.blueprint.sa.security.model.Authority;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.repository.RefreshTokenRepository;
+import neptunilus.blueprint.sa.security.repository.UserRepository;
+import neptunilus.blueprint.sa.security.repository.UserRoleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests the revocation of refresh tokens against the database, as it clears the persistence context.
+ */
+@SpringBootTest
+public class RefreshTokenRevocationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        UserRole role = this.userRoleRepository.saveAndFlush(new UserRole("myRole", Set.of(Authority.READ_USER)));
+        this.user = this.userRepository.saveAndFlush(new User("me@mail.xy", this.passwordEncoder.encode("password"), role));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        this.refreshTokenRepository.deleteAll();
+        this.userRepository.deleteAll();
+        this.userRoleRepository.deleteAll();
+    }
+
+    @Test
+    public void testUpdate_ShouldSaveUserAndRevokeAllRefreshTokensIfPasswordChanged() {
+        String token1 = this.refreshTokenService.issue(this.user);
+        String token2 = this.refreshTokenService.issue(this.user);
+
+        asUserAdmin(() -> this.userService.update(this.user.getId(), new User("new@mail.xy", "newPassword", null), this.user.getVersion()));
+
+        User updatedUser = this.userRepository.findById(this.user.getId()).orElseThrow();
+        assertThat(updatedUser.getEmail()).isEqualTo("new@mail.xy");
+        assertThat(this.passwordEncoder.matches("newPassword", updatedUser.getPassword())).isTrue();
+        assertThat(updatedUser.getVersion()).isGreaterThan(this.user.getVersion());
+
+        assertThat(this.refreshTokenRepository.count()).isZero();
+        assertThatExceptionOfType(InvalidRefreshTokenException.class).isThrownBy(() -> this.refreshTokenService.rotate(token1));
+        assertThatExceptionOfType(InvalidRefreshTokenException.class).isThrownBy(() -> this.refreshTokenService.rotate(token2));
+    }
+
+    @Test
+    public void testRotate_ShouldRevokeFamilyIfTokenReplayed() {
+        String token = this.refreshTokenService.issue(this.user);
+        String otherLoginToken = this.refreshTokenService.issue(this.user);
+
+        String rotatedToken = this.refreshTokenService.rotate(token).getRefreshToken();
+
+        assertThatExceptionOfType(InvalidRefreshTokenException.class)
+                .isThrownBy(() -> this.refreshTokenService.rotate(token))
+                .withMessageContaining("already used");
+        assertThatExceptionOfType(InvalidRefreshTokenException.class)
+                .isThrownBy(() -> this.refreshTokenService.rotate(rotatedToken));
+
+        assertThat(this.refreshTokenService.rotate(otherLoginToken).getUser().getId()).isEqualTo(this.user.getId());
+    }
+
+    private static void asUserAdmin(final Runnable action) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("admin", null, Authority.UPDATE_USER.name()));
+        try {
+            action.run();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+package neptunilus.blueprint.sa.security.service;
+
+import neptunilus.blueprint.sa.security.exception.InvalidRefreshTokenException;
+import neptunilus.blueprint.sa.security.model.RefreshToken;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import neptunilus.blueprint.sa.security.repository.RefreshTokenRepository;
+import neptunilus.blueprint.sa.security.repository.UserRepository;
+import neptunilus.blueprint.sa.security.service.impl.RefreshTokenServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final RefreshTokenService refreshTokenService;
+
+    RefreshTokenServiceTest(@Mock final RefreshTokenRepository refreshTokenRepository,
+                            @Mock final UserRepository userRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository, userRepository, 60);
+    }
+
+    @Test
+    public void testIssue_ShouldStoreHashOfNewToken() {
+        ArgumentCaptor<RefreshToken> refreshTokenCaptor = ArgumentCaptor.forClass(RefreshToken.class);
+
+        User user = createUser();
+        doReturn(user).when(this.userRepository).getOne(user.getId());
+
+        Instant before = Instant.now();
+        String token1 = this.refreshTokenService.issue(user);
+        String token2 = this.refreshTokenService.issue(user);
+
+        assertThat(token1).hasSizeGreaterThanOrEqualTo(43).isNotEqualTo(token2);
+
+        verify(this.refreshTokenRepository, times(2)).deleteByUserIdAndExpiresAtBefore(eq(user.getId()), any(Instant.class));
+        verify(this.userRepository, times(2)).getOne(user.getId());
+        verify(this.refreshTokenRepository, times(2)).save(refreshTokenCaptor.capture());
+        assertThat(refreshTokenCaptor.getAllValues()).extracting("user").containsOnly(user);
+        assertThat(refreshTokenCaptor.getAllValues()).extracting("tokenHash").doesNotContain(token1, token2).doesNotHaveDuplicates();
+        assertThat(refreshTokenCaptor.getAllValues()).extracting("familyId").doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(refreshTokenCaptor.getValue().getExpiresAt()).isBetween(before.plusSeconds(60), Instant.now().plusSeconds(60));
+        verifyNoMoreInteractions(this.refreshTokenRepository, this.userRepository);
+    }
+
+    @Test
+    public void testRotate_ShouldThrowExceptionIfTokenNotProvided() {
+        assertThatExceptionOfType(InvalidRefreshTokenException.class)
+                .isThrownBy(() -> this.refreshTokenService.rotate(" "))
+                .withMessageContainingAll("refresh token", "empty");
+
+        verifyNoInteractions(this.refreshTokenRepository, this.userRepository);
+    }
+
+    @Test
+    public void testRotate_ShouldThrowExceptionIfTokenUnknown() {
+        doReturn(Optional.empty()).when(this.refreshTokenRepository).findOneWithUserByTokenHash(anyString());
+
+        assertThatExceptionOfType(InvalidRefreshTokenException.class)
+                .isThrownBy(() -> this.refreshTokenService.rotate("token"))
+                .withMessageContainingAll("refresh token", "unknown");
+
+        verify(this.refreshTokenRepository).findOneWithUserByTokenHash(anyString());
+        verifyNoMoreInteractions(this.refreshTokenRepository, this.userRepository);
+    }
+
+    @Test
+    public void testRotate_ShouldThrowExceptionIfTokenExpired() {
+        RefreshToken refreshToken = new RefreshToken("hash", createUser(), Instant.now().minusSeconds(1));
+        doReturn(Optional.of(refreshToken)).when(this.refreshTokenRepository).findOneWithUserByTokenHash(anyString());
+
+        assertThatExceptionOfType(InvalidRefreshTokenException.class)
+                .isThrownBy(() -> this.refreshTokenService.rotate("token"))
+                .withMessageContainingAll("refresh token", "expired");
+
+        verify(this.refreshTokenRepository).findOneWithUserByTokenHash(anyString());
+        verifyNoMoreInteractions(this.refreshTokenRepository, this.userRepository);
+    }
+
+    @Test
+    public void testRotate_ShouldRevokeFamilyIfTokenAlreadyUsed() {
+        RefreshToken refreshToken = new RefreshToken("hash", createUser(), Instant.now().plusSeconds(60));
+        refreshToken.setUsed(true);
+        doReturn(Optional.of(refreshToken)).when(this.refreshTokenRepository).findOneWithUserByTokenHash(anyString());
+
+        assertThatExceptionOfType(InvalidRefreshTokenException.class)
+                .isThrownBy(() -> this.refreshTokenService.rotate("token"))
+                .withMessageContainingAll("refresh token", "already used");
+
+        verify(this.refreshTokenRepository).findOneWithUserByTokenHash(anyString());
+        verify(this.refreshTokenRepository).deleteByFamilyId(refreshToken.getFamilyId());
+        verifyNoMoreInteractions(this.refreshTokenRepository, this.userRepository);
+    }
+
+    @Test
+    public void testRotate_ShouldRevokeFamilyIfTokenUsedConcurrently() {
+        RefreshToken refreshToken = new RefreshToken("hash", createUser(), Instant.now().plusSeconds(60));
+        doReturn(Optional.of(refreshToken)).when(this.refreshTokenRepository).findOneWithUserByTokenHash(anyString());
+        doReturn(0).when(this.refreshTokenRepository).markUsedByTokenHash(anyString());
+
+        assertThatExceptionOfType(InvalidRefreshTokenException.class)
+                .isThrownBy(() -> this.refreshTokenService.rotate("token"))
+                .withMessageContainingAll("refresh token", "already used");
+
+        verify(this.refreshTokenRepository).findOneWithUserByTokenHash(anyString());
+        verify(this.refreshTokenRepository).markUsedByTokenHash(anyString());
+        verify(this.refreshTokenRepository).deleteByFamilyId(refreshToken.getFamilyId());
+        verifyNoMoreInteractions(this.refreshTokenRepository, this.userRepository);
+    }
+
+    @Test
+    public void testRotate_ShouldReplaceTokenIfValid() {
+        ArgumentCaptor<String> tokenHashCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<RefreshToken> refreshTokenCaptor = ArgumentCaptor.forClass(RefreshToken.class);
+
+        User user = createUser();
+        RefreshToken refreshToken = new RefreshToken("hash", user, Instant.now().plusSeconds(60));
+        doReturn(Optional.of(refreshToken)).when(this.refreshTokenRepository).findOneWithUserByTokenHash(tokenHashCaptor.capture());
+        doReturn(1).when(this.refreshTokenRepository).markUsedByTokenHash(anyString());
+        doReturn(user).when(this.userRepository).getOne(user.getId());
+
+        RefreshTokenService.Rotation rotation = this.refreshTokenService.rotate("token");
+
+        assertThat(rotation.getUser()).isSameAs(user);
+        assertThat(rotation.getRefreshToken()).isNotEqualTo("token");
+
+        verify(this.refreshTokenRepository).findOneWithUserByTokenHash(anyString());
+        verify(this.refreshTokenRepository).markUsedByTokenHash(tokenHashCaptor.getValue());
+        verify(this.refreshTokenRepository).deleteByUserIdAndExpiresAtBefore(eq(user.getId()), any(Instant.class));
+        verify(this.userRepository).getOne(user.getId());
+        verify(this.refreshTokenRepository).save(refreshTokenCaptor.capture());
+        assertThat(refreshTokenCaptor.getValue().getTokenHash()).isNotEqualTo(tokenHashCaptor.getValue());
+        assertThat(refreshTokenCaptor.getValue().getFamilyId()).isEqualTo(refreshToken.getFamilyId());
+        verifyNoMoreInteractions(this.refreshTokenRepository, this.userRepository);
+    }
+
+    @Test
+    public void testRevokeAll_ShouldDeleteAllTokensOfUser() {
+        UUID userId = UUID.randomUUID();
+
+        this.refreshTokenService.revokeAll(userId);
+
+        verify(this.refreshTokenRepository).deleteByUserId(userId);
+        verifyNoMoreInteractions(this.refreshTokenRepository, this.userRepository);
+    }
+
+    private static User createUser() {
+        User user = new User("me@mail.xy", "password", new UserRole("myRole", Collections.emptySet()));
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+}
@@ -1,22 +1,39 @@
 package neptunilus.blueprint.sa.security.service;
 
+import neptunilus.blueprint.sa.common.cache.ChangeCounter;
+import neptunilus.blueprint.sa.common.cache.CountCache;
+import neptunilus.blueprint.sa.common.cache.ExistenceFilter;
+import neptunilus.blueprint.sa.common.exception.VersionMismatchException;
+import neptunilus.blueprint.sa.common.pagination.Cursor;
+import neptunilus.blueprint.sa.reactive.cache.ReactiveAuthorityCache;
+import neptunilus.blueprint.sa.security.cache.AuthenticatedUserCache;
+import neptunilus.blueprint.sa.security.cache.UserVersionCache;
 import neptunilus.blueprint.sa.security.exception.UserAlreadyExistsException;
 import neptunilus.blueprint.sa.security.exception.UserNotFoundException;
 import neptunilus.blueprint.sa.security.model.User;
 import neptunilus.blueprint.sa.security.model.UserRole;
 import neptunilus.blueprint.sa.security.repository.UserRepository;
+import neptunilus.blueprint.sa.security.repository.projection.UserSummary;
 import neptunilus.blueprint.sa.security.service.impl.UserServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -31,15 +48,31 @@ public class UserServiceTest {
     private final UserRepository userRepository;
     private final UserRoleService userRoleService;
     private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final UserVersionCache userVersionCache;
+    private final ReactiveAuthorityCache reactiveAuthorityCache;
+    private final ExistenceFilter userEmailFilter;
     private final UserService userService;
 
     UserServiceTest(@Mock final UserRepository userRepository,
                     @Mock final UserRoleService userRoleService,
-                    @Mock final PasswordEncoder passwordEncoder) {
+                    @Mock final PasswordEncoder passwordEncoder,
+                    @Mock final RefreshTokenService refreshTokenService,
+                    @Mock final AuthenticatedUserCache authenticatedUserCache,
+                    @Mock final UserVersionCache userVersionCache,
+                    @Mock final ReactiveAuthorityCache reactiveAuthorityCache) {
         this.userRepository = userRepository;
         this.userRoleService = userRoleService;
         this.passwordEncoder = passwordEncoder;
-        this.userService = new UserServiceImpl(this.userRepository, this.userRoleService, this.passwordEncoder);
+        this.refreshTokenService = refreshTokenService;
+        this.authenticatedUserCache = authenticatedUserCache;
+        this.userVersionCache = userVersionCache;
+        this.reactiveAuthorityCache = reactiveAuthorityCache;
+        this.userEmailFilter = new ExistenceFilter("userEmail", 100, 0.01, emails -> emails.accept("existing@mail.xy"));
+        this.userService = new UserServiceImpl(this.userRepository, this.userRoleService, this.passwordEncoder, this.refreshTokenService, this.authenticatedUserCache,
+                this.userVersionCache, new StaticListableBeanFactory(Map.of("reactiveAuthorityCache", this.reactiveAuthorityCache))
+                .getBeanProvider(ReactiveAuthorityCache.class), new CountCache(10, 60), new ChangeCounter(), this.userEmailFilter);
     }
 
     @Test
@@ -57,7 +90,17 @@ public class UserServiceTest {
         assertThat(page).extracting("email").containsExactly("me@mail.xy");
 
         verify(this.userRepository).findOneByEmail(search);
-        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
+    }
+
+    @Test
+    public void testFind_shouldNotQueryWithStrictIfEmailFilterRulesOutSearch() {
+        this.userEmailFilter.rebuild();
+
+        Page<User> page = this.userService.find("unknown@mail.xy", true, Pageable.unpaged());
+
+        assertThat(page).isEmpty();
+        verifyNoInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
@@ -75,7 +118,7 @@ public class UserServiceTest {
         assertThat(page).extracting("email").containsExactly("me@mail.xy");
 
         verify(this.userRepository).findByEmailContainingIgnoreCase(search, pageable);
-        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
@@ -93,7 +136,7 @@ public class UserServiceTest {
         assertThat(page).extracting("email").containsExactly("me@mail.xy");
 
         verify(this.userRepository).findAll(pageable);
-        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
@@ -111,7 +154,54 @@ public class UserServiceTest {
         assertThat(page).extracting("email").containsExactly("me@mail.xy");
 
         verify(this.userRepository).findAll(pageable);
-        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
+    }
+
+    @Test
+    public void testFindSummaries_shouldFindSomeWithSearch() {
+        String search = "search";
+        Pageable pageable = Pageable.unpaged();
+
+        UserSummary existingUser = new UserSummary(UUID.randomUUID(), "me@mail.xy", null, null);
+        doReturn(new PageImpl<>(Collections.singletonList(existingUser))).when(this.userRepository)
+                .findSummariesByEmailContainingIgnoreCase(search, pageable);
+
+        Slice<UserSummary> page = this.userService.findSummaries(search, true, pageable);
+
+        assertThat(page).containsExactly(existingUser);
+
+        verify(this.userRepository).findSummariesByEmailContainingIgnoreCase(search, pageable);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
+    }
+
+    @Test
+    public void testFindSummaries_shouldFindAllWithoutSearch() {
+        String search = null;
+        Pageable pageable = Pageable.unpaged();
+
+        UserSummary existingUser = new UserSummary(UUID.randomUUID(), "me@mail.xy", null, null);
+        doReturn(new PageImpl<>(Collections.singletonList(existingUser))).when(this.userRepository).findSummaries(pageable);
+
+        Slice<UserSummary> page = this.userService.findSummaries(search, true, pageable);
+
+        assertThat(page).containsExactly(existingUser);
+
+        verify(this.userRepository).findSummaries(pageable);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
+    }
+
+    @Test
+    public void testFindSummariesAfterCursor_shouldStartWithFirstSliceWithoutSearch() {
+        UserSummary existingUser = new UserSummary(UUID.randomUUID(), "me@mail.xy", null, null);
+        doReturn(new SliceImpl<>(Collections.singletonList(existingUser))).when(this.userRepository)
+                .findSummariesAfter(Cursor.FIRST, PageRequest.of(0, 10));
+
+        Slice<UserSummary> slice = this.userService.findSummariesAfter(null, null, 10);
+
+        assertThat(slice).containsExactly(existingUser);
+
+        verify(this.userRepository).findSummariesAfter(Cursor.FIRST, PageRequest.of(0, 10));
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
@@ -119,7 +209,7 @@ public class UserServiceTest {
         assertThatExceptionOfType(IllegalArgumentException.class)
                 .isThrownBy(() -> this.userService.get(null))
                 .withMessageContainingAll("id", "null");
-        verifyNoInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
@@ -132,7 +222,7 @@ public class UserServiceTest {
                 .isThrownBy(() -> this.userService.get(id))
                 .withMessageContainingAll("no", "user", id.toString());
         verify(this.userRepository).findById(id);
-        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
@@ -146,7 +236,7 @@ public class UserServiceTest {
         assertThat(userReturned).isSameAs(user);
 
         verify(this.userRepository).findById(id);
-        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
@@ -154,22 +244,23 @@ public class UserServiceTest {
         assertThatExceptionOfType(IllegalArgumentException.class)
                 .isThrownBy(() -> this.userService.create(null))
                 .withMessageContainingAll("user", "null");
-        verifyNoInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
     public void testCreate_ShouldThrowExceptionIfUserAlreadyExists() {
         String email = "me@mail.xy";
-        User existingUser = new User(email, null, null);
         User newUser = new User(email, null, null);
 
-        doReturn(Optional.of(existingUser)).when(this.userRepository).findOneByEmail(email);
+        doThrow(new DataIntegrityViolationException("conflict", new ConstraintViolationException("conflict", null, User.UNIQUE_EMAIL)))
+                .when(this.userRepository).saveAndFlush(any(User.class));
 
         assertThatExceptionOfType(UserAlreadyExistsException.class)
                 .isThrownBy(() -> this.userService.create(newUser))
                 .withMessageContainingAll("user", "exists", email);
-        verify(this.userRepository).findOneByEmail(email);
-        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verify(this.passwordEncoder).encode(null);
+        verify(this.userRepository).saveAndFlush(any(User.class));
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
@@ -188,43 +279,40 @@ public class UserServiceTest {
         UserRole existingUserRole = new UserRole("role", Collections.emptySet());
         doReturn(existingUserRole).when(this.userRoleService).get(userRoleId);
 
-        doReturn(Optional.empty()).when(this.userRepository).findOneByEmail(email);
-
         String passwordEncoded = UUID.randomUUID().toString();
         doReturn(passwordEncoded).when(this.passwordEncoder).encode(password);
 
         User persistedUser = new User("my@mail.xy", null, null);
         persistedUser.setId(UUID.randomUUID());
 
-        doReturn(persistedUser).when(this.userRepository).save(any(User.class));
+        doReturn(persistedUser).when(this.userRepository).saveAndFlush(any(User.class));
 
         UUID newId = this.userService.create(newUser);
 
-        verify(this.userRepository).findOneByEmail(email);
         verify(this.userRoleService).get(userRoleId);
         verify(this.passwordEncoder).encode(password);
-        verify(this.userRepository).save(userCaptor.capture());
+        verify(this.userRepository).saveAndFlush(userCaptor.capture());
         assertThat(newId).isEqualTo(persistedUser.getId());
         assertThat(userCaptor.getValue()).extracting("email").isEqualTo(email);
         assertThat(userCaptor.getValue()).extracting("password").isEqualTo(passwordEncoded);
         assertThat(userCaptor.getValue()).extracting("role").isSameAs(existingUserRole);
-        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
     public void testUpdate_ShouldThrowExceptionIfIdNotProvided() {
         assertThatExceptionOfType(IllegalArgumentException.class)
-                .isThrownBy(() -> this.userService.update(null, new User(null, null, null)))
+                .isThrownBy(() -> this.userService.update(null, new User(null, null, null), null))
                 .withMessageContainingAll("id", "null");
-        verifyNoInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
     public void testUpdate_ShouldThrowExceptionIfUpdateNotProvided() {
         assertThatExceptionOfType(IllegalArgumentException.class)
-                .isThrownBy(() -> this.userService.update(UUID.randomUUID(), null))
+                .isThrownBy(() -> this.userService.update(UUID.randomUUID(), null, null))
                 .withMessageContainingAll("data", "null");
-        verifyNoInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
@@ -234,10 +322,10 @@ public class UserServiceTest {
         doReturn(Optional.empty()).when(this.userRepository).findById(id);
 
         assertThatExceptionOfType(UserNotFoundException.class)
-                .isThrownBy(() -> this.userService.update(id, new User(null, null, null)))
+                .isThrownBy(() -> this.userService.update(id, new User(null, null, null), null))
                 .withMessageContainingAll("no", "user", id.toString());
         verify(this.userRepository).findById(id);
-        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
@@ -251,15 +339,37 @@ public class UserServiceTest {
         User existingUser = new User(email, null, null);
         doReturn(Optional.of(existingUser)).when(this.userRepository).findById(id);
 
-        User conflictingUser = new User(newEmail, null, null);
-        doReturn(Optional.of(conflictingUser)).when(this.userRepository).findOneByEmail(newEmail);
+        doThrow(new DataIntegrityViolationException("conflict", new ConstraintViolationException("conflict", null, User.UNIQUE_EMAIL)))
+                .when(this.userRepository).saveAndFlush(any(User.class));
 
         assertThatExceptionOfType(UserAlreadyExistsException.class)
-                .isThrownBy(() -> this.userService.update(id, update))
+                .isThrownBy(() -> this.userService.update(id, update, null))
                 .withMessageContainingAll("user", "exists", newEmail);
         verify(this.userRepository).findById(id);
-        verify(this.userRepository).findOneByEmail(newEmail);
-        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verify(this.authenticatedUserCache).invalidate(email);
+        verify(this.reactiveAuthorityCache).invalidate(email);
+        verify(this.userRepository).saveAndFlush(any(User.class));
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
+    }
+
+    @Test
+    public void testUpdate_ShouldThrowExceptionIfUserIsNotInExpectedVersion() {
+        UUID id = UUID.randomUUID();
+        User existingUser = new User("me@mail.xy", "password", new UserRole("role", Collections.emptySet()));
+        existingUser.setVersion(2L);
+
+        doReturn(Optional.of(existingUser)).when(this.userRepository).findById(id);
+
+        assertThatExceptionOfType(VersionMismatchException.class)
+                .isThrownBy(() -> this.userService.update(id, new User("new@abc.xy", null, null), 1L))
+                .withMessage("user with id '%s' is not in version 1 anymore", id)
+                .withNoCause();
+
+        assertThat(existingUser.getEmail()).isEqualTo("me@mail.xy");
+        assertThat(this.userService.getChangeCount()).isZero();
+
+        verify(this.userRepository).findById(id);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
@@ -281,19 +391,20 @@ public class UserServiceTest {
         doReturn(newPasswordEncoded).when(this.passwordEncoder).encode(newPassword);
 
         doReturn(Optional.of(existingUser)).when(this.userRepository).findById(id);
-        doReturn(Optional.empty()).when(this.userRepository).findOneByEmail(newEmail);
 
-        this.userService.update(id, update);
+        this.userService.update(id, update, null);
 
         verify(this.userRepository).findById(id);
-        verify(this.userRepository).findOneByEmail(newEmail);
         verify(this.passwordEncoder).encode(newPassword);
-        verify(this.userRepository).save(userCaptor.capture());
+        verify(this.authenticatedUserCache).invalidate(email);
+        verify(this.reactiveAuthorityCache).invalidate(email);
+        verify(this.refreshTokenService).revokeAll(id);
+        verify(this.userRepository).saveAndFlush(userCaptor.capture());
         assertThat(userCaptor.getValue()).isSameAs(existingUser);
         assertThat(userCaptor.getValue()).extracting("email").isEqualTo(newEmail);
         assertThat(userCaptor.getValue()).extracting("password").isEqualTo(newPasswordEncoded);
         assertThat(userCaptor.getValue()).extracting("role").isSameAs(existingUserRole);
-        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.refreshTokenService, this.authenticatedUserCache);
     }
 
     @Test
@@ -317,25 +428,26 @@ public class UserServiceTest {
         doReturn(existingUserRole).when(this.userRoleService).get(newUserRoleId);
 
         doReturn(Optional.of(existingUser)).when(this.userRepository).findById(id);
-        doReturn(Optional.empty()).when(this.userRepository).findOneByEmail(newEmail);
 
-        this.userService.update(id, update);
+        this.userService.update(id, update, null);
 
         verify(this.userRepository).findById(id);
-        verify(this.userRepository).findOneByEmail(newEmail);
         verify(this.userRoleService).get(newUserRole.getId());
-        verify(this.userRepository).save(userCaptor.capture());
+        verify(this.authenticatedUserCache).invalidate(email);
+        verify(this.reactiveAuthorityCache).invalidate(email);
+        verify(this.userVersionCache).invalidate(id);
+        verify(this.userRepository).saveAndFlush(userCaptor.capture());
         assertThat(userCaptor.getValue()).isSameAs(existingUser);
         assertThat(userCaptor.getValue()).extracting("email").isEqualTo(newEmail);
         assertThat(userCaptor.getValue()).extracting("password").isEqualTo(password);
         assertThat(userCaptor.getValue()).extracting("role").isSameAs(existingUserRole);
-        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.refreshTokenService, this.authenticatedUserCache);
     }
 
     @Test
     public void testDelete_ShouldDoNothingIfIdNotProvided() {
         this.userService.delete(null);
-        verifyNoInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
@@ -347,7 +459,7 @@ public class UserServiceTest {
         this.userService.delete(id);
 
         verify(this.userRepository).findById(id);
-        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 
     @Test
@@ -360,7 +472,38 @@ public class UserServiceTest {
         this.userService.delete(id);
 
         verify(this.userRepository).findById(id);
+        verify(this.authenticatedUserCache).invalidate("my@mail.xy");
+        verify(this.reactiveAuthorityCache).invalidate("my@mail.xy");
+        verify(this.userVersionCache).invalidate(id);
         verify(this.userRepository).delete(same(existingUser));
-        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldThrowExceptionIfIdsNotProvided() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> this.userService.deleteAll(null))
+                .withMessageContainingAll("ids", "null");
+        verifyNoInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
+    }
+
+    @Test
+    public void testDeleteAll_ShouldInvalidateCachedUsersAndDelete() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+        doReturn(List.of("a@mail.xy", "b@mail.xy")).when(this.userRepository).findEmailsByIdIn(ids);
+        doReturn(2).when(this.userRepository).deleteByIdIn(ids);
+
+        assertThat(this.userService.deleteAll(ids)).isEqualTo(2);
+
+        verify(this.userRepository).findEmailsByIdIn(ids);
+        verify(this.authenticatedUserCache).invalidate("a@mail.xy");
+        verify(this.reactiveAuthorityCache).invalidate("a@mail.xy");
+        verify(this.authenticatedUserCache).invalidate("b@mail.xy");
+        verify(this.reactiveAuthorityCache).invalidate("b@mail.xy");
+        verify(this.userVersionCache).invalidate(ids.get(0));
+        verify(this.userVersionCache).invalidate(ids.get(1));
+        verify(this.userRepository).deleteByIdIn(ids);
+        verifyNoMoreInteractions(this.userRepository, this.userRoleService, this.passwordEncoder, this.authenticatedUserCache);
     }
 }
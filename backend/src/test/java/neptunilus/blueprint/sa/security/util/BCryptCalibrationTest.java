@@ -0,0 +1,44 @@
+package neptunilus.blueprint.sa.security.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class BCryptCalibrationTest {
+
+    @Test
+    public void testStrengthFor_ShouldPickStrongestWithinTarget() {
+        Duration measured = Duration.ofMillis(4);
+
+        assertThat(BCryptCalibration.strengthFor(Duration.ofMillis(250), measured, 6, 4, 31)).isEqualTo(11);
+        assertThat(BCryptCalibration.strengthFor(Duration.ofMillis(256), measured, 6, 4, 31)).isEqualTo(12);
+        assertThat(BCryptCalibration.strengthFor(Duration.ofMillis(1), measured, 6, 4, 31)).isEqualTo(4);
+        assertThat(BCryptCalibration.strengthFor(Duration.ofMillis(4), measured, 6, 4, 31)).isEqualTo(6);
+    }
+
+    @Test
+    public void testStrengthFor_ShouldStayWithinBounds() {
+        Duration measured = Duration.ofMillis(4);
+
+        assertThat(BCryptCalibration.strengthFor(Duration.ofSeconds(100), measured, 6, 10, 14)).isEqualTo(14);
+        assertThat(BCryptCalibration.strengthFor(Duration.ofMillis(1), measured, 6, 10, 14)).isEqualTo(10);
+        assertThat(BCryptCalibration.strengthFor(Duration.ofMillis(250), Duration.ZERO, 6, 10, 14)).isEqualTo(14);
+    }
+
+    @Test
+    public void testStrengthFor_ShouldThrowExceptionIfBoundsInvalid() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> BCryptCalibration.strengthFor(Duration.ofMillis(250), Duration.ofMillis(4), 6, 12, 10));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> BCryptCalibration.strengthFor(Duration.ofMillis(250), Duration.ofMillis(4), 6, 3, 10));
+    }
+
+    @Test
+    public void testCalibrate_ShouldReturnStrengthWithinBounds() {
+        assertThat(BCryptCalibration.calibrate(Duration.ofMillis(10), 4, 8)).isBetween(4, 8);
+    }
+
+}
@@ -0,0 +1,105 @@
+package neptunilus.blueprint.sa.security.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import neptunilus.blueprint.sa.security.authentication.AuthenticatedUser;
+import neptunilus.blueprint.sa.security.model.Authority;
+import neptunilus.blueprint.sa.security.model.User;
+import neptunilus.blueprint.sa.security.model.UserRole;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sign and verify throughput (and allocations per operation) of {@link JwtUtils}
+ * against the former approach of building key and parser on every call.
+ * <p>
+ * Run the main method (e.g. from the IDE) with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private static final String SECRET = "6HNJnu9d0qAAjL9LF2TlZDHzuI0_nYw12vzW-nGCeBsx4YfHbfsljSK2V2-Uz3gKOSBkT9fApfYBlRChW274-bB23OYosptykhuSH-I63Bs";
+    private static final String ISSUER = "myIssuer";
+    private static final long EXPIRATION = 3600;
+
+    private JwtUtils jwtUtils;
+    private AuthenticatedUser authenticatedUser;
+    private String token;
+
+    @Setup
+    public void setup() {
+        UserRole role = new UserRole("myRole", Set.of(Authority.READ_CATEGORY));
+        role.setId(UUID.randomUUID());
+
+        User user = new User("me@mail.xy", "password", role);
+        user.setId(UUID.randomUUID());
+
+        this.authenticatedUser = new AuthenticatedUser(user);
+        this.jwtUtils = new JwtUtils(SECRET, ISSUER, EXPIRATION, false, new SimpleMeterRegistry());
+        this.token = this.jwtUtils.generate(this.authenticatedUser);
+    }
+
+    @Benchmark
+    public String generate() {
+        return this.jwtUtils.generate(this.authenticatedUser);
+    }
+
+    @Benchmark
+    public Jws<Claims> validate() {
+        return this.jwtUtils.validateAndParseClaims(this.token);
+    }
+
+    @Benchmark
+    public String generatePerCallKey() {
+        return Jwts.builder()
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS512)
+                .setHeaderParam("typ", "JWT")
+                .setId(UUID.randomUUID().toString())
+                .setIssuer(ISSUER)
+                .setIssuedAt(convertToDate(LocalDateTime.now()))
+                .setSubject(this.authenticatedUser.getUsername())
+                .setExpiration(convertToDate(LocalDateTime.now().plusSeconds(EXPIRATION)))
+                .addClaims(Map.of("role", this.authenticatedUser.getUser().getRole().getId()))
+                .compact();
+    }
+
+    @Benchmark
+    public Jws<Claims> validatePerCallParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(this.token);
+    }
+
+    private static Date convertToDate(final LocalDateTime localDateTime) {
+        return Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
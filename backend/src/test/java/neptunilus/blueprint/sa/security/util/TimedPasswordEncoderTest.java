@@ -0,0 +1,33 @@
+package neptunilus.blueprint.sa.security.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimedPasswordEncoderTest {
+
+    @Test
+    public void testEncodeAndMatches_ShouldBeTimedPerOperation() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TimedPasswordEncoder passwordEncoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(4), meterRegistry);
+
+        String encoded = passwordEncoder.encode("password");
+
+        assertThat(passwordEncoder.matches("password", encoded)).isTrue();
+        assertThat(passwordEncoder.matches("wrong", encoded)).isFalse();
+        assertThat(meterRegistry.get("security.password.encoding").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("security.password.encoding").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testUpgradeEncoding_ShouldDelegate() {
+        TimedPasswordEncoder passwordEncoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(6), new SimpleMeterRegistry());
+
+        assertThat(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password"))).isFalse();
+    }
+
+}